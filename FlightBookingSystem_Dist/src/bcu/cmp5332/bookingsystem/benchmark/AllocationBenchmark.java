@@ -0,0 +1,122 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.commands.AddCustomer;
+import bcu.cmp5332.bookingsystem.commands.AddFlight;
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.commands.ListBooking;
+import bcu.cmp5332.bookingsystem.commands.ListCustomers;
+import bcu.cmp5332.bookingsystem.commands.ListFlights;
+import bcu.cmp5332.bookingsystem.commands.ShowCustomer;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+/**
+ * The {@code AllocationBenchmark} class reports how many bytes the thread running a command
+ * allocates, on a system with many flights, customers and bookings. The numbers come from the
+ * allocation counter of the HotSpot {@code ThreadMXBean} and cover the command itself; the journal
+ * writes happen on the persistence thread and are not included.
+ *
+ * The add commands are committed in journal mode to {@code ./resources/data/journal.log}, so the
+ * benchmark must be run from an empty scratch directory and refuses to run where data files exist.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.AllocationBenchmark [entities] [runs]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ */
+
+public class AllocationBenchmark {
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        File data = new File("resources/data");
+        if (new File(data, "flights.txt").exists() || new File(data, "flights.bin").exists()) {
+            System.err.println("Data files found in " + data.getAbsolutePath() + "; run from an empty directory.");
+            return;
+        }
+        data.mkdirs();
+        System.setProperty(FlightBookingSystemData.PERSISTENCE_PROPERTY, FlightBookingSystemData.JOURNAL_MODE);
+        System.setProperty("fbs.checkpoint.bytes", String.valueOf(Long.MAX_VALUE));
+        System.setProperty("fbs.checkpoint.seconds", String.valueOf(Integer.MAX_VALUE));
+
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate first = LocalDate.parse("2030-01-01");
+        for (int id = 1; id <= count; id++) {
+            Flight flight = new Flight(id, "FB" + id, "LHR", "KTM", first.plusDays(id % 365), 180, false, 250.0);
+            Customer customer = new Customer(id, "Customer " + id, "07000000000", "customer" + id + "@example.com", false);
+            fbs.addFlight(flight);
+            fbs.addCustomer(customer);
+            fbs.addBooking(new Booking(customer, flight, LocalDate.parse("2024-06-10"), false, Flight.FlightClass.ECONOMY_CLASS));
+        }
+        System.out.printf("%,d flights, customers and bookings; bytes allocated per call%n", count);
+
+        report("getFlights()  ", runs, fbs::getFlights);
+        report("getCustomers()", runs, fbs::getCustomers);
+        report("getBookings() ", runs, fbs::getBookings);
+        report("listflights   ", runs, command(fbs, new ListFlights()));
+        report("listcustomers ", runs, command(fbs, new ListCustomers()));
+        report("listbookings  ", runs, command(fbs, new ListBooking()));
+        report("showcustomer  ", runs, command(fbs, new ShowCustomer(1)));
+        int[] added = new int[1];
+        report("addflight     ", runs, () -> command(fbs, new AddFlight("BM" + ++added[0], "LHR", "KTM", first, 180, 250.0)).run());
+        report("addcustomer   ", runs, command(fbs, new AddCustomer("New Customer", "07000000000", "new@example.com")));
+
+        FlightBookingSystemData.getPersistenceQueue().awaitIdle();
+        new File(data, "journal.log").delete();
+    }
+
+    private static Action command(FlightBookingSystem fbs, Command command) {
+        return () -> {
+            PrintStream out = System.out;
+            System.setOut(DISCARD);
+            try {
+                command.execute(fbs);
+            } finally {
+                System.setOut(out);
+            }
+        };
+    }
+
+    private static void report(String label, int runs, Action action) throws Exception {
+        for (int i = 0; i < runs; i++) {
+            action.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < runs; i++) {
+            action.run();
+        }
+        long bytes = (THREADS.getThreadAllocatedBytes(thread) - before) / runs;
+        System.out.printf("%s %,14d bytes%n", label, bytes);
+    }
+}
@@ -0,0 +1,75 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.JournalDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.data.PersistenceQueue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code CommitBenchmark} class measures journal commit throughput when many threads commit
+ * at once, comparing one forced append per commit with the group commit of {@link PersistenceQueue}.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.CommitBenchmark [threads] [commits per thread]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see PersistenceQueue
+ */
+
+public class CommitBenchmark {
+
+    private interface Committer {
+        void commit(JournalEntry entry) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int commits = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        Path dir = Files.createTempDirectory("fbs-benchmark");
+        try {
+            JournalDataManager direct = new JournalDataManager(dir.resolve("direct.log"));
+            report("forced append per commit", threads, commits, direct::append);
+            direct.close();
+
+            JournalDataManager grouped = new JournalDataManager(dir.resolve("grouped.log"));
+            PersistenceQueue queue = new PersistenceQueue(grouped, 0);
+            report("group commit            ", threads, commits, entry -> queue.submit(entry).get());
+            System.out.printf("average group size %.1f commits%n", (double) queue.getCommitCount() / queue.getFlushCount());
+            grouped.close();
+        } finally {
+            for (Path file : Files.newDirectoryStream(dir)) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static void report(String label, int threads, int commits, Committer committer) throws Exception {
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int first = t * commits;
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    for (int i = 0; i < commits; i++) {
+                        committer.commit(JournalEntry.deleteFlight(first + i));
+                    }
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }, runnable -> new Thread(runnable).start()));
+        }
+        for (CompletableFuture<Void> worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s %,10.0f commits/s%n", label, threads * commits / seconds);
+    }
+}
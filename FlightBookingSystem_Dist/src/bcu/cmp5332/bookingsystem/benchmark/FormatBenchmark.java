@@ -0,0 +1,115 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryCustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryFlightDataManager;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code FormatBenchmark} class compares the size and load time of the text and binary
+ * data files for a generated Flight Booking System, reading the bookings file both through a
+ * stream and through a memory-mapped buffer.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.FormatBenchmark [bookings]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see bcu.cmp5332.bookingsystem.data.DataFormatConverter
+ */
+
+public class FormatBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final String[] AIRPORTS = {
+        "Kathmandu", "Pokhara", "Biratnagar", "Bhairahawa", "Nepalgunj", "Dhangadhi", "Bharatpur", "Janakpur"
+    };
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Path dir = Files.createTempDirectory("fbs-benchmark");
+        try {
+            FlightBookingSystem fbs = generate(2_000, 20_000, bookings);
+            List<DataManager> text = Arrays.asList(
+                    new FlightDataManager(dir.resolve("flights.txt").toString()),
+                    new CustomerDataManager(dir.resolve("customers.txt").toString()),
+                    new BookingDataManager(dir.resolve("bookings.txt").toString()));
+            List<DataManager> binary = Arrays.asList(
+                    new BinaryFlightDataManager(dir.resolve("flights.bin").toString()),
+                    new BinaryCustomerDataManager(dir.resolve("customers.bin").toString()),
+                    new BinaryBookingDataManager(dir.resolve("bookings.bin").toString()));
+            for (DataManager dm : text) {
+                dm.storeData(fbs);
+            }
+            for (DataManager dm : binary) {
+                dm.storeData(fbs);
+            }
+
+            System.out.printf("%,d bookings, best of %d rounds%n", bookings, ROUNDS);
+            for (String name : new String[] {"flights", "customers", "bookings"}) {
+                System.out.printf("%-10s text %,12d bytes   binary %,12d bytes%n", name,
+                        Files.size(dir.resolve(name + ".txt")), Files.size(dir.resolve(name + ".bin")));
+            }
+            System.out.printf("load       text %9.1f ms      binary %9.1f ms%n", time(text), time(binary));
+
+            System.setProperty(BookingDataManager.READ_PROPERTY, BookingDataManager.MAPPED_READ);
+            List<DataManager> mappedText = Arrays.asList(text.get(0), text.get(1),
+                    new BookingDataManager(dir.resolve("bookings.txt").toString()));
+            List<DataManager> mappedBinary = Arrays.asList(binary.get(0), binary.get(1),
+                    new BinaryBookingDataManager(dir.resolve("bookings.bin").toString()));
+            System.out.printf("mapped     text %9.1f ms      binary %9.1f ms%n", time(mappedText), time(mappedBinary));
+        } finally {
+            for (Path file : Files.newDirectoryStream(dir)) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static FlightBookingSystem generate(int flights, int customers, int bookings) throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate date = LocalDate.of(2024, 6, 1);
+        for (int i = 1; i <= flights; i++) {
+            fbs.addFlight(new Flight(i, "KPL" + i, AIRPORTS[i % AIRPORTS.length], AIRPORTS[(i + 3) % AIRPORTS.length],
+                    date.plusDays(i % 365), 500, false, 5000 + i % 1000));
+        }
+        for (int i = 1; i <= customers; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "98" + (10000000 + i), "customer" + i + "@example.com", false));
+        }
+        Flight.FlightClass[] classes = Flight.FlightClass.values();
+        for (int i = 0; i < bookings; i++) {
+            fbs.addBooking(new Booking(fbs.getCustomerByID(i % customers + 1), fbs.getFlightByID(i % flights + 1),
+                    date.plusDays(i % 30), false, classes[i % classes.length]));
+        }
+        return fbs;
+    }
+
+    private static double time(List<DataManager> dataManagers) throws IOException, FlightBookingSystemException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            FlightBookingSystem fbs = new FlightBookingSystem();
+            long start = System.nanoTime();
+            for (DataManager dm : dataManagers) {
+                dm.loadData(fbs);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
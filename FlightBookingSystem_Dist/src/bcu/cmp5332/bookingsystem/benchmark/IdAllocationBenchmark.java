@@ -0,0 +1,107 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.SharedIdBlockSource;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code IdAllocationBenchmark} class measures how fast several threads can allocate booking
+ * IDs at the same time, comparing the block allocator of the Flight Booking System with a counter
+ * guarded by a lock and with a single shared atomic counter, and checks that no ID is handed out
+ * twice.
+ *
+ * When the {@value FlightBookingSystemData#SHARED_BOOKING_IDS_PROPERTY} system property is set,
+ * the blocks are reserved from that counter file, and several copies of the benchmark can be run
+ * at once against the same file.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.IdAllocationBenchmark [threads] [ids per thread] [block size]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#getNewBookingId()
+ */
+
+public class IdAllocationBenchmark {
+
+    private interface Allocator {
+        int next() throws Exception;
+    }
+
+    private static int lockedLast;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : FlightBookingSystem.DEFAULT_BOOKING_ID_BLOCK;
+
+        Object lock = new Object();
+        IdSequence atomic = new IdSequence();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        String shared = System.getProperty(FlightBookingSystemData.SHARED_BOOKING_IDS_PROPERTY);
+        IdSequence bookingIds = fbs.getIdSequences().get(FlightBookingSystem.EntitySet.BOOKINGS);
+        fbs.setBookingIdSource(shared == null ? null : new SharedIdBlockSource(shared, bookingIds), blockSize);
+
+        System.out.printf("%d threads, %,d IDs each, blocks of %d%s%n", threads, perThread, blockSize,
+                shared == null ? "" : " from " + shared);
+        for (int round = 0; round < 2; round++) {
+            lockedLast = 0;
+            run("locked counter", threads, perThread, () -> {
+                synchronized (lock) {
+                    return ++lockedLast;
+                }
+            });
+            run("atomic counter", threads, perThread, atomic::next);
+            run("id blocks     ", threads, perThread, fbs::getNewBookingId);
+        }
+    }
+
+    private static void run(String label, int threads, int perThread, Allocator allocator) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<int[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    int[] ids = new int[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = allocator.next();
+                    }
+                    return ids;
+                });
+            }
+            long start = System.nanoTime();
+            List<Future<int[]>> results = pool.invokeAll(tasks);
+            long nanos = System.nanoTime() - start;
+
+            BitSet seen = new BitSet();
+            long duplicates = 0;
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (Future<int[]> result : results) {
+                for (int id : result.get()) {
+                    if (seen.get(id)) {
+                        duplicates++;
+                    }
+                    seen.set(id);
+                    min = Math.min(min, id);
+                    max = Math.max(max, id);
+                }
+            }
+            long total = (long) threads * perThread;
+            System.out.printf("%s %8.0f ms %,14.0f IDs/s  duplicates %d  range %,d-%,d%n",
+                    label, nanos / 1e6, total / (nanos / 1e9), duplicates, min, max);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.ScheduleImporter;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * The {@code ImportBenchmark} class measures how fast a season schedule is imported from a CSV
+ * file by the {@link ScheduleImporter}. The schedule has daily flights for a year, with one row in
+ * a thousand invalid and one in a thousand a duplicate, so the rejected rows are exercised too.
+ * Commits are deferred, so only reading, validating and adding the flights is timed.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.ImportBenchmark [rows] [batch size]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see ScheduleImporter
+ */
+
+public class ImportBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : ScheduleImporter.DEFAULT_BATCH_SIZE;
+
+        Path csv = Files.createTempFile("schedule", ".csv");
+        try {
+            writeSchedule(csv, count);
+            System.out.printf("schedule of %,d rows, %,d bytes%n", count, Files.size(csv));
+
+            FlightBookingSystemData.setDeferred(true);
+            for (int round = 0; round < ROUNDS; round++) {
+                FlightBookingSystem fbs = new FlightBookingSystem();
+                ScheduleImporter importer = new ScheduleImporter(fbs, batchSize);
+                System.gc();
+                long start = System.nanoTime();
+                try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                    importer.importSchedule(in, new StringWriter());
+                }
+                long nanos = System.nanoTime() - start;
+                System.out.printf("round %d: %,d imported, %,d rejected in %6.0f ms: %,12.0f rows/s%n",
+                        round + 1, importer.getImported(), importer.getRejected(), nanos / 1e6, count / (nanos / 1e9));
+            }
+        } finally {
+            Files.delete(csv);
+        }
+    }
+
+    private static void writeSchedule(Path csv, int count) throws Exception {
+        LocalDate first = LocalDate.parse("2030-01-01");
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("flight_number,origin,destination,departure_date,capacity,price\n");
+            for (int i = 0; i < count; i++) {
+                if (i % 1000 == 999) {
+                    out.write("FB" + (i / 365) + ",LHR,KTM,2030-02-30,180,250.0\n");
+                } else {
+                    // a row in a thousand repeats the one before it
+                    int day = i % 1000 == 500 ? i - 1 : i;
+                    out.write("FB" + (day / 365) + ",LHR,KTM," + first.plusDays(day % 365) + ",180,250.0\n");
+                }
+            }
+        }
+    }
+}
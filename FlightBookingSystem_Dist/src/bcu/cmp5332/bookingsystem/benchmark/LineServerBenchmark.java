@@ -0,0 +1,125 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.server.LineServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The {@code LineServerBenchmark} class is a load-test client for a running {@link LineServer}.
+ * It opens many connections at once and keeps them all open, then in every round sends one
+ * command on each connection before reading any answer, so the server has a command from every
+ * connection in flight at the same time. It reports how long the connections took to open, the
+ * commands per second, and the median, 99th percentile and worst time to an answer.
+ *
+ * The commands cycle through showing a flight, booking a customer on it in economy class and
+ * cancelling the booking again, for customers and flights picked at random from IDs 1 to the
+ * given counts. Bookings that collide with another connection are answered with an error, which
+ * still counts as an answer.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.LineServerBenchmark [host] [port] [connections] [rounds] [customers] [flights]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see LineServer
+ */
+
+public class LineServerBenchmark {
+
+    private static final byte[] PROMPT = "\n> ".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : LineServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int customers = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        int flights = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+
+        SocketChannel[] channels = new SocketChannel[connections];
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            channels[i] = SocketChannel.open(new InetSocketAddress(host, port));
+            readAnswer(channels[i], buffer);
+        }
+        System.out.printf("%,d connections opened in %.0f ms%n", connections, (System.nanoTime() - start) / 1e6);
+
+        Random random = new Random(42);
+        long[] latencies = new long[connections * rounds];
+        int[] customerIds = new int[connections];
+        int[] flightIds = new int[connections];
+        long[] sent = new long[connections];
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < connections; i++) {
+                String command;
+                switch (round % 3) {
+                    case 0:
+                        customerIds[i] = 1 + random.nextInt(customers);
+                        flightIds[i] = 1 + random.nextInt(flights);
+                        command = "showflight " + flightIds[i];
+                        break;
+                    case 1:
+                        command = "addbooking " + customerIds[i] + " " + flightIds[i] + " ECONOMY_CLASS";
+                        break;
+                    default:
+                        command = "cancelbooking " + customerIds[i] + " " + flightIds[i];
+                }
+                sent[i] = System.nanoTime();
+                ByteBuffer line = ByteBuffer.wrap((command + "\n").getBytes(StandardCharsets.UTF_8));
+                while (line.hasRemaining()) {
+                    channels[i].write(line);
+                }
+            }
+            // the answers of connections read later wait in their socket, so this measures the
+            // time until an answer is read rather than until it is sent
+            for (int i = 0; i < connections; i++) {
+                readAnswer(channels[i], buffer);
+                latencies[round * connections + i] = System.nanoTime() - sent[i];
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+
+        Arrays.sort(latencies);
+        int count = latencies.length;
+        System.out.printf("%,d commands on %,d connections in %.0f ms: %,.0f commands/s%n",
+                count, connections, nanos / 1e6, count / (nanos / 1e9));
+        System.out.printf("time to answer: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latencies[count / 2] / 1e6, latencies[Math.min(count - 1, (int) Math.ceil(0.99 * count) - 1)] / 1e6,
+                latencies[count - 1] / 1e6);
+    }
+
+    // reads until the answer ends with the prompt
+    private static void readAnswer(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (!endsWithPrompt(buffer)) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("The server closed the connection.");
+            }
+        }
+    }
+
+    private static boolean endsWithPrompt(ByteBuffer buffer) {
+        int end = buffer.position();
+        if (end < PROMPT.length) {
+            return false;
+        }
+        for (int i = 0; i < PROMPT.length; i++) {
+            if (buffer.get(end - PROMPT.length + i) != PROMPT[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
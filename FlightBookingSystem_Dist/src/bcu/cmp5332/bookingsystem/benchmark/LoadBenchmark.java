@@ -0,0 +1,169 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.data.FieldTokenizer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * The {@code LoadBenchmark} class measures how long it takes to parse large flight and
+ * booking data files, comparing the former {@code String.split} based parsing with the
+ * {@link FieldTokenizer} used by the data managers.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.LoadBenchmark [rows]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FieldTokenizer
+ */
+
+public class LoadBenchmark {
+
+    private static final String SEPARATOR = "::";
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("fbs-benchmark");
+        Path flights = dir.resolve("flights.txt");
+        Path bookings = dir.resolve("bookings.txt");
+        try {
+            writeFlights(flights, rows);
+            writeBookings(bookings, rows);
+
+            System.out.printf("%,d rows per file, best of %d rounds%n", rows, ROUNDS);
+            report("flights  split    ", flights, LoadBenchmark::splitFlights);
+            report("flights  tokenizer", flights, LoadBenchmark::tokenizeFlights);
+            report("bookings split    ", bookings, LoadBenchmark::splitBookings);
+            report("bookings tokenizer", bookings, LoadBenchmark::tokenizeBookings);
+        } finally {
+            Files.deleteIfExists(flights);
+            Files.deleteIfExists(bookings);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private interface Parser {
+        long parse(Path file) throws IOException;
+    }
+
+    private static void report(String label, Path file, Parser parser) throws IOException {
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum = parser.parse(file);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s %8.1f ms  (checksum %d)%n", label, best / 1e6, checksum);
+    }
+
+    private static void writeFlights(Path file, int rows) throws IOException {
+        LocalDate date = LocalDate.of(2024, 6, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= rows; i++) {
+                out.write(i + SEPARATOR + "KPL" + (1000 + i % 9000) + SEPARATOR + "Kathmandu" + SEPARATOR
+                        + "Pokhara" + SEPARATOR + date.plusDays(i % 365) + SEPARATOR + (50 + i % 250)
+                        + SEPARATOR + (i % 20 == 0) + SEPARATOR + (5000 + i % 1000) + ".0" + SEPARATOR);
+                out.newLine();
+            }
+        }
+    }
+
+    private static void writeBookings(Path file, int rows) throws IOException {
+        LocalDate date = LocalDate.of(2024, 6, 1);
+        Flight.FlightClass[] classes = Flight.FlightClass.values();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= rows; i++) {
+                out.write((i % 5000 + 1) + SEPARATOR + (i % 2000 + 1) + SEPARATOR + date.plusDays(i % 365)
+                        + SEPARATOR + classes[i % classes.length] + SEPARATOR + (i % 10 == 0) + SEPARATOR);
+                out.newLine();
+            }
+        }
+    }
+
+    private static long splitFlights(Path file) throws IOException {
+        long checksum = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] data = line.split(SEPARATOR, -1);
+                int id = Integer.parseInt(data[0]);
+                String flightNumber = data[1];
+                String origin = data[2];
+                String destination = data[3];
+                LocalDate departureDate = LocalDate.parse(data[4]);
+                int capacity = Integer.parseInt(data[5]);
+                boolean deleted = Boolean.parseBoolean(data[6]);
+                double price = Double.parseDouble(data[7]);
+                checksum += id + flightNumber.length() + origin.length() + destination.length()
+                        + departureDate.getDayOfYear() + capacity + (deleted ? 1 : 0) + (long) price;
+            }
+        }
+        return checksum;
+    }
+
+    private static long tokenizeFlights(Path file) throws IOException {
+        long checksum = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            FieldTokenizer fields = new FieldTokenizer(in);
+            while (fields.nextRecord()) {
+                int id = fields.nextInt();
+                String flightNumber = fields.nextString();
+                String origin = fields.nextString();
+                String destination = fields.nextString();
+                LocalDate departureDate = fields.nextDate();
+                int capacity = fields.nextInt();
+                boolean deleted = fields.nextBoolean();
+                double price = fields.nextDouble();
+                checksum += id + flightNumber.length() + origin.length() + destination.length()
+                        + departureDate.getDayOfYear() + capacity + (deleted ? 1 : 0) + (long) price;
+            }
+        }
+        return checksum;
+    }
+
+    private static long splitBookings(Path file) throws IOException {
+        long checksum = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] data = line.split(SEPARATOR, -1);
+                int customerId = Integer.parseInt(data[0]);
+                int flightId = Integer.parseInt(data[1]);
+                LocalDate bookingDate = LocalDate.parse(data[2]);
+                Flight.FlightClass flightClass = Flight.FlightClass.valueOf(data[3]);
+                boolean deleted = Boolean.parseBoolean(data[4]);
+                checksum += customerId + flightId + bookingDate.getDayOfYear() + flightClass.ordinal()
+                        + (deleted ? 1 : 0);
+            }
+        }
+        return checksum;
+    }
+
+    private static long tokenizeBookings(Path file) throws IOException {
+        long checksum = 0;
+        Flight.FlightClass[] classes = Flight.FlightClass.values();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            FieldTokenizer fields = new FieldTokenizer(in);
+            while (fields.nextRecord()) {
+                int customerId = fields.nextInt();
+                int flightId = fields.nextInt();
+                LocalDate bookingDate = fields.nextDate();
+                Flight.FlightClass flightClass = fields.nextEnum(classes);
+                boolean deleted = fields.nextBoolean();
+                checksum += customerId + flightId + bookingDate.getDayOfYear() + flightClass.ordinal()
+                        + (deleted ? 1 : 0);
+            }
+        }
+        return checksum;
+    }
+}
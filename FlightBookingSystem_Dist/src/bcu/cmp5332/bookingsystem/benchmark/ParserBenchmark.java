@@ -0,0 +1,50 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.main.CommandParser;
+
+/**
+ * The {@code ParserBenchmark} class measures how many command lines per second the
+ * {@link CommandParser} parses, as when a script of commands is run in a batch. The lines are a
+ * mix of the commands such a script is made of, all given with their arguments inline.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.ParserBenchmark [lines per round]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see CommandParser
+ */
+
+public class ParserBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final String[] LINES = {
+        "showflight 5",
+        "addbooking 3 17 FIRST_CLASS",
+        "cancelbooking 3 17",
+        "showcustomer 1204",
+        "addbooking 1204 98 economy_class",
+        "editbooking 1204 98 2024-08-01 BUSINESS_CLASS",
+        "searchflights KTM QTR 2024-06-01 2024-07-01",
+        "listflights",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            // keeps the commands from being optimised away
+            int check = 0;
+            for (int i = 0; i < count; i++) {
+                Command command = CommandParser.parse(LINES[i % LINES.length]);
+                check += command.getClass().hashCode();
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("round %d: %,d lines in %6.0f ms: %,12.0f lines/s (%d)%n",
+                    round + 1, count, nanos / 1e6, count / (nanos / 1e9), check);
+        }
+    }
+}
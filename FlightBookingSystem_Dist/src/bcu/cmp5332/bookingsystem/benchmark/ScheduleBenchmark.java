@@ -0,0 +1,75 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ScheduleBenchmark} class measures how long it takes to load a season schedule into
+ * the Flight Booking System, one flight at a time and as a single bulk import. For reference it
+ * also times the duplicate check that compared each new flight with every existing one, on a
+ * smaller schedule since that check grows quadratically.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.ScheduleBenchmark [flights] [scanned flights]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#addFlights(java.util.Collection)
+ */
+
+public class ScheduleBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int scanned = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        List<Flight> season = schedule(count);
+        long start = System.nanoTime();
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (Flight flight : season) {
+            fbs.addFlight(flight);
+        }
+        System.out.printf("addFlight  %,9d flights %8.0f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        season = schedule(count);
+        System.gc();
+        start = System.nanoTime();
+        new FlightBookingSystem().addFlights(season);
+        System.out.printf("addFlights %,9d flights %8.0f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        List<Flight> small = schedule(scanned);
+        start = System.nanoTime();
+        List<Flight> loaded = new ArrayList<>();
+        for (Flight flight : small) {
+            for (Flight existing : loaded) {
+                if (existing.getFlightNumber().equals(flight.getFlightNumber())
+                    && existing.getDepartureDate().isEqual(flight.getDepartureDate())) {
+                    throw new IllegalStateException("Duplicate flight " + flight.getFlightNumber());
+                }
+            }
+            loaded.add(flight);
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        double projected = millis * ((double) count / scanned) * ((double) count / scanned);
+        System.out.printf("full scan  %,9d flights %8.0f ms (about %.0f s for %,d flights)%n",
+                scanned, millis, projected / 1000, count);
+    }
+
+    /**
+     * Builds a schedule of daily flights: each flight number flies once a day for a year.
+     */
+    private static List<Flight> schedule(int count) {
+        List<Flight> flights = new ArrayList<>(count);
+        LocalDate first = LocalDate.parse("2025-01-01");
+        for (int i = 0; i < count; i++) {
+            String flightNumber = "FB" + (i / 365);
+            flights.add(new Flight(i + 1, flightNumber, "LHR", "KTM", first.plusDays(i % 365), 180, false, 250.0));
+        }
+        return flights;
+    }
+}
@@ -0,0 +1,99 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The {@code SearchBenchmark} class measures route searches and departure-date window queries over
+ * a large schedule, comparing the route and departure indexes of the Flight Booking System with
+ * filtering the result of {@code getFlights()}.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.SearchBenchmark [flights] [searches]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#searchFlights(String, String, LocalDate, LocalDate)
+ */
+
+public class SearchBenchmark {
+
+    private static final String[] AIRPORTS = {"KTM", "PKR", "QTR", "LHR", "BHX", "DXB", "DEL", "BKK", "SIN", "HKG", "JFK", "CDG"};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        LocalDate first = LocalDate.parse("2025-01-01");
+        List<Flight> schedule = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String origin = AIRPORTS[i % AIRPORTS.length];
+            String destination = AIRPORTS[(i / AIRPORTS.length + 1 + i) % AIRPORTS.length];
+            schedule.add(new Flight(i + 1, "FB" + (i / 365), origin, destination, first.plusDays(i % 365), 180, false, 250.0));
+        }
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlights(schedule);
+
+        Random random = new Random(42);
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            String origin = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            String destination = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            LocalDate from = first.plusDays(random.nextInt(330));
+            found += fbs.searchFlights(origin, destination, from, from.plusDays(30)).size();
+        }
+        report("route index", searches, found, System.nanoTime() - start);
+
+        random = new Random(42);
+        found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            String origin = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            String destination = AIRPORTS[random.nextInt(AIRPORTS.length)];
+            LocalDate from = first.plusDays(random.nextInt(330));
+            LocalDate to = from.plusDays(30);
+            for (Flight flight : fbs.getFlights()) {
+                if (flight.getOrigin().equals(origin) && flight.getDestination().equals(destination)
+                        && !flight.getDepartureDate().isBefore(from) && !flight.getDepartureDate().isAfter(to)) {
+                    found++;
+                }
+            }
+        }
+        report("full scan  ", searches, found, System.nanoTime() - start);
+
+        random = new Random(42);
+        found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            LocalDate from = first.plusDays(random.nextInt(358));
+            found += fbs.getFlightsDepartingBetween(from, from.plusDays(7)).count();
+        }
+        report("date index ", searches, found, System.nanoTime() - start);
+
+        random = new Random(42);
+        found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            LocalDate from = first.plusDays(random.nextInt(358));
+            LocalDate to = from.plusDays(7);
+            for (Flight flight : fbs.getFlights()) {
+                if (!flight.getDepartureDate().isBefore(from) && !flight.getDepartureDate().isAfter(to)) {
+                    found++;
+                }
+            }
+        }
+        report("date scan  ", searches, found, System.nanoTime() - start);
+    }
+
+    private static void report(String label, int searches, long found, long nanos) {
+        System.out.printf("%s %,7d searches %8.0f ms %,12.0f searches/s (%,d flights found)%n",
+                label, searches, nanos / 1e6, searches / (nanos / 1e9), found);
+    }
+}
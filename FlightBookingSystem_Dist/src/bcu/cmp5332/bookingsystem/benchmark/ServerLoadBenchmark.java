@@ -0,0 +1,147 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.server.BookingServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code ServerLoadBenchmark} class is a load-test client for a running {@link BookingServer}.
+ * Each client thread repeatedly searches a route, shows a flight, books a customer on it and cancels
+ * the booking again, and the client reports the requests per second and the median, 99th percentile
+ * and worst latency of each kind of request.
+ *
+ * The customers and flights are picked at random from IDs 1 to the given counts, which by default
+ * match the sample data files. Bookings are cancelled right after they are made, so the data is
+ * left as it was, apart from the cancelled bookings. Bookings on flights that have departed cannot
+ * be cancelled, so the flights should depart in the future.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.ServerLoadBenchmark [url] [threads] [rounds per thread] [customers] [flights] [origin] [destination]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see BookingServer
+ */
+
+public class ServerLoadBenchmark {
+
+    private static final String[] KINDS = {"search", "show", "book", "cancel"};
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:" + BookingServer.DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 250;
+        int customers = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int flights = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+        String origin = args.length > 5 ? args[5] : "KTM";
+        String destination = args.length > 6 ? args[6] : "QTR";
+
+        System.out.printf("%s: %d threads, %d rounds of %d requests each%n", url, threads, rounds, KINDS.length);
+        // one round to warm up the server and check that it answers
+        run(url, 1, 1, customers, flights, origin, destination);
+        long start = System.nanoTime();
+        List<long[][]> results = run(url, threads, rounds, customers, flights, origin, destination);
+        long nanos = System.nanoTime() - start;
+
+        long failed = 0;
+        long total = 0;
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "request", "count", "p50 ms", "p99 ms", "max ms");
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            long[] latencies = new long[threads * rounds];
+            int count = 0;
+            for (long[][] result : results) {
+                for (int i = 0; i < rounds; i++) {
+                    long latency = result[kind][i];
+                    if (latency < 0) {
+                        failed++;
+                        latency = -latency;
+                    }
+                    latencies[count++] = latency;
+                }
+            }
+            Arrays.sort(latencies, 0, count);
+            total += count;
+            System.out.printf("%-8s %10d %10.2f %10.2f %10.2f%n", KINDS[kind], count,
+                    percentile(latencies, count, 0.50) / 1e6, percentile(latencies, count, 0.99) / 1e6,
+                    latencies[count - 1] / 1e6);
+        }
+        System.out.printf("%,d requests in %.0f ms: %,.0f requests/s, %d answered with an error%n",
+                total, nanos / 1e6, total / (nanos / 1e9), failed);
+    }
+
+    // latencies[kind][round] in nanoseconds, negative for a request answered with an error status
+    private static List<long[][]> run(String url, int threads, int rounds, int customers, int flights,
+            String origin, String destination) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<long[][]>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                tasks.add(() -> {
+                    Random random = new Random(seed);
+                    long[][] latencies = new long[KINDS.length][rounds];
+                    for (int i = 0; i < rounds; i++) {
+                        int customerId = 1 + random.nextInt(customers);
+                        int flightId = 1 + random.nextInt(flights);
+                        latencies[0][i] = request(url + "/api/flights/search?origin=" + origin + "&destination=" + destination, "GET", null);
+                        latencies[1][i] = request(url + "/api/flights/" + flightId, "GET", null);
+                        latencies[2][i] = request(url + "/api/bookings", "POST",
+                                "{\"customerId\": " + customerId + ", \"flightId\": " + flightId + "}");
+                        latencies[3][i] = request(url + "/api/bookings/" + customerId + "/" + flightId, "DELETE", null);
+                    }
+                    return latencies;
+                });
+            }
+            List<long[][]> results = new ArrayList<>();
+            for (Future<long[][]> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long request(String url, String method, String body) throws IOException {
+        long start = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        // read the whole answer so the connection can be reused
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            ByteArrayOutputStream ignored = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read; in != null && (read = in.read(buffer)) > 0; ) {
+                ignored.write(buffer, 0, read);
+            }
+        }
+        long latency = System.nanoTime() - start;
+        return status == 200 ? latency : -latency;
+    }
+
+    private static long percentile(long[] sorted, int count, double fraction) {
+        return sorted[Math.min(count - 1, (int) Math.ceil(fraction * count) - 1)];
+    }
+}
@@ -0,0 +1,101 @@
+package bcu.cmp5332.bookingsystem.benchmark;
+
+import bcu.cmp5332.bookingsystem.commands.ShowFlight;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The {@code ShowFlightBenchmark} class measures how long the passenger manifest of a full flight
+ * takes to build when there are many customers. It compares the per-passenger booking lookup
+ * done by scanning every customer with the indexed lookup used by the {@code showflight} command.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.benchmark.ShowFlightBenchmark [customers] [seats]}
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see ShowFlight
+ */
+
+public class ShowFlightBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight flight = new Flight(1, "BM600", "London", "Kathmandu", LocalDate.parse("2030-01-01"), seats, false, 500.0);
+        fbs.addFlight(flight);
+        for (int id = 1; id <= customerCount; id++) {
+            fbs.addCustomer(new Customer(id, "Customer " + id, "07000000000", "customer" + id + "@example.com", false));
+        }
+        int step = Math.max(1, customerCount / seats);
+        for (int i = 0; i < seats && i * step < customerCount; i++) {
+            Customer customer = fbs.getCustomerByID(i * step + 1);
+            fbs.addBooking(new Booking(customer, flight, LocalDate.parse("2024-06-10"), false, Flight.FlightClass.ECONOMY_CLASS));
+        }
+        System.out.printf("%,d customers, %d passengers%n", customerCount, flight.getPassengers().size());
+
+        PrintStream out = System.out;
+        PrintStream discard = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+
+        List<Customer> customers = fbs.getCustomers();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (Customer passenger : flight.getPassengers()) {
+                if (scan(customers, passenger, flight) != null) {
+                    found++;
+                }
+            }
+            long scanned = System.nanoTime() - start;
+
+            System.setOut(discard);
+            start = System.nanoTime();
+            try {
+                new ShowFlight(flight.getId()).execute(fbs);
+            } finally {
+                System.setOut(out);
+            }
+            long indexed = System.nanoTime() - start;
+
+            System.out.printf("round %d: customer scan %8.1f ms (%d found), showflight %6.2f ms%n",
+                    round + 1, scanned / 1e6, found, indexed / 1e6);
+        }
+    }
+
+    /**
+     * The lookup {@code showflight} used before bookings were indexed: every customer is
+     * visited until the passenger is found, then their bookings are searched for the flight.
+     */
+    private static Booking scan(List<Customer> customers, Customer customer, Flight flight) {
+        for (Customer c : customers) {
+            if (c.equals(customer)) {
+                for (Booking booking : c.getBookings()) {
+                    if (booking.getFlight().equals(flight)) {
+                        return booking;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,15 +1,20 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.main.BookingConflictException;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 
 
 /**
@@ -17,6 +22,10 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
  * It implements the {@code Command} interface within the Flight Booking System.
  * The booking includes customer ID, flight ID, booking date, and flight class.
  * 
+ * Only the flight and customer of the booking are locked, so bookings on other flights can be
+ * added at the same time, while the seat check and the booking itself cannot be interleaved with
+ * another booking on the same flight.
+ * 
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -53,17 +62,21 @@ public class AddBooking implements Command {
      * Executes the command by adding a booking for the specified customer on the specified flight.
      *
      * @param flightBookingSystem The flight booking system.
-     * @throws FlightBookingSystemException If an error occurs during booking.
+     * @param out The stream the command prints to.
+     * @throws FlightBookingSystemException If an error occurs during booking, or the flight is not found
+     *                                      or fully booked.
      */
 
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
     	if (flightClass == null) {
             throw new FlightBookingSystemException("Flight class cannot be null.");
         }
     	
-        try {
+        CompletableFuture<Void> durable;
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBooking(customerId, flightId)) {
             Customer customer = flightBookingSystem.getCustomerByID(customerId);
             Flight flight = flightBookingSystem.getFlightByID(flightId);
 
@@ -75,22 +88,17 @@ public class AddBooking implements Command {
                 throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
             }
 
-            if (flight.isDeleted()) {
-                System.out.println("Flight " + flightId + " is deleted. Booking not allowed.");
-                return;
-            }
-
-            if (flight.isFullyBooked() || flight.getPassengers().size() >= flight.getCapacity()) {
-                System.out.println("Flight " + flightId + " is fully booked or at full capacity. Booking not allowed.");
-                return;
-            }
-
             Booking booking = new Booking(customer, flight, bookingDate, false, flightClass);
-            flightBookingSystem.addBooking(booking);
-            System.out.println("Booking for customer " + customer.getName() + " on flight " + flight.getFlightNumber() + " in class " + flightClass + " added.");
-
-            FlightBookingSystemData.store(flightBookingSystem);
+            if (!flightBookingSystem.addBookingIfSeatAvailable(booking)) {
+                throw new BookingConflictException("Flight " + flightId + " is fully booked or at full capacity. Booking not allowed.");
+            }
+            out.println("Booking for customer " + customer.getName() + " on flight " + flight.getFlightNumber() + " in class " + flightClass + " added.");
 
+            // queued under the locks so the journal keeps the order of changes to this flight
+            durable = FlightBookingSystemData.commitAsync(flightBookingSystem, JournalEntry.addBooking(booking));
+        }
+        try {
+            FlightBookingSystemData.await(durable);
         } catch (IOException ex) {
             throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
         }
@@ -0,0 +1,124 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
+
+
+/**
+ * The {@code AddBookings} class books a group of customers, such as a tour party or a team
+ * travelling together, on one or more flights at once. Every customer is booked on every flight,
+ * all in the same class.
+ *
+ * The group is booked all or nothing: if any customer or flight is not found, any customer is
+ * already booked on one of the flights, or any flight has too few free seats for the whole group,
+ * no booking is added. The free seats of each flight are checked once for the whole group, and
+ * the group is recorded as a single change, so it is stored in one write.
+ *
+ * Every customer and flight of the group is locked, in a fixed order, so groups and single
+ * bookings on other flights can be added at the same time.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-15
+ * @see Command
+ * @see FlightBookingSystem#addBookingGroup(List)
+ */
+
+public class AddBookings implements Command {
+
+    private final int[] customerIds;
+    private final int[] flightIds;
+    private final LocalDate bookingDate;
+    private final FlightClass flightClass;
+
+
+    /**
+     * Constructs an {@code AddBookings} command booking each of the given customers on each of the given flights.
+     *
+     * @param customerIds  IDs of the customers of the group.
+     * @param flightIds    IDs of the flights.
+     * @param bookingDate  The booking date.
+     * @param flightClass  The class of all of the bookings.
+     */
+
+    public AddBookings(int[] customerIds, int[] flightIds, LocalDate bookingDate, FlightClass flightClass) {
+        this.customerIds = customerIds.clone();
+        this.flightIds = flightIds.clone();
+        this.bookingDate = bookingDate;
+        this.flightClass = flightClass;
+    }
+
+
+    /**
+     * Executes the command by booking every customer of the group on every flight, or none of them.
+     *
+     * @param flightBookingSystem The flight booking system.
+     * @param out The stream the command prints to.
+     * @throws FlightBookingSystemException If the group cannot be booked as a whole, or an error occurs during booking.
+     */
+
+
+    @Override
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        if (flightClass == null) {
+            throw new FlightBookingSystemException("Flight class cannot be null.");
+        }
+        if (customerIds.length == 0 || flightIds.length == 0) {
+            throw new FlightBookingSystemException("A group booking needs at least one customer and one flight.");
+        }
+
+        CompletableFuture<Void> durable;
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBookings(customerIds, flightIds)) {
+            List<Customer> customers = new ArrayList<>(customerIds.length);
+            for (int customerId : customerIds) {
+                Customer customer = flightBookingSystem.getCustomerByID(customerId);
+                if (customer == null) {
+                    throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
+                }
+                customers.add(customer);
+            }
+
+            List<Booking> group = new ArrayList<>(customerIds.length * flightIds.length);
+            for (int flightId : flightIds) {
+                Flight flight = flightBookingSystem.getFlightByID(flightId);
+                if (flight == null) {
+                    throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
+                }
+                if (flight.isDeleted()) {
+                    throw new FlightBookingSystemException("Flight " + flightId + " is deleted. No bookings were added.");
+                }
+                for (Customer customer : customers) {
+                    group.add(new Booking(customer, flight, bookingDate, false, flightClass));
+                }
+            }
+
+            flightBookingSystem.addBookingGroup(group);
+            out.println(group.size() + " bookings for " + customers.size() + " customers on "
+                    + flightIds.length + " flights in class " + flightClass + " added.");
+
+            // queued under the locks so the journal keeps the order of changes to these flights
+            durable = FlightBookingSystemData.commitAsync(flightBookingSystem, JournalEntry.addBookings(group));
+        }
+        try {
+            FlightBookingSystemData.await(durable);
+        } catch (IOException ex) {
+            throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import java.io.IOException;
+import java.io.PrintStream;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 
 /**
  * The {@code AddCustomer} class represents a command to add a new customer to the Flight Booking System.
@@ -44,20 +47,16 @@ public class AddCustomer implements Command {
      * Executes the command to add a new customer to the Flight Booking System.
      * 
      * @param flightBookingSystem the Flight Booking System to which the customer will be added
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException if there is an error adding the customer
      */
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        try {
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        // exclusive until the customer is journaled, so no booking for them can be journaled first
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockExclusive()) {
             // Determine the next available customer ID
-            int maxCustomerId = 0;
-            if (!flightBookingSystem.getCustomers().isEmpty()) {
-                maxCustomerId = flightBookingSystem.getCustomers().stream()
-                        .mapToInt(Customer::getId)
-                        .max()
-                        .orElse(0);
-            }
-            int customerId = maxCustomerId + 1;
+            int customerId = flightBookingSystem.getNewCustomerId();
 
             // Create a new Customer object with the provided details
             Customer customer = new Customer(customerId, name, phone, email, false);
@@ -66,10 +65,10 @@ public class AddCustomer implements Command {
             flightBookingSystem.addCustomer(customer);
             
             // Output confirmation message
-            System.out.println("Customer #" + customer.getId() + " added.");
+            out.println("Customer #" + customer.getId() + " added.");
 
             // Store the updated Flight Booking System data
-            FlightBookingSystemData.store(flightBookingSystem);
+            FlightBookingSystemData.commit(flightBookingSystem, JournalEntry.addCustomer(customer));
 
         } catch (IOException ex) {
             throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
@@ -1,10 +1,13 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.time.LocalDate;
 
 /**
@@ -55,28 +58,26 @@ public class AddFlight implements  Command {
      * Executes the command to add a new flight to the Flight Booking System.
      * 
      * @param flightBookingSystem the Flight Booking System to which the flight will be added
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException if there is an error adding the flight
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        int maxId = 0;
-        try {
-            if (flightBookingSystem.getFlights().size() > 0) {
-                int lastIndex = flightBookingSystem.getFlights().size() - 1;
-                maxId = flightBookingSystem.getFlights().get(lastIndex).getId();
-            }
-
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        int flightId = flightBookingSystem.getNewFlightId();
+        // exclusive until the flight is journaled, so no booking on it can be journaled first
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockExclusive()) {
             // Assuming isDeleted is false for a newly added flight
-            Flight flight = new Flight(++maxId, flightNumber, origin, destination, departureDate, capacity, false, price);
+            Flight flight = new Flight(flightId, flightNumber, origin, destination, departureDate, capacity, false, price);
             flightBookingSystem.addFlight(flight);
-            System.out.println("Flight #" + flight.getId() + " added.");
+            out.println("Flight #" + flight.getId() + " added.");
 
-            FlightBookingSystemData.store(flightBookingSystem);
+            FlightBookingSystemData.commit(flightBookingSystem, JournalEntry.addFlight(flight));
 
         } catch (IOException ex) {
-            if (maxId > 0) {
-                flightBookingSystem.removeFlightById(maxId);
+            if (flightBookingSystem.flightExists(flightId)) {
+                flightBookingSystem.removeFlightById(flightId);
             }
             throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
         }
@@ -1,13 +1,17 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 
 /**
  * The {@code CancelBooking} class represents a command to cancel a booking for a customer on a specific flight.
@@ -15,6 +19,7 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
  * 
  * The cancellation involves checking the existence of the customer and flight, retrieving the booking associated
  * with both, calculating the cancellation fee, and updating the booking status and associated entities accordingly.
+ * Only the flight and customer of the booking are locked, so bookings on other flights can be changed at the same time.
  * 
  * @author Bibek
  * @author Solomon
@@ -44,45 +49,46 @@ public class CancelBooking implements Command {
      * Executes the command by canceling the booking for the specified customer on the specified flight.
      *
      * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If an exception specific to the Flight Booking System occurs.
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        Customer customer = flightBookingSystem.getCustomerByID(customerId);
-		Flight flight = flightBookingSystem.getFlightByID(flightId);
-
-		if (customer == null) {
-		    throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
-		}
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        CompletableFuture<Void> durable;
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBooking(customerId, flightId)) {
+            Customer customer = flightBookingSystem.getCustomerByID(customerId);
+            Flight flight = flightBookingSystem.getFlightByID(flightId);
+
+            if (customer == null) {
+                throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
+            }
 
-		if (flight == null) {
-		    throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
-		}
+            if (flight == null) {
+                throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
+            }
 
-		Booking booking = flightBookingSystem.getBookingByCustomerAndFlight(customer, flight);
+            Booking booking = flightBookingSystem.getBookingByCustomerAndFlight(customer, flight);
 
-		if (booking == null) {
-		    throw new FlightBookingSystemException("Booking not found for customer " + customer.getName() + " on flight " + flight.getFlightNumber());
-		}
+            if (booking == null) {
+                throw new FlightBookingSystemException("Booking not found for customer " + customer.getName() + " on flight " + flight.getFlightNumber());
+            }
 
-        try {
             if (booking.isCompleted()) {
                 throw new FlightBookingSystemException("Cannot cancel a completed booking.");
             }
 
             double cancellationFee = booking.calculateCancellationFee();
-            flight.removePassenger(customer);
-            booking.setCancellationFee(cancellationFee);
-            booking.setDeleted(true);
+            flightBookingSystem.cancelBooking(booking, cancellationFee);
 
-            customer.removeBooking(booking);
-
-            FlightBookingSystemData.store(flightBookingSystem);
+            durable = FlightBookingSystemData.commitAsync(flightBookingSystem, JournalEntry.cancelBooking(booking));
 
             String message = "Booking for customer " + customer.getName() + " on flight " + flight.getFlightNumber() + " canceled.";
-            System.out.println(message);
-
+            out.println(message);
+        }
+        try {
+            FlightBookingSystemData.await(durable);
         } catch (IOException ex) {
             throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
         }
@@ -3,6 +3,8 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code Command} interface defines the contract for all commands in the Flight Booking System application.
  * Commands are operations that can be executed on the Flight Booking System, such as adding or canceling bookings,
@@ -32,27 +34,44 @@ public interface Command {
         + "\tlistflights                               print all flights\n"
         + "\tlistcustomers                             print all customers\n"
         + "\tlistbookings                              print all bookings\n"
-        + "\taddflight                                 add a new flight\n"
-        + "\taddcustomer                               add a new customer\n"
+        + "\taddflight [number] [origin] [destination] [date] [capacity] [price]  add a new flight\n"
+        + "\taddcustomer [name] [phone] [email]        add a new customer\n"
         + "\tshowflight [flight id]                    show flight details\n"
+        + "\tsearchflights [origin] [destination] [from] [to]  search flights on a route\n"
+        + "\tlistdepartures [from] [to]                list flights departing between two dates (default: upcoming)\n"
         + "\tshowcustomer [customer id]                show customer details\n"
         + "\tdeletecustomer [customer id]			   delete a customer details\n"
         + "\tdeleteflight [flight id]                  delete a Flight \n"
-        + "\taddbooking [customer id] [flight id]      add a new booking\n"
+        + "\taddbooking [customer id] [flight id] [class]  add a new booking\n"
+        + "\taddbookings [customer ids] [flight ids] [class]  book a group on flights, all or none (ids: 1,2,3)\n"
         + "\tcancelbooking [customer id] [flight id]   cancel a booking\n"
-        + "\teditbooking [booking id] [flight id]      update a booking\n"
+        + "\teditbooking [customer id] [flight id] [date] [class]  update a booking\n"
         + "\tloadgui                                   loads the GUI version of the app\n"
         + "\thelp                                      prints this help message\n"
         + "\texit                                      exits the program";
     
     /**
-     * Executes the command on the specified Flight Booking System.
+     * Executes the command on the specified Flight Booking System, printing to the console.
      * 
      * @param flightBookingSystem The Flight Booking System on which the command operates.
      * @throws FlightBookingSystemException If an error specific to the Flight Booking System occurs during execution.
      */
 
     
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException;
+    public default void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        execute(flightBookingSystem, System.out);
+    }
+
+    /**
+     * Executes the command on the specified Flight Booking System, printing to the given stream.
+     * Servers pass a stream of the request, so commands run for different clients at the same
+     * time never mix their output.
+     * 
+     * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
+     * @throws FlightBookingSystemException If an error specific to the Flight Booking System occurs during execution.
+     */
+
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException;
     
 }
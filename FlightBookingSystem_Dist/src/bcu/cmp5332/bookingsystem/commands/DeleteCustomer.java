@@ -3,6 +3,8 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code DeleteCustomer} class represents a command to delete a customer from the Flight Booking System.
  * It implements the {@code Command} interface and is used to remove a customer based on their unique ID.
@@ -36,18 +38,19 @@ public class DeleteCustomer implements Command {
      * Executes the command by deleting the customer from the Flight Booking System.
      * 
      * @param flightBookingSystem The Flight Booking System from which the customer is to be deleted.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If the customer with the specified ID is not found in the system.
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
         if (!flightBookingSystem.customerExists(customerId)) {
             throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
         } 
         
         flightBookingSystem.removeCustomerById(customerId);
 
-        System.out.println("Customer with ID " + customerId + " has been deleted successfully.");
+        out.println("Customer with ID " + customerId + " has been deleted successfully.");
     }
 }
 
@@ -3,6 +3,8 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code DeleteFlight} class represents a command to delete a flight from the Flight Booking System.
  * It implements the {@code Command} interface and is used to remove a flight based on its unique ID.
@@ -35,16 +37,17 @@ public class DeleteFlight implements Command {
      * Executes the command by deleting the flight from the Flight Booking System.
      * 
      * @param flightBookingSystem The Flight Booking System from which the flight is to be deleted.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If the flight with the specified ID is not found in the system.
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
         if (!flightBookingSystem.flightExists(flightId)) {
             throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
         } 
         flightBookingSystem.removeFlightById(flightId);
 
-        System.out.println("Flight with ID " + flightId + " has been deleted successfully.");
+        out.println("Flight with ID " + flightId + " has been deleted successfully.");
     }
 }
@@ -2,6 +2,8 @@ package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code Help} class represents a command to print the help message for the Flight Booking System.
  * It implements the {@code Command} interface and is used to display a predefined help message that lists
@@ -23,10 +25,11 @@ public class Help implements Command {
      * Executes the command by printing the help message to the console.
      * 
      * @param flightBookingSystem The Flight Booking System on which the command operates (not used in this command).
+     * @param out The stream the command prints to.
      */
 	
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) {
-        System.out.println(Command.HELP_MESSAGE);
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) {
+        out.println(Command.HELP_MESSAGE);
     }
 }
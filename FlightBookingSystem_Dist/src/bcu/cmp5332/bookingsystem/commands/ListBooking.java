@@ -4,6 +4,8 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code ListBooking} class represents a command to list all bookings in the Flight Booking System.
  * It implements the {@code Command} interface and is used to retrieve and display details of all bookings
@@ -26,11 +28,12 @@ public class ListBooking implements Command {
      * displaying the details of each booking, and printing the total number of bookings to the console.
      *
      * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If there is an error executing the command.
      */
 	
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        flightBookingSystem.listAllBookings();
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        flightBookingSystem.listAllBookings(out);
     }
 }
@@ -4,6 +4,7 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
 import java.util.List;
 
 /**
@@ -29,18 +30,19 @@ public class ListCustomers implements Command {
      * checking if the list is empty, and printing either "No customers found." or the list of customers.
      *
      * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If there is an error executing the command.
      */
 	
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
         List<Customer> customers = flightBookingSystem.getCustomers();
 
         if (customers.isEmpty()) {
-            System.out.println("No customers found.");
+            out.println("No customers found.");
         } else {
-            System.out.println("List of Customers:");
-            flightBookingSystem.listAllCustomers();
+            out.println("List of Customers:");
+            flightBookingSystem.listAllCustomers(out);
         }
     }
 }
@@ -0,0 +1,85 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+/**
+ * The {@code ListDepartures} class represents a command to list the flights departing within a
+ * range of dates in the Flight Booking System, or all upcoming flights when no dates are given.
+ *
+ * It implements the {@code Command} interface and reads the flights from the departure index of
+ * the system, so only the flights within the range are visited, and prints them while other
+ * threads go on changing the schedule.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see Command
+ */
+
+public class ListDepartures implements Command {
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    /**
+     * Constructs a {@code ListDepartures} command for all upcoming flights.
+     */
+
+    public ListDepartures() {
+        this(null, null);
+    }
+
+    /**
+     * Constructs a {@code ListDepartures} command for the flights departing within a range of dates.
+     *
+     * @param from The earliest departure date, inclusive, or null for no lower bound.
+     * @param to   The latest departure date, inclusive, or null for no upper bound.
+     */
+
+    public ListDepartures(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the command by printing the matching flights in order of departure date.
+     *
+     * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
+     * @throws FlightBookingSystemException If the date range is invalid.
+     */
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new FlightBookingSystemException("The start date " + from + " is after the end date " + to + ".");
+        }
+
+        Stream<Flight> flights = from == null && to == null
+                ? flightBookingSystem.getUpcomingFlights()
+                : flightBookingSystem.getFlightsDepartingBetween(from, to);
+
+        out.printf("%-10s%-15s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Flight No", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
+        long[] count = new long[1];
+        flights.forEachOrdered(flight -> {
+            count[0]++;
+            out.printf("%-10d%-15s%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
+                    flight.getId(),
+                    flight.getFlightNumber(),
+                    flight.getDepartureDate(),
+                    flight.getOrigin(),
+                    flight.getDestination(),
+                    flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS));
+        });
+        out.println(count[0] + " flight(s) found.");
+    }
+}
@@ -3,6 +3,8 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
+import java.io.PrintStream;
+
 /**
  * The {@code ListFlights} class represents a command to list all flights in the Flight Booking System.
  * It implements the {@code Command} interface and is used to retrieve and display details of all flights
@@ -25,11 +27,12 @@ public class ListFlights implements Command {
      * and printing the details of each flight.
      *
      * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If there is an error executing the command.
      */
 	
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-    	flightBookingSystem.listAllFlights();
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+    	flightBookingSystem.listAllFlights(out);
     }
 }
@@ -4,6 +4,8 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.gui.MainWindow;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
+import java.io.PrintStream;
+
 /**
  * The {@code LoadGUI} class represents a command to load the graphical user interface (GUI)
  * of the Flight Booking System.
@@ -28,11 +30,12 @@ public class LoadGUI implements Command {
      * of the Flight Booking System.
      *
      * @param flightBookingSystem The Flight Booking System instance that provides backend data.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If there is an error while loading or displaying the GUI.
      */
 	
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
         new MainWindow(flightBookingSystem);
     }
     
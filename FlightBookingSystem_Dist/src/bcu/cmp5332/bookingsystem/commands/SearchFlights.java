@@ -0,0 +1,85 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+/**
+ * The {@code SearchFlights} class represents a command to find the flights between two airports
+ * in the Flight Booking System.
+ *
+ * It implements the {@code Command} interface and uses the route index of the system, so only the
+ * flights of the requested route are visited. The search can be narrowed to a range of departure dates.
+ *
+ * Upon execution, the matching flights are printed in order of departure date, in the same layout
+ * as the flight list.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see Command
+ */
+
+public class SearchFlights implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    /**
+     * Constructs a {@code SearchFlights} command for the given route and departure dates.
+     *
+     * @param origin      The origin airport code.
+     * @param destination The destination airport code.
+     * @param from        The earliest departure date, inclusive, or null for no lower bound.
+     * @param to          The latest departure date, inclusive, or null for no upper bound.
+     */
+
+    public SearchFlights(String origin, String destination, LocalDate from, LocalDate to) {
+        this.origin = origin;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the command by searching the route and printing the matching flights.
+     *
+     * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
+     * @throws FlightBookingSystemException If the date range is invalid.
+     */
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new FlightBookingSystemException("The start date " + from + " is after the end date " + to + ".");
+        }
+
+        List<Flight> flights = flightBookingSystem.searchFlights(origin, destination, from, to);
+        if (flights.isEmpty()) {
+            out.println("No flights found from " + origin + " to " + destination + ".");
+            return;
+        }
+
+        out.printf("%-10s%-15s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Flight No", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
+        for (Flight flight : flights) {
+            out.printf("%-10d%-15s%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
+                    flight.getId(),
+                    flight.getFlightNumber(),
+                    flight.getDepartureDate(),
+                    flight.getOrigin(),
+                    flight.getDestination(),
+                    flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS));
+        }
+        out.println(flights.size() + " flight(s) found.");
+    }
+}
@@ -3,6 +3,9 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
+
+import java.io.PrintStream;
 
 /**
  * The {@code ShowCustomer} class represents a command to display details of a specific customer
@@ -14,6 +17,9 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
  * Upon execution, it retrieves the customer details, including ID, name, phone number, email, and
  * any bookings associated with the customer, and prints them to the console.
  * 
+ * The customer is locked while they are printed, so bookings made for them at the same time by
+ * other threads never appear half made.
+ * 
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -39,28 +45,33 @@ public class ShowCustomer implements Command {
      * Executes the command by retrieving and displaying the details of the customer with the specified ID.
      *
      * @param flightBookingSystem The Flight Booking System instance that provides access to customer data.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If the customer with the specified ID is not found or if there is
      *                                      an error retrieving customer details.
      */
 
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        Customer customer = flightBookingSystem.getCustomerByID(customerId);
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        // the bookings of the customer do not change while they are printed
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBookings(new int[] {customerId}, new int[0])) {
+            Customer customer = flightBookingSystem.getCustomerByID(customerId);
 
-        if (customer == null) {
-            throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
-        }
+            if (customer == null) {
+                throw new FlightBookingSystemException("Customer with ID " + customerId + " not found.");
+            }
 
-        System.out.println("Customer ID: " + customer.getId());
-        System.out.println("Name: " + customer.getName());
-        System.out.println("Phone: " + customer.getPhone());
-        System.out.println("Email: " + customer.getEmail());
+            out.println("Customer ID: " + customer.getId());
+            out.println("Name: " + customer.getName());
+            out.println("Phone: " + customer.getPhone());
+            out.println("Email: " + customer.getEmail());
 
-        System.out.println("Bookings:");
+            out.println("Bookings:");
 
-        if (customer.getBookings().isEmpty()) {
-            System.out.println("No bookings for this customer.");
-        } else {
-            System.out.println(customer.getDetails());
+            if (customer.getBookings().isEmpty()) {
+                out.println("No bookings for this customer.");
+            } else {
+                out.println(customer.getDetails());
+            }
         }
     }
 
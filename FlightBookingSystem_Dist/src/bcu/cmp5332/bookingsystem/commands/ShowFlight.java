@@ -1,5 +1,6 @@
 package bcu.cmp5332.bookingsystem.commands;
 
+import java.io.PrintStream;
 import java.util.List;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
@@ -8,6 +9,7 @@ import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 
 /**
  * The {@code ShowFlight} class represents a command to display details of a specific flight
@@ -22,6 +24,9 @@ import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
  * The passenger list includes their name, phone number, email, and class of travel (e.g., economy, business).
  * If no passengers are booked on the flight, it indicates so.
  * 
+ * The flight is locked while it is printed, so bookings made on it at the same time by other
+ * threads never appear half made.
+ * 
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -47,37 +52,42 @@ public class ShowFlight implements Command {
      * Executes the command by retrieving and displaying the details of the flight with the specified ID.
      *
      * @param flightBookingSystem The Flight Booking System instance that provides access to flight data.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If the flight with the specified ID is not found or if there is
      *                                      an error retrieving flight details.
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        Flight flight = flightBookingSystem.getFlightByID(flightId);
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        // the passengers of the flight do not change while they are printed
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBookings(new int[0], new int[] {flightId})) {
+            Flight flight = flightBookingSystem.getFlightByID(flightId);
 
-        if (flight == null || flight.isDeleted()) {
-            throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
-        }
+            if (flight == null || flight.isDeleted()) {
+                throw new FlightBookingSystemException("Flight with ID " + flightId + " not found.");
+            }
 
-        System.out.println("Flight ID: " + flight.getId());
-        System.out.println("Flight Number: " + flight.getFlightNumber());
-        System.out.println("Origin: " + flight.getOrigin());
-        System.out.println("Destination: " + flight.getDestination());
-        System.out.println("Departure Date: " + flight.getDepartureDate());
+            out.println("Flight ID: " + flight.getId());
+            out.println("Flight Number: " + flight.getFlightNumber());
+            out.println("Origin: " + flight.getOrigin());
+            out.println("Destination: " + flight.getDestination());
+            out.println("Departure Date: " + flight.getDepartureDate());
 
-        if (flight.getPassengers().isEmpty()) {
-            System.out.println("No passengers for this flight.");
-        } else {
-            System.out.println("Passenger List:");
-            System.out.printf("%-5s %-20s %-15s %-30s %-15s\n", "No.", "Name", "Phone", "Email", "Class");
-            System.out.println("------------------------------------------------------------------------------------------");
+            if (flight.getPassengers().isEmpty()) {
+                out.println("No passengers for this flight.");
+            } else {
+                out.println("Passenger List:");
+                out.printf("%-5s %-20s %-15s %-30s %-15s\n", "No.", "Name", "Phone", "Email", "Class");
+                out.println("------------------------------------------------------------------------------------------");
 
-            List<Customer> passengers = flight.getPassengers();
-            for (int i = 0; i < passengers.size(); i++) {
-                Customer passenger = passengers.get(i);
-                Booking booking = flightBookingSystem.getBookingByCustomerAndFlight(passenger, flight);
-                FlightClass flightClass = booking.getFlightClass();
-                System.out.printf("%-5d %-20s %-15s %-30s %-30s\n", (i + 1), passenger.getName(), passenger.getPhone(), passenger.getEmail(), flightClass);
+                List<Customer> passengers = flight.getPassengers();
+                for (int i = 0; i < passengers.size(); i++) {
+                    Customer passenger = passengers.get(i);
+                    Booking booking = flightBookingSystem.getBookingByCustomerAndFlight(passenger, flight);
+                    FlightClass flightClass = booking.getFlightClass();
+                    out.printf("%-5d %-20s %-15s %-30s %-30s\n", (i + 1), passenger.getName(), passenger.getPhone(), passenger.getEmail(), flightClass);
+                }
             }
         }
     }
@@ -1,15 +1,19 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code UpdateBooking} class represents a command to update a booking for a customer on a specific flight
@@ -58,12 +62,15 @@ public class UpdateBooking implements Command {
      * with the new booking date and flight class (if provided).
      *
      * @param flightBookingSystem The Flight Booking System on which the command operates.
+     * @param out The stream the command prints to.
      * @throws FlightBookingSystemException If there is an error executing the command or updating the booking.
      */
     
     @Override
-    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        try {
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem flightBookingSystem, PrintStream out) throws FlightBookingSystemException {
+        CompletableFuture<Void> durable;
+        try (StripedLocks.Held held = flightBookingSystem.getLocks().lockBooking(customerId, flightId)) {
             Customer customer = flightBookingSystem.getCustomerByID(customerId);
             Flight oldFlight = flightBookingSystem.getFlightByID(flightId);
 
@@ -81,21 +88,15 @@ public class UpdateBooking implements Command {
                 throw new FlightBookingSystemException("Booking not found for customer " + customer.getName() + " on flight " + oldFlight.getFlightNumber());
             }
 
-            if (newBookingDate != null) {
-                booking.setBookingDate(newBookingDate);
-            }
-
-            if (newFlightClass != null) {
-                booking.setFlightClass(newFlightClass);
-            }
-
-            System.out.println("Booking for customer " + customer.getName() + " on flight " + oldFlight.getFlightNumber() + " updated.");
-            FlightBookingSystemData.store(flightBookingSystem);
+            flightBookingSystem.updateBooking(booking, newBookingDate, newFlightClass);
 
+            out.println("Booking for customer " + customer.getName() + " on flight " + oldFlight.getFlightNumber() + " updated.");
+            durable = FlightBookingSystemData.commitAsync(flightBookingSystem, JournalEntry.updateBooking(booking));
+        }
+        try {
+            FlightBookingSystemData.await(durable);
         } catch (IOException ex) {
             throw new FlightBookingSystemException("Error storing data to file: " + ex.getMessage());
         }
     }
 }
-
-
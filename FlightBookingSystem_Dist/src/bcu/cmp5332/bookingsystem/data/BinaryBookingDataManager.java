@@ -0,0 +1,242 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code BinaryBookingDataManager} class implements {@link DataManager} to load and store
+ * {@link Booking} data in the binary data format described by {@link BinaryFormat}.
+ *
+ * Each booking is a fixed-width record of {@value #RECORD_SIZE} bytes holding the customer ID,
+ * flight ID, booking date, flight class, deletion status and booking ID. Files of format version 1
+ * have records of {@value #V1_RECORD_SIZE} bytes without the booking ID; those bookings are given a
+ * new ID when they are loaded. Because every record has the same
+ * size, a booking can be read by its position with {@link #map()} without reading the records
+ * before it. The same mapped view is used to load the file when the
+ * {@value BookingDataManager#READ_PROPERTY} system property is {@value BookingDataManager#MAPPED_READ}.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see BookingDataManager
+ */
+
+public class BinaryBookingDataManager implements SnapshotDataManager {
+
+    static final int RECORD_SIZE = 18;
+    static final int V1_RECORD_SIZE = 14;
+    private static final Flight.FlightClass[] FLIGHT_CLASSES = Flight.FlightClass.values();
+
+    private final String RESOURCE;
+    private final BookingDataManager bookingDataManager = new BookingDataManager();
+    private final boolean mapped = BookingDataManager.MAPPED_READ.equals(
+            System.getProperty(BookingDataManager.READ_PROPERTY, BookingDataManager.STREAM_READ));
+
+    /**
+     * Constructs a {@code BinaryBookingDataManager} that uses the default bookings data file.
+     */
+    public BinaryBookingDataManager() {
+        this("./resources/data/bookings.bin");
+    }
+
+    /**
+     * Constructs a {@code BinaryBookingDataManager} that uses the given bookings data file.
+     *
+     * @param resource The path of the bookings data file.
+     */
+    public BinaryBookingDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
+
+    /**
+     * Loads booking data from the bookings data file into the Flight Booking System.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the data file is missing or corrupt, or if a customer or flight is not found.
+     */
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        if (mapped) {
+            MappedBookings bookings = map(true);
+            for (int i = 0; i < bookings.size(); i++) {
+                fbs.addBooking(bookingDataManager.link(fbs, bookings.get(i)));
+            }
+            return;
+        }
+        for (BookingDataManager.BookingRecord record : readRecords()) {
+            fbs.addBooking(bookingDataManager.link(fbs, record));
+        }
+    }
+
+    /**
+     * Reads every booking record in the bookings data file without resolving its customer
+     * and flight.
+     *
+     * @return The booking records, in file order.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the data file is missing or corrupt.
+     */
+
+    List<BookingDataManager.BookingRecord> readRecords() throws IOException, FlightBookingSystemException {
+        ByteBuffer buffer = BinaryFormat.read(RESOURCE);
+        boolean hasIds = BinaryFormat.checkHeader(buffer, RESOURCE, BinaryFormat.BOOKINGS) > 1;
+        try (DataInputStream in = BinaryFormat.body(buffer)) {
+            int count = in.readInt();
+            if (count < 0 || (long) count * (hasIds ? RECORD_SIZE : V1_RECORD_SIZE) != in.available()) {
+                throw new FlightBookingSystemException("Binary data file " + RESOURCE + " has an invalid record count.");
+            }
+            List<BookingDataManager.BookingRecord> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int customerId = in.readInt();
+                int flightId = in.readInt();
+                LocalDate bookingDate = LocalDate.ofEpochDay(in.readInt());
+                Flight.FlightClass flightClass = FLIGHT_CLASSES[in.readUnsignedByte()];
+                boolean deleted = in.readBoolean();
+                int bookingId = hasIds ? in.readInt() : 0;
+
+                records.add(new BookingDataManager.BookingRecord(bookingId, customerId, flightId, bookingDate, flightClass, deleted));
+            }
+            return records;
+        } catch (IOException | ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Unable to read binary data file " + RESOURCE + "\nError: " + ex);
+        }
+    }
+
+    /**
+     * Stores the active bookings of the Flight Booking System in the bookings data file.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error writing to the file.
+     */
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        return encode(view.getBookings());
+    }
+
+    private static byte[] encode(List<Booking> bookings) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(11 + bookings.size() * RECORD_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryFormat.writeHeader(out, BinaryFormat.BOOKINGS);
+            out.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                out.writeInt(booking.getCustomer().getId());
+                out.writeInt(booking.getFlight().getId());
+                out.writeInt((int) booking.getBookingDate().toEpochDay());
+                out.writeByte(booking.getFlightClass().ordinal());
+                out.writeBoolean(booking.isDeleted());
+                out.writeInt(booking.getBookingId());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.BOOKINGS;
+    }
+
+    /**
+     * Memory-maps the bookings data file for random access to its records, without reading
+     * the whole file to verify its checksum.
+     *
+     * @return The mapped records.
+     * @throws IOException If there is an error mapping the file.
+     * @throws FlightBookingSystemException If the data file is not a valid bookings data file.
+     */
+
+    MappedBookings map() throws IOException, FlightBookingSystemException {
+        return map(false);
+    }
+
+    private MappedBookings map(boolean verify) throws IOException, FlightBookingSystemException {
+        ByteBuffer buffer = BookingDataManager.map(RESOURCE);
+        buffer.limit(DataFiles.verify(buffer, RESOURCE, verify));
+        int recordSize = BinaryFormat.checkHeader(buffer, RESOURCE, BinaryFormat.BOOKINGS) > 1 ? RECORD_SIZE : V1_RECORD_SIZE;
+        int count = buffer.limit() >= MappedBookings.FIRST_RECORD ? buffer.getInt(BinaryFormat.HEADER_SIZE) : -1;
+        if (count < 0 || (long) count * recordSize != buffer.limit() - MappedBookings.FIRST_RECORD) {
+            throw new FlightBookingSystemException("Binary data file " + RESOURCE + " has an invalid record count.");
+        }
+        return new MappedBookings(buffer, count, recordSize);
+    }
+
+    /**
+     * A memory-mapped view of the fixed-width records of a bookings data file.
+     */
+
+    static final class MappedBookings {
+        private static final int FIRST_RECORD = BinaryFormat.HEADER_SIZE + 4;
+
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int recordSize;
+
+        private MappedBookings(ByteBuffer buffer, int count, int recordSize) {
+            this.buffer = buffer;
+            this.count = count;
+            this.recordSize = recordSize;
+        }
+
+        /**
+         * Gets the number of records in the file.
+         *
+         * @return The record count.
+         */
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * Reads the record at the given position, seeking straight to its offset.
+         *
+         * @param index The position of the record in the file, starting from 0.
+         * @return The booking fields.
+         * @throws FlightBookingSystemException If the record holds an unknown flight class.
+         */
+
+        BookingDataManager.BookingRecord get(int index) throws FlightBookingSystemException {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Booking record " + index + " of " + count);
+            }
+            int offset = FIRST_RECORD + index * recordSize;
+            int flightClass = buffer.get(offset + 12) & 0xff;
+            if (flightClass >= FLIGHT_CLASSES.length) {
+                throw new FlightBookingSystemException("Invalid flight class in booking record " + index);
+            }
+            int bookingId = recordSize == RECORD_SIZE ? buffer.getInt(offset + 14) : 0;
+            return new BookingDataManager.BookingRecord(bookingId, buffer.getInt(offset), buffer.getInt(offset + 4),
+                    LocalDate.ofEpochDay(buffer.getInt(offset + 8)), FLIGHT_CLASSES[flightClass],
+                    buffer.get(offset + 13) != 0);
+        }
+    }
+}
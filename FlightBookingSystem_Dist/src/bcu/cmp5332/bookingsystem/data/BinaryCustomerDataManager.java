@@ -0,0 +1,134 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code BinaryCustomerDataManager} class implements {@link DataManager} to load and store
+ * {@link Customer} data in the binary data format described by {@link BinaryFormat}.
+ *
+ * Names, phone numbers and emails are rarely shared between customers, so they are written
+ * inline with a length prefix rather than through a string table.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see CustomerDataManager
+ */
+
+public class BinaryCustomerDataManager implements SnapshotDataManager {
+
+    private final String RESOURCE;
+
+    /**
+     * Constructs a {@code BinaryCustomerDataManager} that uses the default customers data file.
+     */
+    public BinaryCustomerDataManager() {
+        this("./resources/data/customers.bin");
+    }
+
+    /**
+     * Constructs a {@code BinaryCustomerDataManager} that uses the given customers data file.
+     *
+     * @param resource The path of the customers data file.
+     */
+    public BinaryCustomerDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
+
+    /**
+     * Loads customer data from the customers data file into the Flight Booking System.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the data file is missing, corrupt or holds invalid data.
+     */
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        for (Customer customer : readCustomers()) {
+            fbs.addCustomer(customer);
+        }
+    }
+
+    /**
+     * Reads every customer in the customers data file.
+     *
+     * @return The customers, in file order.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the data file is missing or corrupt.
+     */
+
+    List<Customer> readCustomers() throws IOException, FlightBookingSystemException {
+        try (DataInputStream in = BinaryFormat.open(RESOURCE, BinaryFormat.CUSTOMERS)) {
+            int count = in.readInt();
+            List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                String name = in.readUTF();
+                String phone = in.readUTF();
+                String email = in.readUTF();
+                boolean deleted = in.readBoolean();
+
+                customers.add(new Customer(id, name, phone, email, deleted));
+            }
+            return customers;
+        } catch (IOException ex) {
+            throw new FlightBookingSystemException("Unable to read binary data file " + RESOURCE + "\nError: " + ex);
+        }
+    }
+
+    /**
+     * Stores the active customers of the Flight Booking System in the customers data file.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error writing to the file.
+     */
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        List<Customer> customers = view.getCustomers();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryFormat.writeHeader(out, BinaryFormat.CUSTOMERS);
+            out.writeInt(customers.size());
+            for (Customer customer : customers) {
+                out.writeInt(customer.getId());
+                out.writeUTF(customer.getName());
+                out.writeUTF(customer.getPhone());
+                out.writeUTF(customer.getEmail());
+                out.writeBoolean(customer.isDeleted());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.CUSTOMERS;
+    }
+}
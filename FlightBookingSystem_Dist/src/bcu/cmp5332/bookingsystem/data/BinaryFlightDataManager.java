@@ -0,0 +1,155 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code BinaryFlightDataManager} class implements {@link DataManager} to load and store
+ * {@link Flight} data in the binary data format described by {@link BinaryFormat}.
+ *
+ * The flight numbers, origins and destinations are written once to the string table of the
+ * file, and each flight is a fixed-width record of 33 bytes that refers to them by index.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightDataManager
+ */
+
+public class BinaryFlightDataManager implements SnapshotDataManager {
+
+    private final String RESOURCE;
+
+    /**
+     * Constructs a {@code BinaryFlightDataManager} that uses the default flights data file.
+     */
+    public BinaryFlightDataManager() {
+        this("./resources/data/flights.bin");
+    }
+
+    /**
+     * Constructs a {@code BinaryFlightDataManager} that uses the given flights data file.
+     *
+     * @param resource The path of the flights data file.
+     */
+    public BinaryFlightDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
+
+    /**
+     * Loads the active flights of the flights data file into the given Flight Booking System.
+     *
+     * @param fbs The Flight Booking System instance to populate with loaded data.
+     * @throws IOException If there is an error reading from the data source.
+     * @throws FlightBookingSystemException If the data file is missing, corrupt or holds invalid data.
+     */
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        for (Flight flight : readFlights()) {
+            if (!flight.isDeleted()) {
+                fbs.addFlight(flight);
+            }
+        }
+    }
+
+    /**
+     * Reads every flight in the flights data file, including deleted ones.
+     *
+     * @return The flights, in file order.
+     * @throws IOException If there is an error reading from the data source.
+     * @throws FlightBookingSystemException If the data file is missing or corrupt.
+     */
+
+    List<Flight> readFlights() throws IOException, FlightBookingSystemException {
+        try (DataInputStream in = BinaryFormat.open(RESOURCE, BinaryFormat.FLIGHTS)) {
+            String[] strings = BinaryFormat.StringTable.read(in);
+            int count = in.readInt();
+            List<Flight> flights = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                String flightNumber = strings[in.readInt()];
+                String origin = strings[in.readInt()];
+                String destination = strings[in.readInt()];
+                LocalDate departureDate = LocalDate.ofEpochDay(in.readInt());
+                int capacity = in.readInt();
+                boolean isDeleted = in.readBoolean();
+                double price = in.readDouble();
+
+                flights.add(new Flight(id, flightNumber, origin, destination, departureDate, capacity, isDeleted, price));
+            }
+            return flights;
+        } catch (IOException | ArrayIndexOutOfBoundsException ex) {
+            throw new FlightBookingSystemException("Unable to read binary data file " + RESOURCE + "\nError: " + ex);
+        }
+    }
+
+    /**
+     * Stores the active flights of the given Flight Booking System in the flights data file.
+     *
+     * @param fbs The Flight Booking System instance containing flights to be stored.
+     * @throws IOException If there is an error writing to the data source.
+     */
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        List<Flight> flights = view.getFlights();
+        BinaryFormat.StringTable strings = new BinaryFormat.StringTable();
+        int[] indexes = new int[flights.size() * 3];
+        for (int i = 0; i < flights.size(); i++) {
+            Flight flight = flights.get(i);
+            indexes[i * 3] = strings.indexOf(flight.getFlightNumber());
+            indexes[i * 3 + 1] = strings.indexOf(flight.getOrigin());
+            indexes[i * 3 + 2] = strings.indexOf(flight.getDestination());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryFormat.writeHeader(out, BinaryFormat.FLIGHTS);
+            strings.writeTo(out);
+            out.writeInt(flights.size());
+            for (int i = 0; i < flights.size(); i++) {
+                Flight flight = flights.get(i);
+                out.writeInt(flight.getId());
+                out.writeInt(indexes[i * 3]);
+                out.writeInt(indexes[i * 3 + 1]);
+                out.writeInt(indexes[i * 3 + 2]);
+                out.writeInt((int) flight.getDepartureDate().toEpochDay());
+                out.writeInt(flight.getCapacity());
+                out.writeBoolean(flight.isDeleted());
+                out.writeDouble(flight.getPrice());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.FLIGHTS;
+    }
+}
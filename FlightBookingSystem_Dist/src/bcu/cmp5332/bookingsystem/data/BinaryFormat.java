@@ -0,0 +1,201 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code BinaryFormat} class holds the layout shared by the binary data files.
+ *
+ * Every binary data file starts with a header made of the {@link #MAGIC} number, the
+ * format {@link #VERSION} and a byte identifying the kind of data in the file. All numbers
+ * are fixed-width and big-endian, dates are stored as epoch days, and strings are stored
+ * with a length prefix in modified UTF-8, as written by {@link DataOutputStream#writeUTF(String)}.
+ *
+ * Like the text data files, binary data files end with the checksum trailer of {@link DataFiles}.
+ *
+ * Version 2 added the booking ID to booking records. Files of version 1 can still be read, and
+ * are rewritten as version 2 when they are next stored.
+ *
+ * Strings that repeat across many records, such as airport names, are written once to a
+ * {@link StringTable} at the start of the file and referenced by index from each record.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see BinaryFlightDataManager
+ * @see BinaryCustomerDataManager
+ * @see BinaryBookingDataManager
+ */
+
+final class BinaryFormat {
+
+    static final int MAGIC = 0x46425342; // "FBSB"
+    static final short VERSION = 2;
+    static final short MIN_VERSION = 1;
+    static final int HEADER_SIZE = 7;
+
+    static final byte FLIGHTS = 'F';
+    static final byte CUSTOMERS = 'C';
+    static final byte BOOKINGS = 'B';
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes the header of a binary data file.
+     *
+     * @param out  The stream to write to.
+     * @param kind The kind of data that follows the header.
+     * @throws IOException If there is an error writing to the stream.
+     */
+
+    static void writeHeader(DataOutputStream out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(kind);
+    }
+
+    /**
+     * Reads a binary data file into memory and checks its header.
+     *
+     * @param resource The path of the data file.
+     * @param kind     The kind of data the file is expected to hold.
+     * @return A stream positioned after the header.
+     * @throws IOException If there is an error reading the file.
+     * @throws FlightBookingSystemException If the file is missing, does not match its checksum, or is not a binary data file of the expected kind.
+     */
+
+    static DataInputStream open(String resource, byte kind) throws IOException, FlightBookingSystemException {
+        ByteBuffer buffer = read(resource);
+        checkHeader(buffer, resource, kind);
+        return body(buffer);
+    }
+
+    /**
+     * Reads a binary data file into memory and verifies its checksum, without checking its header.
+     *
+     * @param resource The path of the data file.
+     * @return A buffer holding the file, limited to the data before the checksum trailer.
+     * @throws IOException If there is an error reading the file.
+     * @throws FlightBookingSystemException If the file is missing or does not match its checksum.
+     */
+
+    static ByteBuffer read(String resource) throws IOException, FlightBookingSystemException {
+        Path path = Paths.get(resource);
+        if (!Files.exists(path)) {
+            throw new FlightBookingSystemException("Binary data file " + resource
+                    + " does not exist. Convert the text data files with DataFormatConverter first.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        buffer.limit(DataFiles.verify(buffer, resource, true));
+        return buffer;
+    }
+
+    /**
+     * Opens a stream over the data after the header of a file read by {@link #read(String)}.
+     *
+     * @param buffer The buffer holding the file.
+     * @return A stream positioned after the header.
+     */
+
+    static DataInputStream body(ByteBuffer buffer) {
+        return new DataInputStream(new ByteArrayInputStream(buffer.array(), HEADER_SIZE, buffer.limit() - HEADER_SIZE));
+    }
+
+    /**
+     * Checks the header at the start of a buffer holding a binary data file.
+     *
+     * @param buffer   The buffer holding the file.
+     * @param resource The path of the data file, used in error messages.
+     * @param kind     The kind of data the file is expected to hold.
+     * @return The format version of the file.
+     * @throws FlightBookingSystemException If the buffer does not start with a supported header of the expected kind.
+     */
+
+    static short checkHeader(ByteBuffer buffer, String resource, byte kind) throws FlightBookingSystemException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new FlightBookingSystemException(resource + " is not a binary data file.");
+        }
+        short version = buffer.getShort(4);
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new FlightBookingSystemException("Unsupported version " + version + " of binary data file " + resource);
+        }
+        if (buffer.get(6) != kind) {
+            throw new FlightBookingSystemException(resource + " holds the wrong kind of data.");
+        }
+        return version;
+    }
+
+    /**
+     * The dictionary of repeated strings at the start of a binary data file.
+     */
+
+    static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        /**
+         * Gets the index of a string, adding it to the table if it is not already present.
+         *
+         * @param value The string to look up.
+         * @return The index of the string in the table.
+         */
+
+        int indexOf(String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                indexes.put(value, index);
+                strings.add(value);
+            }
+            return index;
+        }
+
+        /**
+         * Writes the table as a count followed by each string.
+         *
+         * @param out The stream to write to.
+         * @throws IOException If there is an error writing to the stream.
+         */
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(strings.size());
+            for (String value : strings) {
+                out.writeUTF(value);
+            }
+        }
+
+        /**
+         * Reads a table written by {@link #writeTo(DataOutputStream)}.
+         *
+         * @param in The stream to read from.
+         * @return The strings of the table, by index.
+         * @throws IOException If there is an error reading from the stream.
+         */
+
+        static String[] read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            if (count < 0 || count > in.available()) {
+                throw new IOException("Invalid string table size " + count);
+            }
+            String[] strings = new String[count];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            return strings;
+        }
+    }
+}
@@ -5,14 +5,20 @@ import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The {@code BookingDataManager} class manages the loading and storing of booking data
@@ -24,6 +30,15 @@ import java.time.format.DateTimeFormatter;
  * 
  * This class ensures data integrity and handles exceptions that may occur during data operations.
  * 
+ * Each line ends with the booking ID. Lines written before booking IDs were stored have no ID
+ * field; those bookings are given a new ID when they are loaded.
+ * 
+ * The bookings file is by far the largest data file. Setting the {@value #READ_PROPERTY} system
+ * property to {@value #MAPPED_READ} memory-maps it and scans the records straight from the
+ * mapped buffer with a {@link ByteFieldTokenizer}, instead of decoding it through a reader. Java
+ * cannot release a mapping explicitly, so on Windows the file cannot be replaced until the
+ * mapping has been garbage collected.
+ * 
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -31,10 +46,33 @@ import java.time.format.DateTimeFormatter;
  * @see DataManager
  */
 
-public class BookingDataManager implements DataManager {
+public class BookingDataManager implements SnapshotDataManager {
+
+    public static final String READ_PROPERTY = "fbs.bookings.read";
+    public static final String STREAM_READ = "stream";
+    public static final String MAPPED_READ = "mapped";
 
-    public final String RESOURCE = "./resources/data/bookings.txt";
+    public final String RESOURCE;
+    private static final Flight.FlightClass[] FLIGHT_CLASSES = Flight.FlightClass.values();
     private final String SEPARATOR = "::";
+    private final ThreadLocal<FieldTokenizer> tokenizer = ThreadLocal.withInitial(FieldTokenizer::new);
+    private final boolean mapped = MAPPED_READ.equals(System.getProperty(READ_PROPERTY, STREAM_READ));
+
+    /**
+     * Constructs a {@code BookingDataManager} that uses the default bookings data file.
+     */
+    public BookingDataManager() {
+        this("./resources/data/bookings.txt");
+    }
+
+    /**
+     * Constructs a {@code BookingDataManager} that uses the given bookings data file.
+     *
+     * @param resource The path of the bookings data file.
+     */
+    public BookingDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
     
     /**
      * Parses a line of text from the bookings data file into a {@code Booking} object.
@@ -45,28 +83,136 @@ public class BookingDataManager implements DataManager {
      * @throws FlightBookingSystemException If there is an error parsing the booking data or if customer or flight is not found.
      */
     
-    private Booking parseBooking(FlightBookingSystem fbs, String line) throws FlightBookingSystemException {
-    	String[] parts = line.split(SEPARATOR);
-        int customerId = Integer.parseInt(parts[0]);
-        int flightId = Integer.parseInt(parts[1]);
-        LocalDate bookingDate = LocalDate.parse(parts[2]);
+    Booking parseBooking(FlightBookingSystem fbs, String line) throws FlightBookingSystemException {
+        return link(fbs, parseRecord(line));
+    }
 
-        Customer customer = fbs.getCustomerByID(customerId);
-        Flight flight = fbs.getFlightByID(flightId);
+    /**
+     * Parses a line of text from the bookings data file into a {@code BookingRecord} without
+     * resolving its customer and flight. This does not touch the Flight Booking System, so
+     * lines can be parsed on several threads at once.
+     *
+     * @param line The line of text containing booking data in the specified format.
+     * @return The parsed booking fields.
+     */
+
+    BookingRecord parseRecord(String line) {
+        return parseRecord(tokenizer.get().reset(line));
+    }
+
+    /**
+     * Parses the current record of a {@link FieldTokenizer} into a {@code BookingRecord}.
+     *
+     * @param fields The tokenizer positioned at a booking record.
+     * @return The parsed booking fields.
+     */
+
+    BookingRecord parseRecord(FieldTokenizer fields) {
+        int customerId = fields.nextInt();
+        int flightId = fields.nextInt();
+        LocalDate bookingDate = fields.nextDate();
+        Flight.FlightClass flightClass = fields.nextEnum(FLIGHT_CLASSES);
+        boolean deleted = fields.nextBoolean();
+        int bookingId = fields.hasNext() ? fields.nextInt() : 0;
+
+        return new BookingRecord(bookingId, customerId, flightId, bookingDate, flightClass, deleted);
+    }
+
+    /**
+     * Resolves the customer and flight of a parsed booking record and creates the
+     * {@code Booking} object.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @param record The parsed booking fields.
+     * @return The linked {@code Booking} object.
+     * @throws FlightBookingSystemException If the customer or flight is not found.
+     */
+
+    Booking link(FlightBookingSystem fbs, BookingRecord record) throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(record.customerId);
+        Flight flight = fbs.getFlightByID(record.flightId);
 
         if (customer == null || flight == null) {
             throw new FlightBookingSystemException("Invalid booking data. Customer or Flight not found.");
         }
-        
-        Flight.FlightClass flightClass = Flight.FlightClass.valueOf(parts[3]);
-        boolean deleted = Boolean.parseBoolean(parts[4]);
 
-        Booking booking = new Booking(customer, flight, bookingDate, deleted,flightClass);
-        booking.setDeleted(deleted);
+        Booking booking = new Booking(record.bookingId, customer, flight, record.bookingDate, record.deleted, record.flightClass);
+        booking.setDeleted(record.deleted);
 
         return booking;
     }
 
+    /**
+     * Reads every line of the bookings data file.
+     *
+     * @return The lines of the file, in order.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the file does not match its checksum.
+     */
+
+    List<String> readLines() throws IOException, FlightBookingSystemException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(DataFiles.openVerified(Paths.get(RESOURCE)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Loads booking data by scanning a memory-mapped view of the bookings data file,
+     * without creating a string for each line.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error mapping the file.
+     * @throws FlightBookingSystemException If a record cannot be parsed, or if customer or flight is not found.
+     */
+
+    void loadMapped(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        MappedByteBuffer buffer = map(RESOURCE);
+        buffer.limit(DataFiles.verify(buffer, RESOURCE, true));
+        buffer.position(DataFiles.contentStart(buffer));
+        ByteFieldTokenizer fields = new ByteFieldTokenizer(buffer);
+        int line_idx = 1;
+        while (fields.nextRecord()) {
+            BookingRecord record;
+            try {
+                int customerId = fields.nextInt();
+                int flightId = fields.nextInt();
+                LocalDate bookingDate = fields.nextDate();
+                Flight.FlightClass flightClass = fields.nextEnum(FLIGHT_CLASSES);
+                boolean deleted = fields.nextBoolean();
+                int bookingId = fields.hasNext() ? fields.nextInt() : 0;
+                record = new BookingRecord(bookingId, customerId, flightId, bookingDate, flightClass, deleted);
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw new FlightBookingSystemException("Unable to parse booking on record " + line_idx + "\nError: " + ex);
+            }
+            fbs.addBooking(link(fbs, record));
+            line_idx++;
+        }
+    }
+
+    /**
+     * Maps a data file into memory for reading. The mapping stays valid after this method
+     * has closed the file.
+     *
+     * @param resource The path of the data file.
+     * @return A read-only buffer over the whole file.
+     * @throws IOException If there is an error mapping the file.
+     * @throws FlightBookingSystemException If the file is too large to be mapped at once.
+     */
+
+    static MappedByteBuffer map(String resource) throws IOException, FlightBookingSystemException {
+        try (FileChannel channel = FileChannel.open(Paths.get(resource), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new FlightBookingSystemException(resource + " is too large to be memory-mapped.");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
     /**
      * Formats a {@code Booking} object into a string representation for storage.
      *
@@ -74,14 +220,15 @@ public class BookingDataManager implements DataManager {
      * @return The formatted string representation of the booking.
      */
     
-    private String formatBooking(Booking booking) {
+    String formatBooking(Booking booking) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
         return booking.getCustomer().getId() + SEPARATOR +
                booking.getFlight().getId() + SEPARATOR +
                booking.getBookingDate().format(formatter) + SEPARATOR +
                booking.getFlightClass() + SEPARATOR +
-               booking.isDeleted() + SEPARATOR;
+               booking.isDeleted() + SEPARATOR +
+               booking.getBookingId() + SEPARATOR;
     }
     
     /**
@@ -89,15 +236,19 @@ public class BookingDataManager implements DataManager {
      *
      * @param fbs The Flight Booking System instance.
      * @throws IOException If there is an error reading from the file.
-     * @throws FlightBookingSystemException If there is an error parsing the booking data or if customer or flight is not found.
+     * @throws FlightBookingSystemException If there is an error parsing the booking data, if customer or flight is not found, or if the file does not match its checksum.
      */
 
 
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(RESOURCE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Booking booking = parseBooking(fbs, line);
+        if (mapped) {
+            loadMapped(fbs);
+            return;
+        }
+        try (Reader reader = DataFiles.openVerified(Paths.get(RESOURCE))) {
+            FieldTokenizer fields = new FieldTokenizer(reader);
+            while (fields.nextRecord()) {
+                Booking booking = link(fbs, parseRecord(fields));
                 if (booking != null) {
                     fbs.addBooking(booking);
                 }
@@ -107,6 +258,7 @@ public class BookingDataManager implements DataManager {
 
     /**
      * Stores booking data from the Flight Booking System into the bookings data file.
+     * The file is replaced atomically, so a crash cannot leave it partly written.
      *
      * @param fbs The Flight Booking System instance.
      * @throws IOException If there is an error writing to the file.
@@ -114,18 +266,60 @@ public class BookingDataManager implements DataManager {
 
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-    	try (BufferedWriter writer = new BufferedWriter(new FileWriter(RESOURCE))) {
-            for (Booking booking : fbs.getBookings()) {
-                String line = formatBooking(booking);
-                writer.write(line);
-                writer.newLine();
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
 
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw e;
+    /**
+     * Formats every booking that would be written by {@link #storeData(FlightBookingSystem)}.
+     *
+     * @param view A snapshot of the Flight Booking System.
+     * @return The formatted lines, in file order.
+     */
+
+    List<String> formatAll(SystemSnapshot view) {
+        List<String> lines = new ArrayList<>();
+        for (Booking booking : view.getBookings()) {
+            lines.add(formatBooking(booking));
+        }
+        return lines;
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        return SnapshotDataManager.toBytes(formatAll(view));
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.BOOKINGS;
+    }
+
+    /**
+     * The fields of a booking as stored in the data file, before its customer and
+     * flight have been resolved.
+     */
+
+    static final class BookingRecord {
+        final int bookingId;
+        final int customerId;
+        final int flightId;
+        final LocalDate bookingDate;
+        final Flight.FlightClass flightClass;
+        final boolean deleted;
+
+        BookingRecord(int bookingId, int customerId, int flightId, LocalDate bookingDate, Flight.FlightClass flightClass, boolean deleted) {
+            this.bookingId = bookingId;
+            this.customerId = customerId;
+            this.flightId = flightId;
+            this.bookingDate = bookingDate;
+            this.flightClass = flightClass;
+            this.deleted = deleted;
         }
-    	
     }
 
 
@@ -0,0 +1,212 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The {@code ByteFieldTokenizer} class is the counterpart of {@link FieldTokenizer} for records
+ * held in a {@link ByteBuffer}, such as a memory-mapped data file.
+ *
+ * Records are separated by line terminators and read one at a time with {@link #nextRecord()}.
+ * Fields are parsed with absolute reads straight from the buffer in a single pass, so scanning a
+ * record creates no strings or arrays. Only records whose fields are ASCII, such as booking records, can be
+ * read this way; text fields that may hold other characters must go through {@link FieldTokenizer}.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FieldTokenizer
+ */
+
+final class ByteFieldTokenizer {
+
+    private static final byte SEPARATOR_BYTE = ':';
+
+    private final ByteBuffer buf;
+    private final int limit;
+    private int pos;
+    private boolean started;
+
+    /**
+     * Constructs a {@code ByteFieldTokenizer} over the records between the position and the
+     * limit of the given buffer.
+     *
+     * @param buf The buffer holding the records.
+     */
+    ByteFieldTokenizer(ByteBuffer buf) {
+        this.buf = buf;
+        this.limit = buf.limit();
+        this.pos = buf.position();
+    }
+
+    /**
+     * Advances to the next record, skipping whatever is left of the current one and any
+     * empty lines.
+     *
+     * @return {@code true} if a record is available, {@code false} at the end of the buffer.
+     */
+    boolean nextRecord() {
+        if (started) {
+            while (pos < limit && buf.get(pos) != '\n') {
+                pos++;
+            }
+        }
+        started = true;
+        while (pos < limit && isLineEnd(buf.get(pos))) {
+            pos++;
+        }
+        return pos < limit;
+    }
+
+    /**
+     * Checks whether the current record has another non-empty field.
+     *
+     * @return {@code true} if another non-empty field follows.
+     */
+    boolean hasNext() {
+        return pos < limit && fieldEnd() > pos;
+    }
+
+    /**
+     * Reads the current field as a decimal {@code int}.
+     *
+     * @return The field value.
+     * @throws NumberFormatException If the field is not a valid {@code int}.
+     */
+    int nextInt() {
+        int fieldEnd = fieldEnd();
+        int i = pos;
+        boolean negative = i < fieldEnd && buf.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == fieldEnd) {
+            throw invalid(fieldEnd);
+        }
+        long value = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(fieldEnd);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalid(fieldEnd);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw invalid(fieldEnd);
+        }
+        advance(fieldEnd);
+        return (int) value;
+    }
+
+    /**
+     * Reads the current field as an ISO-8601 date in {@code yyyy-MM-dd} format.
+     *
+     * @return The field value.
+     * @throws java.time.DateTimeException If the field is not a valid date.
+     */
+    LocalDate nextDate() {
+        int fieldEnd = fieldEnd();
+        if (fieldEnd - pos != 10 || buf.get(pos + 4) != '-' || buf.get(pos + 7) != '-') {
+            throw new DateTimeParseException("Text could not be parsed as a date", text(fieldEnd), 0);
+        }
+        int year = digits(pos, 4, fieldEnd);
+        int month = digits(pos + 5, 2, fieldEnd);
+        int day = digits(pos + 8, 2, fieldEnd);
+        advance(fieldEnd);
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads the current field as one of the given enum constants.
+     *
+     * @param <E>    The enum type.
+     * @param values The constants to match, usually {@code E.values()}.
+     * @return The matching constant.
+     * @throws IllegalArgumentException If no constant has the field as its name.
+     */
+    <E extends Enum<E>> E nextEnum(E[] values) {
+        int fieldEnd = fieldEnd();
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == fieldEnd - pos && matches(name)) {
+                advance(fieldEnd);
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + text(fieldEnd));
+    }
+
+    /**
+     * Reads the current field as a {@code boolean} with the same rules as
+     * {@link Boolean#parseBoolean(String)}.
+     *
+     * @return The field value.
+     */
+    boolean nextBoolean() {
+        int fieldEnd = fieldEnd();
+        boolean value = fieldEnd - pos == 4
+                && (buf.get(pos) | 0x20) == 't' && (buf.get(pos + 1) | 0x20) == 'r'
+                && (buf.get(pos + 2) | 0x20) == 'u' && (buf.get(pos + 3) | 0x20) == 'e';
+        advance(fieldEnd);
+        return value;
+    }
+
+    private boolean matches(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (buf.get(pos + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int from, int count, int fieldEnd) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Text could not be parsed as a date", text(fieldEnd), i - pos);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int fieldEnd() {
+        int i = pos;
+        while (i < limit) {
+            byte b = buf.get(i);
+            if (isLineEnd(b) || (b == SEPARATOR_BYTE && i + 1 < limit && buf.get(i + 1) == SEPARATOR_BYTE)) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private void advance(int fieldEnd) {
+        pos = fieldEnd < limit && buf.get(fieldEnd) == SEPARATOR_BYTE ? fieldEnd + 2 : fieldEnd;
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private String text(int fieldEnd) {
+        StringBuilder text = new StringBuilder(fieldEnd - pos);
+        for (int i = pos; i < fieldEnd; i++) {
+            text.append((char) (buf.get(i) & 0xff));
+        }
+        return text.toString();
+    }
+
+    private NumberFormatException invalid(int fieldEnd) {
+        return new NumberFormatException("For input string: \"" + text(fieldEnd) + "\"");
+    }
+}
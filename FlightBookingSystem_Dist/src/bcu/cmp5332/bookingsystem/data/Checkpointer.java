@@ -0,0 +1,194 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code Checkpointer} class compacts the write-ahead journal by writing a snapshot
+ * of the Flight Booking System and dropping the journal records the snapshot covers.
+ *
+ * A checkpoint is taken when the journal grows past {@value #SIZE_PROPERTY} bytes or when
+ * {@value #INTERVAL_PROPERTY} seconds have passed since the previous checkpoint. Both limits
+ * are checked whenever a change is committed, since the journal only grows at that point. The
+ * journal size is read without waiting for the commits being forced to disk, so the check does
+ * not hold up the committing thread.
+ *
+ * Taking a checkpoint has two stages. The {@link PersistenceQueue} first drains the commits
+ * queued before the checkpoint into the journal, and at that point the journal position is read as
+ * the offset and a {@link SystemSnapshot} of the system is taken, which copies nothing. Every
+ * record before the offset is then in the snapshot. The flights, customers and bookings of the
+ * snapshot are encoded by their {@link SnapshotDataManager}s on a background thread: each data
+ * file is written to a temporary file and atomically renamed into place, after which the journal
+ * is truncated up to the offset. Commands never wait for the encoding or the disk writes, and
+ * records appended meanwhile stay in the journal. Some of them may already be in the snapshot;
+ * replaying them over it is harmless. Data files whose entities have not changed since they were
+ * last written are left as they are.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see JournalDataManager
+ */
+
+public class Checkpointer {
+
+    public static final String SIZE_PROPERTY = "fbs.checkpoint.bytes";
+    public static final String INTERVAL_PROPERTY = "fbs.checkpoint.seconds";
+
+    private final JournalDataManager journal;
+    private final PersistenceQueue queue;
+    private final List<SnapshotDataManager> dataManagers;
+
+    private final long maxJournalBytes;
+    private final long intervalMillis;
+    private final ExecutorService executor;
+
+    private long lastCheckpoint = System.currentTimeMillis();
+    private Future<?> pending;
+
+    /**
+     * Constructs a {@code Checkpointer} for the given journal, reading its limits from the
+     * system properties. By default a checkpoint is taken once the journal reaches 1 MiB or
+     * five minutes have passed.
+     *
+     * @param journal      The journal to compact.
+     * @param queue        The queue that appends to the journal.
+     * @param dataManagers The managers of the data files that make up a snapshot.
+     */
+    Checkpointer(JournalDataManager journal, PersistenceQueue queue, List<SnapshotDataManager> dataManagers) {
+        this(journal, queue, dataManagers, Long.getLong(SIZE_PROPERTY, 1024 * 1024),
+                Long.getLong(INTERVAL_PROPERTY, 300) * 1000);
+    }
+
+    /**
+     * Constructs a {@code Checkpointer} for the given journal with explicit limits.
+     *
+     * @param journal         The journal to compact.
+     * @param queue           The queue that appends to the journal.
+     * @param dataManagers    The managers of the data files that make up a snapshot.
+     * @param maxJournalBytes The journal size that triggers a checkpoint.
+     * @param intervalMillis  The time between checkpoints, in milliseconds.
+     */
+    public Checkpointer(JournalDataManager journal, PersistenceQueue queue, List<SnapshotDataManager> dataManagers,
+            long maxJournalBytes, long intervalMillis) {
+        this.journal = journal;
+        this.queue = queue;
+        this.dataManagers = new ArrayList<>(dataManagers);
+        this.maxJournalBytes = maxJournalBytes;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a checkpoint if the journal has reached its size limit or the checkpoint
+     * interval has passed, and no checkpoint is already running.
+     *
+     * @param fbs The Flight Booking System instance that was just committed.
+     * @throws IOException If there is an error reading the journal size.
+     */
+    public synchronized void maybeCheckpoint(FlightBookingSystem fbs) throws IOException {
+        if (pending != null && !pending.isDone()) {
+            return;
+        }
+        long size = journal.size();
+        if (size >= maxJournalBytes || (size > 0 && System.currentTimeMillis() - lastCheckpoint >= intervalMillis)) {
+            checkpoint(fbs).whenComplete((done, ex) -> {
+                if (ex != null) {
+                    // the journal is left untouched, so no committed change is lost
+                    System.err.println("Checkpoint failed: " + ex.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Captures a snapshot of the Flight Booking System once the commits queued before this call
+     * are journaled, and writes it in the background. The snapshot is taken without locking the
+     * system, so a checkpoint may be taken while other threads are making bookings.
+     *
+     * Checkpoints are written one at a time, in the order they were taken, so a later checkpoint
+     * is never replaced by an earlier one.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @return A future that completes when the snapshot is written and the journal truncated, or
+     *         completes exceptionally if they could not be.
+     */
+    public synchronized CompletableFuture<Void> checkpoint(FlightBookingSystem fbs) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        lastCheckpoint = System.currentTimeMillis();
+        pending = written;
+        queue.whenDrained(() -> {
+            try {
+                // every record before the offset is in the journal now, and was applied in memory first
+                long offset = journal.position();
+                SystemSnapshot view = fbs.snapshot();
+                executor.execute(() -> {
+                    try {
+                        write(fbs, view, offset);
+                        written.complete(null);
+                    } catch (IOException | RuntimeException ex) {
+                        written.completeExceptionally(ex);
+                    }
+                });
+            } catch (IOException | RuntimeException ex) {
+                written.completeExceptionally(ex);
+            }
+        });
+        return written;
+    }
+
+    // the journal is only truncated once every data file is written
+    private void write(FlightBookingSystem fbs, SystemSnapshot view, long offset) throws IOException {
+        long avoided = 0;
+        for (SnapshotDataManager dm : dataManagers) {
+            FlightBookingSystem.EntitySet set = dm.getEntitySet();
+            Path path = Paths.get(dm.getResource());
+            if (fbs.hasUnstoredChanges(set) || !Files.exists(path)) {
+                DataFiles.writeAtomically(path, dm.snapshot(fbs, view));
+                fbs.markStored(set, view.getVersion(set));
+            } else {
+                avoided += Files.size(path);
+            }
+        }
+        journal.truncateThrough(offset);
+        FlightBookingSystemData.recordFlush(avoided);
+    }
+
+    /**
+     * Waits for the most recent checkpoint to finish.
+     */
+    public void awaitIdle() {
+        Future<?> running;
+        synchronized (this) {
+            running = pending;
+        }
+        // waited for outside the lock, so commits checking the limits meanwhile are not held up
+        if (running == null) {
+            return;
+        }
+        try {
+            running.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            System.err.println("Checkpoint failed: " + ex.getCause());
+        }
+    }
+}
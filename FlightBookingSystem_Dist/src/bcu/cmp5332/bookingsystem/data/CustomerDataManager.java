@@ -3,12 +3,13 @@ package bcu.cmp5332.bookingsystem.data;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Manages the loading and storing of customer data for the Flight Booking System from/to a text file.
@@ -26,10 +27,27 @@ import java.io.IOException;
  * @see DataManager
  */
 
-public class CustomerDataManager implements DataManager {
+public class CustomerDataManager implements SnapshotDataManager {
 
-    private final String RESOURCE = "./resources/data/customers.txt";
+    private final String RESOURCE;
     private final String SEPARATOR = "::";
+    private final ThreadLocal<FieldTokenizer> tokenizer = ThreadLocal.withInitial(FieldTokenizer::new);
+
+    /**
+     * Constructs a {@code CustomerDataManager} that uses the default customers data file.
+     */
+    public CustomerDataManager() {
+        this("./resources/data/customers.txt");
+    }
+
+    /**
+     * Constructs a {@code CustomerDataManager} that uses the given customers data file.
+     *
+     * @param resource The path of the customers data file.
+     */
+    public CustomerDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
     
     /**
      * Parses a line of text from the customers data file into a {@code Customer} object.
@@ -38,14 +56,23 @@ public class CustomerDataManager implements DataManager {
      * @return The parsed {@code Customer} object.
      */
     
-    private Customer parseCustomer(String line) {
-        String[] parts = line.split(SEPARATOR);
-        int id = Integer.parseInt(parts[0]);
-        String name = parts[1];
-        String phone = parts[2];
-        String email = parts[3];
-        boolean deleted = Boolean.parseBoolean(parts[4]);  
+    Customer parseCustomer(String line) {
+        return parseCustomer(tokenizer.get().reset(line));
+    }
 
+    /**
+     * Parses the current record of a {@link FieldTokenizer} into a {@code Customer} object.
+     *
+     * @param fields The tokenizer positioned at a customer record.
+     * @return The parsed {@code Customer} object.
+     */
+
+    Customer parseCustomer(FieldTokenizer fields) {
+        int id = fields.nextInt();
+        String name = fields.nextString();
+        String phone = fields.nextString();
+        String email = fields.nextString();
+        boolean deleted = fields.nextBoolean();
 
         return new Customer(id, name, phone, email, deleted);
     }
@@ -57,7 +84,7 @@ public class CustomerDataManager implements DataManager {
      * @return The formatted string representation of the customer.
      */
 
-    private String formatCustomer(Customer customer) {
+    String formatCustomer(Customer customer) {
         return customer.getId() + SEPARATOR + customer.getName() + SEPARATOR
                 + customer.getPhone() + SEPARATOR + customer.getEmail() + SEPARATOR
                 + customer.isDeleted() + SEPARATOR;  
@@ -73,17 +100,34 @@ public class CustomerDataManager implements DataManager {
 
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(RESOURCE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Customer customer = parseCustomer(line);
-                fbs.addCustomer(customer);
+        for (Customer customer : readCustomers()) {
+            fbs.addCustomer(customer);
+        }
+    }
+
+    /**
+     * Reads and parses every customer in the customers data file without adding them
+     * to a Flight Booking System.
+     *
+     * @return The parsed customers, in file order.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the file does not match its checksum.
+     */
+
+    List<Customer> readCustomers() throws IOException, FlightBookingSystemException {
+        List<Customer> customers = new ArrayList<>();
+        try (Reader reader = DataFiles.openVerified(Paths.get(RESOURCE))) {
+            FieldTokenizer fields = new FieldTokenizer(reader);
+            while (fields.nextRecord()) {
+                customers.add(parseCustomer(fields));
             }
         }
+        return customers;
     }
 
     /**
      * Stores customer data from the Flight Booking System into the customers data file.
+     * The file is replaced atomically, so a crash cannot leave it partly written.
      *
      * @param fbs The Flight Booking System instance.
      * @throws IOException If there is an error writing to the file.
@@ -91,13 +135,37 @@ public class CustomerDataManager implements DataManager {
 
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(RESOURCE))) {
-            for (Customer customer : fbs.getCustomers()) {
-                String line = formatCustomer(customer);
-                writer.write(line);
-                writer.newLine();
-            }
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    /**
+     * Formats every customer that would be written by {@link #storeData(FlightBookingSystem)}.
+     *
+     * @param view A snapshot of the Flight Booking System.
+     * @return The formatted lines, in file order.
+     */
+
+    List<String> formatAll(SystemSnapshot view) {
+        List<String> lines = new ArrayList<>();
+        for (Customer customer : view.getCustomers()) {
+            lines.add(formatCustomer(customer));
         }
+        return lines;
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        return SnapshotDataManager.toBytes(formatAll(view));
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.CUSTOMERS;
     }
 
 }
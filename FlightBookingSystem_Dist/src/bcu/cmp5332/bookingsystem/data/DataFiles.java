@@ -0,0 +1,215 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code DataFiles} class writes and verifies the data files of the Flight Booking System.
+ *
+ * A data file is never rewritten in place. Its new contents are written to a temporary file
+ * of their own next to it, forced to disk, and atomically renamed over the old file, so a crash leaves
+ * either the complete old file or the complete new one.
+ *
+ * Every file written this way ends with a trailer line {@code #CRC32::xxxxxxxx} holding the
+ * CRC-32 of the bytes before it, in hexadecimal. Text data files also start with the marker
+ * line {@value #TEXT_MARKER}, and binary data files with the magic number of
+ * {@link BinaryFormat}. A file that starts with either must end with a matching trailer, so a
+ * file that lost its end, trailer and all, fails to load instead of loading fewer records.
+ *
+ * Text files without the marker, such as the files of older versions or files written by
+ * hand, are read on a legacy path: a trailer is checked if it is present, and otherwise the
+ * file is accepted as it is. Storing such a file again writes it with the marker.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see DataManager
+ */
+
+final class DataFiles {
+
+    static final String TEXT_MARKER = "#FBS" + DataManager.SEPARATOR + "CRC32";
+
+    private static final String TRAILER_PREFIX = "#CRC32" + DataManager.SEPARATOR;
+    private static final int TRAILER_SIZE = TRAILER_PREFIX.length() + 8 + 1;
+
+    private DataFiles() {
+    }
+
+    /**
+     * Writes the given contents, followed by their checksum trailer, to a temporary file next
+     * to the target and atomically renames it over the target once it has been forced to disk.
+     *
+     * @param target   The file to replace.
+     * @param contents The contents of the file, without a trailer.
+     * @throws IOException If there is an error writing or renaming the file.
+     */
+    static void writeAtomically(Path target, byte[] contents) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(contents, 0, contents.length);
+        byte[] trailer = String.format("%s%08x\n", TRAILER_PREFIX, crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = createTempFile(directory, target);
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                out.write(contents);
+                out.write(trailer);
+                out.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        syncDirectory(directory);
+    }
+
+    /**
+     * Creates an empty temporary file next to the target, named after it. Every call gets a
+     * file of its own, so writers of the same target never write to each other's file.
+     *
+     * @param directory The directory of the target.
+     * @param target    The file the temporary file will replace.
+     * @return The new temporary file.
+     * @throws IOException If the file cannot be created.
+     */
+    static Path createTempFile(Path directory, Path target) throws IOException {
+        return Files.createTempFile(directory, target.getFileName() + ".", ".tmp");
+    }
+
+    /**
+     * Reads a text data file and verifies its checksum.
+     *
+     * @param path The data file.
+     * @return A reader over the contents of the file, without the trailer.
+     * @throws IOException If there is an error reading the file.
+     * @throws FlightBookingSystemException If the file does not match its checksum.
+     */
+    static Reader openVerified(Path path) throws IOException, FlightBookingSystemException {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int length = verify(buffer, path.toString(), true);
+        int start = contentStart(buffer);
+        return new InputStreamReader(new ByteArrayInputStream(bytes, start, length - start), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the start of the records of a text data file held in a buffer, after its marker line.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer The complete data file.
+     * @return The length of the marker line, or 0 if the file has none.
+     */
+    static int contentStart(ByteBuffer buffer) {
+        if (!startsWith(buffer, 0, TEXT_MARKER)) {
+            return 0;
+        }
+        int end = TEXT_MARKER.length();
+        if (end < buffer.limit() && buffer.get(end) == '\r') {
+            end++;
+        }
+        if (end < buffer.limit() && buffer.get(end) == '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Finds the end of the contents of a data file held in a buffer, and optionally verifies
+     * them against the trailer. The position of the buffer is not changed.
+     *
+     * @param buffer   The complete data file.
+     * @param resource The path of the data file, used in error messages.
+     * @param check    Whether to compute and compare the checksum.
+     * @return The length of the contents before the trailer, or the whole length of a legacy file
+     *         without one.
+     * @throws FlightBookingSystemException If a file written with a trailer has lost it, or if the
+     *                                      checksum is checked and does not match.
+     */
+    static int verify(ByteBuffer buffer, String resource, boolean check) throws FlightBookingSystemException {
+        int limit = buffer.limit();
+        boolean required = startsWith(buffer, 0, TEXT_MARKER)
+                || (limit >= 4 && buffer.getInt(0) == BinaryFormat.MAGIC);
+        int start = trailerStart(buffer);
+        if (start < 0) {
+            if (required) {
+                throw new FlightBookingSystemException("Missing checksum in " + resource
+                        + ". The file is corrupt or was only partly written.");
+            }
+            return limit;
+        }
+        long expected = 0;
+        for (int i = start + TRAILER_PREFIX.length(); i < start + TRAILER_SIZE - 1; i++) {
+            expected = expected << 4 | Character.digit(buffer.get(i), 16);
+        }
+        if (check) {
+            ByteBuffer contents = buffer.duplicate();
+            contents.position(0).limit(start);
+            CRC32 crc = new CRC32();
+            crc.update(contents);
+            if (crc.getValue() != expected) {
+                throw new FlightBookingSystemException("Checksum mismatch in " + resource
+                        + ". The file is corrupt or was only partly written.");
+            }
+        }
+        return start;
+    }
+
+    // the offset of a well-formed trailer at the end of the buffer, or -1 if there is none
+    private static int trailerStart(ByteBuffer buffer) {
+        int end = buffer.limit();
+        if (end > 0 && buffer.get(end - 1) == '\n') {
+            end--;
+            if (end > 0 && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+        }
+        int start = end - (TRAILER_SIZE - 1);
+        if (start < 0 || !startsWith(buffer, start, TRAILER_PREFIX)) {
+            return -1;
+        }
+        for (int i = start + TRAILER_PREFIX.length(); i < end; i++) {
+            if (Character.digit(buffer.get(i), 16) < 0) {
+                return -1;
+            }
+        }
+        return start;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, String prefix) {
+        if (start + prefix.length() > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // not every platform can sync a directory; the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code DataFormatConverter} class migrates the data files between the text and the
+ * binary data formats.
+ *
+ * The flights, customers and bookings are loaded with the managers of the source format and
+ * stored with the managers of the target format, so the converted files hold exactly what a
+ * store in the source format would have written. Any records left in the journal are replayed
+ * first, and the ID sequences are stored again so they cover the replayed records. Once every
+ * file is converted the journal is truncated, as its records are all in the converted files.
+ *
+ * Usage: {@code java bcu.cmp5332.bookingsystem.data.DataFormatConverter [binary|text]},
+ * where the argument is the target format and defaults to {@code binary}. The files of the
+ * source format are left in place.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystemData#FORMAT_PROPERTY
+ */
+
+public class DataFormatConverter {
+
+    public static void main(String[] args) throws IOException, FlightBookingSystemException {
+        String target = args.length > 0 ? args[0] : FlightBookingSystemData.BINARY_FORMAT;
+        if (FlightBookingSystemData.BINARY_FORMAT.equals(target) || FlightBookingSystemData.TEXT_FORMAT.equals(target)) {
+            convert(Paths.get("./resources/data"), target);
+        } else {
+            System.out.println("Unknown format: " + target + ". Expected "
+                    + FlightBookingSystemData.BINARY_FORMAT + " or " + FlightBookingSystemData.TEXT_FORMAT + ".");
+        }
+    }
+
+    /**
+     * Converts the data files in the given directory to the given format.
+     *
+     * @param directory The directory holding the data files and the journal.
+     * @param target    The format to convert to, {@code binary} or {@code text}.
+     * @throws IOException If there is an error reading or writing a data file.
+     * @throws FlightBookingSystemException If there is an error parsing the source data.
+     */
+
+    public static void convert(Path directory, String target) throws IOException, FlightBookingSystemException {
+        List<SnapshotDataManager> text = Arrays.asList(
+                new FlightDataManager(directory.resolve("flights.txt").toString()),
+                new CustomerDataManager(directory.resolve("customers.txt").toString()),
+                new BookingDataManager(directory.resolve("bookings.txt").toString()));
+        List<SnapshotDataManager> binary = Arrays.asList(
+                new BinaryFlightDataManager(directory.resolve("flights.bin").toString()),
+                new BinaryCustomerDataManager(directory.resolve("customers.bin").toString()),
+                new BinaryBookingDataManager(directory.resolve("bookings.bin").toString()));
+        boolean toBinary = FlightBookingSystemData.BINARY_FORMAT.equals(target);
+        convert(toBinary ? text : binary, toBinary ? binary : text,
+                new IdSequenceDataManager(directory.resolve("sequences.txt").toString()),
+                new JournalDataManager(directory.resolve("journal.log")));
+    }
+
+    /**
+     * Loads the data files of one format and stores them in another.
+     *
+     * @param source    The managers of the files to read.
+     * @param target    The managers of the files to write, in the same order.
+     * @param sequences The manager of the ID sequences, which both formats share.
+     * @param journal   The journal to replay, and to truncate once the files are converted.
+     * @throws IOException If there is an error reading or writing a data file.
+     * @throws FlightBookingSystemException If there is an error parsing the source data.
+     */
+
+    static void convert(List<SnapshotDataManager> source, List<SnapshotDataManager> target,
+            IdSequenceDataManager sequences, JournalDataManager journal)
+            throws IOException, FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        try {
+            for (DataManager dm : source) {
+                dm.loadData(fbs);
+            }
+            sequences.loadData(fbs);
+            journal.loadData(fbs);
+            for (int i = 0; i < target.size(); i++) {
+                target.get(i).storeData(fbs);
+                String from = source.get(i).getResource();
+                String to = target.get(i).getResource();
+                System.out.println(from + " (" + Files.size(Paths.get(from)) + " bytes) -> "
+                        + to + " (" + Files.size(Paths.get(to)) + " bytes)");
+            }
+            sequences.storeData(fbs);
+            // every journaled record is in the converted files now
+            if (Files.exists(journal.getPath())) {
+                journal.storeData(fbs);
+            }
+        } finally {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * The {@code FieldTokenizer} class reads the {@value DataManager#SEPARATOR}-delimited
+ * records of the data files without regular expressions or intermediate substrings.
+ *
+ * Records are held in a reusable character buffer. The typed {@code next} methods parse
+ * the current field directly from that buffer and move to the next one, so only fields
+ * that are genuinely text, such as names, create a {@code String}.
+ *
+ * A tokenizer either reads records one line at a time from a {@link Reader} with
+ * {@link #nextRecord()}, or tokenizes a single line passed to {@link #reset(String)}.
+ * Instances are not thread-safe.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see DataManager
+ */
+
+public final class FieldTokenizer {
+
+    private static final char SEPARATOR_CHAR = ':';
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final Reader in;
+    private char[] buf = new char[8192];
+    private int filled;
+    private int recordStart;
+    private int recordEnd;
+    private int lineEnd;
+    private int pos;
+    private boolean eof;
+
+    /**
+     * Constructs a {@code FieldTokenizer} for lines passed to {@link #reset(String)}.
+     */
+    public FieldTokenizer() {
+        this(null);
+    }
+
+    /**
+     * Constructs a {@code FieldTokenizer} that reads records from the given reader.
+     *
+     * @param in The reader to read records from.
+     */
+    public FieldTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Makes the given line the current record.
+     *
+     * @param line The record to tokenize, without a line terminator.
+     * @return This tokenizer.
+     */
+    public FieldTokenizer reset(String line) {
+        int length = line.length();
+        if (buf.length < length) {
+            buf = new char[Math.max(length, buf.length * 2)];
+        }
+        line.getChars(0, length, buf, 0);
+        filled = length;
+        recordStart = 0;
+        recordEnd = length;
+        lineEnd = length;
+        pos = 0;
+        return this;
+    }
+
+    /**
+     * Advances to the next line of the reader. Empty lines are skipped.
+     *
+     * @return {@code true} if a record is available, {@code false} at the end of input.
+     * @throws IOException If there is an error reading from the reader.
+     */
+    public boolean nextRecord() throws IOException {
+        int start = recordEnd < filled && buf[recordEnd] == '\n' ? recordEnd + 1 : recordEnd;
+        while (true) {
+            int newline = indexOf('\n', start, filled);
+            if (newline >= 0) {
+                if (setRecord(start, newline)) {
+                    return true;
+                }
+                start = newline + 1;
+                continue;
+            }
+            if (eof) {
+                return filled > start && setRecord(start, filled);
+            }
+            // move the partial line to the front of the buffer and read more
+            int remaining = filled - start;
+            if (remaining == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            } else if (start > 0) {
+                System.arraycopy(buf, start, buf, 0, remaining);
+            }
+            filled = remaining;
+            start = 0;
+            int read = in.read(buf, filled, buf.length - filled);
+            if (read < 0) {
+                eof = true;
+            } else {
+                filled += read;
+            }
+        }
+    }
+
+    private boolean setRecord(int start, int end) {
+        recordStart = start;
+        recordEnd = end;
+        lineEnd = end > start && buf[end - 1] == '\r' ? end - 1 : end;
+        pos = start;
+        return lineEnd > start;
+    }
+
+    /**
+     * Counts the fields of the current record, including an empty trailing field after
+     * a closing separator.
+     *
+     * @return The number of fields in the current record.
+     */
+    public int countFields() {
+        int end = end();
+        int count = 1;
+        for (int i = recordStart; i + 1 < end; i++) {
+            if (buf[i] == SEPARATOR_CHAR && buf[i + 1] == SEPARATOR_CHAR) {
+                count++;
+                i++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the current record has another non-empty field.
+     *
+     * @return {@code true} if another non-empty field follows.
+     */
+    public boolean hasNext() {
+        return pos < end() && fieldEnd() > pos;
+    }
+
+    /**
+     * Reads the current field as text.
+     *
+     * @return The field value.
+     */
+    public String nextString() {
+        int end = fieldEnd();
+        String value = new String(buf, pos, end - pos);
+        advance(end);
+        return value;
+    }
+
+    /**
+     * Skips the current field.
+     */
+    public void skip() {
+        advance(fieldEnd());
+    }
+
+    /**
+     * Reads the current field as a decimal {@code int}.
+     *
+     * @return The field value.
+     * @throws NumberFormatException If the field is not a valid {@code int}.
+     */
+    public int nextInt() {
+        int end = fieldEnd();
+        int i = pos;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw invalid("int", end);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid("int", end);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalid("int", end);
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw invalid("int", end);
+        }
+        advance(end);
+        return (int) value;
+    }
+
+    /**
+     * Reads the current field as a {@code double}. Plain decimals such as {@code 15000.0}
+     * are parsed directly from the buffer; any other notation falls back to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @return The field value.
+     * @throws NumberFormatException If the field is not a valid number.
+     */
+    public double nextDouble() {
+        int end = fieldEnd();
+        int i = pos;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean plain = i < end;
+        for (; i < end && plain; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                plain = false;
+            }
+        }
+        double value;
+        if (plain && digits > 0 && digits <= 15) {
+            value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            value = Double.parseDouble(new String(buf, pos, end - pos));
+        }
+        advance(end);
+        return value;
+    }
+
+    /**
+     * Reads the current field as a {@code boolean} with the same rules as
+     * {@link Boolean#parseBoolean(String)}: only {@code true}, ignoring case, is true.
+     *
+     * @return The field value.
+     */
+    public boolean nextBoolean() {
+        int end = fieldEnd();
+        boolean value = end - pos == 4
+                && (buf[pos] | 0x20) == 't' && (buf[pos + 1] | 0x20) == 'r'
+                && (buf[pos + 2] | 0x20) == 'u' && (buf[pos + 3] | 0x20) == 'e';
+        advance(end);
+        return value;
+    }
+
+    /**
+     * Reads the current field as an ISO-8601 date in {@code yyyy-MM-dd} format.
+     *
+     * @return The field value.
+     * @throws java.time.DateTimeException If the field is not a valid date.
+     */
+    public LocalDate nextDate() {
+        int end = fieldEnd();
+        if (end - pos != 10 || buf[pos + 4] != '-' || buf[pos + 7] != '-') {
+            throw new DateTimeParseException("Text could not be parsed as a date",
+                    new String(buf, pos, end - pos), 0);
+        }
+        int year = digits(pos, 4, end);
+        int month = digits(pos + 5, 2, end);
+        int day = digits(pos + 8, 2, end);
+        advance(end);
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads the current field as one of the given enum constants, comparing the field
+     * with each constant name without creating a string.
+     *
+     * @param <E>    The enum type.
+     * @param values The constants to match, usually {@code E.values()}.
+     * @return The matching constant.
+     * @throws IllegalArgumentException If no constant has the field as its name.
+     */
+    public <E extends Enum<E>> E nextEnum(E[] values) {
+        int end = fieldEnd();
+        int length = end - pos;
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && matches(name, pos)) {
+                advance(end);
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + new String(buf, pos, length));
+    }
+
+    private boolean matches(String name, int from) {
+        for (int i = 0; i < name.length(); i++) {
+            if (buf[from + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int from, int count, int end) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Text could not be parsed as a date",
+                        new String(buf, pos, end - pos), i - pos);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int end() {
+        return lineEnd;
+    }
+
+    private int fieldEnd() {
+        int end = end();
+        for (int i = pos; i + 1 < end; i++) {
+            if (buf[i] == SEPARATOR_CHAR && buf[i + 1] == SEPARATOR_CHAR) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private void advance(int fieldEnd) {
+        pos = Math.min(fieldEnd + 2, end());
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private NumberFormatException invalid(String type, int end) {
+        return new NumberFormatException("For input string: \"" + new String(buf, pos, end - pos) + "\" (expected " + type + ")");
+    }
+}
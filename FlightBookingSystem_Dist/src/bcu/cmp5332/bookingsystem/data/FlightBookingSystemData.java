@@ -2,9 +2,17 @@ package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The {@code FlightBookingSystemData} class manages the loading and storing of
@@ -21,6 +29,38 @@ import java.util.List;
  * It includes functionality to load all necessary data on system startup and
  * to store updated data on system shutdown or when changes are made.
  * 
+ * Two persistence modes are supported, selected with the {@value #PERSISTENCE_PROPERTY}
+ * system property. In the default {@value #SNAPSHOT_MODE} mode every committed change
+ * rewrites the data files. In {@value #JOURNAL_MODE} mode a committed change is appended
+ * to a write-ahead journal instead, and the journal is replayed on top of the data files
+ * when the system is loaded.
+ * 
+ * The data files are stored as {@code ::}-delimited text by default. Setting the
+ * {@value #FORMAT_PROPERTY} system property to {@value #BINARY_FORMAT} uses the compact
+ * binary format of {@link BinaryFormat} instead; existing text files are migrated with
+ * {@link DataFormatConverter}.
+ * 
+ * Committed changes are made durable by a {@link PersistenceQueue}, which merges commits that
+ * arrive together into a single flush. {@link #commit(FlightBookingSystem, JournalEntry)} waits
+ * for the flush, while {@link #commitAsync(FlightBookingSystem, JournalEntry)} returns a future.
+ * While commits are deferred with {@link #setDeferred(boolean)}, committed changes are only kept
+ * in memory, and written together by the next {@link #store(FlightBookingSystem)}.
+ * 
+ * A data file is only written when its {@link FlightBookingSystem.EntitySet} has changed since
+ * it was last loaded or stored. The number of bytes that were not rewritten because of this is
+ * available from {@link #getLastFlushBytesAvoided()} and {@link #getBytesAvoided()}.
+ * 
+ * The highest ID handed out for each kind of entity is stored alongside the data files by
+ * {@link IdSequenceDataManager}, so IDs of deleted entities are not reused after a restart.
+ * 
+ * Setting the {@value #LOAD_PROPERTY} system property to {@value #PARALLEL_LOAD} loads the
+ * text data files on a pool of worker threads with {@link ParallelDataLoader}.
+ * 
+ * Booking IDs are reserved in blocks shared by every thread, of a size set by the
+ * {@value #BOOKING_ID_BLOCK_PROPERTY} system property. When several processes create bookings in
+ * the same data, setting the {@value #SHARED_BOOKING_IDS_PROPERTY} system property to the path of
+ * a counter file they all use makes them reserve their blocks through a {@link SharedIdBlockSource}.
+ * 
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -29,16 +69,56 @@ import java.util.List;
 
 public class FlightBookingSystemData {
     
-    private static final List<DataManager> dataManagers = new ArrayList<>();
+    public static final String PERSISTENCE_PROPERTY = "fbs.persistence";
+    public static final String SNAPSHOT_MODE = "snapshot";
+    public static final String JOURNAL_MODE = "journal";
+    public static final String LOAD_PROPERTY = "fbs.load";
+    public static final String PARALLEL_LOAD = "parallel";
+    public static final String FORMAT_PROPERTY = "fbs.format";
+    public static final String TEXT_FORMAT = "text";
+    public static final String BINARY_FORMAT = "binary";
+    public static final String SHARED_BOOKING_IDS_PROPERTY = "fbs.booking.ids.shared";
+    public static final String BOOKING_ID_BLOCK_PROPERTY = "fbs.booking.ids.block";
+
+    private static final List<SnapshotDataManager> dataManagers = new ArrayList<>();
+    private static final AtomicLong bytesAvoided = new AtomicLong();
+    private static volatile long lastFlushBytesAvoided;
+    private static JournalDataManager journal;
+    private static Checkpointer checkpointer;
+    private static ParallelDataLoader parallelLoader;
+    private static final IdSequenceDataManager idSequenceDataManager = new IdSequenceDataManager();
+    private static PersistenceQueue persistenceQueue;
+    private static final CompletableFuture<Void> DEFERRED = CompletableFuture.completedFuture(null);
+    private static volatile boolean deferred;
     
     // runs only once when the object gets loaded to memory
     static {
-        dataManagers.add(new FlightDataManager());
-        
-        /* Uncomment the two lines below when the implementation of their 
-        loadData() and storeData() methods is complete */
-         dataManagers.add(new CustomerDataManager());
-         dataManagers.add(new BookingDataManager());
+        if (BINARY_FORMAT.equals(System.getProperty(FORMAT_PROPERTY, TEXT_FORMAT))) {
+            dataManagers.add(new BinaryFlightDataManager());
+            dataManagers.add(new BinaryCustomerDataManager());
+            dataManagers.add(new BinaryBookingDataManager());
+        } else {
+            FlightDataManager flightDataManager = new FlightDataManager();
+            CustomerDataManager customerDataManager = new CustomerDataManager();
+            BookingDataManager bookingDataManager = new BookingDataManager();
+
+            dataManagers.add(flightDataManager);
+            dataManagers.add(customerDataManager);
+            dataManagers.add(bookingDataManager);
+
+            if (PARALLEL_LOAD.equals(System.getProperty(LOAD_PROPERTY))) {
+                parallelLoader = new ParallelDataLoader(flightDataManager, customerDataManager, bookingDataManager);
+            }
+        }
+        dataManagers.add(idSequenceDataManager);
+
+        if (JOURNAL_MODE.equals(System.getProperty(PERSISTENCE_PROPERTY, SNAPSHOT_MODE))) {
+            journal = new JournalDataManager();
+        }
+        persistenceQueue = new PersistenceQueue(journal);
+        if (journal != null) {
+            checkpointer = new Checkpointer(journal, persistenceQueue, dataManagers);
+        }
     }
     
     /**
@@ -52,26 +132,218 @@ public class FlightBookingSystemData {
     public static FlightBookingSystem load() throws FlightBookingSystemException, IOException {
 
         FlightBookingSystem fbs = new FlightBookingSystem();
-        for (DataManager dm : dataManagers) {
-            dm.loadData(fbs);
+        if (parallelLoader != null) {
+            parallelLoader.load(fbs);
+            idSequenceDataManager.loadData(fbs);
+        } else {
+            for (DataManager dm : dataManagers) {
+                dm.loadData(fbs);
+            }
+        }
+        // the data files now match memory; replayed journal records count as changes
+        for (FlightBookingSystem.EntitySet set : FlightBookingSystem.EntitySet.values()) {
+            fbs.markStored(set, fbs.getVersion(set));
+        }
+        if (journal != null) {
+            journal.loadData(fbs);
         }
+        // blocks reserved while loading are dropped, so none can overlap a booking ID replayed above
+        configureBookingIds(fbs);
         return fbs;
     }
     
+    private static void configureBookingIds(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        String shared = System.getProperty(SHARED_BOOKING_IDS_PROPERTY);
+        int blockSize;
+        try {
+            blockSize = Integer.parseInt(System.getProperty(BOOKING_ID_BLOCK_PROPERTY,
+                    String.valueOf(FlightBookingSystem.DEFAULT_BOOKING_ID_BLOCK)));
+        } catch (NumberFormatException ex) {
+            throw new FlightBookingSystemException("Invalid " + BOOKING_ID_BLOCK_PROPERTY + ": " + ex.getMessage());
+        }
+        if (blockSize <= 0) {
+            throw new FlightBookingSystemException("Invalid " + BOOKING_ID_BLOCK_PROPERTY + ": " + blockSize);
+        }
+        IdSequence bookingIds = fbs.getIdSequences().get(FlightBookingSystem.EntitySet.BOOKINGS);
+        fbs.setBookingIdSource(shared == null ? null : new SharedIdBlockSource(shared, bookingIds), blockSize);
+    }
+
     /**
      * Stores the current state of the Flight Booking System into persistent storage.
+     * Data files whose entities have not changed since they were last written are skipped.
+     *
+     * The store is queued behind the commits made before it and written by the same thread
+     * as they are. In journal mode it is a {@link Checkpointer} checkpoint, so only the journal
+     * records it covers are removed and changes committed while it is written are kept.
      *
      * @param fbs The instance of {@link FlightBookingSystem} to be stored.
      * @throws IOException If there is an error writing to the data source.
      */
 
     public static void store(FlightBookingSystem fbs) throws IOException {
+        if (checkpointer != null) {
+            await(checkpointer.checkpoint(fbs));
+        } else {
+            await(submitSnapshots(fbs));
+        }
+    }
+
+    /**
+     * Gets the number of bytes that the most recent store or checkpoint did not have to write
+     * because the data files they belong to were unchanged.
+     *
+     * @return The bytes avoided by the last flush.
+     */
+
+    public static long getLastFlushBytesAvoided() {
+        return lastFlushBytesAvoided;
+    }
+
+    /**
+     * Gets the total number of bytes that stores and checkpoints did not have to write
+     * because the data files they belong to were unchanged.
+     *
+     * @return The bytes avoided by all flushes so far.
+     */
+
+    public static long getBytesAvoided() {
+        return bytesAvoided.get();
+    }
+
+    static void recordFlush(long avoided) {
+        lastFlushBytesAvoided = avoided;
+        bytesAvoided.addAndGet(avoided);
+    }
 
-        for (DataManager dm : dataManagers) {
-            dm.storeData(fbs);
+    /**
+     * Persists a single change made to the Flight Booking System and waits until it is durable.
+     *
+     * @param fbs   The instance of {@link FlightBookingSystem} that was changed.
+     * @param entry The journal entry describing the change.
+     * @throws IOException If there is an error writing to the data source.
+     * @see #commitAsync(FlightBookingSystem, JournalEntry)
+     */
+
+    public static void commit(FlightBookingSystem fbs, JournalEntry entry) throws IOException {
+        await(commitAsync(fbs, entry));
+    }
+
+    /**
+     * Queues a single change made to the Flight Booking System to be persisted.
+     *
+     * In journal mode the entry is appended to the journal, and a background checkpoint is
+     * started once the journal is due for compaction. Otherwise the data files whose entities
+     * changed are encoded now, on the calling thread, and written by the persistence queue.
+     * While commits are deferred, nothing is written and the future is already complete.
+     * Either way the change must be complete in memory before this method is called. When
+     * several threads change the system, the change should be queued while its locks are still
+     * held, so the journal records changes to the same flight in the order they were made.
+     *
+     * @param fbs   The instance of {@link FlightBookingSystem} that was changed.
+     * @param entry The journal entry describing the change.
+     * @return A future that completes when the change is durable, or completes exceptionally
+     *         with the {@link IOException} that prevented it.
+     */
+
+    public static CompletableFuture<Void> commitAsync(FlightBookingSystem fbs, JournalEntry entry) {
+        if (deferred) {
+            return DEFERRED;
         }
+        if (journal != null) {
+            CompletableFuture<Void> done = persistenceQueue.submit(entry);
+            try {
+                checkpointer.maybeCheckpoint(fbs);
+            } catch (IOException ex) {
+                // the entry is still journaled, so the checkpoint can be retried by a later commit
+                System.err.println("Checkpoint failed: " + ex.getMessage());
+            }
+            return done;
+        }
+        return submitSnapshots(fbs);
+    }
+
+    private static CompletableFuture<Void> submitSnapshots(FlightBookingSystem fbs) {
+        // commits on other threads capture and queue in turn, so a flush never writes older contents last
+        synchronized (dataManagers) {
+            List<PersistenceQueue.Snapshot> snapshots = new ArrayList<>();
+            SystemSnapshot view = fbs.snapshot();
+            long avoided = 0;
+            try {
+                for (SnapshotDataManager dm : dataManagers) {
+                    FlightBookingSystem.EntitySet set = dm.getEntitySet();
+                    Path path = Paths.get(dm.getResource());
+                    if (!fbs.hasUnstoredChanges(set) && Files.exists(path)) {
+                        avoided += Files.size(path);
+                        continue;
+                    }
+                    long version = view.getVersion(set);
+                    snapshots.add(new PersistenceQueue.Snapshot(fbs, dm, version, dm.snapshot(fbs, view)));
+                }
+            } catch (IOException ex) {
+                CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(ex);
+                return failed;
+            }
+            recordFlush(avoided);
+            return persistenceQueue.submit(fbs, snapshots);
+        }
+    }
+
+    /**
+     * Sets whether committed changes are deferred. While they are, {@link #commit} and
+     * {@link #commitAsync} write nothing, and the changes are only durable once
+     * {@link #store(FlightBookingSystem)} has written the data files they changed. This suits
+     * loading many changes at once, which would otherwise rewrite or journal the data one change
+     * at a time, at the cost of losing the changes since the last store if the process stops.
+     *
+     * @param deferred {@code true} to defer commits until the next store, {@code false} to make
+     *                 every commit durable again.
+     */
+
+    public static void setDeferred(boolean deferred) {
+        FlightBookingSystemData.deferred = deferred;
+    }
+
+    /**
+     * Checks whether committed changes are deferred until the next store.
+     *
+     * @return {@code true} if commits are deferred.
+     */
+
+    public static boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Waits until a change queued by {@link #commitAsync(FlightBookingSystem, JournalEntry)} is durable.
+     * A thread holding the locks of the change should queue it, release the locks and then wait, so
+     * other changes to the same flights do not wait for the disk as well.
+     *
+     * @param done The future returned by {@code commitAsync}.
+     * @throws IOException If the change could not be persisted.
+     */
+
+    public static void await(CompletableFuture<Void> done) throws IOException {
+        try {
+            done.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the change to be stored.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    /**
+     * Gets the persistence queue that makes committed changes durable.
+     *
+     * @return The persistence queue.
+     */
+
+    public static PersistenceQueue getPersistenceQueue() {
+        return persistenceQueue;
     }
-    
-    
-    
 }
@@ -3,13 +3,14 @@ package bcu.cmp5332.bookingsystem.data;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
-import java.io.File;
-import java.io.FileWriter;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The {@code FlightDataManager} class implements {@link DataManager} to manage
@@ -28,10 +29,28 @@ import java.util.Scanner;
  * @since 2024-06-10
  */
 
-public class FlightDataManager implements DataManager {
+public class FlightDataManager implements SnapshotDataManager {
     
-    private final String RESOURCE = "./resources/data/flights.txt";
+    private final String RESOURCE;
     private final String SEPARATOR = "::";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final ThreadLocal<FieldTokenizer> tokenizer = ThreadLocal.withInitial(FieldTokenizer::new);
+
+    /**
+     * Constructs a {@code FlightDataManager} that uses the default flights data file.
+     */
+    public FlightDataManager() {
+        this("./resources/data/flights.txt");
+    }
+
+    /**
+     * Constructs a {@code FlightDataManager} that uses the given flights data file.
+     *
+     * @param resource The path of the flights data file.
+     */
+    public FlightDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
     
     /**
      * Loads flight data from the specified resource file into the given
@@ -44,39 +63,99 @@ public class FlightDataManager implements DataManager {
     
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        try (Scanner sc = new Scanner(new File(RESOURCE))) {
+        for (Flight flight : readFlights()) {
+            if (!flight.isDeleted()) {
+                fbs.addFlight(flight);
+            }
+        }
+    }
+
+    /**
+     * Reads and parses every flight in the flights data file, including deleted ones,
+     * without adding them to a Flight Booking System.
+     * 
+     * @return The parsed flights, in file order.
+     * @throws IOException If there is an error reading from the data source.
+     * @throws FlightBookingSystemException If there is an error parsing the data, insufficient data or a checksum mismatch.
+     */
+    
+    List<Flight> readFlights() throws IOException, FlightBookingSystemException {
+        List<Flight> flights = new ArrayList<>();
+        try (Reader reader = DataFiles.openVerified(Paths.get(RESOURCE))) {
+            FieldTokenizer fields = new FieldTokenizer(reader);
             int line_idx = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
-                if (properties.length < 7) {
-                    throw new FlightBookingSystemException("Insufficient data on line " + line_idx);
-                }
-                try {
-                    int id = Integer.parseInt(properties[0]);
-                    String flightNumber = properties[1];
-                    String origin = properties[2];
-                    String destination = properties[3];
-                    LocalDate departureDate = LocalDate.parse(properties[4]);
-                    int capacity = Integer.parseInt(properties[5]);
-                    boolean isDeleted = Boolean.parseBoolean(properties[6]);
-                    double price = (properties.length >= 8 && !properties[7].isEmpty()) ? Double.parseDouble(properties[7]) : 0.0;
-
-                    if (!isDeleted) {
-                        Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, isDeleted, price);
-                        fbs.addFlight(flight);
-                    }
-                } catch (NumberFormatException ex) {
-                    throw new FlightBookingSystemException("Unable to parse flight id " + properties[0] + " on line " + line_idx + "\nError: " + ex);
-                }
+            while (fields.nextRecord()) {
+                flights.add(parseFlight(fields, line_idx));
                 line_idx++;
             }
         }
+        return flights;
+    }
+    
+    /**
+     * Parses a single line of the flights data file into a {@link Flight} object.
+     * 
+     * @param line     The line of text containing flight data.
+     * @param line_idx The line number, used in error messages.
+     * @return The parsed {@link Flight} object.
+     * @throws FlightBookingSystemException If the line has insufficient data or cannot be parsed.
+     */
+    
+    Flight parseFlight(String line, int line_idx) throws FlightBookingSystemException {
+        return parseFlight(tokenizer.get().reset(line), line_idx);
+    }
+
+    /**
+     * Parses the current record of a {@link FieldTokenizer} into a {@link Flight} object.
+     * 
+     * @param fields   The tokenizer positioned at a flight record.
+     * @param line_idx The line number, used in error messages.
+     * @return The parsed {@link Flight} object.
+     * @throws FlightBookingSystemException If the record has insufficient data or cannot be parsed.
+     */
+    
+    Flight parseFlight(FieldTokenizer fields, int line_idx) throws FlightBookingSystemException {
+        if (fields.countFields() < 7) {
+            throw new FlightBookingSystemException("Insufficient data on line " + line_idx);
+        }
+        try {
+            int id = fields.nextInt();
+            String flightNumber = fields.nextString();
+            String origin = fields.nextString();
+            String destination = fields.nextString();
+            LocalDate departureDate = fields.nextDate();
+            int capacity = fields.nextInt();
+            boolean isDeleted = fields.nextBoolean();
+            double price = fields.hasNext() ? fields.nextDouble() : 0.0;
+
+            return new Flight(id, flightNumber, origin, destination, departureDate, capacity, isDeleted, price);
+        } catch (NumberFormatException ex) {
+            throw new FlightBookingSystemException("Unable to parse flight on line " + line_idx + "\nError: " + ex);
+        }
+    }
+    
+    /**
+     * Formats a {@link Flight} object into the line format used by the flights data file.
+     * 
+     * @param flight The flight to format.
+     * @return The formatted line, without a line terminator.
+     */
+    
+    String formatFlight(Flight flight) {
+        return flight.getId() + SEPARATOR
+                + flight.getFlightNumber() + SEPARATOR
+                + flight.getOrigin() + SEPARATOR
+                + flight.getDestination() + SEPARATOR
+                + flight.getDepartureDate().format(DATE_FORMAT) + SEPARATOR
+                + flight.getCapacity() + SEPARATOR
+                + flight.isDeleted() + SEPARATOR
+                + flight.getPrice();
     }
     
     /**
      * Stores the current state of Flight objects from the given Flight Booking
-     * System instance into the specified resource file.
+     * System instance into the specified resource file. The file is replaced
+     * atomically, so a crash cannot leave it partly written.
      * 
      * @param fbs The Flight Booking System instance containing flights to be stored.
      * @throws IOException If there is an error writing to the data source.
@@ -84,19 +163,37 @@ public class FlightDataManager implements DataManager {
     
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(RESOURCE))) {
-            for (Flight flight : fbs.getFlights()) {
-                out.print(flight.getId() + SEPARATOR);
-                out.print(flight.getFlightNumber() + SEPARATOR);
-                out.print(flight.getOrigin() + SEPARATOR);
-                out.print(flight.getDestination() + SEPARATOR);
-                out.print(flight.getDepartureDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + SEPARATOR);
-                out.print(flight.getCapacity() + SEPARATOR);
-                out.print(flight.isDeleted() + SEPARATOR);
-                out.print(flight.getPrice());
-                out.println(); // Move to the next line for the next flight
-            }
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    /**
+     * Formats every flight that would be written by {@link #storeData(FlightBookingSystem)}.
+     *
+     * @param view A snapshot of the Flight Booking System.
+     * @return The formatted lines, in file order.
+     */
+
+    List<String> formatAll(SystemSnapshot view) {
+        List<String> lines = new ArrayList<>();
+        for (Flight flight : view.getFlights()) {
+            lines.add(formatFlight(flight));
         }
+        return lines;
+    }
+
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        return SnapshotDataManager.toBytes(formatAll(view));
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.FLIGHTS;
     }
     
 
@@ -0,0 +1,123 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manages the loading and storing of the ID high-water marks of the Flight Booking System
+ * from/to a text file.
+ *
+ * Each line holds the name of an entity set and the highest ID handed out for it, for example
+ * {@code FLIGHTS::12::}. Entities that are deleted are not written to the data files, so without
+ * these marks their IDs could be handed out again after a restart. The file is used with both the
+ * text and the binary data format. When it does not exist yet, the marks are taken from the IDs of
+ * the loaded entities alone.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see IdSequence
+ */
+
+public class IdSequenceDataManager implements SnapshotDataManager {
+
+    private final String RESOURCE;
+    private final String SEPARATOR = "::";
+
+    /**
+     * Constructs an {@code IdSequenceDataManager} that uses the default ID sequences data file.
+     */
+    public IdSequenceDataManager() {
+        this("./resources/data/sequences.txt");
+    }
+
+    /**
+     * Constructs an {@code IdSequenceDataManager} that uses the given ID sequences data file.
+     *
+     * @param resource The path of the ID sequences data file.
+     */
+    public IdSequenceDataManager(String resource) {
+        this.RESOURCE = resource;
+    }
+
+    /**
+     * Loads the ID high-water marks from the data file and advances the ID sequences of the
+     * Flight Booking System to them.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error reading from the file.
+     * @throws FlightBookingSystemException If the file is corrupt or names an unknown entity set.
+     */
+
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        Path path = Paths.get(RESOURCE);
+        if (!Files.exists(path)) {
+            return;
+        }
+        int line_idx = 1;
+        try (Reader reader = DataFiles.openVerified(path)) {
+            FieldTokenizer fields = new FieldTokenizer(reader);
+            while (fields.nextRecord()) {
+                try {
+                    FlightBookingSystem.EntitySet set = fields.nextEnum(FlightBookingSystem.EntitySet.values());
+                    int last = fields.nextInt();
+                    IdSequence sequence = fbs.getIdSequences().get(set);
+                    if (sequence == null) {
+                        throw new IllegalArgumentException(set + " has no ID sequence");
+                    }
+                    sequence.advanceTo(last);
+                } catch (RuntimeException ex) {
+                    throw new FlightBookingSystemException("Unable to parse ID sequence on line " + line_idx
+                            + "\nError: " + ex);
+                }
+                line_idx++;
+            }
+        }
+    }
+
+    /**
+     * Stores the ID high-water marks of the Flight Booking System into the data file.
+     * The file is replaced atomically, so a crash cannot leave it partly written.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error writing to the file.
+     */
+
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        DataFiles.writeAtomically(Paths.get(RESOURCE), snapshot(fbs));
+    }
+
+    // a later high-water mark than the snapshot's is always safe, as IDs are never reused
+    @Override
+    public byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view) {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<FlightBookingSystem.EntitySet, IdSequence> entry : fbs.getIdSequences().entrySet()) {
+            lines.add(entry.getKey() + SEPARATOR + entry.getValue().getLast() + SEPARATOR);
+        }
+        return SnapshotDataManager.toBytes(lines);
+    }
+
+    @Override
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    @Override
+    public FlightBookingSystem.EntitySet getEntitySet() {
+        return FlightBookingSystem.EntitySet.ID_SEQUENCES;
+    }
+}
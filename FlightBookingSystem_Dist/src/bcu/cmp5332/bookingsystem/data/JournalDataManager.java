@@ -0,0 +1,419 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code JournalDataManager} class maintains an append-only write-ahead journal of
+ * the mutations made to the Flight Booking System.
+ *
+ * Instead of rewriting every data file after each command, a mutation is recorded as a
+ * single {@link JournalEntry} line that is appended to the journal and forced to disk, so
+ * the cost of a write does not depend on the size of the data set.
+ *
+ * When data is loaded, this manager runs after the flight, customer and booking managers
+ * and replays the journal on top of the snapshot they have loaded. Replaying is idempotent:
+ * records whose effect is already part of the snapshot are skipped, so a crash between
+ * writing a snapshot and truncating the journal does not duplicate data. Every booking record
+ * carries the ID of its booking: an added booking whose ID is already known is skipped, and a
+ * cancellation or update applies to that booking alone, never to a later booking of the same
+ * customer on the same flight. A booking that the journal cancels later is added already canceled,
+ * since a snapshot only holds active bookings and would otherwise see the booking come back. When data is stored,
+ * the full snapshot has just been written by the other managers and the journal is truncated.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see DataManager
+ * @see JournalEntry
+ */
+
+public class JournalDataManager implements DataManager {
+
+    public static final String RESOURCE = "./resources/data/journal.log";
+
+    private final Path path;
+    private final FlightDataManager flightDataManager = new FlightDataManager();
+    private final CustomerDataManager customerDataManager = new CustomerDataManager();
+    private final BookingDataManager bookingDataManager = new BookingDataManager();
+
+    private final FieldTokenizer fields = new FieldTokenizer();
+
+    // the cancellation fee of each booking canceled in the journal being replayed, by booking ID
+    private Map<Integer, Double> canceled = Collections.emptyMap();
+
+    private FileChannel channel;
+    // the length of the journal file, kept apart from the channel so reading it never waits for an append;
+    // -1 until the journal is first opened
+    private final AtomicLong length = new AtomicLong(-1);
+    // the bytes removed from the front of the journal by this manager, so positions stay valid after a truncation
+    private final AtomicLong removed = new AtomicLong();
+
+    /**
+     * Constructs a {@code JournalDataManager} that uses the default journal file.
+     */
+    public JournalDataManager() {
+        this(Paths.get(RESOURCE));
+    }
+
+    /**
+     * Constructs a {@code JournalDataManager} that uses the given journal file.
+     *
+     * @param path The journal file.
+     */
+    public JournalDataManager(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Appends an entry to the journal and forces it to disk before returning.
+     *
+     * @param entry The entry to append.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void append(JournalEntry entry) throws IOException {
+        append(Collections.singletonList(entry));
+    }
+
+    /**
+     * Appends several entries to the journal and forces them to disk with a single force
+     * before returning.
+     *
+     * @param entries The entries to append, in order.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public synchronized void append(List<JournalEntry> entries) throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (JournalEntry entry : entries) {
+            records.append(entry.format()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        FileChannel out = openChannel();
+        long end = out.size();
+        out.position(end);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        length.set(end + buffer.limit());
+        out.force(false);
+    }
+
+    /**
+     * Replays the journal on top of the data already loaded into the Flight Booking System.
+     *
+     * A trailing record without a line terminator is the result of an interrupted append
+     * and is ignored.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error reading the journal.
+     * @throws FlightBookingSystemException If a journal record cannot be parsed.
+     */
+    @Override
+    public synchronized void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        canceled = canceledBookings(content);
+        int start = 0;
+        int line_idx = 1;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            if (!line.isEmpty()) {
+                replay(fbs, line, line_idx);
+            }
+            start = end + 1;
+            line_idx++;
+        }
+    }
+
+    /**
+     * Truncates the journal. This is called after the flight, customer and booking managers
+     * have written a full snapshot, which already contains every journaled mutation.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @throws IOException If there is an error truncating the journal.
+     */
+    @Override
+    public synchronized void storeData(FlightBookingSystem fbs) throws IOException {
+        FileChannel out = openChannel();
+        long size = out.size();
+        out.truncate(0);
+        out.force(true);
+        shift(size);
+    }
+
+    /**
+     * Gets the current size of the journal in bytes. Every record that ends at or before
+     * this offset has already been applied to the in-memory system.
+     *
+     * The size is kept up to date by the methods that change the journal, so reading it does
+     * not wait for an append that is forcing records to disk.
+     *
+     * @return The journal size in bytes.
+     * @throws IOException If there is an error reading the journal size.
+     */
+    public long size() throws IOException {
+        long size = length.get();
+        if (size >= 0) {
+            return size;
+        }
+        synchronized (this) {
+            openChannel();
+            return length.get();
+        }
+    }
+
+    /**
+     * Gets the position of the end of the journal. Unlike the size, a position is not changed by
+     * removing records from the front of the journal, so a position taken before a truncation
+     * still marks the same record afterwards. Every record that ends at or before this position
+     * has already been applied to the in-memory system.
+     *
+     * @return The position of the end of the journal.
+     * @throws IOException If there is an error reading the journal size.
+     */
+    public long position() throws IOException {
+        synchronized (removed) {
+            return removed.get() + size();
+        }
+    }
+
+    /**
+     * Removes the records of the journal up to the given position, keeping any records appended
+     * after that point. This is used once a checkpoint covering those records has been
+     * written, so the journal only holds the tail that is not part of the snapshot. Records
+     * already removed by an earlier truncation are not removed again.
+     *
+     * The remaining tail is written to a temporary file that atomically replaces the journal,
+     * so a crash leaves either the old or the new journal in place.
+     *
+     * @param position The position, from {@link #position()}, up to which the checkpoint covers the journal.
+     * @throws IOException If there is an error rewriting the journal.
+     */
+    public synchronized void truncateThrough(long position) throws IOException {
+        FileChannel in = openChannel();
+        long size = in.size();
+        long offset = position - removed.get();
+        if (offset <= 0) {
+            return;
+        }
+        if (offset >= size) {
+            in.truncate(0);
+            in.force(true);
+            shift(size);
+            return;
+        }
+        ByteBuffer tail = ByteBuffer.allocate((int) (size - offset));
+        while (tail.hasRemaining() && in.read(tail, offset + tail.position()) >= 0) {
+            // keep reading until the tail is complete
+        }
+        tail.flip();
+
+        Path temp = DataFiles.createTempFile(path.toAbsolutePath().getParent(), path);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (tail.hasRemaining()) {
+                    out.write(tail);
+                }
+                out.force(true);
+            }
+            close();
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        shift(offset);
+    }
+
+    // records that the first bytes of the journal are gone, keeping positions read meanwhile consistent
+    private void shift(long bytes) {
+        synchronized (removed) {
+            removed.addAndGet(bytes);
+            length.addAndGet(-bytes);
+        }
+    }
+
+    /**
+     * Gets the path of the journal file.
+     *
+     * @return The journal file path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Closes the journal file if it is open.
+     *
+     * @throws IOException If there is an error closing the journal.
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            length.set(channel.size());
+        }
+        return channel;
+    }
+
+    private void replay(FlightBookingSystem fbs, String line, int line_idx) throws FlightBookingSystemException {
+        int split = line.indexOf(SEPARATOR);
+        if (split < 0) {
+            throw new FlightBookingSystemException("Invalid journal record on line " + line_idx);
+        }
+        String payload = line.substring(split + SEPARATOR.length());
+        JournalEntry.Type type;
+        try {
+            type = JournalEntry.Type.valueOf(line.substring(0, split));
+        } catch (IllegalArgumentException ex) {
+            throw new FlightBookingSystemException("Unknown journal record type on line " + line_idx);
+        }
+
+        try {
+            switch (type) {
+                case ADD_FLIGHT: {
+                    Flight flight = flightDataManager.parseFlight(fields.reset(payload), line_idx);
+                    // a checkpoint may already hold the flight, deleted or not
+                    if (!fbs.isFlightIdUsed(flight.getId())) {
+                        fbs.addFlight(flight);
+                    }
+                    break;
+                }
+                case ADD_FLIGHTS: {
+                    fields.reset(payload);
+                    for (int n = fields.nextInt(); n > 0; n--) {
+                        Flight flight = flightDataManager.parseFlight(fields, line_idx);
+                        if (!fbs.isFlightIdUsed(flight.getId())) {
+                            fbs.addFlight(flight);
+                        }
+                    }
+                    break;
+                }
+                case DELETE_FLIGHT: {
+                    int flightId = fields.reset(payload).nextInt();
+                    if (fbs.flightExists(flightId)) {
+                        fbs.deleteFlight(fbs.getFlightByID(flightId));
+                    }
+                    break;
+                }
+                case RESCHEDULE_FLIGHT: {
+                    fields.reset(payload);
+                    int flightId = fields.nextInt();
+                    LocalDate departureDate = fields.nextDate();
+                    if (fbs.flightExists(flightId)) {
+                        fbs.changeDepartureDate(fbs.getFlightByID(flightId), departureDate);
+                    }
+                    break;
+                }
+                case ADD_CUSTOMER: {
+                    Customer customer = customerDataManager.parseCustomer(fields.reset(payload));
+                    if (!fbs.isCustomerIdUsed(customer.getId())) {
+                        fbs.addCustomer(customer);
+                    }
+                    break;
+                }
+                case DELETE_CUSTOMER: {
+                    int customerId = fields.reset(payload).nextInt();
+                    if (fbs.customerExists(customerId)) {
+                        fbs.deleteCustomer(fbs.getCustomerByID(customerId));
+                    }
+                    break;
+                }
+                case ADD_BOOKING: {
+                    replayBooking(fbs, bookingDataManager.parseRecord(fields.reset(payload)));
+                    break;
+                }
+                case ADD_BOOKINGS: {
+                    fields.reset(payload);
+                    for (int n = fields.nextInt(); n > 0; n--) {
+                        replayBooking(fbs, bookingDataManager.parseRecord(fields));
+                    }
+                    break;
+                }
+                case CANCEL_BOOKING: {
+                    fields.reset(payload);
+                    Booking booking = fbs.findBooking(fields.nextInt());
+                    double cancellationFee = fields.nextDouble();
+                    // a booking the snapshot holds as canceled was canceled by this record already
+                    if (booking != null && !booking.isDeleted()) {
+                        fbs.cancelBooking(booking, cancellationFee);
+                    }
+                    break;
+                }
+                case UPDATE_BOOKING: {
+                    fields.reset(payload);
+                    Booking booking = fbs.findBooking(fields.nextInt());
+                    LocalDate bookingDate = fields.nextDate();
+                    Flight.FlightClass flightClass = fields.nextEnum(Flight.FlightClass.values());
+                    if (booking != null) {
+                        fbs.updateBooking(booking, bookingDate, flightClass);
+                    }
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw new FlightBookingSystemException("Unable to replay journal record on line " + line_idx + "\nError: " + ex);
+        }
+    }
+
+    private void replayBooking(FlightBookingSystem fbs, BookingDataManager.BookingRecord record)
+            throws FlightBookingSystemException {
+        // a snapshot taken after the booking holds it already
+        if (fbs.findBooking(record.bookingId) != null) {
+            return;
+        }
+        // if the customer or flight is gone, the snapshot already holds a later deletion
+        if (fbs.customerExists(record.customerId) && fbs.flightExists(record.flightId)) {
+            Booking booking = bookingDataManager.link(fbs, record);
+            Double cancellationFee = canceled.get(record.bookingId);
+            if (cancellationFee != null) {
+                // never holds a seat, so it cannot clash with a later booking of the same customer on the flight
+                booking.setDeleted(true);
+                booking.setCancellationFee(cancellationFee);
+            }
+            fbs.addBooking(booking);
+        }
+    }
+
+    private static Map<Integer, Double> canceledBookings(String content) {
+        Map<Integer, Double> fees = new HashMap<>();
+        String prefix = JournalEntry.Type.CANCEL_BOOKING + SEPARATOR;
+        FieldTokenizer record = new FieldTokenizer();
+        for (int start = content.indexOf(prefix); start >= 0; start = content.indexOf(prefix, start + 1)) {
+            int end = content.indexOf('\n', start);
+            if ((start == 0 || content.charAt(start - 1) == '\n') && end >= 0) {
+                record.reset(content.substring(start + prefix.length(), end));
+                fees.put(record.nextInt(), record.nextDouble());
+            }
+        }
+        return fees;
+    }
+}
@@ -0,0 +1,201 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * The {@code JournalEntry} class describes a single mutation of the Flight Booking System
+ * as one compact record of the write-ahead journal.
+ *
+ * Each entry consists of a {@link Type} followed by the fields needed to replay the
+ * mutation, all separated by {@link DataManager#SEPARATOR}. Entities that are added to the
+ * system are recorded in the same line format as their data file, so the journal and the
+ * data files can share their parsing code.
+ *
+ * Entries are created through the static factory methods and handed to
+ * {@link FlightBookingSystemData#commit(bcu.cmp5332.bookingsystem.model.FlightBookingSystem, JournalEntry)}.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see JournalDataManager
+ */
+
+public final class JournalEntry {
+
+    /**
+     * The kinds of mutation that can be recorded in the journal.
+     */
+    public enum Type {
+        ADD_FLIGHT,
+        ADD_FLIGHTS,
+        DELETE_FLIGHT,
+        RESCHEDULE_FLIGHT,
+        ADD_CUSTOMER,
+        DELETE_CUSTOMER,
+        ADD_BOOKING,
+        ADD_BOOKINGS,
+        CANCEL_BOOKING,
+        UPDATE_BOOKING
+    }
+
+    private static final String SEPARATOR = DataManager.SEPARATOR;
+
+    private static final FlightDataManager FLIGHTS = new FlightDataManager();
+    private static final CustomerDataManager CUSTOMERS = new CustomerDataManager();
+    private static final BookingDataManager BOOKINGS = new BookingDataManager();
+
+    private final Type type;
+    private final String payload;
+
+    private JournalEntry(Type type, String payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates an entry recording that a flight was added.
+     *
+     * @param flight The flight that was added.
+     * @return The journal entry.
+     */
+    public static JournalEntry addFlight(Flight flight) {
+        return new JournalEntry(Type.ADD_FLIGHT, FLIGHTS.formatFlight(flight));
+    }
+
+    /**
+     * Creates an entry recording that a batch of flights was added together, such as part of an
+     * imported schedule.
+     *
+     * @param flights The flights that were added.
+     * @return The journal entry.
+     */
+    public static JournalEntry addFlights(List<Flight> flights) {
+        StringBuilder payload = new StringBuilder().append(flights.size());
+        for (Flight flight : flights) {
+            payload.append(SEPARATOR).append(FLIGHTS.formatFlight(flight));
+        }
+        return new JournalEntry(Type.ADD_FLIGHTS, payload.toString());
+    }
+
+    /**
+     * Creates an entry recording that a flight was deleted.
+     *
+     * @param flightId The ID of the deleted flight.
+     * @return The journal entry.
+     */
+    public static JournalEntry deleteFlight(int flightId) {
+        return new JournalEntry(Type.DELETE_FLIGHT, String.valueOf(flightId));
+    }
+
+    /**
+     * Creates an entry recording that a flight was moved to another departure date.
+     *
+     * @param flight The flight after the change.
+     * @return The journal entry.
+     */
+    public static JournalEntry rescheduleFlight(Flight flight) {
+        return new JournalEntry(Type.RESCHEDULE_FLIGHT, flight.getId() + SEPARATOR
+                + flight.getDepartureDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+    }
+
+    /**
+     * Creates an entry recording that a customer was added.
+     *
+     * @param customer The customer that was added.
+     * @return The journal entry.
+     */
+    public static JournalEntry addCustomer(Customer customer) {
+        return new JournalEntry(Type.ADD_CUSTOMER, CUSTOMERS.formatCustomer(customer));
+    }
+
+    /**
+     * Creates an entry recording that a customer was deleted.
+     *
+     * @param customerId The ID of the deleted customer.
+     * @return The journal entry.
+     */
+    public static JournalEntry deleteCustomer(int customerId) {
+        return new JournalEntry(Type.DELETE_CUSTOMER, String.valueOf(customerId));
+    }
+
+    /**
+     * Creates an entry recording that a booking was added.
+     *
+     * @param booking The booking that was added.
+     * @return The journal entry.
+     */
+    public static JournalEntry addBooking(Booking booking) {
+        return new JournalEntry(Type.ADD_BOOKING, BOOKINGS.formatBooking(booking));
+    }
+
+    /**
+     * Creates an entry recording that a group of bookings was added together. The group is one
+     * entry, so a torn write to the journal loses the whole group rather than some of it.
+     *
+     * @param group The bookings that were added.
+     * @return The journal entry.
+     */
+    public static JournalEntry addBookings(List<Booking> group) {
+        StringBuilder payload = new StringBuilder().append(group.size()).append(SEPARATOR);
+        for (Booking booking : group) {
+            payload.append(BOOKINGS.formatBooking(booking));
+        }
+        return new JournalEntry(Type.ADD_BOOKINGS, payload.toString());
+    }
+
+    /**
+     * Creates an entry recording that a booking was canceled.
+     *
+     * @param booking The booking that was canceled.
+     * @return The journal entry.
+     */
+    public static JournalEntry cancelBooking(Booking booking) {
+        return new JournalEntry(Type.CANCEL_BOOKING, booking.getBookingId() + SEPARATOR
+                + booking.getCancellationFee());
+    }
+
+    /**
+     * Creates an entry recording that the date or class of a booking was changed.
+     *
+     * @param booking The booking after the update.
+     * @return The journal entry.
+     */
+    public static JournalEntry updateBooking(Booking booking) {
+        return new JournalEntry(Type.UPDATE_BOOKING, booking.getBookingId() + SEPARATOR
+                + booking.getBookingDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + SEPARATOR
+                + booking.getFlightClass());
+    }
+
+    /**
+     * Gets the kind of mutation recorded by this entry.
+     *
+     * @return The entry type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the fields of this entry, without the leading type.
+     *
+     * @return The entry payload.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Formats this entry as a single journal line, without a line terminator.
+     *
+     * @return The formatted journal line.
+     */
+    public String format() {
+        return type + SEPARATOR + payload;
+    }
+}
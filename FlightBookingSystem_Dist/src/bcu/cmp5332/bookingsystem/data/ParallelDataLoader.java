@@ -0,0 +1,130 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code ParallelDataLoader} class loads the flight, customer and booking data files
+ * using a pool of worker threads.
+ *
+ * The three files are read at the same time. Flights and customers are each parsed on a
+ * worker, while the booking lines are split into chunks that are parsed in parallel into
+ * {@link BookingDataManager.BookingRecord}s. Only the final step, adding the parsed entities
+ * to the {@link FlightBookingSystem} and linking every booking to its customer and flight,
+ * runs on the calling thread, in file order, so the result is the same as a sequential load.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystemData
+ */
+
+public class ParallelDataLoader {
+
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    private final FlightDataManager flightDataManager;
+    private final CustomerDataManager customerDataManager;
+    private final BookingDataManager bookingDataManager;
+    private final int threads;
+
+    /**
+     * Constructs a {@code ParallelDataLoader} for the given data managers, using one worker
+     * thread per available processor.
+     *
+     * @param flightDataManager   The manager of the flights data file.
+     * @param customerDataManager The manager of the customers data file.
+     * @param bookingDataManager  The manager of the bookings data file.
+     */
+    public ParallelDataLoader(FlightDataManager flightDataManager, CustomerDataManager customerDataManager,
+            BookingDataManager bookingDataManager) {
+        this.flightDataManager = flightDataManager;
+        this.customerDataManager = customerDataManager;
+        this.bookingDataManager = bookingDataManager;
+        this.threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads flights, customers and bookings into the given Flight Booking System.
+     *
+     * @param fbs The Flight Booking System instance to populate.
+     * @throws IOException If there is an error reading from a data file.
+     * @throws FlightBookingSystemException If there is an error parsing or linking the data.
+     */
+    public void load(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "data-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<List<Flight>> flights = pool.submit(flightDataManager::readFlights);
+            Future<List<Customer>> customers = pool.submit(customerDataManager::readCustomers);
+            Future<List<String>> bookingLines = pool.submit(bookingDataManager::readLines);
+
+            List<Future<List<BookingDataManager.BookingRecord>>> bookingChunks = new ArrayList<>();
+            List<String> lines = await(bookingLines);
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, lines.size() / (threads * 4) + 1);
+            for (int start = 0; start < lines.size(); start += chunkSize) {
+                List<String> chunk = lines.subList(start, Math.min(lines.size(), start + chunkSize));
+                bookingChunks.add(pool.submit(parseChunk(chunk)));
+            }
+
+            for (Flight flight : await(flights)) {
+                if (!flight.isDeleted()) {
+                    fbs.addFlight(flight);
+                }
+            }
+            for (Customer customer : await(customers)) {
+                fbs.addCustomer(customer);
+            }
+            for (Future<List<BookingDataManager.BookingRecord>> chunk : bookingChunks) {
+                for (BookingDataManager.BookingRecord record : await(chunk)) {
+                    fbs.addBooking(bookingDataManager.link(fbs, record));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Callable<List<BookingDataManager.BookingRecord>> parseChunk(List<String> chunk) {
+        return () -> {
+            List<BookingDataManager.BookingRecord> records = new ArrayList<>(chunk.size());
+            for (String line : chunk) {
+                records.add(bookingDataManager.parseRecord(line));
+            }
+            return records;
+        };
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, FlightBookingSystemException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlightBookingSystemException("Loading data was interrupted.");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof FlightBookingSystemException) {
+                throw (FlightBookingSystemException) cause;
+            }
+            throw new FlightBookingSystemException("Unable to load data.\nError: " + cause);
+        }
+    }
+}
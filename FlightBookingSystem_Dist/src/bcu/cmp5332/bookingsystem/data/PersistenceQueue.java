@@ -0,0 +1,257 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code PersistenceQueue} class makes committed changes durable on a single writer thread,
+ * merging the changes that arrive close together into one flush (group commit).
+ *
+ * Each commit returns a {@link CompletableFuture} that completes once the change is on disk.
+ * While the writer is busy flushing, further commits queue up and are written together by the
+ * next flush. After taking the first commit of a flush, the writer waits at most
+ * {@value #DELAY_PROPERTY} milliseconds (0 by default) for more commits to join it, which
+ * trades a little latency for larger batches under bursty load.
+ *
+ * In journal mode the entries of a flush are appended to the journal behind a single force.
+ * In snapshot mode each commit carries the encoded contents of the data files it changed; a
+ * flush writes only the newest contents of each file, atomically, and skips the older ones.
+ *
+ * An action queued with {@link #whenDrained(Runnable)} runs on the writer thread once every
+ * commit queued before it has been written, and before any commit queued after it is, which
+ * gives the {@link Checkpointer} a point where the journal holds exactly the changes before it.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystemData#commitAsync(FlightBookingSystem, JournalEntry)
+ */
+
+public class PersistenceQueue {
+
+    public static final String DELAY_PROPERTY = "fbs.commit.delay.ms";
+
+    private final JournalDataManager journal;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Commit> commits = new LinkedBlockingQueue<>();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+
+    /**
+     * Constructs a {@code PersistenceQueue} that appends to the given journal, or that writes
+     * data file snapshots if the journal is {@code null}, reading the flush delay from the
+     * system properties.
+     *
+     * @param journal The journal to append to, or {@code null} in snapshot mode.
+     */
+    public PersistenceQueue(JournalDataManager journal) {
+        this(journal, Long.getLong(DELAY_PROPERTY, 0));
+    }
+
+    /**
+     * Constructs a {@code PersistenceQueue} with an explicit flush delay.
+     *
+     * @param journal        The journal to append to, or {@code null} in snapshot mode.
+     * @param maxDelayMillis The longest time a flush waits for more commits, in milliseconds.
+     */
+    public PersistenceQueue(JournalDataManager journal, long maxDelayMillis) {
+        this.journal = journal;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        Thread writer = new Thread(this::run, "persistence-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a journal entry to be appended to the journal.
+     *
+     * @param entry The entry describing the change.
+     * @return A future that completes when the entry is durable.
+     */
+    public CompletableFuture<Void> submit(JournalEntry entry) {
+        return enqueue(new Commit(entry, null, null));
+    }
+
+    /**
+     * Queues the encoded contents of changed data files to be written.
+     *
+     * @param fbs       The Flight Booking System the snapshots were taken from.
+     * @param snapshots The captured data files.
+     * @return A future that completes when the data files are durable.
+     */
+    CompletableFuture<Void> submit(FlightBookingSystem fbs, List<Snapshot> snapshots) {
+        return enqueue(new Commit(null, snapshots, null));
+    }
+
+    /**
+     * Queues an action to run on the writer thread once every commit queued before it has been
+     * written. Commits queued after it are not written until the action returns, so it should
+     * only capture what it needs and leave slow work to another thread.
+     *
+     * @param action The action to run.
+     * @return A future that completes when the action has run.
+     */
+    CompletableFuture<Void> whenDrained(Runnable action) {
+        return enqueue(new Commit(null, null, action));
+    }
+
+    /**
+     * Waits until every commit queued before this call is durable. Failed commits have
+     * already been reported to their callers and are ignored here.
+     */
+    public void awaitIdle() {
+        try {
+            enqueue(new Commit(null, null, null)).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            // the barrier itself writes nothing
+        }
+    }
+
+    /**
+     * Gets the number of commits made durable so far.
+     *
+     * @return The commit count.
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    /**
+     * Gets the number of flushes performed so far. Divided into {@link #getCommitCount()}
+     * this gives the average group size.
+     *
+     * @return The flush count.
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    private CompletableFuture<Void> enqueue(Commit commit) {
+        commits.add(commit);
+        return commit.done;
+    }
+
+    private void run() {
+        List<Commit> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(commits.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                commits.drainTo(batch);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    Commit next = commits.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    commits.drainTo(batch);
+                }
+            } catch (InterruptedException ex) {
+                // the writer is a daemon thread; keep serving queued commits
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Commit> batch) {
+        int start = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Commit commit = batch.get(i);
+            if (commit.action != null) {
+                write(batch.subList(start, i));
+                try {
+                    commit.action.run();
+                    commit.done.complete(null);
+                } catch (RuntimeException ex) {
+                    commit.done.completeExceptionally(ex);
+                }
+                start = i + 1;
+            }
+        }
+        write(batch.subList(start, batch.size()));
+    }
+
+    private void write(List<Commit> batch) {
+        try {
+            List<JournalEntry> entries = new ArrayList<>();
+            Map<String, Snapshot> latest = new LinkedHashMap<>();
+            for (Commit commit : batch) {
+                if (commit.entry != null) {
+                    entries.add(commit.entry);
+                }
+                if (commit.snapshots != null) {
+                    for (Snapshot snapshot : commit.snapshots) {
+                        latest.put(snapshot.dataManager.getResource(), snapshot);
+                    }
+                }
+            }
+            if (!entries.isEmpty()) {
+                journal.append(entries);
+            }
+            for (Snapshot snapshot : latest.values()) {
+                DataFiles.writeAtomically(Paths.get(snapshot.dataManager.getResource()), snapshot.contents);
+                snapshot.fbs.markStored(snapshot.dataManager.getEntitySet(), snapshot.version);
+            }
+            if (!entries.isEmpty() || !latest.isEmpty()) {
+                flushCount.incrementAndGet();
+            }
+            for (Commit commit : batch) {
+                if (commit.entry != null || commit.snapshots != null) {
+                    commitCount.incrementAndGet();
+                }
+                commit.done.complete(null);
+            }
+        } catch (IOException | RuntimeException ex) {
+            for (Commit commit : batch) {
+                commit.done.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * The encoded contents of one data file, captured on the committing thread.
+     */
+    static final class Snapshot {
+        private final FlightBookingSystem fbs;
+        private final SnapshotDataManager dataManager;
+        private final long version;
+        private final byte[] contents;
+
+        Snapshot(FlightBookingSystem fbs, SnapshotDataManager dataManager, long version, byte[] contents) {
+            this.fbs = fbs;
+            this.dataManager = dataManager;
+            this.version = version;
+            this.contents = contents;
+        }
+    }
+
+    private static final class Commit {
+        private final JournalEntry entry;
+        private final List<Snapshot> snapshots;
+        private final Runnable action;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Commit(JournalEntry entry, List<Snapshot> snapshots, Runnable action) {
+            this.entry = entry;
+            this.snapshots = snapshots;
+            this.action = action;
+        }
+    }
+}
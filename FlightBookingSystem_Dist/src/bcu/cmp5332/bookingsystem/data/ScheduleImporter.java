@@ -0,0 +1,345 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code ScheduleImporter} class imports a schedule of flights, such as a whole season, from
+ * a CSV file with one flight per row:
+ * {@code flight_number,origin,destination,departure_date,capacity,price}. A first row holding
+ * these column names is skipped.
+ *
+ * The file is streamed: its rows are read in chunks, and only a bounded number of chunks is held
+ * at a time. Each chunk is parsed and validated on a pool of worker threads, checking the fields,
+ * dates, capacity and price of every row. The chunks are then taken in file order on the calling
+ * thread, which checks each flight against the flights accepted before it. A rejected row is
+ * written to the rejects file with its line number and the reason, and the import carries on.
+ *
+ * Accepted flights are added to the system and committed in batches, each batch with
+ * {@link FlightBookingSystem#addFlights(java.util.Collection)} and a single
+ * {@link JournalEntry}, while the workers go on validating the next chunks. Each batch is checked
+ * against the number and departure date index of the system, and its flights given IDs, under the
+ * exclusive system lock it is added with, so a flight added by another thread meanwhile is
+ * rejected instead of failing the batch. A flight is only visible once its batch is added, so an
+ * import that fails part way leaves whole batches.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see ParallelDataLoader
+ */
+
+public class ScheduleImporter {
+
+    /** The number of flights committed together unless another batch size is given. */
+    public static final int DEFAULT_BATCH_SIZE = 50_000;
+
+    private static final String HEADER = "flight_number";
+    private static final int CHUNK_SIZE = 4096;
+
+    private final FlightBookingSystem fbs;
+    private final int batchSize;
+    private final int threads;
+    private int imported;
+    private int rejected;
+
+    /**
+     * Constructs a {@code ScheduleImporter} for the given system, using one worker thread per
+     * available processor.
+     *
+     * @param fbs       The flight booking system to import the flights into.
+     * @param batchSize The number of flights added and committed together.
+     */
+    public ScheduleImporter(FlightBookingSystem fbs, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.fbs = fbs;
+        this.batchSize = batchSize;
+        this.threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Imports every valid row of a schedule and reports the rejected rows.
+     *
+     * @param csv     The schedule to read.
+     * @param rejects The writer to report rejected rows to.
+     * @return The number of flights imported.
+     * @throws IOException If the schedule cannot be read, the rejects cannot be written or a batch
+     *                     cannot be committed.
+     * @throws FlightBookingSystemException If a batch cannot be added to the system.
+     */
+    public int importSchedule(BufferedReader csv, Writer rejects) throws IOException, FlightBookingSystemException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "schedule-importer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ArrayDeque<Future<Row[]>> chunks = new ArrayDeque<>();
+            Set<String> keys = new HashSet<>();
+            List<Row> batch = new ArrayList<>(batchSize);
+            // the rows rejected since the last commit, reported with the rows of its batch
+            List<Row> refused = new ArrayList<>();
+            int lineNumber = 0;
+            boolean more = true;
+            while (more || !chunks.isEmpty()) {
+                // keep the workers busy, without reading further ahead than they can validate
+                while (more && chunks.size() < threads * 2) {
+                    List<String> lines = new ArrayList<>(CHUNK_SIZE);
+                    for (String line; lines.size() < CHUNK_SIZE && (line = csv.readLine()) != null; ) {
+                        lines.add(line);
+                    }
+                    more = lines.size() == CHUNK_SIZE;
+                    if (!lines.isEmpty()) {
+                        int first = lineNumber + 1;
+                        chunks.add(pool.submit(() -> validate(lines, first)));
+                        lineNumber += lines.size();
+                    }
+                }
+                if (!chunks.isEmpty()) {
+                    accept(await(chunks.poll()), keys, batch, refused, rejects);
+                }
+            }
+            commit(batch, refused, rejects);
+        } finally {
+            pool.shutdownNow();
+            rejects.flush();
+        }
+        return imported;
+    }
+
+    // runs on a worker: checks each row on its own
+    private static Row[] validate(List<String> lines, int firstLine) {
+        Row[] rows = new Row[lines.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = parse(lines.get(i), firstLine + i);
+        }
+        return rows;
+    }
+
+    // runs on the calling thread, in file order: checks each row against the rows before it
+    private void accept(Row[] rows, Set<String> keys, List<Row> batch, List<Row> refused, Writer rejects)
+            throws IOException, FlightBookingSystemException {
+        for (Row row : rows) {
+            if (row == null) {
+                continue;
+            }
+            if (row.error == null && !keys.add(row.key)) {
+                row.reject(duplicate(row));
+            }
+            if (row.error != null) {
+                refused.add(row);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                commit(batch, refused, rejects);
+                // the flights of the batch are in the system's index now
+                keys.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void commit(List<Row> batch, List<Row> refused, Writer rejects)
+            throws IOException, FlightBookingSystemException {
+        List<Flight> flights = new ArrayList<>(batch.size());
+        CompletableFuture<Void> durable = null;
+        if (!batch.isEmpty()) {
+            // exclusive from the check until the batch is journaled, so no flight with the same number and
+            // date can be added in between, and no booking on its flights can be journaled first
+            try (StripedLocks.Held held = fbs.getLocks().lockExclusive()) {
+                for (Row row : batch) {
+                    if (fbs.getFlightByNumberAndDate(row.flightNumber, row.departureDate) != null) {
+                        refused.add(row.reject(duplicate(row)));
+                    } else {
+                        flights.add(new Flight(fbs.getNewFlightId(), row.flightNumber, row.origin, row.destination,
+                                row.departureDate, row.capacity, false, row.price));
+                    }
+                }
+                if (!flights.isEmpty()) {
+                    fbs.addFlights(flights);
+                    // a deferred commit writes nothing, so the entry is not worth formatting
+                    if (!FlightBookingSystemData.isDeferred()) {
+                        durable = FlightBookingSystemData.commitAsync(fbs, JournalEntry.addFlights(flights));
+                    }
+                }
+            }
+        }
+        // written once the lock is released, in file order
+        refused.sort(Comparator.comparingInt(row -> row.lineNumber));
+        for (Row row : refused) {
+            rejects.write("Line " + row.lineNumber + ": " + row.error + " Row: " + row.text + System.lineSeparator());
+        }
+        rejected += refused.size();
+        refused.clear();
+        if (durable != null) {
+            FlightBookingSystemData.await(durable);
+        }
+        imported += flights.size();
+        batch.clear();
+    }
+
+    private static String duplicate(Row row) {
+        return "A flight with number " + row.flightNumber + " departing on " + row.departureDate + " already exists.";
+    }
+
+    private static Row parse(String line, int lineNumber) {
+        Row row = new Row(lineNumber, line);
+        String[] fields = line.split(",", -1);
+        if (fields.length == 1 && fields[0].trim().isEmpty()) {
+            return null;
+        }
+        if (lineNumber == 1 && fields[0].trim().equalsIgnoreCase(HEADER)) {
+            return null;
+        }
+        if (fields.length != 6) {
+            return row.reject("Expected 6 fields but found " + fields.length + ".");
+        }
+        row.flightNumber = word(fields[0]);
+        row.origin = word(fields[1]);
+        row.destination = word(fields[2]);
+        if (row.flightNumber == null || row.origin == null || row.destination == null) {
+            return row.reject("Flight number, origin and destination must be single words.");
+        }
+        if (row.origin.equalsIgnoreCase(row.destination)) {
+            return row.reject("Origin and destination must differ.");
+        }
+        row.departureDate = date(fields[3].trim());
+        if (row.departureDate == null) {
+            return row.reject("Dates must be in YYYY-MM-DD format.");
+        }
+        try {
+            row.capacity = Integer.parseInt(fields[4].trim());
+            row.price = Double.parseDouble(fields[5].trim());
+        } catch (NumberFormatException ex) {
+            return row.reject("Capacity must be a whole number and price a number.");
+        }
+        row.key = row.flightNumber + ' ' + row.departureDate;
+        if (row.capacity <= 0) {
+            return row.reject("Capacity must be positive.");
+        }
+        if (!(row.price >= 0) || Double.isInfinite(row.price)) {
+            return row.reject("Price must not be negative.");
+        }
+        return row;
+    }
+
+    // a field that is stored as it is, so it may not hold spaces or the data file separator
+    private static String word(String field) {
+        String word = field.trim();
+        if (word.isEmpty() || word.contains(DataManager.SEPARATOR)) {
+            return null;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isWhitespace(word.charAt(i))) {
+                return null;
+            }
+        }
+        return word;
+    }
+
+    private static LocalDate date(String field) {
+        if (field.length() != 10 || field.charAt(4) != '-' || field.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(field, 0, 4);
+        int month = digits(field, 5, 2);
+        int day = digits(field, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static Row[] await(Future<Row[]> chunk) throws FlightBookingSystemException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlightBookingSystemException("Importing the schedule was interrupted.");
+        } catch (ExecutionException ex) {
+            throw new FlightBookingSystemException("Unable to import the schedule.\nError: " + ex.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of flights imported so far.
+     *
+     * @return The number of imported flights.
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * Returns the number of rows rejected so far.
+     *
+     * @return The number of rejected rows.
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    // one row of the schedule, parsed or with the reason it was rejected
+    private static final class Row {
+        final int lineNumber;
+        final String text;
+        String flightNumber;
+        // the flight number and departure date, which no two flights may share
+        String key;
+        String origin;
+        String destination;
+        LocalDate departureDate;
+        int capacity;
+        double price;
+        String error;
+
+        Row(int lineNumber, String text) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+        }
+
+        Row reject(String error) {
+            this.error = error;
+            return this;
+        }
+    }
+}
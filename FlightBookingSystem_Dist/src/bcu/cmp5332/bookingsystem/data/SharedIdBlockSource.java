@@ -0,0 +1,100 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.IdBlockAllocator;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code SharedIdBlockSource} class reserves blocks of IDs from a counter file shared by
+ * several Flight Booking System processes, so that processes creating bookings at the same time
+ * never hand out the same ID.
+ *
+ * The file holds the highest ID reserved so far as decimal text. Reserving a block takes an
+ * exclusive lock on the file, reads the counter, writes it back advanced by the block size and
+ * forces it to disk before the lock is released. The counter never falls below the high-water mark
+ * of the local sequence, so IDs loaded from the data files are not handed out again even when the
+ * counter file is new. The file is locked once per block rather than once per ID.
+ *
+ * File locks are held on behalf of the whole process, so a process must use a single
+ * {@code SharedIdBlockSource} for a counter file. Its threads reserve through the one block
+ * cursor of the {@link IdBlockAllocator}, so the file is locked once per block, not once per thread.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see IdBlockAllocator
+ */
+
+public class SharedIdBlockSource implements IdBlockAllocator.BlockSource {
+
+    private final Path path;
+    private final IdSequence local;
+
+    /**
+     * Constructs a {@code SharedIdBlockSource} over the given counter file.
+     *
+     * @param resource The path of the counter file, created if it does not exist.
+     * @param local    The local sequence whose high-water mark the counter must not fall below.
+     */
+    public SharedIdBlockSource(String resource, IdSequence local) {
+        this.path = Paths.get(resource);
+        this.local = local;
+    }
+
+    /**
+     * Reserves a block of consecutive IDs that no other process sharing the counter file has
+     * reserved or will reserve.
+     *
+     * @param count The number of IDs in the block.
+     * @return The first ID of the block.
+     * @throws IOException If the counter file cannot be read, written or locked, or holds an invalid value.
+     */
+
+    @Override
+    @SuppressWarnings("try")
+    public synchronized int reserve(int count) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 32));
+            int read = 0;
+            while (read >= 0 && buffer.hasRemaining()) {
+                read = channel.read(buffer);
+            }
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+            int last;
+            try {
+                last = Math.max(text.isEmpty() ? 0 : Integer.parseInt(text), local.getLast());
+            } catch (NumberFormatException ex) {
+                throw new IOException("Invalid ID counter in " + path + ": " + text);
+            }
+            if (last > Integer.MAX_VALUE - count) {
+                throw new IOException("No more IDs are available in " + path);
+            }
+            byte[] updated = (last + count + "\n").getBytes(StandardCharsets.US_ASCII);
+            channel.write(ByteBuffer.wrap(updated), 0);
+            channel.truncate(updated.length);
+            channel.force(false);
+            return last + 1;
+        }
+    }
+
+    /**
+     * Gets the path of the counter file.
+     *
+     * @return The path of the counter file.
+     */
+
+    public String getResource() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The {@code SnapshotDataManager} interface extends {@link DataManager} for managers that
+ * store their data in a single file, whose complete contents can be captured in memory.
+ *
+ * The contents are encoded from a {@link SystemSnapshot}, which is taken without copying and
+ * without holding the system while the file is encoded. This lets the {@link Checkpointer}
+ * capture the system between two commands and encode and write it on a background thread,
+ * regardless of whether the data files use the text or the binary format.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see Checkpointer
+ */
+
+public interface SnapshotDataManager extends DataManager {
+
+    /**
+     * Encodes the data that {@link #storeData(FlightBookingSystem)} would write.
+     *
+     * @param fbs The Flight Booking System instance.
+     * @return The complete contents of the data file.
+     */
+
+    default byte[] snapshot(FlightBookingSystem fbs) {
+        return snapshot(fbs, fbs.snapshot());
+    }
+
+    /**
+     * Encodes the data of the Flight Booking System as it was when the given snapshot was taken.
+     *
+     * @param fbs  The Flight Booking System instance.
+     * @param view A snapshot of the system's active flights, customers and bookings.
+     * @return The complete contents of the data file.
+     */
+
+    byte[] snapshot(FlightBookingSystem fbs, SystemSnapshot view);
+
+    /**
+     * Gets the path of the data file managed by this class.
+     *
+     * @return The data file path.
+     */
+
+    String getResource();
+
+    /**
+     * Gets the set of entities stored in the data file managed by this class.
+     *
+     * @return The entity set.
+     */
+
+    FlightBookingSystem.EntitySet getEntitySet();
+
+    /**
+     * Joins lines of text into the contents of a text data file, after the marker line that
+     * makes {@link DataFiles} require the checksum trailer.
+     *
+     * @param lines The lines to join, without line terminators.
+     * @return The encoded lines, each followed by the platform line separator.
+     */
+
+    static byte[] toBytes(List<String> lines) {
+        StringBuilder text = new StringBuilder(DataFiles.TEXT_MARKER).append(System.lineSeparator());
+        for (String line : lines) {
+            text.append(line).append(System.lineSeparator());
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,7 @@ import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 
 import javax.swing.*;
 import java.awt.*;
@@ -137,20 +138,11 @@ public class AddCustomerWindow extends JFrame {
         }
 
         try {
-            int maxCustomerId = 0;
-
-            if (!flightBookingSystem.getCustomers().isEmpty()) {
-                maxCustomerId = flightBookingSystem.getCustomers().stream()
-                        .mapToInt(Customer::getId)
-                        .max()
-                        .orElse(0);
-            }
-
-            int customerId = maxCustomerId + 1;
+            int customerId = flightBookingSystem.getNewCustomerId();
 
             Customer customer = new Customer(customerId, name, phone, email, false);
             flightBookingSystem.addCustomer(customer);
-            FlightBookingSystemData.store(flightBookingSystem);
+            FlightBookingSystemData.commit(flightBookingSystem, JournalEntry.addCustomer(customer));
 
             JOptionPane.showMessageDialog(this, "Customer added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             dispose();
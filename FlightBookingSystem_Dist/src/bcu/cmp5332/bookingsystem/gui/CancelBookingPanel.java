@@ -11,7 +11,6 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.IOException;
 
 
 /**
@@ -19,8 +18,8 @@ import java.io.IOException;
  * It extends {@code JDialog} and implements {@code ActionListener} to handle button actions.
  *
  * <p>The dialog includes text fields for entering customer ID and flight ID. Users can click the "Cancel Booking"
- * button to cancel a booking, which executes the {@code CancelBooking} command. After cancellation, the dialog
- * stores the updated data and switches to display the list of bookings.</p>
+ * button to cancel a booking, which executes the {@code CancelBooking} command. The command persists the
+ * cancellation, after which the dialog switches to display the list of bookings.</p>
  *
  * <p>This class interacts with the main application {@code MainWindow} to display bookings and with the data
  * management class {@code FlightBookingSystemData} to store updated data.</p>
@@ -136,16 +135,12 @@ public class CancelBookingPanel extends JDialog implements ActionListener {
 
             JOptionPane.showMessageDialog(this, "Booking canceled successfully.");
 
-            FlightBookingSystemData.store(fbs);
-
             switchToListBookingsPanel();
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid input. Please enter valid IDs.", "Error", JOptionPane.ERROR_MESSAGE);
         } catch (FlightBookingSystemException ex) {
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(this, "Error storing data to file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
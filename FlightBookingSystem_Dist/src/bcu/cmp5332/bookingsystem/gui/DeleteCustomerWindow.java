@@ -77,7 +77,7 @@ public class DeleteCustomerWindow extends JFrame {
         gbc.gridy = 0;
         centerPanel.add(selectLabel, gbc);
 
-        List<Customer> modifiableCustomers = new ArrayList<>(flightBookingSystem.getCustomers());
+        List<Customer> modifiableCustomers = new ArrayList<>(flightBookingSystem.snapshot().getCustomers());
         modifiableCustomers.removeIf(Customer::isDeleted);
         String[] customerNames = modifiableCustomers.stream()
                 .map(Customer::getName)
@@ -158,7 +158,7 @@ public class DeleteCustomerWindow extends JFrame {
      * Refreshes the customer combo box with the updated list of active customers after a deletion operation.
      */
     private void refreshCustomerComboBox() {
-        List<Customer> modifiableCustomers = new ArrayList<>(flightBookingSystem.getCustomers());
+        List<Customer> modifiableCustomers = new ArrayList<>(flightBookingSystem.snapshot().getCustomers());
         modifiableCustomers.removeIf(Customer::isDeleted);
         String[] customerNames = modifiableCustomers.stream()
                 .map(Customer::getName)
@@ -85,7 +85,7 @@ public class DeleteFlightWindow extends JFrame implements ActionListener {
         constraints.gridy = 0;
         panel.add(flightLabel, constraints);
 
-        flightComboBox = new JComboBox<>(fbs.getFlights().toArray(new Flight[0]));
+        flightComboBox = new JComboBox<>(fbs.snapshot().getFlights().toArray(new Flight[0]));
         flightComboBox.setRenderer(new FlightComboBoxRenderer()); // Customize rendering
         constraints.gridx = 1;
         constraints.gridy = 0;
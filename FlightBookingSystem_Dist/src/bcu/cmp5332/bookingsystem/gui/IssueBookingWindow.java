@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
@@ -170,13 +171,11 @@ public class IssueBookingWindow extends JFrame implements ActionListener {
                 throw new FlightBookingSystemException("Flight " + flightId + " is deleted. Booking not allowed.");
             }
 
-            if (flight.isFullyBooked() || flight.getPassengers().size() >= flight.getCapacity()) {
+            Booking booking = new Booking(customer, flight, bookingDate, false, flightClass);
+            if (!fbs.addBookingIfSeatAvailable(booking)) {
                 throw new FlightBookingSystemException("Flight " + flightId + " is fully booked or at full capacity. Booking not allowed.");
             }
-
-            Booking booking = new Booking(customer, flight, bookingDate, false, flightClass);
-            fbs.addBooking(booking);
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.commit(fbs, JournalEntry.addBooking(booking));
 
             parentWindow.displayBookings();  // Update booking list in main window
             JOptionPane.showMessageDialog(this, "Booking issued successfully.");
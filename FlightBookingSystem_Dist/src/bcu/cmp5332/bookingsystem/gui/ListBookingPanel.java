@@ -59,7 +59,7 @@ public class ListBookingPanel extends JPanel {
      setBackground(new Color(240, 248, 255)); // Light blue background
      setBorder(new EmptyBorder(10, 10, 10, 10));
 
-     List<Booking> bookingsList = fbs.getBookings();
+     List<Booking> bookingsList = fbs.snapshot().getBookings();
      String[] columns = {"Booking ID", "Customer", "Flight", "Booking Date", "Flight Class"};
 
      DefaultTableModel model = new DefaultTableModel(columns, 0);
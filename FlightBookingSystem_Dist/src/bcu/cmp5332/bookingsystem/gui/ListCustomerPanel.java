@@ -63,7 +63,7 @@ public class ListCustomerPanel extends JPanel {
      DefaultTableModel model = new DefaultTableModel(columnNames, 0);
      JTable customersTable = new JTable(model);
 
-     List<Customer> customers = flightBookingSystem.getCustomers();
+     List<Customer> customers = flightBookingSystem.snapshot().getCustomers();
      for (Customer customer : customers) {
          if (!customer.isDeleted()) {
              Object[] rowData = {
@@ -9,6 +9,8 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -23,6 +25,9 @@ import java.util.List;
  * <p>This class interacts with the main application {@code FlightBookingSystem} to fetch and
  * display flight data. It filters out deleted flights to ensure only active flights are shown.</p>
  *
+ * <p>A search box above the table narrows the list to the flights of one route, optionally
+ * within a range of departure dates, using the route index of the {@code FlightBookingSystem}.</p>
+ *
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -33,6 +38,11 @@ import java.util.List;
 public class ListFlightPanel extends JPanel {
 
     private FlightBookingSystem fbs;
+    private DefaultTableModel model;
+    private JTextField originField;
+    private JTextField destinationField;
+    private JTextField fromField;
+    private JTextField toField;
 
     /**
      * Constructs a {@code ListFlightPanel} with the specified {@code FlightBookingSystem}.
@@ -54,25 +64,10 @@ public class ListFlightPanel extends JPanel {
         setBackground(new Color(240, 248, 255)); 
         setBorder(new EmptyBorder(10, 10, 10, 10));
 
-        List<Flight> flightsList = fbs.getFlights();
         String[] columns = {"Flight ID", "Flight No", "Origin", "Destination", "Departure Date", "Economy Price", "Business Price", "First Class Price"};
 
-        DefaultTableModel model = new DefaultTableModel(columns, 0);
-        for (Flight flight : flightsList) {
-            if (!flight.isDeleted()) {
-                Object[] row = {
-                    flight.getId(),
-                    flight.getFlightNumber(),
-                    flight.getOrigin(),
-                    flight.getDestination(),
-                    flight.getDepartureDate(),
-                    flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS),
-                    flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS),
-                    flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS)
-                };
-                model.addRow(row);
-            }
-        }
+        model = new DefaultTableModel(columns, 0);
+        showFlights(fbs.snapshot().getFlights());
 
         JTable table = new JTable(model);
         table.setFillsViewportHeight(true);
@@ -109,7 +104,96 @@ public class ListFlightPanel extends JPanel {
         JLabel title = new JLabel("Flights List", JLabel.CENTER);
         title.setFont(new Font("Arial", Font.BOLD, 24));
         title.setBorder(new EmptyBorder(10, 0, 20, 0)); 
-        add(title, BorderLayout.NORTH);
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.setOpaque(false);
+        northPanel.add(title, BorderLayout.NORTH);
+        northPanel.add(createSearchPanel(), BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
+    }
+
+    /**
+     * Creates the search box: origin, destination and an optional range of departure dates,
+     * with buttons to search the route and to show all flights again.
+     *
+     * @return The search panel.
+     */
+    private JPanel createSearchPanel() {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        searchPanel.setOpaque(false);
+
+        originField = new JTextField(6);
+        destinationField = new JTextField(6);
+        fromField = new JTextField(9);
+        toField = new JTextField(9);
+        fromField.setToolTipText("YYYY-MM-DD");
+        toField.setToolTipText("YYYY-MM-DD");
+
+        JButton searchButton = new JButton("Search");
+        searchButton.addActionListener(e -> searchFlights());
+        JButton clearButton = new JButton("Show All");
+        clearButton.addActionListener(e -> {
+            originField.setText("");
+            destinationField.setText("");
+            fromField.setText("");
+            toField.setText("");
+            showFlights(fbs.snapshot().getFlights());
+        });
+
+        searchPanel.add(new JLabel("From airport:"));
+        searchPanel.add(originField);
+        searchPanel.add(new JLabel("To airport:"));
+        searchPanel.add(destinationField);
+        searchPanel.add(new JLabel("Departing from:"));
+        searchPanel.add(fromField);
+        searchPanel.add(new JLabel("until:"));
+        searchPanel.add(toField);
+        searchPanel.add(searchButton);
+        searchPanel.add(clearButton);
+        return searchPanel;
+    }
+
+    /**
+     * Searches the route entered in the search box and shows the matching flights.
+     */
+    private void searchFlights() {
+        String origin = originField.getText().trim();
+        String destination = destinationField.getText().trim();
+        if (origin.isEmpty() || destination.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter both an origin and a destination.", "Search Flights", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        try {
+            LocalDate from = fromField.getText().trim().isEmpty() ? null : LocalDate.parse(fromField.getText().trim());
+            LocalDate to = toField.getText().trim().isEmpty() ? null : LocalDate.parse(toField.getText().trim());
+            showFlights(fbs.searchFlights(origin, destination, from, to));
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Dates must be in YYYY-MM-DD format.", "Search Flights", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Replaces the rows of the table with the given flights, leaving out deleted flights.
+     *
+     * @param flightsList The flights to show.
+     */
+    private void showFlights(List<Flight> flightsList) {
+        model.setRowCount(0);
+        for (Flight flight : flightsList) {
+            if (!flight.isDeleted()) {
+                Object[] row = {
+                    flight.getId(),
+                    flight.getFlightNumber(),
+                    flight.getOrigin(),
+                    flight.getDestination(),
+                    flight.getDepartureDate(),
+                    flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS),
+                    flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS)
+                };
+                model.addRow(row);
+            }
+        }
     }
 
     /**
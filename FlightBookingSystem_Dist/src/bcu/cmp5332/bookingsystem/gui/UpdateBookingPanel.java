@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
@@ -186,12 +187,10 @@ public class UpdateBookingPanel extends JPanel implements ActionListener {
             }
 
             // Set new flight class if selected
-            if (newFlightClass != null) {
-                booking.setFlightClass(newFlightClass);
-            }
+            fbs.updateBooking(booking, null, newFlightClass);
 
             JOptionPane.showMessageDialog(this, "Booking updated successfully.");
-            FlightBookingSystemData.store(fbs);
+            FlightBookingSystemData.commit(fbs, JournalEntry.updateBooking(booking));
 
             // Switch to list bookings panel
             switchToPanel(new ListBookingPanel(fbs));
@@ -0,0 +1,36 @@
+package bcu.cmp5332.bookingsystem.main;
+
+/**
+ * The {@code ArgumentType} enum lists the types of the arguments that commands take, which
+ * {@link CommandParser} checks and parses before a command is created.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see CommandLine
+ */
+
+enum ArgumentType {
+
+    /** A whole number, such as an ID or a capacity. */
+    INT,
+
+    /** Whole numbers separated by commas and no spaces, such as {@code 3,4,17}; parsed as an {@code int[]}. */
+    INT_LIST,
+
+    /** A number that may have decimals, such as a price. */
+    DECIMAL,
+
+    /** A date in YYYY-MM-DD format. */
+    DATE,
+
+    /** The name of a flight class, in any case. */
+    FLIGHT_CLASS,
+
+    /** A single word, such as a flight number or an airport. */
+    WORD,
+
+    /** Text that may contain spaces, such as a name; it takes every word not needed by the other arguments. */
+    TEXT
+}
@@ -0,0 +1,201 @@
+package bcu.cmp5332.bookingsystem.main;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@code BatchRunner} class runs a script of commands, such as a nightly feed of flights and
+ * bookings, without a user at the console.
+ *
+ * Every line of the script is one command with all of its arguments, as in
+ * {@code addbooking 3 17 FIRST_CLASS}; nothing is prompted for. Blank lines and lines starting
+ * with {@code #} are skipped, and {@code exit} ends the script. A line that fails is reported
+ * with its line number and the script carries on.
+ *
+ * Commits are deferred while the script runs, so the commands only change the system in memory.
+ * The data is stored every given number of commands, if any, and at the end, so each store
+ * writes the changes of many commands at once. The time taken by each command is recorded, and
+ * a report of the timings of each kind of command and of the stores can be printed at the end.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see CommandParser
+ * @see FlightBookingSystemData#setDeferred(boolean)
+ */
+
+public class BatchRunner {
+
+    /**
+     * Stores the data of a system, such as {@link FlightBookingSystemData#store(FlightBookingSystem)}.
+     */
+    public interface Store {
+
+        /**
+         * Stores the data of the given system.
+         *
+         * @param fbs The system to store.
+         * @throws IOException If the data cannot be stored.
+         */
+        void store(FlightBookingSystem fbs) throws IOException;
+    }
+
+    private final FlightBookingSystem fbs;
+    private final int storeEvery;
+    private final Store store;
+    private final PrintStream out;
+    private final Map<String, Timings> timings = new TreeMap<>();
+    private final Timings stores = new Timings();
+    private int commands;
+    private int failed;
+    private long nanos;
+
+    /**
+     * Constructs a {@code BatchRunner} for the given system that stores it in the data files.
+     *
+     * @param fbs        The flight booking system to run the commands on.
+     * @param storeEvery The number of commands after which the data is stored, or 0 to only store
+     *                   it at the end.
+     * @param out        The stream to report failed lines and timings to.
+     */
+    public BatchRunner(FlightBookingSystem fbs, int storeEvery, PrintStream out) {
+        this(fbs, storeEvery, out, FlightBookingSystemData::store);
+    }
+
+    /**
+     * Constructs a {@code BatchRunner} for the given system that stores it with the given store.
+     *
+     * @param fbs        The flight booking system to run the commands on.
+     * @param storeEvery The number of commands after which the data is stored, or 0 to only store
+     *                   it at the end.
+     * @param out        The stream to report failed lines and timings to.
+     * @param store      Stores the data.
+     */
+    public BatchRunner(FlightBookingSystem fbs, int storeEvery, PrintStream out, Store store) {
+        if (storeEvery < 0) {
+            throw new IllegalArgumentException("storeEvery must not be negative");
+        }
+        this.fbs = fbs;
+        this.storeEvery = storeEvery;
+        this.out = out;
+        this.store = store;
+    }
+
+    /**
+     * Runs every command of a script and stores the data at the end.
+     *
+     * @param script The script to read commands from.
+     * @return The number of lines that failed.
+     * @throws IOException If the script cannot be read or the data cannot be stored.
+     */
+    public int run(BufferedReader script) throws IOException {
+        boolean wasDeferred = FlightBookingSystemData.isDeferred();
+        FlightBookingSystemData.setDeferred(true);
+        long start = System.nanoTime();
+        try {
+            int lineNumber = 0;
+            for (String line; (line = script.readLine()) != null; ) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.equals("exit")) {
+                    break;
+                }
+                execute(lineNumber, line);
+                if (storeEvery > 0 && commands % storeEvery == 0) {
+                    store();
+                }
+            }
+            store();
+        } finally {
+            FlightBookingSystemData.setDeferred(wasDeferred);
+            nanos = System.nanoTime() - start;
+        }
+        return failed;
+    }
+
+    private void execute(int lineNumber, String line) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Command command = CommandParser.parse(line);
+            command.execute(fbs);
+            ok = true;
+        } catch (FlightBookingSystemException ex) {
+            out.println("Line " + lineNumber + ": " + ex.getMessage());
+        } catch (RuntimeException ex) {
+            out.println("Line " + lineNumber + ": " + ex);
+        }
+        long elapsed = System.nanoTime() - start;
+        int space = line.indexOf(' ');
+        String verb = space < 0 ? line : line.substring(0, space);
+        timings.computeIfAbsent(verb, v -> new Timings()).add(elapsed, ok);
+        commands++;
+        if (!ok) {
+            failed++;
+        }
+    }
+
+    private void store() throws IOException {
+        long start = System.nanoTime();
+        store.store(fbs);
+        stores.add(System.nanoTime() - start, true);
+    }
+
+    /**
+     * Prints how many commands ran and failed, and the count, failures and times of each kind of
+     * command and of the stores.
+     */
+    public void printReport() {
+        out.printf("%,d commands in %,.0f ms, %,d failed, data stored %,d times%n",
+                commands, nanos / 1e6, failed, stores.count);
+        out.printf("%-16s %8s %8s %10s %10s %10s %10s%n",
+                "command", "count", "failed", "total ms", "mean us", "p99 us", "max us");
+        for (Map.Entry<String, Timings> entry : timings.entrySet()) {
+            entry.getValue().print(entry.getKey());
+        }
+        stores.print("(store)");
+    }
+
+    // the times taken by one kind of command, in nanoseconds
+    private final class Timings {
+        private long[] times = new long[16];
+        private int count;
+        private int failed;
+        private long total;
+
+        void add(long time, boolean ok) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = time;
+            total += time;
+            if (!ok) {
+                failed++;
+            }
+        }
+
+        void print(String name) {
+            if (count == 0) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(times, count);
+            Arrays.sort(sorted);
+            out.printf("%-16s %,8d %,8d %,10.1f %,10.1f %,10.1f %,10.1f%n", name, count, failed,
+                    total / 1e6, total / 1e3 / count,
+                    sorted[Math.min(count - 1, (int) Math.ceil(0.99 * count) - 1)] / 1e3,
+                    sorted[count - 1] / 1e3);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package bcu.cmp5332.bookingsystem.main;
+
+/**
+ * BookingConflictException extends {@link FlightBookingSystemException} and is thrown when a
+ * valid booking request cannot be carried out because of the current state of the system, such
+ * as a flight that is fully booked.
+ */
+public class BookingConflictException extends FlightBookingSystemException {
+
+    /**
+     * Constructs a new BookingConflictException with the specified detail message.
+     * 
+     * @param message The detail message (which is saved for later retrieval by the getMessage() method).
+     */
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
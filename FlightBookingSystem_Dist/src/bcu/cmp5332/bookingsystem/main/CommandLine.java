@@ -0,0 +1,311 @@
+package bcu.cmp5332.bookingsystem.main;
+
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The {@code CommandLine} class holds one command line while {@link CommandParser} parses it:
+ * the positions of its words, and the arguments parsed from them.
+ *
+ * The line is split into words in a single pass that only records where each word starts and
+ * ends, in arrays reused from line to line. Numbers, dates and flight classes are then parsed
+ * directly from the line into reused slots, so only arguments that are genuinely text, such as
+ * names, create a {@code String}. Instances are not thread-safe.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see CommandParser
+ */
+
+final class CommandLine {
+
+    private static final FlightClass[] FLIGHT_CLASSES = FlightClass.values();
+
+    private String line;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int words;
+
+    private boolean[] present = new boolean[8];
+    private int[] ints = new int[8];
+    private double[] decimals = new double[8];
+    private Object[] values = new Object[8];
+
+    /**
+     * Makes the given line the current line and finds its words, separated by spaces or tabs.
+     *
+     * @param line The command line.
+     */
+    void reset(String line) {
+        this.line = line;
+        words = 0;
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            while (i < length && isSpace(line.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            if (words == starts.length) {
+                starts = Arrays.copyOf(starts, words * 2);
+                ends = Arrays.copyOf(ends, words * 2);
+            }
+            starts[words] = i;
+            while (i < length && !isSpace(line.charAt(i))) {
+                i++;
+            }
+            ends[words++] = i;
+        }
+    }
+
+    /**
+     * Gets the number of words on the line, including the command itself.
+     *
+     * @return The number of words.
+     */
+    int words() {
+        return words;
+    }
+
+    /**
+     * Checks whether a word of the line is the given text.
+     *
+     * @param word The index of the word.
+     * @param text The text to compare with.
+     * @return {@code true} if the word is exactly the text.
+     */
+    boolean wordEquals(int word, String text) {
+        int length = ends[word] - starts[word];
+        return length == text.length() && line.regionMatches(starts[word], text, 0, length);
+    }
+
+    /**
+     * Gets the length of a word of the line.
+     *
+     * @param word The index of the word.
+     * @return The number of characters in the word.
+     */
+    int wordLength(int word) {
+        return ends[word] - starts[word];
+    }
+
+    /**
+     * Gets the text of the line from the start of one word to the end of another.
+     *
+     * @param first The index of the first word.
+     * @param last  The index of the last word.
+     * @return The text, with the spaces between the words kept.
+     */
+    String text(int first, int last) {
+        return line.substring(starts[first], ends[last]);
+    }
+
+    /**
+     * Forgets the arguments of the previous line, making room for the given number.
+     *
+     * @param count The number of arguments the command takes.
+     */
+    void clearArguments(int count) {
+        if (present.length < count) {
+            present = new boolean[count];
+            ints = new int[count];
+            decimals = new double[count];
+            values = new Object[count];
+        }
+        Arrays.fill(present, false);
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * Checks whether an argument was given.
+     *
+     * @param index The index of the argument.
+     * @return {@code true} if the argument was given or answered at a prompt.
+     */
+    boolean has(int index) {
+        return present[index];
+    }
+
+    /**
+     * Gets a whole-number argument.
+     *
+     * @param index The index of the argument.
+     * @return The value.
+     */
+    int getInt(int index) {
+        return ints[index];
+    }
+
+    /**
+     * Gets a decimal argument.
+     *
+     * @param index The index of the argument.
+     * @return The value.
+     */
+    double getDecimal(int index) {
+        return decimals[index];
+    }
+
+    /**
+     * Gets a text, date, flight class or list argument.
+     *
+     * @param <T>   The type of the argument.
+     * @param index The index of the argument.
+     * @return The value, or {@code null} if it was not given.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(int index) {
+        return (T) values[index];
+    }
+
+    /**
+     * Parses an argument from part of a text, which is either the command line or an answer
+     * typed at a prompt, and stores it.
+     *
+     * @param index The index of the argument.
+     * @param type  The type of the argument.
+     * @param name  The name of the argument, for error messages.
+     * @param text  The text holding the argument.
+     * @param start The index of the first character of the argument.
+     * @param end   The index after the last character of the argument.
+     * @throws FlightBookingSystemException If the text is not a valid value of the type.
+     */
+    void parse(int index, ArgumentType type, String name, String text, int start, int end)
+            throws FlightBookingSystemException {
+        switch (type) {
+            case INT:
+                ints[index] = parseInt(name, text, start, end);
+                break;
+            case DECIMAL:
+                try {
+                    decimals[index] = Double.parseDouble(text.substring(start, end));
+                } catch (NumberFormatException ex) {
+                    throw invalid(name, text, start, end, "Expected a number.");
+                }
+                break;
+            case INT_LIST:
+                values[index] = parseIntList(name, text, start, end);
+                break;
+            case DATE:
+                values[index] = parseDate(name, text, start, end);
+                break;
+            case FLIGHT_CLASS:
+                values[index] = parseFlightClass(name, text, start, end);
+                break;
+            default:
+                values[index] = text.substring(start, end);
+        }
+        present[index] = true;
+    }
+
+    /**
+     * Parses an argument from a range of words of the command line and stores it.
+     *
+     * @param index The index of the argument.
+     * @param type  The type of the argument.
+     * @param name  The name of the argument, for error messages.
+     * @param first The index of the first word of the argument.
+     * @param last  The index of the last word of the argument.
+     * @throws FlightBookingSystemException If the words are not a valid value of the type.
+     */
+    void parse(int index, ArgumentType type, String name, int first, int last) throws FlightBookingSystemException {
+        parse(index, type, name, line, starts[first], ends[last]);
+    }
+
+    private static int parseInt(String name, String text, int start, int end) throws FlightBookingSystemException {
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (negative || i < end && text.charAt(i) == '+') {
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            throw invalid(name, text, start, end, "Expected a whole number.");
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(name, text, start, end, "Expected a whole number.");
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw invalid(name, text, start, end, "Expected a whole number.");
+        }
+        return (int) value;
+    }
+
+    private static int[] parseIntList(String name, String text, int start, int end) throws FlightBookingSystemException {
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                count++;
+            }
+        }
+        int[] values = new int[count];
+        int from = start;
+        for (int n = 0; n < count; n++) {
+            int to = n == count - 1 ? end : text.indexOf(',', from);
+            values[n] = parseInt(name, text, from, to);
+            from = to + 1;
+        }
+        return values;
+    }
+
+    private static LocalDate parseDate(String name, String text, int start, int end) throws FlightBookingSystemException {
+        if (end - start == 10 && text.charAt(start + 4) == '-' && text.charAt(start + 7) == '-') {
+            int year = digits(text, start, 4);
+            int month = digits(text, start + 5, 2);
+            int day = digits(text, start + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException ex) {
+                    // not a day of the calendar, such as 2024-02-30
+                }
+            }
+        }
+        throw invalid(name, text, start, end, "Dates must be in YYYY-MM-DD format.");
+    }
+
+    private static FlightClass parseFlightClass(String name, String text, int start, int end)
+            throws FlightBookingSystemException {
+        int length = end - start;
+        for (FlightClass flightClass : FLIGHT_CLASSES) {
+            String constant = flightClass.name();
+            if (constant.length() == length && text.regionMatches(true, start, constant, 0, length)) {
+                return flightClass;
+            }
+        }
+        throw invalid(name, text, start, end, "Use ECONOMY_CLASS, BUSINESS_CLASS or FIRST_CLASS.");
+    }
+
+    // the value of a run of decimal digits, or -1 if there is another character among them
+    private static int digits(String text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static FlightBookingSystemException invalid(String name, String text, int start, int end, String expected) {
+        return new FlightBookingSystemException("Invalid " + name + " '" + text.substring(start, end) + "'. " + expected);
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
@@ -1,10 +1,11 @@
 package bcu.cmp5332.bookingsystem.main;
 
+import bcu.cmp5332.bookingsystem.commands.ListDepartures;
 import bcu.cmp5332.bookingsystem.commands.LoadGUI;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
 import bcu.cmp5332.bookingsystem.commands.ShowCustomer;
 import bcu.cmp5332.bookingsystem.commands.ShowFlight;
 import bcu.cmp5332.bookingsystem.commands.UpdateBooking;
-import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
 import bcu.cmp5332.bookingsystem.commands.ListFlights;
 import bcu.cmp5332.bookingsystem.commands.AddFlight;
@@ -15,20 +16,39 @@ import bcu.cmp5332.bookingsystem.commands.Help;
 import bcu.cmp5332.bookingsystem.commands.ListBooking;
 import bcu.cmp5332.bookingsystem.commands.ListCustomers;
 import bcu.cmp5332.bookingsystem.commands.AddBooking;
+import bcu.cmp5332.bookingsystem.commands.AddBookings;
 import bcu.cmp5332.bookingsystem.commands.AddCustomer;
 import bcu.cmp5332.bookingsystem.commands.DeleteFlight;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.DATE;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.DECIMAL;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.FLIGHT_CLASS;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.INT;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.INT_LIST;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.TEXT;
+import static bcu.cmp5332.bookingsystem.main.ArgumentType.WORD;
 
 /**
  * The CommandParser class parses user input to create appropriate Command objects.
  * It handles various commands related to managing flights, customers, and bookings
  * within a flight booking system.
- * 
+ *
+ * Every command is registered once, with the types of its arguments and the handler that
+ * creates it. A line is parsed in a single pass: its command is looked up among the commands
+ * of the same length, and its arguments are checked and parsed against their types before the
+ * handler runs, so a mistake is reported by name and the usage of the command is shown. Apart
+ * from the command itself and its text arguments, parsing a line allocates nothing.
+ *
+ * Arguments that are not given on the line can be prompted for on the console, and are
+ * otherwise left out if they are optional. Commands received from scripts or over the network
+ * are parsed without a console, so they never wait for input.
+ *
  * @author Bibek
  * @author Solomon
  * @version 1.0
@@ -36,226 +56,273 @@ import java.time.format.DateTimeParseException;
  */
 
 public class CommandParser {
-	
+
+    private static final int PROMPT_ATTEMPTS = 3;
+    private static final String DATE_PROMPT = " (\"YYYY-MM-DD\" format): ";
+    private static final String CLASS_PROMPT = " (ECONOMY_CLASS/BUSINESS_CLASS/FIRST_CLASS): ";
+
+    // the registered commands, indexed by the length of their name
+    private static final Verb[][] VERBS;
+    private static final ThreadLocal<CommandLine> LINES = ThreadLocal.withInitial(CommandLine::new);
+
+    static {
+        List<Verb> verbs = new ArrayList<>();
+        verbs.add(new Verb("listflights", args -> new ListFlights()));
+        verbs.add(new Verb("listcustomers", args -> new ListCustomers()));
+        verbs.add(new Verb("listbookings", args -> new ListBooking()));
+        verbs.add(new Verb("help", args -> new Help()));
+        verbs.add(new Verb("loadgui", args -> new LoadGUI()).consoleOnly());
+        verbs.add(new Verb("showflight", args -> new ShowFlight(args.getInt(0)),
+                required("flight_id", INT)));
+        verbs.add(new Verb("deleteflight", args -> new DeleteFlight(args.getInt(0)),
+                required("flight_id", INT)));
+        verbs.add(new Verb("showcustomer", args -> new ShowCustomer(args.getInt(0)),
+                required("customer_id", INT)));
+        verbs.add(new Verb("deletecustomer", args -> new DeleteCustomer(args.getInt(0)),
+                required("customer_id", INT)));
+        verbs.add(new Verb("addflight",
+                args -> new AddFlight(args.get(0), args.get(1), args.get(2), args.get(3), args.getInt(4), args.getDecimal(5)),
+                prompted("flight_number", WORD, "Flight Number: "),
+                prompted("origin", WORD, "Origin: "),
+                prompted("destination", WORD, "Destination: "),
+                prompted("departure_date", DATE, "Departure Date" + DATE_PROMPT),
+                prompted("capacity", INT, "Capacity: "),
+                prompted("price", DECIMAL, "Price: ")));
+        verbs.add(new Verb("addcustomer", args -> new AddCustomer(args.get(0), args.get(1), args.get(2)),
+                prompted("name", TEXT, "Name: "),
+                prompted("phone", WORD, "Phone: "),
+                prompted("email", WORD, "Email: ")));
+        verbs.add(new Verb("addbooking",
+                args -> new AddBooking(args.getInt(0), args.getInt(1), LocalDate.now(),
+                        args.has(2) ? args.get(2) : FlightClass.ECONOMY_CLASS),
+                required("customer_id", INT),
+                required("flight_id", INT),
+                // economy class unless chosen on the line or at the console
+                new Argument("flight_class", FLIGHT_CLASS, true, "Flight Class" + CLASS_PROMPT)));
+        verbs.add(new Verb("addbookings",
+                args -> new AddBookings(args.get(0), args.get(1), LocalDate.now(),
+                        args.has(2) ? args.get(2) : FlightClass.ECONOMY_CLASS),
+                required("customer_ids", INT_LIST),
+                required("flight_ids", INT_LIST),
+                new Argument("flight_class", FLIGHT_CLASS, true, "Flight Class" + CLASS_PROMPT)));
+        verbs.add(new Verb("editbooking",
+                args -> new UpdateBooking(args.getInt(0), args.getInt(1), args.get(2), args.get(3)),
+                required("customer_id", INT),
+                required("flight_id", INT),
+                prompted("booking_date", DATE, "New Booking Date" + DATE_PROMPT),
+                prompted("flight_class", FLIGHT_CLASS, "New Flight Class" + CLASS_PROMPT)));
+        verbs.add(new Verb("cancelbooking", args -> new CancelBooking(args.getInt(0), args.getInt(1)),
+                required("customer_id", INT),
+                required("flight_id", INT)));
+        verbs.add(new Verb("searchflights", args -> new SearchFlights(args.get(0), args.get(1), args.get(2), args.get(3)),
+                required("origin", WORD),
+                required("destination", WORD),
+                optional("from", DATE),
+                optional("to", DATE)));
+        verbs.add(new Verb("listdepartures",
+                args -> args.has(0) ? new ListDepartures(args.get(0), args.get(1)) : new ListDepartures(),
+                optional("from", DATE),
+                optional("to", DATE)));
+
+        int longest = 0;
+        for (Verb verb : verbs) {
+            longest = Math.max(longest, verb.name.length());
+        }
+        VERBS = new Verb[longest + 1][0];
+        for (Verb verb : verbs) {
+            Verb[] sameLength = VERBS[verb.name.length()];
+            Verb[] grown = new Verb[sameLength.length + 1];
+            System.arraycopy(sameLength, 0, grown, 0, sameLength.length);
+            grown[sameLength.length] = verb;
+            VERBS[verb.name.length()] = grown;
+        }
+    }
+
 	  /**
-     * Parses the user input and returns the corresponding Command object.
-     * 
-     * @param line The user input command line.
+     * Parses a complete command line and returns the corresponding Command object, without
+     * prompting for anything: a required argument that is missing is an error.
+     *
+     * @param line The command line.
      * @return The Command object based on the parsed input.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing the command or creating Command objects.
+     * @throws FlightBookingSystemException If the command is unknown or its arguments are missing or invalid.
      */
-    
-    public static Command parse(String line) throws IOException, FlightBookingSystemException {
-        try {
-            String[] parts = line.split(" ", 3);
-            String cmd = parts[0];
 
-            
-            if (cmd.equals("addflight")) {
-            	  return parseAddFlight(parts);     
-            } else if (cmd.equals("addcustomer")) {
-            	return parseAddCustomer(parts);
-            } else if (cmd.equals("loadgui")) {
-                return new LoadGUI();
-            } else if (parts.length == 1) {
-                if (line.equals("listflights")) {
-                    return new ListFlights();
-                } else if (line.equals("listcustomers")) {
-                	 return new ListCustomers();
-                }
-                else if (line.equals("listbookings")) {
-                    return new ListBooking();
-                } else if (cmd.equals("addbooking")) {
-                    return parseAddBooking(parts);
-                }
-                else if (cmd.equals("showcustomer")) {
-                    int customerId = Integer.parseInt(parts[1]);
-                    return new ShowCustomer(customerId);
-                }
-                else if (cmd.equals("showflight")) {
-                    int flightId = Integer.parseInt(parts[1]);
-                    return new ShowFlight(flightId);
-               
-                    
-                } else if (line.equals("help")) {
-                    return new Help();
-                }
-            } else if (parts.length == 2) {
-                int id = Integer.parseInt(parts[1]);
+    public static Command parse(String line) throws FlightBookingSystemException {
+        return parse(line, null);
+    }
 
-                if (cmd.equals("showflight")) {
-                	return new ShowFlight(id);
-                }else if (cmd.equals("deleteflight")) {
-                    return new DeleteFlight(id);
-                } else if (cmd.equals("showcustomer")) {
-                	 return new ShowCustomer(id);
-                } else if (cmd.equals("deletecustomer")) {
-                	return new DeleteCustomer(id);
-                }
-            } else if (parts.length == 3) {
-                
+	  /**
+     * Parses the user input and returns the corresponding Command object. Arguments that are
+     * not given on the line are prompted for on the console, if there is one.
+     *
+     * @param line    The user input command line.
+     * @param console The console to read prompted arguments from, or {@code null} to never prompt.
+     * @return The Command object based on the parsed input.
+     * @throws FlightBookingSystemException If the command is unknown, its arguments are missing or invalid,
+     *                                      or the console cannot be read.
+     */
 
-                if (cmd.equals("addbooking")) {
-                	return parseAddBooking(parts);
-                } else if (cmd.equals("editbooking")) {
-                	int customerId = Integer.parseInt(parts[1]);
-               	 int flightId = Integer.parseInt(parts[2]);
-               	 LocalDate newBookingDate = parseDateWithAttempts(new BufferedReader(new InputStreamReader(System.in)));
-               	 Flight.FlightClass newFlightClass = parseFlightClassWithAttempts(new BufferedReader(new InputStreamReader(System.in)));
+    public static Command parse(String line, BufferedReader console) throws FlightBookingSystemException {
+        CommandLine args = LINES.get();
+        args.reset(line);
+        if (args.words() == 0) {
+            throw new FlightBookingSystemException("Enter a command, or 'help' to see a list of available commands.");
+        }
+        Verb verb = find(args);
+        if (verb == null) {
+            throw new FlightBookingSystemException("Unknown command '" + args.text(0, 0)
+                    + "'. Enter 'help' to see a list of available commands.");
+        }
+        if (verb.consoleOnly && console == null) {
+            throw new FlightBookingSystemException("The " + verb.name + " command can only be used from the console.");
+        }
 
-                    return new UpdateBooking(customerId, flightId, newBookingDate, newFlightClass);
-                } else if (cmd.equals("cancelbooking")) {
-                	int customerId = Integer.parseInt(parts[1]);
-                	int flightId = Integer.parseInt(parts[2]);
-                	return new CancelBooking(customerId, flightId);
-                }
+        Argument[] arguments = verb.arguments;
+        args.clearArguments(arguments.length);
+        int given = args.words() - 1;
+        // words taken by the text argument beyond its first
+        int extra = given - arguments.length;
+        if (extra > 0 && verb.text < 0) {
+            throw usage(verb);
+        }
+        int word = 1;
+        for (int i = 0; i < arguments.length; i++) {
+            Argument argument = arguments[i];
+            if (word <= given) {
+                int last = i == verb.text && extra > 0 ? word + extra : word;
+                args.parse(i, argument.type, argument.name, word, last);
+                word = last + 1;
+            } else if (console != null && argument.prompt != null) {
+                prompt(args, i, argument, console);
+            } else if (!argument.optional) {
+                throw usage(verb);
             }
-        } catch (NumberFormatException ex) {
-
         }
-
-        throw new FlightBookingSystemException("Invalid commandsssss.");
+        return verb.handler.create(args);
     }
-    
-    /**
-     * Parses a flight class input from user with multiple attempts.
-     * 
-     * @param bufferedReader Reader object to read input.
-     * @return The parsed FlightClass enumeration value.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing the flight class.
-     */
-    private static FlightClass parseFlightClassWithAttempts(BufferedReader bufferedReader) throws IOException, FlightBookingSystemException {
-        int attempts = 5;
-        while (attempts > 0) {
-            attempts--;
-            System.out.print("Enter flight class (FIRST_CLASS, BUSINESS_CLASS, ECONOMY_CLASS): ");
-            try {
-                String input = bufferedReader.readLine().toUpperCase();
-                return Flight.FlightClass.valueOf(input);
-            } catch (IllegalArgumentException | IOException ex) {
-                System.out.println("Invalid input. Please enter a valid flight class. " + attempts + " attempts remaining...");
+
+    private static Verb find(CommandLine args) {
+        int length = args.wordLength(0);
+        if (length < VERBS.length) {
+            for (Verb verb : VERBS[length]) {
+                if (args.wordEquals(0, verb.name)) {
+                    return verb;
+                }
             }
         }
-
-        throw new FlightBookingSystemException("Failed to parse flight class. Cannot update booking.");
+        return null;
     }
 
-    /**
-     * Parses the "addbooking" command from user input and creates an AddBooking Command object.
-     * 
-     * @param parts Array of input parts split from user command.
-     * @return The AddBooking Command object.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing or creating the AddBooking command.
+	 /**
+     * Prompts for an argument on the console until a valid value is typed, or the attempts run out.
+     *
+     * @param args     The command line to store the argument in.
+     * @param index    The index of the argument.
+     * @param argument The argument.
+     * @param console  The console to read the answer from.
+     * @throws FlightBookingSystemException If no valid value is typed or the console cannot be read.
      */
-    
-	private static Command parseAddBooking(String[] parts) throws IOException, FlightBookingSystemException {
-        if (parts.length != 3) {
-            throw new FlightBookingSystemException("Invalid command format for addbooking. Correct format: addbooking <customer_id> <flight_id>");
+    private static void prompt(CommandLine args, int index, Argument argument, BufferedReader console)
+            throws FlightBookingSystemException {
+        int attempts = PROMPT_ATTEMPTS;
+        while (true) {
+            System.out.print(argument.prompt);
+            String answer;
+            try {
+                answer = console.readLine();
+            } catch (IOException ex) {
+                throw new FlightBookingSystemException("Could not read the " + argument.name + ": " + ex.getMessage());
+            }
+            if (answer == null) {
+                throw new FlightBookingSystemException("No " + argument.name + " given.");
+            }
+            answer = answer.trim();
+            try {
+                args.parse(index, argument.type, argument.name, answer, 0, answer.length());
+                return;
+            } catch (FlightBookingSystemException ex) {
+                if (--attempts == 0) {
+                    throw ex;
+                }
+                System.out.println(ex.getMessage() + " " + attempts + " attempts remaining...");
+            }
         }
+    }
 
-        int customerId = Integer.parseInt(parts[1]);
-        int flightId = Integer.parseInt(parts[2]);
-        
-        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-        System.out.print("Flight Class (ECONOMY_CLASS/BUSINESS_CLASS/FIRST_CLASS): ");
-        String flightClassInput = reader.readLine().toUpperCase();
-        
- 
-        Flight.FlightClass flightClass = Flight.FlightClass.valueOf(flightClassInput);
-        LocalDate bookingDate = LocalDate.now();
-        return new AddBooking(customerId, flightId, bookingDate, flightClass);
+    private static FlightBookingSystemException usage(Verb verb) {
+        return new FlightBookingSystemException("Invalid command format for " + verb.name + ". Correct format: " + verb.usage);
     }
 
-    
-	 /**
-     * Parses the "addflight" command from user input and creates an AddFlight Command object.
-     * 
-     * @param parts Array of input parts split from user command.
-     * @return The AddFlight Command object.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing or creating the AddFlight command.
-     */
+    private static Argument required(String name, ArgumentType type) {
+        return new Argument(name, type, false, null);
+    }
 
-	private static Command parseAddFlight(String[] parts) throws IOException, FlightBookingSystemException {
-    	  BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-          System.out.print("Flight Number: ");
-          String flighNumber = reader.readLine();
-          System.out.print("Origin: ");
-          String origin = reader.readLine();
-          System.out.print("Destination: ");
-          String destination = reader.readLine();
+    private static Argument optional(String name, ArgumentType type) {
+        return new Argument(name, type, true, null);
+    }
 
-          LocalDate departureDate = parseDateWithAttempts(reader);
-          
-          System.out.print("Capacity: ");
-	        int capacity = Integer.parseInt(reader.readLine());
-	      System.out.print("Price: ");
-	      double price = Double.parseDouble(reader.readLine());
+    private static Argument prompted(String name, ArgumentType type, String prompt) {
+        return new Argument(name, type, false, prompt);
+    }
 
-          return new AddFlight(flighNumber, origin, destination, departureDate,  capacity, price);
-	}
+    /**
+     * Creates a command from the arguments parsed for it.
+     */
+    @FunctionalInterface
+    private interface Handler {
+        Command create(CommandLine args) throws FlightBookingSystemException;
+    }
 
-	  /**
-     * Parses the "addcustomer" command from user input and creates an AddCustomer Command object.
-     * 
-     * @param parts Array of input parts split from user command.
-     * @return The AddCustomer Command object.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing or creating the AddCustomer command.
+    /**
+     * An argument of a command: its name, its type, whether it may be left out, and the prompt
+     * asking for it on the console when it is not given, if it may be asked for.
      */
-	private static Command parseAddCustomer(String[] parts) throws IOException, FlightBookingSystemException {
-    	 BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
-	        System.out.print("Name: ");
-	        String name = reader.readLine();
-	        System.out.print("Phone: ");
-	        String phone = reader.readLine();
-	        System.out.print("Email: ");
-	        String email = reader.readLine();
+    private static final class Argument {
+        final String name;
+        final ArgumentType type;
+        final boolean optional;
+        final String prompt;
 
-	        return new AddCustomer(name, phone, email);
-	}
+        Argument(String name, ArgumentType type, boolean optional, String prompt) {
+            this.name = name;
+            this.type = type;
+            this.optional = optional;
+            this.prompt = prompt;
+        }
+    }
 
-	   /**
-     * Parses a date input from user with multiple attempts.
-     * 
-     * @param br Reader object to read input.
-     * @param attempts Number of attempts to read date input.
-     * @return The parsed LocalDate object.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing the date.
+    /**
+     * A registered command: its name, its arguments and the handler that creates it.
      */
-	private static LocalDate parseDateWithAttempts(BufferedReader br, int attempts) throws IOException, FlightBookingSystemException {
-        if (attempts < 1) {
-            throw new IllegalArgumentException("Number of attempts should be higher that 0");
-        }
-        while (attempts > 0) {
-            attempts--;
-            System.out.print("Departure Date (\"YYYY-MM-DD\" format): ");
-            try {
-                LocalDate departureDate = LocalDate.parse(br.readLine());
-                return departureDate;
-            } catch (DateTimeParseException dtpe) {
-                System.out.println("Date must be in YYYY-MM-DD format. " + attempts + " attempts remaining...");
+    private static final class Verb {
+        final String name;
+        final Handler handler;
+        final Argument[] arguments;
+        final String usage;
+        // the index of the text argument, or -1 if there is none
+        final int text;
+        boolean consoleOnly;
+
+        Verb(String name, Handler handler, Argument... arguments) {
+            this.name = name;
+            this.handler = handler;
+            this.arguments = arguments;
+            StringBuilder usage = new StringBuilder(name);
+            int text = -1;
+            for (int i = 0; i < arguments.length; i++) {
+                Argument argument = arguments[i];
+                usage.append(argument.optional ? " [" : " <").append(argument.name).append(argument.optional ? "]" : ">");
+                if (argument.type == TEXT) {
+                    text = i;
+                }
             }
+            this.usage = usage.toString();
+            this.text = text;
         }
-        
-        throw new FlightBookingSystemException("Incorrect departure date provided. Cannot create flight.");
-    }
-    
-	 /**
-     * Parses date input with default 3 attempts.
-     * 
-     * @param br Reader object to read input.
-     * @return The parsed LocalDate object.
-     * @throws IOException If there is an error reading input.
-     * @throws FlightBookingSystemException If there is an error parsing the date.
-     */
-    private static LocalDate parseDateWithAttempts(BufferedReader br) throws IOException, FlightBookingSystemException {
-        return parseDateWithAttempts(br, 3);
-    }
-    
 
+        Verb consoleOnly() {
+            consoleOnly = true;
+            return this;
+        }
+    }
 }
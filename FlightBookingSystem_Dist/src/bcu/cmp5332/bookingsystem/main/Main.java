@@ -1,8 +1,11 @@
 package bcu.cmp5332.bookingsystem.main;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.ScheduleImporter;
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.server.BookingServer;
+import bcu.cmp5332.bookingsystem.server.LineServer;
 
 import java.io.*;
 
@@ -14,6 +17,14 @@ import java.io.*;
  * <p>
  * The application loads an existing flight booking system data from a file, provides a command-line
  * interface for users to execute commands, and stores the updated data back to the file upon exit.
+ * <p>
+ * Started with {@code --serve [port]}, the application serves the booking commands as a JSON API
+ * over HTTP instead, until the process is stopped, and then stores the data. Started with
+ * {@code --listen [port]}, it serves the console commands to terminal agents over TCP in the same way.
+ * Started with {@code --batch <file> [store every]}, it runs the commands of a script file, storing
+ * the data at the end and, if given, every that many commands, and reports how long they took.
+ * Started with {@code --import <csv file> [batch size]}, it imports a schedule of flights, writing
+ * the rows it rejects next to the file, with {@code .rejected} appended to its name.
  * 
  * @author Bibek
  * @author Solomon
@@ -28,7 +39,10 @@ public class Main {
 	 /**
      * The main method to start the Flight Booking System application.
      * 
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments: {@code --serve [port]} to run the HTTP server,
+     *             {@code --listen [port]} to run the line server,
+     *             {@code --batch <file> [store every]} to run a script,
+     *             {@code --import <csv file> [batch size]} to import a schedule, otherwise none.
      * @throws IOException if there is an error reading from the input stream or writing to the file.
      * @throws FlightBookingSystemException if there is an error loading or storing the flight booking system data,
      *                                      or if there is an error executing a command.
@@ -37,6 +51,33 @@ public class Main {
         
         FlightBookingSystem fbs = FlightBookingSystemData.load();
 
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(fbs, args.length > 1 ? Integer.parseInt(args[1])
+                    : Integer.getInteger(BookingServer.PORT_PROPERTY, BookingServer.DEFAULT_PORT));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            if (args.length < 2) {
+                throw new FlightBookingSystemException("Usage: --batch <file> [store every]");
+            }
+            int failed = batch(fbs, args[1], args.length > 2 ? Integer.parseInt(args[2]) : 0);
+            System.exit(failed == 0 ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--import")) {
+            if (args.length < 2) {
+                throw new FlightBookingSystemException("Usage: --import <csv file> [batch size]");
+            }
+            int rejected = importSchedule(fbs, args[1],
+                    args.length > 2 ? Integer.parseInt(args[2]) : ScheduleImporter.DEFAULT_BATCH_SIZE);
+            FlightBookingSystemData.store(fbs);
+            System.exit(rejected == 0 ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("--listen")) {
+            listen(fbs, args.length > 1 ? Integer.parseInt(args[1])
+                    : Integer.getInteger(LineServer.PORT_PROPERTY, LineServer.DEFAULT_PORT));
+            return;
+        }
+
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
 
         System.out.println("Flight Booking System");
@@ -44,12 +85,12 @@ public class Main {
         while (true) {
             System.out.print("> ");
             String line = br.readLine();
-            if (line.equals("exit")) {
+            if (line == null || line.equals("exit")) {
                 break;
             }
 
             try {
-                Command command = CommandParser.parse(line);
+                Command command = CommandParser.parse(line, br);
                 command.execute(fbs);
             } catch (FlightBookingSystemException ex) {
                 System.out.println(ex.getMessage());
@@ -58,4 +99,99 @@ public class Main {
         FlightBookingSystemData.store(fbs);
         System.exit(0);
     }
+
+    /**
+     * Serves the booking commands over HTTP until the process is stopped, then stores the data.
+     * 
+     * @param fbs  The flight booking system to serve.
+     * @param port The port to listen on.
+     * @throws IOException if the port cannot be bound.
+     */
+    private static void serve(FlightBookingSystem fbs, int port) throws IOException {
+        // answers are small, so send them at once instead of waiting for the client to acknowledge
+        // the headers; read by the JDK server when it is first used, unless set on the command line
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        BookingServer server = new BookingServer(fbs, port);
+        storeOnShutdown(fbs, () -> server.stop(5));
+        server.start();
+        System.out.println("Flight Booking System serving on port " + server.getPort() + "; stop the process to exit.");
+    }
+
+    /**
+     * Runs the commands of a script file and prints a report of their timings.
+     * 
+     * @param fbs        The flight booking system to run the commands on.
+     * @param file       The path of the script file.
+     * @param storeEvery The number of commands after which the data is stored, or 0 to only store it at the end.
+     * @return The number of lines that failed.
+     * @throws IOException if the script cannot be read or the data cannot be stored.
+     */
+    private static int batch(FlightBookingSystem fbs, String file, int storeEvery) throws IOException {
+        BatchRunner runner = new BatchRunner(fbs, storeEvery, System.out);
+        int failed;
+        try (BufferedReader script = new BufferedReader(new FileReader(file))) {
+            failed = runner.run(script);
+        }
+        runner.printReport();
+        return failed;
+    }
+
+    /**
+     * Imports a schedule of flights from a CSV file and reports how many rows were imported and rejected.
+     * 
+     * @param fbs       The flight booking system to import the flights into.
+     * @param file      The path of the CSV file.
+     * @param batchSize The number of flights committed together.
+     * @return The number of rows that were rejected.
+     * @throws IOException if the file cannot be read, the rejected rows cannot be written or a batch cannot be stored.
+     * @throws FlightBookingSystemException if a batch cannot be added.
+     */
+    private static int importSchedule(FlightBookingSystem fbs, String file, int batchSize)
+            throws IOException, FlightBookingSystemException {
+        ScheduleImporter importer = new ScheduleImporter(fbs, batchSize);
+        long start = System.nanoTime();
+        try (BufferedReader csv = new BufferedReader(new FileReader(file), 1 << 16);
+             Writer rejects = new BufferedWriter(new FileWriter(file + ".rejected"))) {
+            importer.importSchedule(csv, rejects);
+        }
+        System.out.printf("%,d flights imported and %,d rows rejected in %,.0f ms%n",
+                importer.getImported(), importer.getRejected(), (System.nanoTime() - start) / 1e6);
+        if (importer.getRejected() > 0) {
+            System.out.println("Rejected rows are listed in " + file + ".rejected");
+        }
+        return importer.getRejected();
+    }
+
+    /**
+     * Serves the console commands over TCP until the process is stopped, then stores the data.
+     * 
+     * @param fbs  The flight booking system to serve.
+     * @param port The port to listen on.
+     * @throws IOException if the port cannot be bound.
+     */
+    private static void listen(FlightBookingSystem fbs, int port) throws IOException {
+        LineServer server = new LineServer(fbs, port);
+        storeOnShutdown(fbs, () -> server.stop(5));
+        server.start();
+        System.out.println("Flight Booking System listening on port " + server.getPort() + "; stop the process to exit.");
+    }
+
+    /**
+     * Stops a server and stores the data when the process is stopped.
+     * 
+     * @param fbs        The flight booking system to store.
+     * @param stopServer Stops the server, waiting for requests in progress.
+     */
+    private static void storeOnShutdown(FlightBookingSystem fbs, Runnable stopServer) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopServer.run();
+            try {
+                FlightBookingSystemData.store(fbs);
+            } catch (IOException ex) {
+                System.err.println("Error storing data: " + ex.getMessage());
+            }
+        }));
+    }
 }
@@ -0,0 +1,275 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.*;
+
+/**
+ * The {@code ActiveView} class is a live, read-only list of the active (not deleted) entities of
+ * one kind in a {@link FlightBookingSystem}. The system inserts entities when they are added and
+ * deletes them when they are soft-deleted, so reading the list needs no copying or filtering and
+ * {@link #size()} is constant time.
+ *
+ * With a comparator the list is kept in that order, which for entities ordered by ID means new
+ * entities are appended. Without one the list keeps the order in which entities were inserted.
+ *
+ * Every change publishes a new immutable version of the list, and {@link #snapshot()} returns the
+ * current version without copying it. A reader can therefore iterate a snapshot for as long as it
+ * likes while entities are added and deleted, and never sees a half-made change or blocks a writer.
+ * Versions share their contents: the entities are held in leaves of up to {@value #LEAF_SIZE}
+ * entities, an append writes into a slot that no published version can see yet, and an insertion
+ * or deletion elsewhere copies only the leaf it changes and the array of leaves. Changes must be
+ * made by one thread at a time.
+ *
+ * @param <T> The type of entity in the view.
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ */
+final class ActiveView<T> extends AbstractList<T> implements RandomAccess {
+
+    static final int LEAF_SIZE = 512;
+
+    private final Comparator<? super T> order;
+    private volatile Version<T> current = new Version<>(new Object[4][], new int[4], 0, 0);
+
+    /**
+     * Creates an empty view.
+     *
+     * @param order The order of the view, or null to keep the order of insertion.
+     */
+    ActiveView(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    /**
+     * Returns the current version of the list. It never changes, so it can be read by any thread
+     * while the view is changed.
+     *
+     * @return An immutable list of the active entities.
+     */
+    List<T> snapshot() {
+        return current;
+    }
+
+    @Override
+    public T get(int index) {
+        return current.get(index);
+    }
+
+    @Override
+    public int size() {
+        return current.size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return current.iterator();
+    }
+
+    /**
+     * Inserts an entity that has become active.
+     *
+     * @param element The entity to insert.
+     */
+    void insert(T element) {
+        Version<T> version = current;
+        int size = version.size;
+        if (order == null || size == 0 || order.compare(version.get(size - 1), element) < 0) {
+            current = version.append(element);
+        } else {
+            int index = Collections.binarySearch(version, element, order);
+            current = version.insert(index < 0 ? -index - 1 : index, element);
+        }
+    }
+
+    /**
+     * Deletes an entity that is no longer active. Nothing happens if the entity is not in the view.
+     *
+     * @param element The entity to delete.
+     */
+    void delete(T element) {
+        Version<T> version = current;
+        int index = -1;
+        if (order != null) {
+            int found = Collections.binarySearch(version, element, order);
+            if (found >= 0 && version.get(found) == element) {
+                index = found;
+            }
+        } else {
+            index = version.lastIndexOfIdentical(element);
+        }
+        if (index >= 0) {
+            current = version.delete(index);
+        }
+    }
+
+    /**
+     * One immutable version of the list. Leaves and the arrays of leaves are shared with other
+     * versions; a slot is only ever written before the first version that can see it is published.
+     */
+    private static final class Version<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[][] leaves;
+        // index of the first entity of each leaf
+        private final int[] starts;
+        private final int leafCount;
+        private final int size;
+
+        Version(Object[][] leaves, int[] starts, int leafCount, int size) {
+            this.leaves = leaves;
+            this.starts = starts;
+            this.leafCount = leafCount;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int leaf = leafOf(index);
+            return (T) leaves[leaf][index - starts[leaf]];
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int leaf;
+                private int offset;
+                private int returned;
+
+                @Override
+                public boolean hasNext() {
+                    return returned < size;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (returned >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    while (offset == length(leaf)) {
+                        leaf++;
+                        offset = 0;
+                    }
+                    returned++;
+                    return (T) leaves[leaf][offset++];
+                }
+            };
+        }
+
+        private int length(int leaf) {
+            return (leaf + 1 < leafCount ? starts[leaf + 1] : size) - starts[leaf];
+        }
+
+        private int leafOf(int index) {
+            int last = leafCount - 1;
+            if (index >= starts[last]) {
+                return last;
+            }
+            int found = Arrays.binarySearch(starts, 0, last, index);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        int lastIndexOfIdentical(Object element) {
+            for (int leaf = leafCount - 1; leaf >= 0; leaf--) {
+                Object[] entities = leaves[leaf];
+                for (int i = length(leaf) - 1; i >= 0; i--) {
+                    if (entities[i] == element) {
+                        return starts[leaf] + i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        Version<T> append(T element) {
+            int last = leafCount - 1;
+            if (leafCount > 0 && length(last) < leaves[last].length) {
+                // the slot after the end of the last leaf is not visible to any version yet
+                leaves[last][length(last)] = element;
+                return new Version<>(leaves, starts, leafCount, size + 1);
+            }
+            Object[][] newLeaves = leaves;
+            int[] newStarts = starts;
+            if (leafCount == leaves.length) {
+                newLeaves = Arrays.copyOf(leaves, leafCount * 2);
+                newStarts = Arrays.copyOf(starts, leafCount * 2);
+            }
+            Object[] leaf = new Object[LEAF_SIZE];
+            leaf[0] = element;
+            newLeaves[leafCount] = leaf;
+            newStarts[leafCount] = size;
+            return new Version<>(newLeaves, newStarts, leafCount + 1, size + 1);
+        }
+
+        Version<T> insert(int index, T element) {
+            if (index == size) {
+                return append(element);
+            }
+            int leaf = leafOf(index);
+            int length = length(leaf);
+            int offset = index - starts[leaf];
+            Object[] merged = new Object[length + 1];
+            System.arraycopy(leaves[leaf], 0, merged, 0, offset);
+            merged[offset] = element;
+            System.arraycopy(leaves[leaf], offset, merged, offset + 1, length - offset);
+            if (merged.length <= LEAF_SIZE) {
+                return replace(leaf, 1, 1, merged);
+            }
+            int half = merged.length / 2;
+            return replace(leaf, 1, 1, Arrays.copyOfRange(merged, 0, half),
+                    Arrays.copyOfRange(merged, half, merged.length));
+        }
+
+        Version<T> delete(int index) {
+            int leaf = leafOf(index);
+            int length = length(leaf);
+            int offset = index - starts[leaf];
+            Object[] entities = leaves[leaf];
+            // merge a small leaf into its successor so deletions do not leave many tiny leaves
+            int span = leaf + 1 < leafCount && length - 1 + length(leaf + 1) <= LEAF_SIZE / 2 ? 2 : 1;
+            Object[] remaining = new Object[length - 1 + (span == 2 ? length(leaf + 1) : 0)];
+            System.arraycopy(entities, 0, remaining, 0, offset);
+            System.arraycopy(entities, offset + 1, remaining, offset, length - offset - 1);
+            if (span == 2) {
+                System.arraycopy(leaves[leaf + 1], 0, remaining, length - 1, length(leaf + 1));
+            }
+            return remaining.length == 0 ? replace(leaf, span, -1) : replace(leaf, span, -1, remaining);
+        }
+
+        // replaces the leaves from the given one on with new leaves, copying the array of leaves
+        private Version<T> replace(int leaf, int span, int delta, Object[]... with) {
+            int end = Math.min(leaf + span, leafCount);
+            int count = leafCount - (end - leaf) + with.length;
+            int capacity = Math.max(4, Integer.highestOneBit(count) * 2);
+            Object[][] newLeaves = new Object[capacity][];
+            int[] newStarts = new int[capacity];
+            System.arraycopy(leaves, 0, newLeaves, 0, leaf);
+            System.arraycopy(starts, 0, newStarts, 0, leaf);
+            int start = leafCount == 0 ? 0 : starts[leaf];
+            for (int i = 0; i < with.length; i++) {
+                // new leaves get spare room only at the end of the list
+                Object[] entities = with[i];
+                if (leaf + i == count - 1) {
+                    entities = Arrays.copyOf(entities, LEAF_SIZE);
+                }
+                newLeaves[leaf + i] = entities;
+                newStarts[leaf + i] = start;
+                start += with[i].length;
+            }
+            for (int i = end; i < leafCount; i++) {
+                newLeaves[i - end + leaf + with.length] = leaves[i];
+                newStarts[i - end + leaf + with.length] = starts[i] + delta;
+            }
+            return new Version<>(newLeaves, newStarts, count, size + delta);
+        }
+    }
+}
@@ -35,7 +35,8 @@ public class Booking {
 
     /**
      * Constructs a new booking with the specified customer, flight, booking date,
-     * deletion status, and flight class.
+     * deletion status, and flight class. The booking has no ID until it is added to
+     * a {@link FlightBookingSystem}, which gives it a new one.
      * 
      * @param customer     The customer making the booking.
      * @param flight       The flight being booked.
@@ -44,12 +45,26 @@ public class Booking {
      * @param flightClass  The class of the flight (Economy, Business, First).
      */
     public Booking(Customer customer, Flight flight, LocalDate bookingDate, boolean deleted, FlightClass flightClass) {
+        this(0, customer, flight, bookingDate, deleted, flightClass);
+    }
+
+    /**
+     * Constructs a booking that already has an ID, such as a booking loaded from the data files.
+     * 
+     * @param bookingId    The ID of the booking, or 0 if it has none yet.
+     * @param customer     The customer making the booking.
+     * @param flight       The flight being booked.
+     * @param bookingDate  The date when the booking is made.
+     * @param deleted      The deletion status of the booking.
+     * @param flightClass  The class of the flight (Economy, Business, First).
+     */
+    public Booking(int bookingId, Customer customer, Flight flight, LocalDate bookingDate, boolean deleted, FlightClass flightClass) {
+        this.bookingId = bookingId;
         this.customer = customer;
         this.flight = flight;
         this.bookingDate = bookingDate;
         this.flightClass = flightClass;
         this.deleted = deleted;
-        this.bookingId = FlightBookingSystem.getNewBookingId();
     }
 
     /**
@@ -155,15 +170,18 @@ public class Booking {
      * Cancels the booking, removing the passenger from the associated flight
      * and setting the cancellation fee and status.
      * 
-     * @throws FlightBookingSystemException If the booking is already completed.
+     * @throws FlightBookingSystemException If the booking is already completed or cancelled.
      */
     public void cancelBooking() throws FlightBookingSystemException {
         if (isCompleted()) {
             throw new FlightBookingSystemException("Cannot cancel a completed booking.");
         }
+        if (isCanceled() || isDeleted()) {
+            throw new FlightBookingSystemException("Booking is already cancelled.");
+        }
 
         double cancellationFee = getCancellationFee();
-        flight.removePassenger(customer);
+        flight.removePassenger(customer, flightClass);
         setCancellationFee(cancellationFee);
         setCanceled(true);
     }
@@ -0,0 +1,86 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * The {@code DepartureIndex} class keeps flights in order of departure date, so the flights
+ * departing within a range of dates are found through a sub-map view instead of a scan.
+ *
+ * The streams returned by this class are backed by the index and produce their flights lazily,
+ * so they must be consumed under the lock that guards the index.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#getFlightsDepartingBetween(LocalDate, LocalDate)
+ */
+class DepartureIndex {
+
+    private final NavigableMap<LocalDate, List<Flight>> departures = new TreeMap<>();
+
+    /**
+     * Adds a flight to the index.
+     *
+     * @param flight The flight to add.
+     */
+    void add(Flight flight) {
+        departures.computeIfAbsent(flight.getDepartureDate(), date -> new ArrayList<>(1)).add(flight);
+    }
+
+    /**
+     * Removes a flight from the index. The flight is looked up by its current departure date,
+     * so it must be removed before the date changes.
+     *
+     * @param flight The flight to remove.
+     */
+    void remove(Flight flight) {
+        List<Flight> flights = departures.get(flight.getDepartureDate());
+        if (flights != null && flights.remove(flight) && flights.isEmpty()) {
+            departures.remove(flight.getDepartureDate());
+        }
+    }
+
+    /**
+     * Checks whether the index holds no flights.
+     *
+     * @return {@code true} if the index is empty, {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return departures.isEmpty();
+    }
+
+    /**
+     * Streams the flights departing within a range of dates, in order of departure date.
+     *
+     * @param from The earliest departure date, inclusive, or null for no lower bound.
+     * @param to   The latest departure date, inclusive, or null for no upper bound.
+     * @return The matching flights.
+     */
+    Stream<Flight> between(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Flight>> dates = departures;
+        if (from != null && to != null) {
+            if (from.isAfter(to)) {
+                return Stream.empty();
+            }
+            dates = dates.subMap(from, true, to, true);
+        } else if (from != null) {
+            dates = dates.tailMap(from, true);
+        } else if (to != null) {
+            dates = dates.headMap(to, true);
+        }
+        return dates.values().stream().flatMap(List::stream);
+    }
+
+    /**
+     * Streams the flights departing after a date, in order of departure date.
+     *
+     * @param date The date after which the flights depart, exclusive.
+     * @return The matching flights.
+     */
+    Stream<Flight> after(LocalDate date) {
+        return departures.tailMap(date, false).values().stream().flatMap(List::stream);
+    }
+}
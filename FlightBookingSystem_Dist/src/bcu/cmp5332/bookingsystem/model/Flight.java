@@ -20,6 +20,8 @@ import java.util.Set;
  * Flights can have passengers booked on them, which are managed through methods
  * to add and remove passengers. It also provides methods to determine if the flight
  * is fully booked, has departed, and calculates dynamic pricing based on various factors.
+ * The seats taken in each class are counted by a {@link SeatInventory}, which never lets a
+ * booking take the flight over its capacity.
  * 
  * The class utilizes enums for different flight classes and provides methods to get
  * flight details in both short and long formats.
@@ -36,13 +38,13 @@ public class Flight {
     private String origin;
     private String destination;
     private LocalDate departureDate;
-    private int capacity;
     private double price;
     private boolean isDeleted;
 
     private Map<FlightClass, Double> classPrices;
 
     private final Set<Customer> passengers;
+    private final SeatInventory seats;
 
     /**
      * Constructs a new flight with the specified ID, flight number, origin, destination,
@@ -63,7 +65,7 @@ public class Flight {
         this.origin = origin;
         this.destination = destination;
         this.departureDate = departureDate;
-        this.capacity = capacity;
+        this.seats = new SeatInventory(capacity);
         this.price = price;
         this.isDeleted = isDeleted;
 
@@ -157,7 +159,9 @@ public class Flight {
     }
 
     /**
-     * Sets the departure date and time of the flight.
+     * Sets the departure date and time of the flight. Flights that belong to a
+     * {@link FlightBookingSystem} are moved with {@link FlightBookingSystem#changeDepartureDate(Flight, LocalDate)}
+     * instead, which keeps its indexes up to date.
      * 
      * @param departureDate The new departure date and time.
      */
@@ -211,7 +215,7 @@ public class Flight {
      * @return The maximum capacity.
      */
     public int getCapacity() {
-        return capacity;
+        return seats.getCapacity();
     }
 
     /**
@@ -220,7 +224,16 @@ public class Flight {
      * @param capacity The new maximum capacity.
      */
     public void setCapacity(int capacity) {
-        this.capacity = capacity;
+        seats.setCapacity(capacity);
+    }
+
+    /**
+     * Returns the inventory of seats taken on the flight.
+     * 
+     * @return The seat inventory.
+     */
+    public SeatInventory getSeats() {
+        return seats;
     }
 
     /**
@@ -242,11 +255,51 @@ public class Flight {
     }
 
     /**
-     * Adds a passenger to the flight.
+     * Adds a passenger to the flight, taking an economy seat if they are not already on board.
      * 
      * @param passenger The customer to add as a passenger.
      */
     public void addPassenger(Customer passenger) {
+        if (passengers.add(passenger)) {
+            seats.reserve(FlightClass.ECONOMY_CLASS);
+        }
+    }
+
+    /**
+     * Adds a passenger to the flight in the given class if a seat is free. The check and the
+     * seat are taken in one atomic step, so the flight is never booked over its capacity.
+     * 
+     * @param passenger   The customer to add as a passenger.
+     * @param flightClass The class of the seat.
+     * @return {@code true} if the passenger was added, {@code false} if the flight is fully booked.
+     */
+    public boolean tryAddPassenger(Customer passenger, FlightClass flightClass) {
+        if (!seats.tryReserve(flightClass)) {
+            return false;
+        }
+        passengers.add(passenger);
+        return true;
+    }
+
+    /**
+     * Adds a passenger to the flight in the given class even if it is fully booked, for bookings
+     * that already exist, such as those loaded from the data files.
+     * 
+     * @param passenger   The customer to add as a passenger.
+     * @param flightClass The class of the seat.
+     */
+    public void addPassenger(Customer passenger, FlightClass flightClass) {
+        seats.reserve(flightClass);
+        passengers.add(passenger);
+    }
+
+    /**
+     * Adds a passenger whose seat has already been taken from the seat inventory, such as one of a
+     * group whose seats were taken together.
+     * 
+     * @param passenger The customer to add as a passenger.
+     */
+    void addSeatedPassenger(Customer passenger) {
         passengers.add(passenger);
     }
 
@@ -256,16 +309,34 @@ public class Flight {
      * @return {@code true} if the flight is fully booked, {@code false} otherwise.
      */
     public boolean isFullyBooked() {
-        return passengers.size() >= capacity;
+        return seats.getAvailable() == 0;
     }
 
     /**
-     * Removes a passenger from the flight.
+     * Removes a passenger from the flight, giving back an economy seat if they were on board.
      * 
      * @param passenger The customer to remove from the passengers list.
      */
     public void removePassenger(Customer passenger) {
-        passengers.remove(passenger);
+        if (passengers.remove(passenger)) {
+            seats.release(FlightClass.ECONOMY_CLASS);
+        }
+    }
+
+    /**
+     * Removes a passenger from the flight and gives back their seat in the given class. Nothing is
+     * given back if the customer is not a passenger of the flight.
+     * 
+     * @param passenger   The customer to remove from the passengers list.
+     * @param flightClass The class of the seat.
+     * @return {@code true} if the passenger was removed, {@code false} otherwise.
+     */
+    public boolean removePassenger(Customer passenger, FlightClass flightClass) {
+        if (!passengers.remove(passenger)) {
+            return false;
+        }
+        seats.release(flightClass);
+        return true;
     }
 
     /**
@@ -304,7 +375,7 @@ public class Flight {
      * @return The number of booked seats.
      */
     public int getBookedSeats() {
-        return passengers.size();
+        return seats.getReserved();
     }
 
     /**
@@ -392,12 +463,11 @@ public class Flight {
     }
 
     /**
-     * Placeholder method for getting the number of available seats on the flight.
+     * Returns the number of available seats on the flight.
      * 
      * @return The number of available seats.
      */
     public int getAvailableSeats() {
-        // Placeholder method, to be implemented as per requirements
-        return capacity - passengers.size();
+        return seats.getAvailable();
     }
 }
@@ -1,11 +1,18 @@
 package bcu.cmp5332.bookingsystem.model;
 
 import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.main.BookingConflictException;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The `FlightBookingSystem` class represents the core of the flight booking system.
@@ -20,20 +27,86 @@ import java.util.*;
  * The class also provides methods to list flights, customers, and bookings,
  * as well as specific functionalities to handle upcoming and all flights.
  * 
+ * Changes are tracked per {@link EntitySet}: every change to the flights, customers or bookings
+ * increments the version of that set, so the data layer can tell which data files need to be
+ * written and skip the others.
+ * 
+ * Active bookings are also indexed by customer and flight, so looking up the booking of a passenger
+ * does not have to scan every customer, and active flights are indexed by flight number and
+ * departure date, so adding a flight does not have to compare it with every other flight, and
+ * by route and by departure date, so searching the flights between two airports or within a
+ * range of dates does not have to visit every flight. The active flights, customers and bookings
+ * are kept in live views, so listing them does not copy and filter the underlying maps.
+ * 
+ * Booking IDs are handed out by an {@link IdBlockAllocator}, so threads creating bookings at the
+ * same time only contend on the booking ID sequence once per block, and with a shared block
+ * source several processes can create bookings without handing out the same ID.
+ * 
+ * Bookings on different flights can be added, cancelled and updated by several threads at once:
+ * booking operations lock only the flights and customers they touch through {@link StripedLocks},
+ * and keep the shared booking indexes consistent by synchronizing on the system for the short time
+ * they change them. Adding, deleting and rescheduling flights and adding and deleting customers lock
+ * the whole system exclusively. The flights and customers are held in concurrent maps, so looking
+ * one up by ID, or a flight by number and departure date, takes no lock at all.
+ * 
+ * Every change to the active flights, customers and bookings publishes a new version of their
+ * lists, and {@link #snapshot()} hands out the current versions as a {@link SystemSnapshot}
+ * without copying them. Lists and reports read a snapshot, so they never wait for a booking,
+ * and a booking never waits for a report to finish.
+ * 
  * @author Your Name
  * @version 1.0
  * @since 2024-06-10
  */
 public class FlightBookingSystem {
+
+    /**
+     * The sets of entities that are stored in separate data files. {@code ID_SEQUENCES} holds
+     * the high-water marks of the {@link IdSequence}s.
+     */
+    public enum EntitySet {
+        FLIGHTS,
+        CUSTOMERS,
+        BOOKINGS,
+        ID_SEQUENCES
+    }
 	
-    private int lastCustomerId = 0;
-    private static int lastBookingId = 0;
+    /**
+     * The number of booking IDs reserved at a time by default.
+     */
+    public static final int DEFAULT_BOOKING_ID_BLOCK = 64;
+
+    private final IdSequence flightIds = new IdSequence();
+    private final IdSequence customerIds = new IdSequence();
+    private final IdSequence bookingIds = new IdSequence();
+    private final Map<EntitySet, IdSequence> idSequences = new EnumMap<>(EntitySet.class);
 
     private final LocalDate systemDate = LocalDate.parse("2024-06-10");
 
-    private final Map<Integer, Customer> customers = new TreeMap<>();
-    private final Map<Integer, Flight> flights = new TreeMap<>();
+    // written under the exclusive system lock, read without one
+    private final Map<Integer, Customer> customers = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Flight> flights = new ConcurrentSkipListMap<>();
+    private final Map<String, Flight> schedule = new ConcurrentHashMap<>();
+    // guarded by the monitor
     private final Map<Integer, Booking> bookings = new TreeMap<>();
+    private final Map<Long, Booking> activeBookings = new HashMap<>();
+    private final RouteIndex routes = new RouteIndex();
+    private final DepartureIndex departures = new DepartureIndex();
+
+    private final ActiveView<Flight> activeFlights = new ActiveView<>(Comparator.comparingInt(Flight::getId));
+    private final ActiveView<Customer> activeCustomers = new ActiveView<>(Comparator.comparingInt(Customer::getId));
+    private final ActiveView<Booking> activeBookingList = new ActiveView<>(null);
+
+    private final long[] versions = new long[EntitySet.values().length];
+    {
+        idSequences.put(EntitySet.FLIGHTS, flightIds);
+        idSequences.put(EntitySet.CUSTOMERS, customerIds);
+        idSequences.put(EntitySet.BOOKINGS, bookingIds);
+    }
+    private volatile IdBlockAllocator bookingIdAllocator = new IdBlockAllocator(bookingIds, DEFAULT_BOOKING_ID_BLOCK,
+            () -> markChanged(EntitySet.ID_SEQUENCES));
+    private final long[] storedVersions = new long[EntitySet.values().length];
+    private final StripedLocks locks = new StripedLocks(StripedLocks.DEFAULT_STRIPES);
 
     /**
      * Retrieves the current system date.
@@ -45,48 +118,60 @@ public class FlightBookingSystem {
     }
 
     /**
-     * Retrieves an unmodifiable list of all flights in the system.
+     * Retrieves the locks that let bookings on different flights be made at the same time.
+     * 
+     * @return The locks of the system.
+     */
+    public StripedLocks getLocks() {
+        return locks;
+    }
+
+    /**
+     * Retrieves an unmodifiable list of all active flights in the system, in order of ID.
+     * The list is a live view that follows flights being added and deleted, so it is not copied
+     * on every call. Each iteration reads the flights of one version of the list; use
+     * {@link #snapshot()} to read the same version several times.
      * 
      * @return An unmodifiable list of Flight objects.
      */
     public List<Flight> getFlights() {
-        List<Flight> out = new ArrayList<>();
-        for (Flight flight : flights.values()) {
-            if (!flight.isDeleted()) {
-                out.add(flight);
-            }
-        }
-        return Collections.unmodifiableList(out);
+        return activeFlights;
     }
 
     /**
-     * Retrieves an unmodifiable list of all customers in the system.
+     * Retrieves an unmodifiable list of all active customers in the system, in order of ID.
+     * The list is a live view that follows customers being added and deleted, so it is not copied
+     * on every call. Each iteration reads the customers of one version of the list; use
+     * {@link #snapshot()} to read the same version several times.
      * 
      * @return An unmodifiable list of Customer objects.
      */
     public List<Customer> getCustomers() {
-        List<Customer> out = new ArrayList<>();
-        for (Customer customer : customers.values()) {
-            if (!customer.isDeleted()) {
-                out.add(customer);
-            }
-        }
-        return Collections.unmodifiableList(out);
+        return activeCustomers;
     }
 
     /**
-     * Retrieves an unmodifiable list of all bookings in the system.
+     * Retrieves an unmodifiable list of all active bookings in the system, in the order they were made.
+     * The list is a live view that follows bookings being added and cancelled, so it is not copied
+     * on every call. Each iteration reads the bookings of one version of the list; use
+     * {@link #snapshot()} to read the same version several times.
      * 
      * @return An unmodifiable list of Booking objects.
      */
     public List<Booking> getBookings() {
-        List<Booking> out = new ArrayList<>();
-        for (Booking booking : bookings.values()) {
-            if (!booking.isDeleted()) {
-                out.add(booking);
-            }
-        }
-        return Collections.unmodifiableList(out);
+        return activeBookingList;
+    }
+
+    /**
+     * Takes an immutable snapshot of the active flights, customers and bookings. Nothing is
+     * copied, so a snapshot is cheap to take, and reading it never blocks or is blocked by
+     * threads changing the system.
+     * 
+     * @return The snapshot.
+     */
+    public synchronized SystemSnapshot snapshot() {
+        return new SystemSnapshot(activeFlights.snapshot(), activeCustomers.snapshot(),
+                activeBookingList.snapshot(), versions.clone());
     }
 
     /**
@@ -97,10 +182,11 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException If there is no flight with the specified ID.
      */
     public Flight getFlightByID(int id) throws FlightBookingSystemException {
-        if (!flights.containsKey(id) || flights.get(id).isDeleted()) {
+        Flight flight = flights.get(id);
+        if (flight == null || flight.isDeleted()) {
             throw new FlightBookingSystemException("There is no active flight with that ID.");
         }
-        return flights.get(id);
+        return flight;
     }
 
     /**
@@ -111,10 +197,11 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException If there is no customer with the specified ID.
      */
     public Customer getCustomerByID(int id) throws FlightBookingSystemException {
-        if (!customers.containsKey(id) || customers.get(id).isDeleted()) {
+        Customer customer = customers.get(id);
+        if (customer == null || customer.isDeleted()) {
             throw new FlightBookingSystemException("There is no active customer with that ID.");
         }
-        return customers.get(id);
+        return customer;
     }
 
     /**
@@ -122,19 +209,202 @@ public class FlightBookingSystem {
      * 
      * @param flight The Flight object to be added.
      * @throws FlightBookingSystemException If there is a duplicate flight ID or
-     *                                      a flight with the same number and departure date already exists.
+     *                                      an active flight with the same number and departure date already exists.
      */
+    @SuppressWarnings("try")
     public void addFlight(Flight flight) throws FlightBookingSystemException {
-        if (flights.containsKey(flight.getId())) {
-            throw new FlightBookingSystemException("Duplicate flight ID.");
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            if (flights.containsKey(flight.getId())) {
+                throw new FlightBookingSystemException("Duplicate flight ID.");
+            }
+            String key = scheduleKey(flight.getFlightNumber(), flight.getDepartureDate());
+            if (!flight.isDeleted() && schedule.containsKey(key)) {
+                throw new FlightBookingSystemException("A flight with the same number and departure date already exists.");
+            }
+            flights.put(flight.getId(), flight);
+            advanceId(flightIds, flight.getId());
+            if (!flight.isDeleted()) {
+                index(key, flight);
+            }
+            synchronized (this) {
+                if (!flight.isDeleted()) {
+                    activeFlights.insert(flight);
+                }
+                markChanged(EntitySet.FLIGHTS);
+            }
+        }
+    }
+
+    /**
+     * Adds a whole schedule of flights to the Flight Booking System. The flights are checked
+     * against the system and against each other before any of them is added, so either all
+     * flights are added or none is.
+     * 
+     * @param schedule The flights to be added.
+     * @throws FlightBookingSystemException If a flight ID is already used or appears twice, or
+     *                                      two active flights would share a number and departure date.
+     */
+    @SuppressWarnings("try")
+    public void addFlights(Collection<Flight> schedule) throws FlightBookingSystemException {
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            addFlightsExclusively(schedule);
+        }
+    }
+
+    private void addFlightsExclusively(Collection<Flight> schedule) throws FlightBookingSystemException {
+        Set<Integer> ids = new HashSet<>(schedule.size() * 2);
+        // in schedule order, which is usually the order of ID already
+        Map<String, Flight> added = new LinkedHashMap<>(schedule.size() * 2);
+        for (Flight flight : schedule) {
+            if (flights.containsKey(flight.getId()) || !ids.add(flight.getId())) {
+                throw new FlightBookingSystemException("Duplicate flight ID " + flight.getId() + ".");
+            }
+            if (!flight.isDeleted()) {
+                String key = scheduleKey(flight.getFlightNumber(), flight.getDepartureDate());
+                if (this.schedule.containsKey(key) || added.putIfAbsent(key, flight) != null) {
+                    throw new FlightBookingSystemException("A flight with number " + flight.getFlightNumber()
+                            + " departing on " + flight.getDepartureDate() + " already exists.");
+                }
+            }
+        }
+        for (Flight flight : schedule) {
+            flights.put(flight.getId(), flight);
+            advanceId(flightIds, flight.getId());
+        }
+        for (Map.Entry<String, Flight> entry : added.entrySet()) {
+            index(entry.getKey(), entry.getValue());
+        }
+        // in order of ID, so the flights are appended to the active view
+        List<Flight> active = new ArrayList<>(added.values());
+        active.sort(Comparator.comparingInt(Flight::getId));
+        synchronized (this) {
+            for (Flight flight : active) {
+                activeFlights.insert(flight);
+            }
+            if (!schedule.isEmpty()) {
+                markChanged(EntitySet.FLIGHTS);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the active flight with the given number departing on the given date.
+     * 
+     * @param flightNumber  The flight number.
+     * @param departureDate The departure date.
+     * @return The Flight object if found, otherwise null.
+     */
+    public Flight getFlightByNumberAndDate(String flightNumber, LocalDate departureDate) {
+        return schedule.get(scheduleKey(flightNumber, departureDate));
+    }
+
+    /**
+     * Searches the active flights from one airport to another, in order of departure date.
+     * 
+     * @param origin      The origin airport code.
+     * @param destination The destination airport code.
+     * @param from        The earliest departure date, inclusive, or null for no lower bound.
+     * @param to          The latest departure date, inclusive, or null for no upper bound.
+     * @return An unmodifiable list of the matching flights.
+     */
+    @SuppressWarnings("try")
+    public List<Flight> searchFlights(String origin, String destination, LocalDate from, LocalDate to) {
+        try (StripedLocks.Held held = locks.lockShared()) {
+            return Collections.unmodifiableList(routes.search(origin, destination, from, to));
+        }
+    }
+
+    /**
+     * Streams the active flights departing within a range of dates, in order of departure date.
+     * The matching flights are taken from the departure index under the shared lock, so the
+     * stream may be consumed while other threads add, delete or move flights.
+     * 
+     * @param from The earliest departure date, inclusive, or null for no lower bound.
+     * @param to   The latest departure date, inclusive, or null for no upper bound.
+     * @return A stream of the matching flights.
+     */
+    @SuppressWarnings("try")
+    public Stream<Flight> getFlightsDepartingBetween(LocalDate from, LocalDate to) {
+        try (StripedLocks.Held held = locks.lockShared()) {
+            return departures.between(from, to).collect(Collectors.toList()).stream();
+        }
+    }
+
+    /**
+     * Streams the active flights that have not departed yet, in order of departure date.
+     * A flight departs at the start of its departure date, so flights departing today are
+     * not included. The upcoming flights are taken from the departure index under the shared
+     * lock, so the stream may be consumed while other threads add, delete or move flights.
+     * 
+     * @return A stream of the upcoming flights.
+     */
+    @SuppressWarnings("try")
+    public Stream<Flight> getUpcomingFlights() {
+        try (StripedLocks.Held held = locks.lockShared()) {
+            return departures.after(LocalDate.now()).collect(Collectors.toList()).stream();
         }
-        for (Flight existing : flights.values()) {
-            if (existing.getFlightNumber().equals(flight.getFlightNumber())
-                && existing.getDepartureDate().isEqual(flight.getDepartureDate())) {
+    }
+
+    /**
+     * Moves a flight to a new departure date.
+     * 
+     * @param flight        The flight to move.
+     * @param departureDate The new departure date.
+     * @throws FlightBookingSystemException If another active flight with the same number already departs on that date.
+     */
+    @SuppressWarnings("try")
+    public void changeDepartureDate(Flight flight, LocalDate departureDate) throws FlightBookingSystemException {
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            String key = scheduleKey(flight.getFlightNumber(), departureDate);
+            Flight existing = schedule.get(key);
+            if (existing != null && existing != flight) {
                 throw new FlightBookingSystemException("A flight with the same number and departure date already exists.");
             }
+            unschedule(flight);
+            flight.setDepartureDate(departureDate);
+            if (!flight.isDeleted()) {
+                index(key, flight);
+            }
+            markChanged(EntitySet.FLIGHTS);
         }
-        flights.put(flight.getId(), flight);
+    }
+
+    /**
+     * Reschedules a flight to a new departure date and records the change.
+     * 
+     * @param flightId      The ID of the flight.
+     * @param departureDate The new departure date.
+     * @throws FlightBookingSystemException If there is no active flight with the specified ID, the new date
+     *                                      clashes with another flight or the change cannot be stored.
+     */
+    @SuppressWarnings("try")
+    public void rescheduleFlight(int flightId, LocalDate departureDate) throws FlightBookingSystemException {
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            Flight flight = getFlightByID(flightId);
+            changeDepartureDate(flight, departureDate);
+            FlightBookingSystemData.commit(this, JournalEntry.rescheduleFlight(flight));
+        } catch (IOException e) {
+            throw new FlightBookingSystemException("Error storing data to file: " + e.getMessage());
+        }
+    }
+
+    private void index(String key, Flight flight) {
+        schedule.put(key, flight);
+        routes.add(flight);
+        departures.add(flight);
+    }
+
+    private void unschedule(Flight flight) {
+        String key = scheduleKey(flight.getFlightNumber(), flight.getDepartureDate());
+        if (schedule.get(key) == flight) {
+            schedule.remove(key);
+            routes.remove(flight);
+            departures.remove(flight);
+        }
+    }
+
+    private static String scheduleKey(String flightNumber, LocalDate departureDate) {
+        return flightNumber + '@' + departureDate;
     }
 
     /**
@@ -143,20 +413,61 @@ public class FlightBookingSystem {
      * @param customer The Customer object to be added.
      * @throws FlightBookingSystemException If there is a duplicate customer ID.
      */
+    @SuppressWarnings("try")
     public void addCustomer(Customer customer) throws FlightBookingSystemException {
-        if (customers.containsKey(customer.getId())) {
-            throw new FlightBookingSystemException("Duplicate customer ID.");
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            if (customers.containsKey(customer.getId())) {
+                throw new FlightBookingSystemException("Duplicate customer ID.");
+            }
+            customers.put(customer.getId(), customer);
+            advanceId(customerIds, customer.getId());
+            synchronized (this) {
+                if (!customer.isDeleted()) {
+                    activeCustomers.insert(customer);
+                }
+                markChanged(EntitySet.CUSTOMERS);
+            }
         }
-        customers.put(customer.getId(), customer);
     }
 
     /**
-     * Retrieves a new unique customer ID.
+     * Retrieves a new unique customer ID. IDs are never reused, even when the customer
+     * that had an ID was deleted.
      * 
      * @return A new unique customer ID.
      */
     public int getNewCustomerId() {
-        return ++lastCustomerId;
+        int id = customerIds.next();
+        markChanged(EntitySet.ID_SEQUENCES);
+        return id;
+    }
+
+    /**
+     * Retrieves a new unique flight ID. IDs are never reused, even when the flight
+     * that had an ID was deleted.
+     * 
+     * @return A new unique flight ID.
+     */
+    public int getNewFlightId() {
+        int id = flightIds.next();
+        markChanged(EntitySet.ID_SEQUENCES);
+        return id;
+    }
+
+    /**
+     * Retrieves the ID sequences of the system, keyed by the entity set whose IDs they hand out.
+     * The data layer persists their high-water marks.
+     * 
+     * @return An unmodifiable map of the ID sequences.
+     */
+    public Map<EntitySet, IdSequence> getIdSequences() {
+        return Collections.unmodifiableMap(idSequences);
+    }
+
+    private void advanceId(IdSequence sequence, int id) {
+        if (sequence.advanceTo(id)) {
+            markChanged(EntitySet.ID_SEQUENCES);
+        }
     }
 
     /**
@@ -165,67 +476,342 @@ public class FlightBookingSystem {
      * @param flightId The ID of the flight to be removed.
      * @throws FlightBookingSystemException If there is no flight with the specified ID.
      */
+    @SuppressWarnings("try")
     public void removeFlightById(int flightId) throws FlightBookingSystemException {
-        if (!flights.containsKey(flightId)) {
-            throw new FlightBookingSystemException("There is no flight with that ID.");
-        }
-        Flight flight = flights.get(flightId);
-        flight.setDeleted(true);
-
-        try {
-            FlightBookingSystemData.store(this);
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            if (!flights.containsKey(flightId)) {
+                throw new FlightBookingSystemException("There is no flight with that ID.");
+            }
+            deleteFlight(flights.get(flightId));
+            FlightBookingSystemData.commit(this, JournalEntry.deleteFlight(flightId));
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error storing data to file: " + e.getMessage());
         }
     }
 
+    /**
+     * Marks a flight as deleted, freeing its number and departure date for another flight.
+     * 
+     * @param flight The flight to delete.
+     */
+    @SuppressWarnings("try")
+    public void deleteFlight(Flight flight) {
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            unschedule(flight);
+            synchronized (this) {
+                activeFlights.delete(flight);
+                flight.setDeleted(true);
+                markChanged(EntitySet.FLIGHTS);
+            }
+        }
+    }
+
     /**
      * Retrieves a booking by customer and flight.
      * 
      * @param customer The customer associated with the booking.
      * @param flight   The flight associated with the booking.
-     * @return The Booking object if found, otherwise null.
+     * @return The active Booking object if found, otherwise null.
      */
     public Booking getBookingByCustomerAndFlight(Customer customer, Flight flight) {
-        for (Customer c : customers.values()) {
-            if (c.equals(customer)) {
-                for (Booking booking : c.getBookings()) {
-                    if (booking.getFlight().equals(flight)) {
-                        return booking;
+        if (customer == null || flight == null) {
+            return null;
+        }
+        Booking booking = getActiveBooking(customer.getId(), flight.getId());
+        if (booking != null && booking.getCustomer().equals(customer) && booking.getFlight().equals(flight)) {
+            return booking;
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves a booking by its ID, whether it is active or cancelled.
+     * 
+     * @param bookingId The ID of the booking.
+     * @return The Booking object if found, otherwise null.
+     */
+    public synchronized Booking findBooking(int bookingId) {
+        return bookings.get(bookingId);
+    }
+
+    /**
+     * Retrieves the active (not cancelled) booking of a customer on a flight.
+     * 
+     * @param customerId The ID of the customer.
+     * @param flightId   The ID of the flight.
+     * @return The active Booking object if found, otherwise null.
+     */
+    public synchronized Booking getActiveBooking(int customerId, int flightId) {
+        return activeBookings.get(bookingKey(customerId, flightId));
+    }
+
+    /**
+     * Cancels a booking: the customer is removed from the passengers of the flight and the booking
+     * is marked as deleted with the given cancellation fee.
+     * 
+     * @param booking         The booking to cancel.
+     * @param cancellationFee The fee charged for the cancellation.
+     */
+    @SuppressWarnings("try")
+    public void cancelBooking(Booking booking, double cancellationFee) {
+        Customer customer = booking.getCustomer();
+        Flight flight = booking.getFlight();
+
+        try (StripedLocks.Held held = locks.lockBooking(customer.getId(), flight.getId())) {
+            if (!booking.isDeleted() && flight.removePassenger(customer, booking.getFlightClass())) {
+                // a customer with another booking on the flight, as loaded data may hold, stays on board
+                for (Booking other : customer.getBookings()) {
+                    if (other != booking && !other.isDeleted() && other.getFlight().equals(flight)) {
+                        flight.addSeatedPassenger(customer);
+                        break;
                     }
                 }
             }
+            customer.removeBooking(booking);
+            synchronized (this) {
+                booking.setCancellationFee(cancellationFee);
+                activeBookingList.delete(booking);
+
+                long key = bookingKey(customer.getId(), flight.getId());
+                if (activeBookings.get(key) == booking) {
+                    activeBookings.remove(key);
+                    // a customer may hold more than one booking on a flight; keep the next one reachable
+                    for (Booking other : customer.getBookings()) {
+                        if (!other.isDeleted() && other.getFlight().equals(flight)) {
+                            activeBookings.put(key, other);
+                            break;
+                        }
+                    }
+                }
+                markChanged(EntitySet.BOOKINGS);
+            }
         }
-        return null;
     }
 
     /**
-     * Retrieves a new unique booking ID.
+     * Changes the date and class of a booking.
+     * 
+     * @param booking     The booking to change.
+     * @param bookingDate The new booking date, or null to keep the current one.
+     * @param flightClass The new flight class, or null to keep the current one.
+     */
+    @SuppressWarnings("try")
+    public void updateBooking(Booking booking, LocalDate bookingDate, Flight.FlightClass flightClass) {
+        try (StripedLocks.Held held = locks.lockBooking(booking.getCustomer().getId(), booking.getFlight().getId())) {
+            synchronized (this) {
+                if (bookingDate != null) {
+                    booking.setBookingDate(bookingDate);
+                }
+                if (flightClass != null) {
+                    if (!booking.isDeleted()) {
+                        booking.getFlight().getSeats().changeClass(booking.getFlightClass(), flightClass);
+                    }
+                    booking.setFlightClass(flightClass);
+                }
+                markChanged(EntitySet.BOOKINGS);
+            }
+        }
+    }
+
+    private static long bookingKey(int customerId, int flightId) {
+        return ((long) customerId << 32) | (flightId & 0xffffffffL);
+    }
+
+    /**
+     * Retrieves a new unique booking ID. IDs are taken from a reserved block shared by every
+     * thread, so this only locks when the block is used up, and they are never reused, even
+     * after a restart.
      * 
      * @return A new unique booking ID.
+     * @throws FlightBookingSystemException If a new block of IDs cannot be reserved.
+     */
+    public int getNewBookingId() throws FlightBookingSystemException {
+        try {
+            return bookingIdAllocator.next();
+        } catch (IOException | IllegalStateException e) {
+            throw new FlightBookingSystemException("Unable to allocate a booking ID: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets where blocks of booking IDs are reserved, such as a file shared with other processes.
+     * IDs left in blocks reserved before the change are skipped, not reused.
+     * 
+     * @param source    The source of blocks, or null to reserve them from this system alone.
+     * @param blockSize The number of IDs reserved at a time.
      */
-    public static int getNewBookingId() {
-        return ++lastBookingId;
+    public void setBookingIdSource(IdBlockAllocator.BlockSource source, int blockSize) {
+        Runnable onReserve = () -> markChanged(EntitySet.ID_SEQUENCES);
+        bookingIdAllocator = source == null
+                ? new IdBlockAllocator(bookingIds, blockSize, onReserve)
+                : new IdBlockAllocator(bookingIds, source, blockSize, onReserve);
     }
 
     /**
-     * Adds a new booking to the system.
+     * Adds a new booking to the system. A booking without an ID is given a new one; a booking
+     * with an ID, such as one loaded from the data files, keeps it. An active booking takes a
+     * seat on its flight even if the flight is fully booked. A new booking is refused if its
+     * customer already holds an active booking on the flight; loaded bookings are kept as they
+     * are, since a data file of an older version may hold two.
      * 
      * @param booking The Booking object to be added.
-     * @throws FlightBookingSystemException If the customer or flight associated with the booking is not found.
+     * @throws FlightBookingSystemException If the customer or flight associated with the booking is not found,
+     *                                      or if another booking has the same ID.
+     * @throws BookingConflictException     If the booking is new and the customer is already booked on the flight.
      */
     public void addBooking(Booking booking) throws FlightBookingSystemException {
+        addBooking(booking, false);
+    }
+
+    @SuppressWarnings("try")
+    private boolean addBooking(Booking booking, boolean checkSeat) throws FlightBookingSystemException {
         Customer customer = booking.getCustomer();
         Flight flight = booking.getFlight();
 
-        if (customers.containsKey(customer.getId()) && flights.containsKey(flight.getId())) {
-            int bookingId = getNewBookingId();
-            bookings.put(bookingId, booking);
-            customer.addBooking(booking);
-            flight.addPassenger(customer);
+        try (StripedLocks.Held held = locks.lockBooking(customer.getId(), flight.getId())) {
+            if (customers.containsKey(customer.getId()) && flights.containsKey(flight.getId())) {
+                // the stripe locks keep another booking of the pair from being added until this one is
+                if (booking.getBookingId() == 0 && !booking.isDeleted()
+                        && getActiveBooking(customer.getId(), flight.getId()) != null) {
+                    throw new BookingConflictException("Customer " + customer.getName()
+                            + " is already booked on flight " + flight.getFlightNumber() + ".");
+                }
+                int bookingId = booking.getBookingId() == 0 ? getNewBookingId() : booking.getBookingId();
+                // the seat is taken under the stripe lock of the flight; the monitor only guards the shared indexes
+                SeatInventory seats = flight.getSeats();
+                if (!booking.isDeleted()) {
+                    if (!checkSeat) {
+                        seats.reserve(booking.getFlightClass());
+                    } else if (!seats.tryReserve(booking.getFlightClass())) {
+                        return false;
+                    }
+                }
+                synchronized (this) {
+                    if (bookings.containsKey(bookingId)) {
+                        if (!booking.isDeleted()) {
+                            seats.release(booking.getFlightClass());
+                        }
+                        throw new FlightBookingSystemException("Duplicate booking ID " + bookingId + ".");
+                    }
+                    index(booking, bookingId);
+                    markChanged(EntitySet.BOOKINGS);
+                }
+                if (!booking.isDeleted()) {
+                    flight.addSeatedPassenger(customer);
+                }
+                customer.addBooking(booking);
+                return true;
+
+            } else {
+                throw new FlightBookingSystemException("Customer or Flight not found.");
+            }
+        }
+    }
+
+    // called holding the monitor, once the booking's seat has been taken
+    private void index(Booking booking, int bookingId) {
+        advanceId(bookingIds, bookingId);
+        booking.setBookingId(bookingId);
+        bookings.put(bookingId, booking);
+        if (!booking.isDeleted()) {
+            activeBookings.putIfAbsent(bookingKey(booking.getCustomer().getId(), booking.getFlight().getId()), booking);
+            activeBookingList.insert(booking);
+        }
+    }
+
+    /**
+     * Adds a group of new bookings, such as a group or corporate reservation, all or nothing.
+     * 
+     * Every customer and flight of the group must be active, and no customer may already be booked
+     * on a flight of the group, or no booking is added. The free seats of each flight are then
+     * checked, and the seats the group needs on it taken, in a single atomic step of its
+     * {@link SeatInventory}. If a flight has too few free seats, the seats already taken on the
+     * other flights are given back and no booking is added. The bookings are added together, so a
+     * {@link #snapshot()} holds either all of them or none.
+     * 
+     * @param group The new bookings, without IDs.
+     * @throws FlightBookingSystemException If a customer or flight is not found or deleted, a customer is
+     *                                      already booked on a flight of the group, or a flight has too few
+     *                                      free seats for the group.
+     */
+    @SuppressWarnings("try")
+    public void addBookingGroup(List<Booking> group) throws FlightBookingSystemException {
+        int[] customerIds = new int[group.size()];
+        int[] flightIds = new int[group.size()];
+        for (int i = 0; i < group.size(); i++) {
+            customerIds[i] = group.get(i).getCustomer().getId();
+            flightIds[i] = group.get(i).getFlight().getId();
+        }
+        try (StripedLocks.Held held = locks.lockBookings(customerIds, flightIds)) {
+            // the seats needed on each flight, by class
+            Map<Flight, int[]> seats = new LinkedHashMap<>();
+            Set<Long> pairs = new HashSet<>();
+            for (Booking booking : group) {
+                Customer customer = booking.getCustomer();
+                Flight flight = booking.getFlight();
+                if (customers.get(customer.getId()) != customer || customer.isDeleted()) {
+                    throw new FlightBookingSystemException("Customer with ID " + customer.getId() + " not found.");
+                }
+                if (flights.get(flight.getId()) != flight || flight.isDeleted()) {
+                    throw new FlightBookingSystemException("Flight with ID " + flight.getId() + " not found.");
+                }
+                if (!pairs.add(bookingKey(customer.getId(), flight.getId()))) {
+                    throw new FlightBookingSystemException("Customer " + customer.getName()
+                            + " is in the group for flight " + flight.getFlightNumber() + " more than once.");
+                }
+                if (getActiveBooking(customer.getId(), flight.getId()) != null) {
+                    throw new BookingConflictException("Customer " + customer.getName() + " is already booked on flight "
+                            + flight.getFlightNumber() + ". No bookings were added.");
+                }
+                seats.computeIfAbsent(flight, f -> new int[Flight.FlightClass.values().length])[booking.getFlightClass().ordinal()]++;
+            }
+
+            int[] bookingIdsOfGroup = new int[group.size()];
+            for (int i = 0; i < bookingIdsOfGroup.length; i++) {
+                bookingIdsOfGroup[i] = getNewBookingId();
+            }
+            synchronized (this) {
+                List<Flight> seated = new ArrayList<>();
+                for (Map.Entry<Flight, int[]> needed : seats.entrySet()) {
+                    Flight flight = needed.getKey();
+                    if (!flight.getSeats().tryReserve(needed.getValue())) {
+                        for (Flight taken : seated) {
+                            taken.getSeats().release(seats.get(taken));
+                        }
+                        throw new BookingConflictException("Flight " + flight.getFlightNumber() + " has "
+                                + flight.getSeats().getAvailable() + " free seats, too few for the group. No bookings were added.");
+                    }
+                    seated.add(flight);
+                }
+                for (int i = 0; i < group.size(); i++) {
+                    Booking booking = group.get(i);
+                    booking.getFlight().addSeatedPassenger(booking.getCustomer());
+                    index(booking, bookingIdsOfGroup[i]);
+                }
+                markChanged(EntitySet.BOOKINGS);
+            }
+            for (Booking booking : group) {
+                booking.getCustomer().addBooking(booking);
+            }
+        }
+    }
 
-        } else {
-            throw new FlightBookingSystemException("Customer or Flight not found.");
+    /**
+     * Adds a new booking to the system if its flight is active and has a free seat. The seat is
+     * taken from the {@link SeatInventory} of the flight in one atomic step, so bookings made at
+     * the same time by other threads can never take the flight over its capacity.
+     * 
+     * @param booking The Booking object to be added.
+     * @return {@code true} if the booking was added, {@code false} if the flight is deleted or full.
+     * @throws FlightBookingSystemException If the customer or flight associated with the booking is not found,
+     *                                      or if another booking has the same ID.
+     * @throws BookingConflictException     If the customer is already booked on the flight.
+     */
+    @SuppressWarnings("try")
+    public boolean addBookingIfSeatAvailable(Booking booking) throws FlightBookingSystemException {
+        Flight flight = booking.getFlight();
+        try (StripedLocks.Held held = locks.lockBooking(booking.getCustomer().getId(), flight.getId())) {
+            return !flight.isDeleted() && addBooking(booking, true);
         }
     }
 
@@ -235,27 +821,52 @@ public class FlightBookingSystem {
      * @param customerId The ID of the customer to be removed.
      * @throws FlightBookingSystemException If there is no customer with the specified ID.
      */
+    @SuppressWarnings("try")
     public void removeCustomerById(int customerId) throws FlightBookingSystemException {
-        if (!customers.containsKey(customerId)) {
-            throw new FlightBookingSystemException("There is no customer with that ID.");
-        }
-        Customer customer = customers.get(customerId);
-        customer.setDeleted(true);
-        try {
-            FlightBookingSystemData.store(this);
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            if (!customers.containsKey(customerId)) {
+                throw new FlightBookingSystemException("There is no customer with that ID.");
+            }
+            deleteCustomer(customers.get(customerId));
+            FlightBookingSystemData.commit(this, JournalEntry.deleteCustomer(customerId));
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error storing data to file: " + e.getMessage());
         }
     }
 
+    /**
+     * Marks a customer as deleted.
+     * 
+     * @param customer The customer to delete.
+     */
+    @SuppressWarnings("try")
+    public void deleteCustomer(Customer customer) {
+        try (StripedLocks.Held held = locks.lockExclusive()) {
+            synchronized (this) {
+                activeCustomers.delete(customer);
+                customer.setDeleted(true);
+                markChanged(EntitySet.CUSTOMERS);
+            }
+        }
+    }
+
+    /**
+     * Prints the same list as {@link #listAllFlights(PrintStream)} to {@code System.out}.
+     */
+    public void listAllFlights() {
+        listAllFlights(System.out);
+    }
+
     /**
      * Lists all flights in the system, including details such as ID, departure date, origin, destination,
      * and prices for economy, business, and first class.
+     *
+     * @param out The stream to print to.
      */
-    public void listAllFlights() {
-        List<Flight> flights = getFlights();
+    public void listAllFlights(PrintStream out) {
+        List<Flight> flights = snapshot().getFlights();
 
-        System.out.printf("%-10s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
+        out.printf("%-10s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
 
         for (Flight flight : flights) {
             if (!flight.isDeleted()) {
@@ -263,7 +874,7 @@ public class FlightBookingSystem {
                 double businessPrice = flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS);
                 double economyPrice = flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS);
 
-                System.out.printf("%-10d%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
+                out.printf("%-10d%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
                         flight.getId(),
                         flight.getDepartureDate(),
                         flight.getOrigin(),
@@ -275,44 +886,58 @@ public class FlightBookingSystem {
         }
     }
 
+    /**
+     * Prints the same list as {@link #listUpcomingFlights(PrintStream)} to {@code System.out}.
+     */
+    public void listUpcomingFlights() {
+        listUpcomingFlights(System.out);
+    }
+
     /**
      * Lists upcoming flights in the system, including details such as ID, departure date, origin, destination,
      * and prices for economy, business, and first class.
+     *
+     * @param out The stream to print to.
      */
-	    public void listUpcomingFlights() {
-	        List<Flight> flights = getFlights();
-	
-	        System.out.printf("%-10s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
-	
-	        for (Flight flight : flights) {
-	            if (!flight.hasDeparted() && !flight.isDeleted()) {
-	                double firstClassPrice = flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS);
-	                double businessPrice = flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS);
-	                double economyPrice = flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS);
-	
-	                System.out.printf("%-10d%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
-	                        flight.getId(),
-	                        flight.getDepartureDate(),
-	                        flight.getOrigin(),
-	                        flight.getDestination(),
-	                        firstClassPrice,
-	                        businessPrice,
-	                        economyPrice);
-	            }
-	        }
-	    }
+    public void listUpcomingFlights(PrintStream out) {
+        out.printf("%-10s%-25s%-20s%-20s%-20s%-20s%-20s%n", "Flight #", "Departure Date", "Origin", "Destination", "First Class", "Business Class", "Economy Class");
+
+        getUpcomingFlights().forEach(flight -> {
+            double firstClassPrice = flight.calculateDynamicPrice(Flight.FlightClass.FIRST_CLASS);
+            double businessPrice = flight.calculateDynamicPrice(Flight.FlightClass.BUSINESS_CLASS);
+            double economyPrice = flight.calculateDynamicPrice(Flight.FlightClass.ECONOMY_CLASS);
+
+            out.printf("%-10d%-25s%-20s%-20s%-20.2f%-20.2f%-20.2f%n",
+                    flight.getId(),
+                    flight.getDepartureDate(),
+                    flight.getOrigin(),
+                    flight.getDestination(),
+                    firstClassPrice,
+                    businessPrice,
+                    economyPrice);
+        });
+    }
 
     /**
-     * Lists all customers in the system, including details such as ID, name, phone, and email.
+     * Prints the same list as {@link #listAllCustomers(PrintStream)} to {@code System.out}.
      */
     public void listAllCustomers() {
-        List<Customer> customers = getCustomers();
+        listAllCustomers(System.out);
+    }
+
+    /**
+     * Lists all customers in the system, including details such as ID, name, phone, and email.
+     *
+     * @param out The stream to print to.
+     */
+    public void listAllCustomers(PrintStream out) {
+        List<Customer> customers = snapshot().getCustomers();
 
-        System.out.printf("%-15s%-15s%-15s%-20s%n", "Customer ID", "Name", "Phone", "Email");
+        out.printf("%-15s%-15s%-15s%-20s%n", "Customer ID", "Name", "Phone", "Email");
 
         for (Customer customer : customers) {
             if (!customer.isDeleted()) {
-                System.out.printf("%-15d%-15s%-15s%-20s%n",
+                out.printf("%-15d%-15s%-15s%-20s%n",
                         customer.getId(),
                         customer.getName(),
                         customer.getPhone(),
@@ -322,12 +947,21 @@ public class FlightBookingSystem {
     }
 
     /**
-     * Lists all bookings in the system, including details such as ID, customer, flight, booking date, and flight class.
+     * Prints the same list as {@link #listAllBookings(PrintStream)} to {@code System.out}.
      */
     public void listAllBookings() {
-        List<Booking> bookings = getBookings();
+        listAllBookings(System.out);
+    }
 
-        System.out.printf("%-15s%-25s%-20s%-25s%-15s%n", "Booking ID", "Customer", "Flight", "Booking Date", "Flight Class");
+    /**
+     * Lists all bookings in the system, including details such as ID, customer, flight, booking date, and flight class.
+     *
+     * @param out The stream to print to.
+     */
+    public void listAllBookings(PrintStream out) {
+        List<Booking> bookings = snapshot().getBookings();
+
+        out.printf("%-15s%-25s%-20s%-25s%-15s%n", "Booking ID", "Customer", "Flight", "Booking Date", "Flight Class");
 
         for (Booking booking : bookings) {
             if (!booking.isDeleted()) {
@@ -338,7 +972,7 @@ public class FlightBookingSystem {
                 LocalDate bookingDate = booking.getBookingDate();
                 Flight.FlightClass flightClass = booking.getFlightClass();
 
-                System.out.printf("%-15d%-25s%-20s%-25s%-15s%n",
+                out.printf("%-15d%-25s%-20s%-25s%-15s%n",
                         booking.getId(),
                         customerDetails,
                         flightDetails,
@@ -348,6 +982,48 @@ public class FlightBookingSystem {
         }
     }
 
+    /**
+     * Records that an entity set has changed. The add and remove methods of this class call
+     * this themselves; code that modifies an entity in place, such as cancelling a booking,
+     * must call it after the change.
+     * 
+     * @param set The entity set that changed.
+     */
+    public synchronized void markChanged(EntitySet set) {
+        versions[set.ordinal()]++;
+    }
+
+    /**
+     * Retrieves the current version of an entity set.
+     * 
+     * @param set The entity set.
+     * @return The number of changes made to the set since the system was created.
+     */
+    public synchronized long getVersion(EntitySet set) {
+        return versions[set.ordinal()];
+    }
+
+    /**
+     * Checks whether an entity set has changed since it was last stored.
+     * 
+     * @param set The entity set.
+     * @return true if the set has changes that are not in its data file, false otherwise.
+     */
+    public synchronized boolean hasUnstoredChanges(EntitySet set) {
+        return versions[set.ordinal()] != storedVersions[set.ordinal()];
+    }
+
+    /**
+     * Records that an entity set has been stored as it was at the given version. Changes
+     * made after that version still count as unstored.
+     * 
+     * @param set     The entity set.
+     * @param version The version of the set that was written.
+     */
+    public synchronized void markStored(EntitySet set, long version) {
+        storedVersions[set.ordinal()] = Math.max(storedVersions[set.ordinal()], version);
+    }
+
     /**
      * Checks if a flight exists in the system and is active.
      * 
@@ -355,7 +1031,8 @@ public class FlightBookingSystem {
      * @return true if the flight exists and is active, false otherwise.
      */
     public boolean flightExists(int flightId) {
-        return flights.containsKey(flightId) && !flights.get(flightId).isDeleted();
+        Flight flight = flights.get(flightId);
+        return flight != null && !flight.isDeleted();
     }
 
     /**
@@ -365,6 +1042,27 @@ public class FlightBookingSystem {
      * @return true if the customer exists and is active, false otherwise.
      */
     public boolean customerExists(int customerId) {
-        return customers.containsKey(customerId) && !customers.get(customerId).isDeleted();
+        Customer customer = customers.get(customerId);
+        return customer != null && !customer.isDeleted();
+    }
+
+    /**
+     * Checks if a flight with the given ID has been added to the system, even if it was deleted since.
+     * 
+     * @param flightId The ID of the flight to check.
+     * @return true if a flight with the ID is known, false otherwise.
+     */
+    public boolean isFlightIdUsed(int flightId) {
+        return flights.containsKey(flightId);
+    }
+
+    /**
+     * Checks if a customer with the given ID has been added to the system, even if they were deleted since.
+     * 
+     * @param customerId The ID of the customer to check.
+     * @return true if a customer with the ID is known, false otherwise.
+     */
+    public boolean isCustomerIdUsed(int customerId) {
+        return customers.containsKey(customerId);
     }
 }
@@ -0,0 +1,126 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code IdBlockAllocator} class hands out IDs of an {@link IdSequence} from blocks of
+ * consecutive IDs.
+ *
+ * A block is reserved from a {@link BlockSource} when the current block is used up, and its IDs
+ * are handed out by a lock-free cursor shared by every thread, which packs the next ID and the last
+ * ID of the block into one {@link AtomicLong}. Threads allocating at the same time therefore only
+ * take a lock once per block, whichever thread and however many threads they are, and two threads
+ * never receive the same ID. This suits a thread per request, where a block reserved for each
+ * thread would be used for a single ID. The source is the local sequence by default; a shared
+ * source lets several processes reserve disjoint blocks of the same sequence.
+ *
+ * The high-water mark of the local sequence covers every reserved block, so IDs that were reserved
+ * but not handed out before a restart are skipped rather than reused. IDs are unique, and within a
+ * process they increase in the order they are handed out.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#getNewBookingId()
+ */
+public final class IdBlockAllocator {
+
+    /**
+     * Reserves blocks of consecutive IDs. Blocks returned by a source never overlap.
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+
+        /**
+         * Reserves a block of consecutive IDs.
+         *
+         * @param count The number of IDs in the block.
+         * @return The first ID of the block.
+         * @throws IOException If the block cannot be reserved.
+         */
+        int reserve(int count) throws IOException;
+    }
+
+    private final IdSequence sequence;
+    private final BlockSource source;
+    private final int blockSize;
+    private final Runnable onReserve;
+    // the next ID in the high 32 bits and the last ID of the block in the low 32 bits; empty at first
+    private final AtomicLong cursor = new AtomicLong(pack(1, 0));
+
+    /**
+     * Constructs an {@code IdBlockAllocator} that reserves its blocks from the sequence itself.
+     *
+     * @param sequence  The sequence whose IDs are handed out.
+     * @param blockSize The number of IDs reserved at a time.
+     * @param onReserve Run after each block is reserved and the high-water mark has moved.
+     */
+    public IdBlockAllocator(IdSequence sequence, int blockSize, Runnable onReserve) {
+        this(sequence, sequence::reserve, blockSize, onReserve);
+    }
+
+    /**
+     * Constructs an {@code IdBlockAllocator} that reserves its blocks from the given source.
+     *
+     * @param sequence  The local sequence, advanced past every reserved block.
+     * @param source    The source of blocks.
+     * @param blockSize The number of IDs reserved at a time.
+     * @param onReserve Run after each block is reserved and the high-water mark has moved.
+     * @throws IllegalArgumentException If {@code blockSize} is not positive.
+     */
+    public IdBlockAllocator(IdSequence sequence, BlockSource source, int blockSize, Runnable onReserve) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.sequence = sequence;
+        this.source = source;
+        this.blockSize = blockSize;
+        this.onReserve = onReserve;
+    }
+
+    /**
+     * Allocates the next ID, reserving a new block if the current block is used up.
+     *
+     * @return The new ID.
+     * @throws IOException If a new block cannot be reserved.
+     */
+    public int next() throws IOException {
+        while (true) {
+            long current = cursor.get();
+            long next = current >>> 32;
+            if (next <= (current & 0xffffffffL)) {
+                if (cursor.compareAndSet(current, current + (1L << 32))) {
+                    return (int) next;
+                }
+                continue;
+            }
+            refill(current);
+        }
+    }
+
+    // only a used-up cursor is replaced, so threads that lost the race take IDs from the new block
+    private synchronized void refill(long usedUp) throws IOException {
+        if (cursor.get() != usedUp) {
+            return;
+        }
+        int first = source.reserve(blockSize);
+        sequence.advanceTo(first + blockSize - 1);
+        cursor.set(pack(first, first + blockSize - 1));
+        onReserve.run();
+    }
+
+    private static long pack(int next, int last) {
+        return (long) next << 32 | (last & 0xffffffffL);
+    }
+
+    /**
+     * Gets the number of IDs reserved at a time.
+     *
+     * @return The block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
@@ -0,0 +1,93 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code IdSequence} class hands out unique, increasing IDs for one kind of entity.
+ *
+ * The sequence remembers the highest ID it has handed out or seen, its high-water mark. Loading
+ * an entity advances the mark to the ID of that entity, and the mark itself is persisted with the
+ * data, so an ID is never reused even after the entity that had it was deleted and is no longer
+ * stored. Allocating an ID is a single atomic increment and does not depend on the number of
+ * entities in the system.
+ *
+ * The class is thread-safe.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#getIdSequences()
+ */
+public final class IdSequence {
+
+    private final AtomicInteger last = new AtomicInteger();
+
+    /**
+     * Allocates the next ID of the sequence.
+     *
+     * @return The new ID.
+     * @throws IllegalStateException If every positive {@code int} has been handed out.
+     */
+    public int next() {
+        int id = last.incrementAndGet();
+        if (id <= 0) {
+            last.set(Integer.MAX_VALUE);
+            throw new IllegalStateException("No more IDs are available.");
+        }
+        return id;
+    }
+
+    /**
+     * Allocates a block of consecutive IDs with a single atomic update, for callers that hand
+     * out IDs from the block without touching the sequence again.
+     *
+     * @param count The number of IDs in the block.
+     * @return The first ID of the block; the block holds the IDs {@code first} to
+     *         {@code first + count - 1}.
+     * @throws IllegalArgumentException If {@code count} is not positive.
+     * @throws IllegalStateException If fewer than {@code count} positive {@code int}s are left.
+     */
+    public int reserve(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + count);
+        }
+        while (true) {
+            int current = last.get();
+            if (current > Integer.MAX_VALUE - count) {
+                throw new IllegalStateException("No more IDs are available.");
+            }
+            if (last.compareAndSet(current, current + count)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Advances the high-water mark so that IDs up to and including the given ID are never
+     * handed out. Nothing happens if the mark is already at or beyond the ID.
+     *
+     * @param id The ID that is in use.
+     * @return {@code true} if the high-water mark was raised, {@code false} otherwise.
+     */
+    public boolean advanceTo(int id) {
+        while (true) {
+            int current = last.get();
+            if (current >= id) {
+                return false;
+            }
+            if (last.compareAndSet(current, id)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the high-water mark: the highest ID handed out or in use.
+     *
+     * @return The highest ID so far, or 0 if there is none.
+     */
+    public int getLast() {
+        return last.get();
+    }
+}
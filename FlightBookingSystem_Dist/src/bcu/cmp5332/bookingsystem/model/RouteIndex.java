@@ -0,0 +1,82 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code RouteIndex} class indexes the active flights of a {@link FlightBookingSystem} by route.
+ * Flights are grouped by origin, then by destination, and the flights of each route are kept in a
+ * {@link DepartureIndex} ordered by departure date, so a route search only visits the flights of that
+ * route within the requested dates.
+ *
+ * Airport codes are compared without regard to case or surrounding white space.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#searchFlights(String, String, LocalDate, LocalDate)
+ */
+class RouteIndex {
+
+    private final Map<String, Map<String, DepartureIndex>> routes = new HashMap<>();
+
+    /**
+     * Adds a flight to the index.
+     *
+     * @param flight The flight to add.
+     */
+    void add(Flight flight) {
+        routes.computeIfAbsent(code(flight.getOrigin()), origin -> new HashMap<>())
+                .computeIfAbsent(code(flight.getDestination()), destination -> new DepartureIndex())
+                .add(flight);
+    }
+
+    /**
+     * Removes a flight from the index. The flight is looked up by its current origin, destination
+     * and departure date, so it must be removed before any of them changes.
+     *
+     * @param flight The flight to remove.
+     */
+    void remove(Flight flight) {
+        Map<String, DepartureIndex> destinations = routes.get(code(flight.getOrigin()));
+        if (destinations == null) {
+            return;
+        }
+        String destination = code(flight.getDestination());
+        DepartureIndex dates = destinations.get(destination);
+        if (dates == null) {
+            return;
+        }
+        dates.remove(flight);
+        if (dates.isEmpty()) {
+            destinations.remove(destination);
+            if (destinations.isEmpty()) {
+                routes.remove(code(flight.getOrigin()));
+            }
+        }
+    }
+
+    /**
+     * Finds the flights from one airport to another, in order of departure date.
+     *
+     * @param origin      The origin airport code.
+     * @param destination The destination airport code.
+     * @param from        The earliest departure date, inclusive, or null for no lower bound.
+     * @param to          The latest departure date, inclusive, or null for no upper bound.
+     * @return The matching flights.
+     */
+    List<Flight> search(String origin, String destination, LocalDate from, LocalDate to) {
+        Map<String, DepartureIndex> destinations = routes.get(code(origin));
+        DepartureIndex dates = destinations == null ? null : destinations.get(code(destination));
+        if (dates == null) {
+            return Collections.emptyList();
+        }
+        return dates.between(from, to).collect(Collectors.toList());
+    }
+
+    private static String code(String airport) {
+        return airport == null ? "" : airport.trim().toUpperCase(Locale.ROOT);
+    }
+}
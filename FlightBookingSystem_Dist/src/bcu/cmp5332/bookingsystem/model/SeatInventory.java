@@ -0,0 +1,192 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The {@code SeatInventory} class counts the seats taken on a {@link Flight}, in total and in each
+ * {@link FlightClass}.
+ *
+ * A seat is taken with {@link #tryReserve(FlightClass)}, which compares the number of taken seats
+ * with the capacity and takes the seat in a single atomic step. Threads booking the same flight at
+ * the same time therefore never take it over its capacity, without locking and without counting
+ * the passengers. Every class shares the capacity of the flight; the counts per class only record
+ * how many of the taken seats were sold in each class.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see Flight#getSeats()
+ */
+public final class SeatInventory {
+
+    private volatile int capacity;
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicIntegerArray reservedByClass = new AtomicIntegerArray(FlightClass.values().length);
+
+    /**
+     * Constructs an empty {@code SeatInventory} with the given capacity.
+     *
+     * @param capacity The number of seats on the flight.
+     */
+    public SeatInventory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes a seat in the given class if the flight is not full.
+     *
+     * @param flightClass The class of the seat.
+     * @return {@code true} if the seat was taken, {@code false} if the flight is full.
+     */
+    public boolean tryReserve(FlightClass flightClass) {
+        int current;
+        do {
+            current = reserved.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + 1));
+        reservedByClass.incrementAndGet(flightClass.ordinal());
+        return true;
+    }
+
+    /**
+     * Takes several seats at once if the flight has room for all of them, as when a group is booked
+     * together: the free seats are checked and the seats taken in a single atomic step, so either
+     * every seat is taken or none is.
+     *
+     * @param seatsByClass The number of seats to take in each class, indexed by the ordinal of the class.
+     * @return {@code true} if the seats were taken, {@code false} if the flight has too few free seats.
+     */
+    public boolean tryReserve(int[] seatsByClass) {
+        int seats = 0;
+        for (int count : seatsByClass) {
+            seats += count;
+        }
+        int current;
+        do {
+            current = reserved.get();
+            if (current + seats > capacity) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + seats));
+        for (int i = 0; i < seatsByClass.length; i++) {
+            if (seatsByClass[i] > 0) {
+                reservedByClass.addAndGet(i, seatsByClass[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a seat in the given class even if the flight is full, for bookings that already
+     * exist, such as those loaded from the data files.
+     *
+     * @param flightClass The class of the seat.
+     */
+    public void reserve(FlightClass flightClass) {
+        reserved.incrementAndGet();
+        reservedByClass.incrementAndGet(flightClass.ordinal());
+    }
+
+    /**
+     * Gives back a seat taken in the given class. The counts never fall below zero.
+     *
+     * @param flightClass The class of the seat.
+     */
+    public void release(FlightClass flightClass) {
+        subtract(reserved, 1);
+        subtract(reservedByClass, flightClass.ordinal(), 1);
+    }
+
+    /**
+     * Gives back several seats taken with {@link #tryReserve(int[])}. The counts never fall below zero.
+     *
+     * @param seatsByClass The number of seats to give back in each class, indexed by the ordinal of the class.
+     */
+    public void release(int[] seatsByClass) {
+        for (int i = 0; i < seatsByClass.length; i++) {
+            if (seatsByClass[i] > 0) {
+                subtract(reserved, seatsByClass[i]);
+                subtract(reservedByClass, i, seatsByClass[i]);
+            }
+        }
+    }
+
+    /**
+     * Moves a taken seat from one class to another. The number of taken seats is unchanged.
+     *
+     * @param from The class the seat was taken in.
+     * @param to   The new class of the seat.
+     */
+    public void changeClass(FlightClass from, FlightClass to) {
+        if (from != to) {
+            reservedByClass.incrementAndGet(to.ordinal());
+            subtract(reservedByClass, from.ordinal(), 1);
+        }
+    }
+
+    private static void subtract(AtomicInteger counter, int seats) {
+        int current;
+        do {
+            current = counter.get();
+        } while (current > 0 && !counter.compareAndSet(current, Math.max(0, current - seats)));
+    }
+
+    private static void subtract(AtomicIntegerArray counters, int index, int seats) {
+        int current;
+        do {
+            current = counters.get(index);
+        } while (current > 0 && !counters.compareAndSet(index, current, Math.max(0, current - seats)));
+    }
+
+    /**
+     * Gets the number of seats taken.
+     *
+     * @return The number of seats taken.
+     */
+    public int getReserved() {
+        return reserved.get();
+    }
+
+    /**
+     * Gets the number of seats taken in the given class.
+     *
+     * @param flightClass The class.
+     * @return The number of seats taken in the class.
+     */
+    public int getReserved(FlightClass flightClass) {
+        return reservedByClass.get(flightClass.ordinal());
+    }
+
+    /**
+     * Gets the number of free seats, which is zero when the flight is full or over capacity.
+     *
+     * @return The number of free seats.
+     */
+    public int getAvailable() {
+        return Math.max(0, capacity - reserved.get());
+    }
+
+    /**
+     * Gets the number of seats on the flight.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the number of seats on the flight. Seats already taken are kept even if the new
+     * capacity is smaller.
+     *
+     * @param capacity The new capacity.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,179 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The {@code StripedLocks} class holds the locks that let bookings on different flights be made
+ * at the same time in a {@link FlightBookingSystem}.
+ *
+ * A booking operation holds the system lock in shared mode, then the lock of each flight it
+ * touches and finally the lock of each customer whose bookings it changes. Flights and customers
+ * are mapped onto a fixed number of lock stripes, so two operations only wait for each other when
+ * they touch the same flight or customer, or happen to share a stripe. Changes to the flights and
+ * customers themselves, such as adding or deleting them, hold the system lock in exclusive mode and
+ * so wait for every booking operation to finish.
+ *
+ * Every operation takes its stripes in the same global order: flight stripes in ascending order,
+ * then customer stripes in ascending order, each stripe once. Two operations can therefore never
+ * each hold a lock the other is waiting for, however many flights and customers they touch.
+ * A thread that holds a booking lock must not ask for the exclusive lock, which would wait for
+ * itself.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#getLocks()
+ */
+public final class StripedLocks {
+
+    /**
+     * A set of locks held by the current thread, released by {@link #close()}.
+     * It must be closed exactly once, by the thread that acquired it.
+     */
+    public interface Held extends AutoCloseable {
+
+        /**
+         * Releases the locks in the reverse order of acquisition.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * The number of stripes for flights and for customers used by a {@link FlightBookingSystem}.
+     */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantReadWriteLock system = new ReentrantReadWriteLock();
+    private final ReentrantLock[] flightStripes;
+    private final ReentrantLock[] customerStripes;
+    private final int shift;
+
+    /**
+     * Constructs {@code StripedLocks} with the given number of stripes for flights and for customers.
+     *
+     * @param stripes The number of stripes, rounded up to a power of two.
+     * @throws IllegalArgumentException If {@code stripes} is not between 1 and 2<sup>30</sup>.
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0 || stripes > 1 << 30) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+        this.shift = 32 - bits;
+        this.flightStripes = newStripes(1 << bits);
+        this.customerStripes = newStripes(1 << bits);
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        ReentrantLock[] stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    /**
+     * Acquires the system lock in exclusive mode, waiting for every booking operation to finish.
+     *
+     * @return The held lock.
+     */
+    public Held lockExclusive() {
+        Lock lock = system.writeLock();
+        lock.lock();
+        return lock::unlock;
+    }
+
+    /**
+     * Acquires the system lock in shared mode, so that no flight or customer is added or deleted
+     * while it is held, for operations that read the flights or customers without changing them.
+     *
+     * @return The held lock.
+     */
+    public Held lockShared() {
+        Lock lock = system.readLock();
+        lock.lock();
+        return lock::unlock;
+    }
+
+    /**
+     * Checks whether the current thread holds the system lock in exclusive mode.
+     *
+     * @return {@code true} if the exclusive lock is held by the current thread.
+     */
+    public boolean isHeldExclusively() {
+        return system.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * Acquires the locks for an operation on the booking of one customer on one flight.
+     *
+     * @param customerId The ID of the customer.
+     * @param flightId   The ID of the flight.
+     * @return The held locks.
+     */
+    public Held lockBooking(int customerId, int flightId) {
+        Lock shared = system.readLock();
+        ReentrantLock flight = flightStripes[stripe(flightId)];
+        ReentrantLock customer = customerStripes[stripe(customerId)];
+        shared.lock();
+        flight.lock();
+        customer.lock();
+        return () -> {
+            customer.unlock();
+            flight.unlock();
+            shared.unlock();
+        };
+    }
+
+    /**
+     * Acquires the locks for an operation on the bookings of several customers on several flights,
+     * such as moving a booking from one flight to another.
+     *
+     * @param customerIds The IDs of the customers, in any order and possibly repeated.
+     * @param flightIds   The IDs of the flights, in any order and possibly repeated.
+     * @return The held locks.
+     */
+    public Held lockBookings(int[] customerIds, int[] flightIds) {
+        ReentrantLock[] locks = new ReentrantLock[flightIds.length + customerIds.length];
+        int count = collect(flightStripes, flightIds, locks, 0);
+        count = collect(customerStripes, customerIds, locks, count);
+        int held = count;
+        Lock shared = system.readLock();
+        shared.lock();
+        for (int i = 0; i < held; i++) {
+            locks[i].lock();
+        }
+        return () -> {
+            for (int i = held - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+            shared.unlock();
+        };
+    }
+
+    // appends the distinct stripes of the IDs in ascending stripe order
+    private int collect(ReentrantLock[] stripes, int[] ids, ReentrantLock[] into, int from) {
+        int[] indexes = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            indexes[i] = stripe(ids[i]);
+        }
+        Arrays.sort(indexes);
+        int count = from;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                into[count++] = stripes[indexes[i]];
+            }
+        }
+        return count;
+    }
+
+    int stripe(int id) {
+        // Fibonacci hashing spreads consecutive IDs over the stripes
+        return shift == 32 ? 0 : (id * 0x9E3779B9) >>> shift;
+    }
+}
@@ -0,0 +1,73 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+import java.util.List;
+
+/**
+ * The {@code SystemSnapshot} class is an immutable view of the active flights, customers and
+ * bookings of a {@link FlightBookingSystem} as they were at one moment.
+ *
+ * Taking a snapshot copies nothing: it holds the versions of the active views that were current
+ * when it was taken, together with the version of each {@link EntitySet}. Lists and reports can
+ * read a snapshot for as long as they need while other threads add, cancel and delete, without
+ * locking the system and without seeing a change half made. The flights, customers and bookings
+ * themselves are shared with the system, so details changed in place, such as the class of a
+ * booking, may be newer than the snapshot.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see FlightBookingSystem#snapshot()
+ */
+public final class SystemSnapshot {
+
+    private final List<Flight> flights;
+    private final List<Customer> customers;
+    private final List<Booking> bookings;
+    private final long[] versions;
+
+    SystemSnapshot(List<Flight> flights, List<Customer> customers, List<Booking> bookings, long[] versions) {
+        this.flights = flights;
+        this.customers = customers;
+        this.bookings = bookings;
+        this.versions = versions;
+    }
+
+    /**
+     * Retrieves the active flights at the time of the snapshot, in order of ID.
+     *
+     * @return An immutable list of Flight objects.
+     */
+    public List<Flight> getFlights() {
+        return flights;
+    }
+
+    /**
+     * Retrieves the active customers at the time of the snapshot, in order of ID.
+     *
+     * @return An immutable list of Customer objects.
+     */
+    public List<Customer> getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Retrieves the active bookings at the time of the snapshot, in the order they were made.
+     *
+     * @return An immutable list of Booking objects.
+     */
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    /**
+     * Retrieves the version an entity set had when the snapshot was taken.
+     *
+     * @param set The entity set.
+     * @return The number of changes made to the set before the snapshot was taken.
+     */
+    public long getVersion(EntitySet set) {
+        return versions[set.ordinal()];
+    }
+}
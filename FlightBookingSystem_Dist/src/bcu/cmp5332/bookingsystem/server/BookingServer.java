@@ -0,0 +1,279 @@
+package bcu.cmp5332.bookingsystem.server;
+
+import bcu.cmp5332.bookingsystem.commands.AddBooking;
+import bcu.cmp5332.bookingsystem.commands.AddBookings;
+import bcu.cmp5332.bookingsystem.commands.CancelBooking;
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
+import bcu.cmp5332.bookingsystem.commands.ShowCustomer;
+import bcu.cmp5332.bookingsystem.commands.ShowFlight;
+import bcu.cmp5332.bookingsystem.main.BookingConflictException;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code BookingServer} class serves the booking commands of a {@link FlightBookingSystem} as
+ * a JSON API over HTTP, using the HTTP server built into the JDK.
+ *
+ * <ul>
+ * <li>{@code GET /api/flights/search?origin=KTM&destination=QTR[&from=YYYY-MM-DD][&to=YYYY-MM-DD]} runs {@link SearchFlights}</li>
+ * <li>{@code GET /api/flights/<id>} runs {@link ShowFlight}</li>
+ * <li>{@code GET /api/customers/<id>} runs {@link ShowCustomer}</li>
+ * <li>{@code POST /api/bookings} with {@code {"customerId": 1, "flightId": 2, "flightClass": "ECONOMY_CLASS"}}
+ * runs {@link AddBooking}; the class is optional and defaults to economy</li>
+ * <li>{@code POST /api/bookings/group} with {@code {"customerIds": [1, 2], "flightIds": [3, 4], "flightClass": "ECONOMY_CLASS"}}
+ * runs {@link AddBookings}, booking every customer on every flight or none of them</li>
+ * <li>{@code DELETE /api/bookings/<customer id>/<flight id>} runs {@link CancelBooking}</li>
+ * </ul>
+ *
+ * A command that succeeds is answered with status 200 and {@code {"ok": true, "output": "..."}},
+ * holding what the command printed. A booking that cannot be made because a flight is fully booked
+ * or the customer is already booked on it is answered with status 409, and any other command that
+ * fails, or a request that cannot be parsed, with status 400; both with
+ * {@code {"ok": false, "error": "..."}}.
+ *
+ * Every request runs on a thread of its own: a virtual thread when the Java runtime has them, and
+ * a thread of a pool otherwise. The commands lock only the flights and customers they touch, so
+ * requests for different flights are served in parallel, and a booking is only answered once it
+ * has been made durable.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see bcu.cmp5332.bookingsystem.main.Main
+ */
+
+public class BookingServer {
+
+    /**
+     * The system property holding the port to listen on when none is given on the command line.
+     */
+    public static final String PORT_PROPERTY = "fbs.server.port";
+
+    /**
+     * The port listened on when no port is given.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String FLIGHTS = "/api/flights/";
+    private static final String CUSTOMERS = "/api/customers/";
+    private static final String BOOKINGS = "/api/bookings";
+
+    private final FlightBookingSystem fbs;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a {@code BookingServer} for the given system, bound to the given port.
+     *
+     * @param fbs  The flight booking system to serve.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public BookingServer(FlightBookingSystem fbs, int port) throws IOException {
+        this.fbs = fbs;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread, or, on a Java runtime
+     * without virtual threads, on a thread of a pool that grows with the number of requests.
+     *
+     * @return The executor.
+     */
+    public static ExecutorService newRequestExecutor() {
+        try {
+            // looked up by reflection so the system still builds and runs on Java 8
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving requests, waiting up to the given time for requests in progress to finish.
+     *
+     * @param seconds The longest time to wait.
+     */
+    public void stop(int seconds) {
+        server.stop(seconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(seconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        String body;
+        try {
+            Command command = route(exchange);
+            if (command == null) {
+                status = 404;
+                body = "{\"ok\": false, \"error\": \"Not found.\"}";
+            } else {
+                status = 200;
+                body = "{\"ok\": true, \"output\": " + Json.quote(CommandOutput.run(command, fbs)) + "}";
+            }
+        } catch (BookingConflictException ex) {
+            status = 409;
+            body = "{\"ok\": false, \"error\": " + Json.quote(String.valueOf(ex.getMessage())) + "}";
+        } catch (FlightBookingSystemException ex) {
+            status = 400;
+            body = "{\"ok\": false, \"error\": " + Json.quote(String.valueOf(ex.getMessage())) + "}";
+        } catch (RuntimeException ex) {
+            status = 500;
+            body = "{\"ok\": false, \"error\": " + Json.quote(ex.toString()) + "}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // returns null for a path that is not served
+    private Command route(HttpExchange exchange) throws IOException, FlightBookingSystemException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (path.equals(FLIGHTS + "search")) {
+                requireMethod(method, "GET");
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                return new SearchFlights(required(query, "origin"), required(query, "destination"),
+                        date(query.get("from")), date(query.get("to")));
+            } else if (path.startsWith(FLIGHTS)) {
+                requireMethod(method, "GET");
+                return new ShowFlight(Integer.parseInt(path.substring(FLIGHTS.length())));
+            } else if (path.startsWith(CUSTOMERS)) {
+                requireMethod(method, "GET");
+                return new ShowCustomer(Integer.parseInt(path.substring(CUSTOMERS.length())));
+            } else if (path.equals(BOOKINGS)) {
+                requireMethod(method, "POST");
+                Map<String, String> booking = Json.parseObject(readBody(exchange));
+                String flightClass = booking.get("flightClass");
+                return new AddBooking(Integer.parseInt(required(booking, "customerId")),
+                        Integer.parseInt(required(booking, "flightId")), LocalDate.now(),
+                        flightClass == null ? FlightClass.ECONOMY_CLASS : FlightClass.valueOf(flightClass.toUpperCase()));
+            } else if (path.equals(BOOKINGS + "/group")) {
+                requireMethod(method, "POST");
+                Map<String, String> group = Json.parseObject(readBody(exchange));
+                String flightClass = group.get("flightClass");
+                return new AddBookings(ids(required(group, "customerIds")), ids(required(group, "flightIds")),
+                        LocalDate.now(),
+                        flightClass == null ? FlightClass.ECONOMY_CLASS : FlightClass.valueOf(flightClass.toUpperCase()));
+            } else if (path.startsWith(BOOKINGS + "/")) {
+                requireMethod(method, "DELETE");
+                String[] ids = path.substring(BOOKINGS.length() + 1).split("/");
+                if (ids.length != 2) {
+                    return null;
+                }
+                return new CancelBooking(Integer.parseInt(ids[0]), Integer.parseInt(ids[1]));
+            }
+        } catch (NumberFormatException ex) {
+            throw new FlightBookingSystemException("IDs must be whole numbers.");
+        } catch (IllegalArgumentException ex) {
+            throw new FlightBookingSystemException("Invalid flight class.");
+        }
+        return null;
+    }
+
+    private static void requireMethod(String method, String expected) throws FlightBookingSystemException {
+        if (!method.equals(expected)) {
+            throw new FlightBookingSystemException("Method " + method + " is not allowed here; use " + expected + ".");
+        }
+    }
+
+    private static String required(Map<String, String> values, String name) throws FlightBookingSystemException {
+        String value = values.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new FlightBookingSystemException("Missing " + name + ".");
+        }
+        return value;
+    }
+
+    private static int[] ids(String list) {
+        String[] ids = list.split(",");
+        int[] values = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = Integer.parseInt(ids[i]);
+        }
+        return values;
+    }
+
+    private static LocalDate date(String value) throws FlightBookingSystemException {
+        try {
+            return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new FlightBookingSystemException("Dates must be in YYYY-MM-DD format.");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> values = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    values.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"),
+                            URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        try (InputStream in = exchange.getRequestBody()) {
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,51 @@
+package bcu.cmp5332.bookingsystem.server;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code CommandOutput} class captures what a {@link Command} prints, so that commands written
+ * for the console can answer requests made over the network.
+ *
+ * Every command is run with a stream of its own, so commands running at the same time on
+ * different threads never mix their output, and {@code System.out} is left as it is.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see BookingServer
+ */
+
+final class CommandOutput {
+
+    private CommandOutput() {
+    }
+
+    /**
+     * Runs a command and returns what it printed.
+     *
+     * @param command The command to run.
+     * @param fbs     The flight booking system to run it on.
+     * @return The text printed by the command.
+     * @throws FlightBookingSystemException If the command fails.
+     */
+    static String run(Command command, FlightBookingSystem fbs) throws FlightBookingSystemException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            PrintStream out = new PrintStream(buffer, false, StandardCharsets.UTF_8.name());
+            command.execute(fbs, out);
+            out.flush();
+            return buffer.toString(StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException ex) {
+            // every Java runtime supports UTF-8
+            throw new IllegalStateException(ex);
+        }
+    }
+}
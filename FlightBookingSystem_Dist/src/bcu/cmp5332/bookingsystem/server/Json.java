@@ -0,0 +1,192 @@
+package bcu.cmp5332.bookingsystem.server;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code Json} class reads and writes the small JSON documents exchanged by the
+ * {@link BookingServer}: flat objects whose values are strings, numbers, booleans or null, or
+ * arrays of them.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ */
+
+final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a flat JSON object. Numbers, booleans and null are returned as their text, and the
+     * elements of an array as their text separated by commas.
+     *
+     * @param text The JSON text.
+     * @return The members of the object, in order.
+     * @throws FlightBookingSystemException If the text is not a flat JSON object.
+     */
+    static Map<String, String> parseObject(String text) throws FlightBookingSystemException {
+        Json json = new Json(text);
+        Map<String, String> members = new LinkedHashMap<>();
+        json.expect('{');
+        if (!json.consume('}')) {
+            do {
+                String name = json.string();
+                json.expect(':');
+                members.put(name, json.value());
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.skipSpace();
+        if (json.pos != text.length()) {
+            throw json.error();
+        }
+        return members;
+    }
+
+    /**
+     * Writes a string as a JSON string literal.
+     *
+     * @param value The string.
+     * @return The quoted and escaped string.
+     */
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private String value() throws FlightBookingSystemException {
+        if (consume('[')) {
+            StringBuilder elements = new StringBuilder();
+            if (!consume(']')) {
+                do {
+                    elements.append(elements.length() == 0 ? "" : ",").append(scalar());
+                } while (consume(','));
+                expect(']');
+            }
+            return elements.toString();
+        }
+        return scalar();
+    }
+
+    private String scalar() throws FlightBookingSystemException {
+        skipSpace();
+        if (pos < text.length() && text.charAt(pos) == '"') {
+            return string();
+        }
+        int start = pos;
+        while (pos < text.length() && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error();
+        }
+        return text.substring(start, pos);
+    }
+
+    private String string() throws FlightBookingSystemException {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+            } else if (pos < text.length()) {
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error();
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error();
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+        }
+        throw error();
+    }
+
+    private void expect(char c) throws FlightBookingSystemException {
+        if (!consume(c)) {
+            throw error();
+        }
+    }
+
+    private boolean consume(char c) {
+        skipSpace();
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private FlightBookingSystemException error() {
+        return new FlightBookingSystemException("Invalid JSON at position " + pos + ".");
+    }
+}
@@ -0,0 +1,351 @@
+package bcu.cmp5332.bookingsystem.server;
+
+import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.main.CommandParser;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code LineServer} class serves the console commands of a {@link FlightBookingSystem} over
+ * TCP, so that terminal agents can type the same commands as at the console, such as
+ * {@code addbooking 3 17} or {@code showflight 5}, without a process of their own.
+ *
+ * Every line received is a command, parsed by {@link CommandParser} without prompting: details
+ * the console would prompt for are given on the line, as in
+ * {@code addbooking 3 17 FIRST_CLASS}. The connection is answered with what the command printed,
+ * or the error message, followed by the {@code "> "} prompt, and {@code exit} closes it. The
+ * commands of one connection run one after the other, in the order they were sent. A client that
+ * shuts down its side of the connection still gets the answers to every line it sent before the
+ * connection is closed.
+ *
+ * A single thread accepts connections and reads and writes all of them through a
+ * {@link Selector}, so thousands of idle connections cost no threads. Only a command being run
+ * takes a thread, from the same executor as the {@link BookingServer}, because commands wait for
+ * locks and for their changes to be made durable. When a connection sends commands faster than
+ * they run, it is no longer read until they catch up.
+ *
+ * @author Bibek
+ * @author Solomon
+ * @version 1.0
+ * @since 2024-06-10
+ * @see bcu.cmp5332.bookingsystem.main.Main
+ */
+
+public class LineServer {
+
+    /**
+     * The system property holding the port to listen on when none is given on the command line.
+     */
+    public static final String PORT_PROPERTY = "fbs.lineserver.port";
+
+    /**
+     * The port listened on when no port is given.
+     */
+    public static final int DEFAULT_PORT = 8023;
+
+    private static final String PROMPT = "> ";
+    private static final String GREETING = "Flight Booking System\n"
+            + "Enter 'help' to see a list of available commands.\n" + PROMPT;
+    private static final int MAX_LINE = 4096;
+    // lines waiting to run before a connection is no longer read
+    private static final int MAX_WAITING = 64;
+
+    private final FlightBookingSystem fbs;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService executor;
+    // answers of finished commands, handed from the executor to the selector thread
+    private final Queue<Answer> answers = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructs a {@code LineServer} for the given system, bound to the given port.
+     *
+     * @param fbs  The flight booking system to serve.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public LineServer(FlightBookingSystem fbs, int port) throws IOException {
+        this.fbs = fbs;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.executor = BookingServer.newRequestExecutor();
+        this.thread = new Thread(this::run, "fbs-line-server");
+    }
+
+    /**
+     * Starts serving connections.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops serving connections, closing them all, and waits up to the given time for commands
+     * in progress to finish.
+     *
+     * @param seconds The longest time to wait.
+     */
+    public void stop(int seconds) {
+        running = false;
+        selector.wakeup();
+        executor.shutdown();
+        try {
+            // join(0) would wait for ever
+            thread.join(Math.max(1, TimeUnit.SECONDS.toMillis(seconds)));
+            executor.awaitTermination(seconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (Answer answer; (answer = answers.poll()) != null; ) {
+                    Session session = answer.session;
+                    session.running = false;
+                    send(session, answer.text);
+                    runNext(session);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Session session = (Session) key.attachment();
+                        if (key.isWritable()) {
+                            write(session);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(session);
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Line server stopped: " + ex.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException ex) {
+                // closing anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        for (SocketChannel channel; (channel = serverChannel.accept()) != null; ) {
+            channel.configureBlocking(false);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            send(session, GREETING);
+        }
+    }
+
+    private void read(Session session) {
+        ByteBuffer in = session.in;
+        try {
+            if (session.channel.read(in) < 0) {
+                // the last line may have no line break
+                if (in.position() > 0) {
+                    session.lines.add(new String(in.array(), 0, in.position(), StandardCharsets.UTF_8).trim());
+                    in.clear();
+                }
+                session.ended = true;
+                runNext(session);
+                return;
+            }
+        } catch (IOException ex) {
+            close(session);
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < in.position(); i++) {
+            if (in.get(i) == '\n') {
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                session.lines.add(new String(in.array(), start, end - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        if (start == 0 && !in.hasRemaining()) {
+            session.lines.clear();
+            session.closing = true;
+            send(session, "Lines must be shorter than " + MAX_LINE + " bytes.\n");
+            return;
+        }
+        in.flip().position(start);
+        in.compact();
+        runNext(session);
+    }
+
+    // runs the lines a session is waiting for until one needs a thread of its own
+    private void runNext(Session session) {
+        while (session.key.isValid() && !session.running && !session.closing && !session.lines.isEmpty()) {
+            String line = session.lines.poll().trim();
+            if (line.isEmpty()) {
+                send(session, PROMPT);
+            } else if (line.equals("exit")) {
+                session.closing = true;
+            } else {
+                Command command;
+                try {
+                    command = CommandParser.parse(line);
+                } catch (FlightBookingSystemException ex) {
+                    send(session, ex.getMessage() + "\n" + PROMPT);
+                    continue;
+                }
+                session.running = true;
+                try {
+                    executor.execute(() -> {
+                        answers.add(new Answer(session, execute(command)));
+                        selector.wakeup();
+                    });
+                } catch (RejectedExecutionException ex) {
+                    // the server is stopping
+                    session.running = false;
+                    session.lines.clear();
+                    session.closing = true;
+                    send(session, "The server is shutting down.\n");
+                }
+            }
+        }
+        if (session.ended && !session.running && session.lines.isEmpty()) {
+            session.closing = true;
+        }
+        updateInterest(session);
+    }
+
+    private String execute(Command command) {
+        String text;
+        try {
+            text = CommandOutput.run(command, fbs);
+        } catch (FlightBookingSystemException ex) {
+            text = ex.getMessage() + "\n";
+        } catch (RuntimeException ex) {
+            text = "Error: " + ex + "\n";
+        }
+        return text + PROMPT;
+    }
+
+    private void send(Session session, String text) {
+        if (session.key.isValid()) {
+            session.out.add(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+            write(session);
+        }
+    }
+
+    private void write(Session session) {
+        try {
+            for (ByteBuffer buffer; (buffer = session.out.peek()) != null; session.out.poll()) {
+                session.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            close(session);
+            return;
+        }
+        updateInterest(session);
+    }
+
+    private void updateInterest(Session session) {
+        if (!session.key.isValid()) {
+            return;
+        }
+        if (session.closing && !session.running && session.out.isEmpty()) {
+            close(session);
+            return;
+        }
+        int ops = 0;
+        if (!session.closing && !session.ended && session.lines.size() < MAX_WAITING) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (!session.out.isEmpty()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        session.key.interestOps(ops);
+    }
+
+    private static void close(Session session) {
+        closeQuietly(session.key);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            // the connection is gone either way
+        }
+    }
+
+    // the state of one connection, only used by the selector thread
+    private static final class Session {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        final Queue<String> lines = new ArrayDeque<>();
+        final Queue<ByteBuffer> out = new ArrayDeque<>();
+        SelectionKey key;
+        boolean running;
+        // no more lines are run, and the connection is closed once the answers are written
+        boolean closing;
+        // the client sent its last line
+        boolean ended;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static final class Answer {
+        final Session session;
+        final String text;
+
+        Answer(Session session, String text) {
+            this.session = session;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+class ActiveViewTest {
+
+    // enough customers to fill several leaves of the view
+    private static final int CUSTOMERS = 2000;
+
+	@Test
+    public void testInsertsKeepIdOrder() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(42));
+        for (int id : ids) {
+            fbs.addCustomer(customer(id));
+        }
+
+        assertEquals(CUSTOMERS, fbs.getCustomers().size());
+        assertEquals(expectedIds(CUSTOMERS, 0), customerIds(fbs.getCustomers()));
+        assertThrows(UnsupportedOperationException.class, () -> fbs.getCustomers().add(customer(CUSTOMERS + 1)));
+    }
+
+    @Test
+    public void testDeletesLeaveTheRestInOrder() throws Exception {
+        FlightBookingSystem fbs = customers();
+        for (int id = 3; id <= CUSTOMERS; id += 3) {
+            fbs.deleteCustomer(fbs.getCustomerByID(id));
+        }
+
+        assertEquals(CUSTOMERS - CUSTOMERS / 3, fbs.getCustomers().size());
+        assertEquals(expectedIds(CUSTOMERS, 3), customerIds(fbs.getCustomers()));
+        // a deleted customer added again, as when a data file is reloaded, stays out of the view
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        loaded.addCustomer(new Customer(1, "Customer 1", "9840", "customer1@gmail.com", true));
+        assertTrue(loaded.getCustomers().isEmpty());
+    }
+
+    @Test
+    public void testSnapshotIsIsolatedFromLaterChanges() throws Exception {
+        FlightBookingSystem fbs = customers();
+        SystemSnapshot before = fbs.snapshot();
+        List<Customer> view = fbs.getCustomers();
+
+        for (int id = 1; id <= CUSTOMERS; id += 2) {
+            fbs.deleteCustomer(fbs.getCustomerByID(id));
+        }
+        for (int id = CUSTOMERS + 1; id <= CUSTOMERS + 100; id++) {
+            fbs.addCustomer(customer(id));
+        }
+
+        assertEquals(CUSTOMERS, before.getCustomers().size());
+        assertEquals(expectedIds(CUSTOMERS, 0), customerIds(before.getCustomers()));
+        // the live view follows the changes
+        assertEquals(CUSTOMERS / 2 + 100, view.size());
+        assertEquals(2, view.get(0).getId());
+        assertEquals(CUSTOMERS + 100, view.get(view.size() - 1).getId());
+    }
+
+    @Test
+    public void testBookingViewFollowsAddsAndCancels() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        for (int id = 1; id <= 3; id++) {
+            fbs.addCustomer(customer(id));
+        }
+        List<Booking> bookings = new ArrayList<>();
+        for (int id = 3; id >= 1; id--) {
+            Booking booking = new Booking(fbs.getCustomerByID(id), fbs.getFlightByID(1), LocalDate.now(), false,
+                    FlightClass.ECONOMY_CLASS);
+            fbs.addBooking(booking);
+            bookings.add(booking);
+        }
+        SystemSnapshot before = fbs.snapshot();
+
+        fbs.cancelBooking(bookings.get(1), 0);
+
+        // bookings keep the order they were made in
+        assertEquals(bookings, before.getBookings());
+        assertEquals(2, fbs.getBookings().size());
+        assertSame(bookings.get(0), fbs.getBookings().get(0));
+        assertSame(bookings.get(2), fbs.getBookings().get(1));
+    }
+
+    private static FlightBookingSystem customers() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            fbs.addCustomer(customer(id));
+        }
+        return fbs;
+    }
+
+    private static Customer customer(int id) {
+        return new Customer(id, "Customer " + id, "9840" + id, "customer" + id + "@gmail.com", false);
+    }
+
+    // the IDs from 1 to last, without every skip-th one
+    private static List<Integer> expectedIds(int last, int skip) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= last; id++) {
+            if (skip == 0 || id % skip != 0) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static List<Integer> customerIds(List<Customer> customers) {
+        List<Integer> ids = new ArrayList<>();
+        for (Customer customer : customers) {
+            ids.add(customer.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,97 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.main.BatchRunner;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class BatchRunnerTest {
+
+    private static final String SCRIPT = "# nightly bookings\n"
+            + "addbooking 1 1\n"
+            + "addbooking 2 1\n"
+            + "\n"
+            + "addbooking 9 1\n"
+            + "addbooking 3 2 CARGO\n"
+            + "addbooking 3 2\n"
+            + "nosuchcommand\n"
+            + "addbooking 1 2\n"
+            + "exit\n"
+            + "addbooking 2 2\n";
+
+	@Test
+    public void testDataIsStoredEveryFewCommands() throws Exception {
+        FlightBookingSystem fbs = system();
+        // the number of bookings at each store
+        List<Integer> stored = new ArrayList<>();
+        BatchRunner runner = new BatchRunner(fbs, 2, new PrintStream(new ByteArrayOutputStream()),
+                system -> stored.add(system.getBookings().size()));
+
+        assertEquals(3, runner.run(new BufferedReader(new StringReader(SCRIPT))));
+
+        // after commands 2, 4 and 6, and at the end; failed commands count too
+        assertEquals(4, stored.size());
+        assertEquals(2, (int) stored.get(0));
+        assertEquals(2, (int) stored.get(1));
+        assertEquals(3, (int) stored.get(2));
+        assertEquals(4, (int) stored.get(3));
+        // the lines after exit are not run
+        assertEquals(4, fbs.getBookings().size());
+        assertFalse(FlightBookingSystemData.isDeferred());
+    }
+
+    @Test
+    public void testFailuresAreReportedByLineNumber() throws Exception {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        List<Integer> stored = new ArrayList<>();
+        BatchRunner runner = new BatchRunner(system(), 0, new PrintStream(report, true, "UTF-8"),
+                system -> stored.add(system.getBookings().size()));
+
+        runner.run(new BufferedReader(new StringReader(SCRIPT)));
+        runner.printReport();
+
+        String[] lines = report.toString("UTF-8").split("\\r?\\n");
+        assertTrue(lines[0].startsWith("Line 5: "), lines[0]);
+        assertTrue(lines[1].startsWith("Line 6: "), lines[1]);
+        assertTrue(lines[2].startsWith("Line 8: "), lines[2]);
+        assertTrue(lines[3].startsWith("7 commands in "), lines[3]);
+        assertTrue(lines[3].endsWith("3 failed, data stored 1 times"), lines[3]);
+        // only stored at the end
+        assertEquals(1, stored.size());
+    }
+
+    @Test
+    public void testFailedStoreEndsTheScript() throws Exception {
+        FlightBookingSystem fbs = system();
+        BatchRunner runner = new BatchRunner(fbs, 1, new PrintStream(new ByteArrayOutputStream()), system -> {
+            throw new IOException("disk full");
+        });
+
+        assertThrows(IOException.class, () -> runner.run(new BufferedReader(new StringReader(SCRIPT))));
+        assertEquals(1, fbs.getBookings().size());
+        assertFalse(FlightBookingSystemData.isDeferred());
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 3; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+        return fbs;
+    }
+}
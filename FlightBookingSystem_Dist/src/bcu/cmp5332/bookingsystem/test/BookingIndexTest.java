@@ -0,0 +1,89 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.BookingConflictException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class BookingIndexTest {
+
+	@Test
+    public void testIndexFollowsCancelAndRebook() throws Exception {
+        FlightBookingSystem fbs = system();
+        Customer customer = fbs.getCustomerByID(1);
+        Flight flight = fbs.getFlightByID(1);
+        Booking first = book(fbs, 1, 1);
+        assertSame(first, fbs.getBookingByCustomerAndFlight(customer, flight));
+
+        fbs.cancelBooking(first, 0);
+        assertNull(fbs.getBookingByCustomerAndFlight(customer, flight));
+        assertNull(fbs.getActiveBooking(1, 1));
+
+        Booking second = book(fbs, 1, 1);
+        assertSame(second, fbs.getBookingByCustomerAndFlight(customer, flight));
+        assertSame(first, fbs.findBooking(first.getBookingId()));
+    }
+
+    @Test
+    public void testKeysDoNotCollide() throws Exception {
+        FlightBookingSystem fbs = system();
+        Booking oneTwo = book(fbs, 1, 2);
+        Booking twoOne = book(fbs, 2, 1);
+
+        assertSame(oneTwo, fbs.getActiveBooking(1, 2));
+        assertSame(twoOne, fbs.getActiveBooking(2, 1));
+        assertNull(fbs.getActiveBooking(1, 1));
+        assertNull(fbs.getActiveBooking(2, 2));
+        assertNull(fbs.getBookingByCustomerAndFlight(null, fbs.getFlightByID(1)));
+    }
+
+    @Test
+    public void testLoadedCancelledBookingIsNotIndexed() throws Exception {
+        FlightBookingSystem fbs = system();
+        fbs.addBooking(new Booking(5, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.now(), true,
+                FlightClass.ECONOMY_CLASS));
+
+        assertNull(fbs.getActiveBooking(1, 1));
+        assertNotNull(fbs.findBooking(5));
+        assertEquals(0, fbs.getFlightByID(1).getBookedSeats());
+    }
+
+    @Test
+    public void testSecondActiveBookingIsAConflict() throws Exception {
+        FlightBookingSystem fbs = system();
+        Booking first = book(fbs, 1, 1);
+
+        assertThrows(BookingConflictException.class, () -> book(fbs, 1, 1));
+        assertThrows(BookingConflictException.class, () -> fbs.addBookingIfSeatAvailable(new Booking(
+                fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.now(), false, FlightClass.FIRST_CLASS)));
+
+        // no seat or booking is left behind by the refused bookings
+        assertEquals(1, fbs.getFlightByID(1).getBookedSeats());
+        assertEquals(1, fbs.getBookings().size());
+        assertSame(first, fbs.getActiveBooking(1, 1));
+    }
+
+    private static Booking book(FlightBookingSystem fbs, int customerId, int flightId) throws Exception {
+        Booking booking = new Booking(fbs.getCustomerByID(customerId), fbs.getFlightByID(flightId), LocalDate.now(),
+                false, FlightClass.ECONOMY_CLASS);
+        fbs.addBooking(booking);
+        return booking;
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 2; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+        return fbs;
+    }
+}
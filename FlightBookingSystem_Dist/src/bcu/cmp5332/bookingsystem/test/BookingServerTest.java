@@ -0,0 +1,139 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.server.BookingServer;
+
+class BookingServerTest {
+
+    private FlightBookingSystem fbs;
+    private BookingServer server;
+    private int status;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        // nothing is written to the data files
+        FlightBookingSystemData.setDeferred(true);
+        fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 1, false, 1000));
+        for (int id = 1; id <= 2; id++) {
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+        server = new BookingServer(fbs, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        FlightBookingSystemData.setDeferred(false);
+    }
+
+	@Test
+    public void testBookAndCancel() throws Exception {
+        String booked = request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1}");
+        assertEquals(200, status);
+        assertTrue(booked.contains("\"ok\": true"));
+        assertEquals(1, fbs.getFlightByID(1).getBookedSeats());
+
+        request("DELETE", "/api/bookings/1/1", null);
+        assertEquals(200, status);
+        assertEquals(0, fbs.getFlightByID(1).getBookedSeats());
+        assertTrue(fbs.getBookings().isEmpty());
+    }
+
+    @Test
+    public void testFullFlightIsAConflict() throws Exception {
+        request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1}");
+        assertEquals(200, status);
+
+        String full = request("POST", "/api/bookings", "{\"customerId\": 2, \"flightId\": 1}");
+        assertEquals(409, status);
+        assertTrue(full.contains("\"ok\": false"));
+        assertTrue(full.contains("fully booked"));
+        assertEquals(1, fbs.getBookings().size());
+    }
+
+    @Test
+    public void testSecondBookingOfACustomerIsAConflict() throws Exception {
+        fbs.getFlightByID(1).setCapacity(2);
+        request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1}");
+        assertEquals(200, status);
+
+        String again = request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1, \"flightClass\": \"FIRST_CLASS\"}");
+        assertEquals(409, status);
+        assertTrue(again.contains("already booked"));
+        assertEquals(1, fbs.getBookings().size());
+        assertEquals(1, fbs.getFlightByID(1).getBookedSeats());
+    }
+
+    @Test
+    public void testConsoleIsLeftAlone() throws Exception {
+        PrintStream console = System.out;
+        String booked = request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1}");
+
+        assertTrue(booked.contains(" added."));
+        assertSame(console, System.out);
+    }
+
+    @Test
+    public void testBadRequestsAreRejected() throws Exception {
+        String malformed = request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\":");
+        assertEquals(400, status);
+        assertTrue(malformed.contains("\"ok\": false"));
+
+        request("POST", "/api/bookings", "{\"customerId\": 1}");
+        assertEquals(400, status);
+        request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1, \"flightClass\": \"CARGO\"}");
+        assertEquals(400, status);
+        request("DELETE", "/api/bookings/1/1", null);
+        assertEquals(400, status);
+        request("GET", "/api/unknown", null);
+        assertEquals(404, status);
+
+        fbs.deleteFlight(fbs.getFlightByID(1));
+        request("POST", "/api/bookings", "{\"customerId\": 1, \"flightId\": 1}");
+        assertEquals(400, status);
+        assertTrue(fbs.getBookings().isEmpty());
+    }
+
+    // sends a request and keeps its status, returning the body of the answer
+    private String request(String method, String path, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        status = connection.getResponseCode();
+        ByteArrayOutputStream answer = new ByteArrayOutputStream();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[1024];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                answer.write(buffer, 0, read);
+            }
+        }
+        connection.disconnect();
+        return new String(answer.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
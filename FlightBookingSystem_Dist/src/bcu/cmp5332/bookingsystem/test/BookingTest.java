@@ -12,6 +12,7 @@ import bcu.cmp5332.bookingsystem.model.Booking;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 class BookingTest {
 
@@ -92,5 +93,47 @@ class BookingTest {
         assertNotEquals(initialCancellationFee, updatedCancellationFee);
     }
 
+    @Test
+    public void testDoubleCancellationFreesOneSeat() throws FlightBookingSystemException {
+        Customer customer = new Customer(1, "Solomon", "941141858", "solo@example.com", false);
+        Customer other = new Customer(2, "Bibek", "123456789", "bibek@gmail.com", false);
+        Flight flight = new Flight(1, "KPL1234", "KTM", "QTR", LocalDate.now().plusDays(7), 10, false, 15000);
+        flight.addPassenger(customer, FlightClass.ECONOMY_CLASS);
+        flight.addPassenger(other, FlightClass.ECONOMY_CLASS);
+        Booking booking = new Booking(customer, flight, LocalDate.now(), false, FlightClass.ECONOMY_CLASS);
+
+        booking.cancelBooking();
+        assertThrows(FlightBookingSystemException.class, booking::cancelBooking);
+
+        assertEquals(1, flight.getBookedSeats());
+        // a customer who is not on the flight gives back no seat
+        assertFalse(flight.removePassenger(customer, FlightClass.ECONOMY_CLASS));
+        assertEquals(1, flight.getBookedSeats());
+    }
+
+    @Test
+    public void testSecondBookingOnAFlightKeepsItsSeat() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Customer customer = new Customer(1, "Solomon", "941141858", "solo@example.com", false);
+        Flight flight = new Flight(1, "KPL1234", "KTM", "QTR", LocalDate.now().plusDays(7), 10, false, 15000);
+        fbs.addCustomer(customer);
+        fbs.addFlight(flight);
+        // two bookings of one customer on a flight, as a loaded data file may hold
+        Booking first = new Booking(1, customer, flight, LocalDate.now(), false, FlightClass.ECONOMY_CLASS);
+        Booking second = new Booking(2, customer, flight, LocalDate.now(), false, FlightClass.BUSINESS_CLASS);
+        fbs.addBooking(first);
+        fbs.addBooking(second);
+        assertEquals(2, flight.getBookedSeats());
+
+        fbs.cancelBooking(first, 0);
+        fbs.cancelBooking(first, 0);
+        assertEquals(1, flight.getBookedSeats());
+        assertTrue(flight.getPassengers().contains(customer));
+
+        fbs.cancelBooking(second, 0);
+        assertEquals(0, flight.getBookedSeats());
+        assertTrue(flight.getPassengers().isEmpty());
+    }
+
 
 }
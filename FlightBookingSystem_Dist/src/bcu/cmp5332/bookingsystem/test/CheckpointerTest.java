@@ -0,0 +1,202 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.Checkpointer;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.data.PersistenceQueue;
+import bcu.cmp5332.bookingsystem.data.SnapshotDataManager;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+class CheckpointerTest {
+
+    private Path dir;
+    private JournalDataManager journal;
+    private FlightBookingSystem fbs;
+
+    @BeforeEach
+    public void createSystem() throws Exception {
+        dir = Files.createTempDirectory("checkpoint");
+        journal = new JournalDataManager(dir.resolve("journal.log"));
+        fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        for (int id = 1; id <= 3; id++) {
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+    }
+
+    @AfterEach
+    public void deleteFiles() throws Exception {
+        journal.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+	@Test
+    public void testCheckpointCoversCommitsQueuedBeforeIt() throws Exception {
+        // commits wait in the queue for a while, so they are still queued when the checkpoint starts
+        PersistenceQueue queue = new PersistenceQueue(journal, 50);
+        Checkpointer checkpointer = new Checkpointer(journal, queue, managers(new FlightDataManager(file("flights.txt"))),
+                Long.MAX_VALUE, Long.MAX_VALUE);
+        queue.submit(JournalEntry.addBooking(book(1)));
+        queue.submit(JournalEntry.addBooking(book(2)));
+
+        checkpointer.checkpoint(fbs).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, Files.size(dir.resolve("journal.log")));
+        assertEquals(0, journal.size());
+        assertEquals(2, load().getBookings().size());
+    }
+
+    @Test
+    public void testRecordsAppendedDuringCheckpointAreKept() throws Exception {
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // holds the background write until a commit has been journaled after the offset was taken
+        FlightDataManager flights = new FlightDataManager(file("flights.txt")) {
+            @Override
+            public byte[] snapshot(FlightBookingSystem system, SystemSnapshot view) {
+                encoding.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.snapshot(system, view);
+            }
+        };
+        PersistenceQueue queue = new PersistenceQueue(journal, 0);
+        Checkpointer checkpointer = new Checkpointer(journal, queue, managers(flights), Long.MAX_VALUE, Long.MAX_VALUE);
+        queue.submit(JournalEntry.addBooking(book(1))).get(10, TimeUnit.SECONDS);
+
+        Future<?> written = checkpointer.checkpoint(fbs);
+        assertTrue(encoding.await(10, TimeUnit.SECONDS));
+        Booking later = book(2);
+        queue.submit(JournalEntry.addBooking(later)).get(10, TimeUnit.SECONDS);
+        release.countDown();
+        written.get(10, TimeUnit.SECONDS);
+
+        List<String> records = Files.readAllLines(dir.resolve("journal.log"), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(JournalEntry.addBooking(later).format()), records);
+        assertEquals(Files.size(dir.resolve("journal.log")), journal.size());
+        // the snapshot holds the first booking and the journal the second
+        FlightBookingSystem loaded = load();
+        assertEquals(2, loaded.getBookings().size());
+        assertNotNull(loaded.findBooking(later.getBookingId()));
+    }
+
+    @Test
+    public void testLaterCheckpointTruncatesOnlyItsOwnRecords() throws Exception {
+        PersistenceQueue queue = new PersistenceQueue(journal, 0);
+        Checkpointer checkpointer = new Checkpointer(journal, queue, managers(new FlightDataManager(file("flights.txt"))),
+                Long.MAX_VALUE, Long.MAX_VALUE);
+        queue.submit(JournalEntry.addBooking(book(1))).get(10, TimeUnit.SECONDS);
+        checkpointer.checkpoint(fbs).get(10, TimeUnit.SECONDS);
+        assertEquals(0, journal.size());
+
+        // positions keep counting from the start of the first record, across the truncation
+        Booking second = book(2);
+        queue.submit(JournalEntry.addBooking(second)).get(10, TimeUnit.SECONDS);
+        long covered = journal.position();
+        Booking third = book(3);
+        queue.submit(JournalEntry.addBooking(third)).get(10, TimeUnit.SECONDS);
+        journal.truncateThrough(covered);
+
+        List<String> records = Files.readAllLines(dir.resolve("journal.log"), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(JournalEntry.addBooking(third).format()), records);
+        assertEquals(Files.size(dir.resolve("journal.log")), journal.size());
+    }
+
+    @Test
+    public void testFailedCheckpointKeepsTheJournal() throws Exception {
+        FlightDataManager flights = new FlightDataManager(file("flights.txt")) {
+            @Override
+            public byte[] snapshot(FlightBookingSystem system, SystemSnapshot view) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        PersistenceQueue queue = new PersistenceQueue(journal, 0);
+        Checkpointer checkpointer = new Checkpointer(journal, queue, managers(flights), Long.MAX_VALUE, Long.MAX_VALUE);
+        queue.submit(JournalEntry.addBooking(book(1))).get(10, TimeUnit.SECONDS);
+        long size = journal.size();
+
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> checkpointer.checkpoint(fbs).get(10, TimeUnit.SECONDS));
+        assertEquals("disk full", failed.getCause().getMessage());
+        assertEquals(size, journal.size());
+        assertEquals(size, Files.size(dir.resolve("journal.log")));
+    }
+
+    @Test
+    public void testSizeLimitStartsCheckpoint() throws Exception {
+        PersistenceQueue queue = new PersistenceQueue(journal, 0);
+        Checkpointer checkpointer = new Checkpointer(journal, queue, managers(new FlightDataManager(file("flights.txt"))),
+                1, Long.MAX_VALUE);
+        checkpointer.maybeCheckpoint(fbs);
+        checkpointer.awaitIdle();
+        assertFalse(Files.exists(dir.resolve("flights.txt")));
+
+        queue.submit(JournalEntry.addBooking(book(1))).get(10, TimeUnit.SECONDS);
+        assertEquals(Files.size(dir.resolve("journal.log")), journal.size());
+        checkpointer.maybeCheckpoint(fbs);
+        checkpointer.awaitIdle();
+
+        assertEquals(0, journal.size());
+        assertEquals(1, load().getBookings().size());
+    }
+
+    private Booking book(int customerId) throws Exception {
+        Booking booking = new Booking(fbs.getCustomerByID(customerId), fbs.getFlightByID(1), LocalDate.now(), false,
+                FlightClass.ECONOMY_CLASS);
+        fbs.addBooking(booking);
+        return booking;
+    }
+
+    private List<SnapshotDataManager> managers(FlightDataManager flights) {
+        return Arrays.asList(flights, new CustomerDataManager(file("customers.txt")),
+                new BookingDataManager(file("bookings.txt")));
+    }
+
+    // the data files with the journal replayed over them
+    private FlightBookingSystem load() throws Exception {
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        new FlightDataManager(file("flights.txt")).loadData(loaded);
+        new CustomerDataManager(file("customers.txt")).loadData(loaded);
+        new BookingDataManager(file("bookings.txt")).loadData(loaded);
+        new JournalDataManager(dir.resolve("journal.log")).loadData(loaded);
+        return loaded;
+    }
+
+    private String file(String name) {
+        return dir.resolve(name).toString();
+    }
+}
@@ -0,0 +1,66 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.commands.AddBooking;
+import bcu.cmp5332.bookingsystem.commands.AddBookings;
+import bcu.cmp5332.bookingsystem.commands.AddCustomer;
+import bcu.cmp5332.bookingsystem.commands.AddFlight;
+import bcu.cmp5332.bookingsystem.commands.ListDepartures;
+import bcu.cmp5332.bookingsystem.commands.ListFlights;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
+import bcu.cmp5332.bookingsystem.commands.ShowFlight;
+import bcu.cmp5332.bookingsystem.commands.UpdateBooking;
+import bcu.cmp5332.bookingsystem.main.CommandParser;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+class CommandParserTest {
+
+	@Test
+    public void testParsesInlineArguments() throws FlightBookingSystemException {
+        assertTrue(CommandParser.parse("listflights") instanceof ListFlights);
+        assertTrue(CommandParser.parse("  showflight\t5 ") instanceof ShowFlight);
+        assertTrue(CommandParser.parse("addbooking 3 17 first_class") instanceof AddBooking);
+        assertTrue(CommandParser.parse("addbooking 3 17") instanceof AddBooking);
+        assertTrue(CommandParser.parse("addbookings 3,4,5 17,18 business_class") instanceof AddBookings);
+        assertTrue(CommandParser.parse("addflight XY9 KTM DEL 2031-02-02 10 99.5") instanceof AddFlight);
+        assertTrue(CommandParser.parse("addcustomer Ram Bahadur Thapa 98410 ram@example.com") instanceof AddCustomer);
+        assertTrue(CommandParser.parse("editbooking 1 2 2024-08-01 ECONOMY_CLASS") instanceof UpdateBooking);
+        assertTrue(CommandParser.parse("searchflights KTM QTR 2024-06-01") instanceof SearchFlights);
+        assertTrue(CommandParser.parse("listdepartures") instanceof ListDepartures);
+    }
+
+    @Test
+    public void testReportsInvalidArgumentsByName() {
+        assertEquals("Invalid customer_id 'abc'. Expected a whole number.",
+                assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("addbooking abc 2")).getMessage());
+        assertEquals("Invalid from '2024-13-01'. Dates must be in YYYY-MM-DD format.",
+                assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("searchflights KTM QTR 2024-13-01")).getMessage());
+        assertEquals("Invalid command format for cancelbooking. Correct format: cancelbooking <customer_id> <flight_id>",
+                assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("cancelbooking 1")).getMessage());
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("showflight 1 2"));
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("addbooking 1 2 COACH"));
+        assertEquals("Invalid flight_ids ''. Expected a whole number.",
+                assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("addbookings 1,2 3,")).getMessage());
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("showflight 99999999999"));
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("listflight"));
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("loadgui"));
+        assertThrows(FlightBookingSystemException.class, () -> CommandParser.parse("addflight"));
+    }
+
+    @Test
+    public void testPromptsForMissingArgumentsOnTheConsole() throws FlightBookingSystemException, IOException {
+        BufferedReader console = new BufferedReader(new StringReader("not a date\n2024-08-01\nbusiness_class\nnext line\n"));
+
+        assertTrue(CommandParser.parse("editbooking 1 2", console) instanceof UpdateBooking);
+        assertEquals("next line", console.readLine());
+        assertThrows(FlightBookingSystemException.class,
+                () -> CommandParser.parse("editbooking 1 2", new BufferedReader(new StringReader("2024-08-01\n"))));
+    }
+}
@@ -0,0 +1,442 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SeatInventory;
+import bcu.cmp5332.bookingsystem.model.StripedLocks;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+class ConcurrentBookingTest {
+
+    private static final int THREADS = 8;
+    private static final int FLIGHTS = 6;
+    private static final int CAPACITY = 5;
+    private static final int CUSTOMERS = 40;
+    private static final int OPERATIONS = 5000;
+
+	@Test
+    @SuppressWarnings("try")
+    public void testCapacityIsNeverExceeded() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int i = 1; i <= FLIGHTS; i++) {
+            fbs.addFlight(new Flight(i, "KPL" + i, "Nepal", "China", LocalDate.now().plusDays(i), CAPACITY, false, 1000));
+        }
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "98400000" + i, "customer" + i + "@gmail.com", false));
+        }
+        AtomicInteger overbooked = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            tasks.add(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    Customer customer = fbs.getCustomerByID(1 + random.nextInt(CUSTOMERS));
+                    Flight flight = fbs.getFlightByID(1 + random.nextInt(FLIGHTS));
+                    // book if the customer has no booking on the flight, cancel otherwise
+                    try (StripedLocks.Held held = fbs.getLocks().lockBooking(customer.getId(), flight.getId())) {
+                        Booking booking = fbs.getActiveBooking(customer.getId(), flight.getId());
+                        if (booking == null) {
+                            fbs.addBookingIfSeatAvailable(new Booking(customer, flight, LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+                        } else {
+                            fbs.cancelBooking(booking, 0);
+                        }
+                        if (flight.getBookedSeats() > flight.getCapacity()) {
+                            overbooked.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        // structural changes interleave with the bookings
+        tasks.add(() -> {
+            start.await();
+            for (int i = 0; i < 50; i++) {
+                int id = fbs.getNewFlightId();
+                fbs.addFlight(new Flight(id, "KPX" + id, "Nepal", "Qatar", LocalDate.now().plusDays(id), CAPACITY, false, 1000));
+            }
+            return null;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                for (Future<Void> result : results) {
+                    result.get();
+                }
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, overbooked.get());
+        int active = 0;
+        for (int i = 1; i <= FLIGHTS; i++) {
+            Flight flight = fbs.getFlightByID(i);
+            int booked = 0;
+            for (Booking booking : fbs.getBookings()) {
+                if (!booking.isDeleted() && booking.getFlight() == flight) {
+                    booked++;
+                }
+            }
+            assertTrue(flight.getBookedSeats() <= CAPACITY);
+            assertEquals(booked, flight.getBookedSeats());
+            active += booked;
+        }
+        int listed = 0;
+        for (Booking booking : fbs.getBookings()) {
+            if (!booking.isDeleted()) {
+                listed++;
+            }
+        }
+        assertEquals(active, listed);
+        assertEquals(FLIGHTS + 50, fbs.getFlights().size());
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testSnapshotsDoNotChangeWhileBooking() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int i = 1; i <= FLIGHTS; i++) {
+            fbs.addFlight(new Flight(i, "KPL" + i, "Nepal", "China", LocalDate.now().plusDays(i), CAPACITY, false, 1000));
+        }
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "98400000" + i, "customer" + i + "@gmail.com", false));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger changed = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS / 2; t++) {
+                long seed = t;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        int customerId = 1 + random.nextInt(CUSTOMERS);
+                        int flightId = 1 + random.nextInt(FLIGHTS);
+                        try (StripedLocks.Held held = fbs.getLocks().lockBooking(customerId, flightId)) {
+                            Booking booking = fbs.getActiveBooking(customerId, flightId);
+                            if (booking == null) {
+                                fbs.addBookingIfSeatAvailable(new Booking(fbs.getCustomerByID(customerId),
+                                        fbs.getFlightByID(flightId), LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+                            } else {
+                                fbs.cancelBooking(booking, 0);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < THREADS / 2; t++) {
+                readers.add(pool.submit(() -> {
+                    long lastVersion = -1;
+                    while (!done.get()) {
+                        SystemSnapshot snapshot = fbs.snapshot();
+                        List<Booking> before = new ArrayList<>(snapshot.getBookings());
+                        Thread.yield();
+                        List<Booking> after = new ArrayList<>(snapshot.getBookings());
+                        if (!before.equals(after) || after.size() != snapshot.getBookings().size()
+                                || snapshot.getVersion(FlightBookingSystem.EntitySet.BOOKINGS) < lastVersion) {
+                            changed.incrementAndGet();
+                        }
+                        lastVersion = snapshot.getVersion(FlightBookingSystem.EntitySet.BOOKINGS);
+                    }
+                    return null;
+                }));
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                for (Future<?> writer : writers) {
+                    writer.get();
+                }
+                done.set(true);
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+            });
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, changed.get());
+        int active = 0;
+        for (int i = 1; i <= FLIGHTS; i++) {
+            active += fbs.getFlightByID(i).getBookedSeats();
+        }
+        assertEquals(active, fbs.snapshot().getBookings().size());
+    }
+
+    @Test
+    public void testLookupsNeedNoLockWhileFlightsAreAdded() {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        AtomicInteger missed = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int thread = t;
+                    results.add(pool.submit(() -> {
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            int id = i * THREADS + thread + 1;
+                            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30),
+                                    CAPACITY, false, 1000));
+                            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000", "customer@gmail.com", false));
+                            // every flight and customer added so far by this thread can be found
+                            int earlier = (i / 2) * THREADS + thread + 1;
+                            if (fbs.getFlightByID(earlier).getId() != earlier || !fbs.customerExists(earlier)
+                                    || fbs.getFlightByNumberAndDate("KPL" + earlier, LocalDate.now().plusDays(30)) == null) {
+                                missed.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        assertEquals(0, missed.get());
+        assertEquals(THREADS * OPERATIONS, fbs.getFlights().size());
+        assertEquals(THREADS * OPERATIONS, fbs.getCustomers().size());
+    }
+
+    @Test
+    public void testSeatInventoryNeverOverbooksWithoutLocks() {
+        SeatInventory seats = new SeatInventory(CAPACITY);
+        AtomicInteger overbooked = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = t;
+                    results.add(pool.submit(() -> {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < OPERATIONS * 10; i++) {
+                            FlightClass flightClass = FlightClass.values()[random.nextInt(FlightClass.values().length)];
+                            if (seats.tryReserve(flightClass)) {
+                                if (seats.getReserved() > CAPACITY) {
+                                    overbooked.incrementAndGet();
+                                }
+                                seats.release(flightClass);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        assertEquals(0, overbooked.get());
+        assertEquals(0, seats.getReserved());
+        assertEquals(CAPACITY, seats.getAvailable());
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testLockingSeveralFlightsDoesNotDeadlock() {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        int[] counters = new int[FLIGHTS];
+        AtomicInteger expected = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = t;
+                    results.add(pool.submit(() -> {
+                        Random random = new Random(seed);
+                        int increments = 0;
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            // flights and customers in random order, possibly repeated
+                            int[] flightIds = { 1 + random.nextInt(FLIGHTS), 1 + random.nextInt(FLIGHTS) };
+                            int[] customerIds = { 1 + random.nextInt(CUSTOMERS), 1 + random.nextInt(CUSTOMERS) };
+                            try (StripedLocks.Held held = fbs.getLocks().lockBookings(customerIds, flightIds)) {
+                                counters[flightIds[0] - 1]++;
+                                counters[flightIds[1] - 1]++;
+                            }
+                            increments += 2;
+                        }
+                        return increments;
+                    }));
+                }
+                for (Future<Integer> result : results) {
+                    expected.addAndGet(result.get());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        int total = 0;
+        for (int counter : counters) {
+            total += counter;
+        }
+        // an increment is only lost if two threads held the same flight at once
+        assertEquals(expected.get(), total);
+    }
+
+    @Test
+    public void testGroupBookingIsAllOrNothing() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(1), CAPACITY, false, 1000));
+        fbs.addFlight(new Flight(2, "KPL2", "China", "Nepal", LocalDate.now().plusDays(2), CAPACITY - 1, false, 1000));
+        for (int i = 1; i <= CAPACITY; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "98400000" + i, "customer" + i + "@gmail.com", false));
+        }
+        List<Booking> group = new ArrayList<>();
+        for (int i = 1; i <= CAPACITY; i++) {
+            group.add(new Booking(fbs.getCustomerByID(i), fbs.getFlightByID(1), LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+            group.add(new Booking(fbs.getCustomerByID(i), fbs.getFlightByID(2), LocalDate.now(), false, FlightClass.FIRST_CLASS));
+        }
+
+        // the second flight is one seat short, so the seats taken on the first are given back
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBookingGroup(group));
+        assertEquals(0, fbs.getFlightByID(1).getBookedSeats());
+        assertEquals(0, fbs.getFlightByID(2).getBookedSeats());
+        assertTrue(fbs.getBookings().isEmpty());
+        assertTrue(fbs.getCustomerByID(1).getBookings().isEmpty());
+
+        List<Booking> firstLeg = new ArrayList<>(group.subList(0, group.size() - 2));
+        firstLeg.removeIf(booking -> booking.getFlight().getId() == 2);
+        fbs.addBookingGroup(firstLeg);
+        assertEquals(CAPACITY - 1, fbs.getFlightByID(1).getBookedSeats());
+        assertEquals(CAPACITY - 1, fbs.getBookings().size());
+        assertEquals(CAPACITY - 1, fbs.getFlightByID(1).getPassengers().size());
+
+        // a customer already booked on a flight of the group fails the whole group
+        List<Booking> again = new ArrayList<>();
+        again.add(new Booking(fbs.getCustomerByID(CAPACITY), fbs.getFlightByID(1), LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+        again.add(new Booking(fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+        assertThrows(FlightBookingSystemException.class, () -> fbs.addBookingGroup(again));
+        assertEquals(CAPACITY - 1, fbs.getFlightByID(1).getBookedSeats());
+        assertNull(fbs.getActiveBooking(CAPACITY, 1));
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testGroupsAndSingleBookingsNeverExceedCapacity() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int i = 1; i <= FLIGHTS; i++) {
+            fbs.addFlight(new Flight(i, "KPL" + i, "Nepal", "China", LocalDate.now().plusDays(i), CAPACITY * 4, false, 1000));
+        }
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            fbs.addCustomer(new Customer(i, "Customer " + i, "98400000" + i, "customer" + i + "@gmail.com", false));
+        }
+        AtomicInteger partial = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = t;
+                    results.add(pool.submit(() -> {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < OPERATIONS / 10; i++) {
+                            Customer customer = fbs.getCustomerByID(1 + random.nextInt(CUSTOMERS));
+                            Flight flight = fbs.getFlightByID(1 + random.nextInt(FLIGHTS));
+                            if (seed % 2 == 0) {
+                                try (StripedLocks.Held held = fbs.getLocks().lockBooking(customer.getId(), flight.getId())) {
+                                    Booking booking = fbs.getActiveBooking(customer.getId(), flight.getId());
+                                    if (booking == null) {
+                                        fbs.addBookingIfSeatAvailable(new Booking(customer, flight, LocalDate.now(), false, FlightClass.ECONOMY_CLASS));
+                                    } else {
+                                        fbs.cancelBooking(booking, 0);
+                                    }
+                                }
+                                continue;
+                            }
+                            // a group of three customers on two flights
+                            List<Booking> group = new ArrayList<>();
+                            int firstCustomer = 1 + random.nextInt(CUSTOMERS - 2);
+                            int firstFlight = 1 + random.nextInt(FLIGHTS - 1);
+                            for (int c = firstCustomer; c < firstCustomer + 3; c++) {
+                                for (int f = firstFlight; f < firstFlight + 2; f++) {
+                                    group.add(new Booking(fbs.getCustomerByID(c), fbs.getFlightByID(f), LocalDate.now(), false, FlightClass.BUSINESS_CLASS));
+                                }
+                            }
+                            try {
+                                fbs.addBookingGroup(group);
+                            } catch (FlightBookingSystemException ex) {
+                                // too few seats or already booked; none of the group may remain
+                            }
+                            int added = 0;
+                            for (Booking booking : group) {
+                                if (booking.getBookingId() != 0) {
+                                    added++;
+                                }
+                            }
+                            if (added != 0 && added != group.size()) {
+                                partial.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        });
+
+        assertEquals(0, partial.get());
+        for (int i = 1; i <= FLIGHTS; i++) {
+            Flight flight = fbs.getFlightByID(i);
+            int booked = 0;
+            for (Booking booking : fbs.getBookings()) {
+                if (!booking.isDeleted() && booking.getFlight() == flight) {
+                    booked++;
+                }
+            }
+            assertTrue(flight.getBookedSeats() <= flight.getCapacity());
+            assertEquals(booked, flight.getBookedSeats());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryFlightDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class DataFilesTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void createDirectory() throws Exception {
+        dir = Files.createTempDirectory("files");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws Exception {
+        Files.deleteIfExists(dir.resolve("flights.txt"));
+        Files.deleteIfExists(dir.resolve("flights.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testStoredTextFileLoadsAgain() throws Exception {
+        Path file = dir.resolve("flights.txt");
+        new FlightDataManager(file.toString()).storeData(system());
+
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new FlightDataManager(file.toString()).loadData(fbs);
+        assertEquals(3, fbs.getFlights().size());
+    }
+
+    @Test
+    public void testTruncatedTextFileFailsToLoad() throws Exception {
+        Path file = dir.resolve("flights.txt");
+        new FlightDataManager(file.toString()).storeData(system());
+        truncateAfterLine(file, 2);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new FlightDataManager(file.toString()).loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    public void testTruncatedBinaryFileFailsToLoad() throws Exception {
+        Path file = dir.resolve("flights.bin");
+        new BinaryFlightDataManager(file.toString()).storeData(system());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 20));
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new BinaryFlightDataManager(file.toString()).loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    public void testChangedByteFailsToLoad() throws Exception {
+        Path file = dir.resolve("flights.txt");
+        new FlightDataManager(file.toString()).storeData(system());
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, text.replace("KPL2", "KPL9").getBytes(StandardCharsets.UTF_8));
+
+        FlightBookingSystemException ex = assertThrows(FlightBookingSystemException.class,
+                () -> new FlightDataManager(file.toString()).loadData(new FlightBookingSystem()));
+        assertTrue(ex.getMessage().startsWith("Checksum mismatch"));
+    }
+
+    @Test
+    public void testLegacyTextFileWithoutMarkerLoads() throws Exception {
+        Path file = dir.resolve("flights.txt");
+        String date = LocalDate.now().plusDays(30).toString();
+        Files.write(file, ("1::KPL1::Nepal::China::" + date + "::10::false::1000.0::\n"
+                + "2::KPL2::Nepal::India::" + date + "::10::false::1000.0::\n").getBytes(StandardCharsets.UTF_8));
+
+        DataManager flights = new FlightDataManager(file.toString());
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        flights.loadData(fbs);
+        assertEquals(2, fbs.getFlights().size());
+
+        // storing it again adds the marker and the trailer
+        flights.storeData(fbs);
+        truncateAfterLine(file, 2);
+        assertThrows(FlightBookingSystemException.class, () -> flights.loadData(new FlightBookingSystem()));
+    }
+
+    @Test
+    public void testConcurrentStoresLeaveACompleteFile() throws Exception {
+        Path file = dir.resolve("flights.txt");
+        FlightBookingSystem fbs = system();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> stores = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                stores.add(pool.submit(() -> {
+                    new FlightDataManager(file.toString()).storeData(fbs);
+                    return null;
+                }));
+            }
+            for (Future<?> store : stores) {
+                store.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        new FlightDataManager(file.toString()).loadData(loaded);
+        assertEquals(3, loaded.getFlights().size());
+        // every writer removed its own temporary file
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(Arrays.asList(file), files.collect(Collectors.toList()));
+        }
+    }
+
+    // keeps the first lines of a file, as a crash part way through writing it in place would
+    private static void truncateAfterLine(Path file, int lines) throws Exception {
+        byte[] bytes = Files.readAllBytes(file);
+        int end = 0;
+        for (int seen = 0; seen < lines; end++) {
+            if (bytes[end] == '\n') {
+                seen++;
+            }
+        }
+        Files.write(file, Arrays.copyOf(bytes, end));
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 3; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        }
+        return fbs;
+    }
+}
@@ -0,0 +1,110 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryCustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.BinaryFlightDataManager;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.DataFormatConverter;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.IdSequenceDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+class DataFormatConverterTest {
+
+    private static final String[] TEXT_FILES = { "flights.txt", "customers.txt", "bookings.txt" };
+
+    private Path dir;
+    private Path expected;
+
+    @BeforeEach
+    public void writeData() throws Exception {
+        dir = Files.createTempDirectory("convert");
+        expected = Files.createTempDirectory("expected");
+        FlightBookingSystem live = new FlightBookingSystem();
+        live.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        live.addCustomer(new Customer(1, "Customer 1", "984000001", "customer1@gmail.com", false));
+        live.addCustomer(new Customer(2, "Customer 2", "984000002", "customer2@gmail.com", false));
+        live.addBooking(new Booking(1, live.getCustomerByID(1), live.getFlightByID(1), LocalDate.now(), false,
+                FlightClass.ECONOMY_CLASS));
+        store(live, dir);
+        new IdSequenceDataManager(dir.resolve("sequences.txt").toString()).storeData(live);
+
+        // a booking made after the data files were stored is only in the journal
+        Booking journaled = new Booking(500, live.getCustomerByID(2), live.getFlightByID(1), LocalDate.now(), false,
+                FlightClass.FIRST_CLASS);
+        live.addBooking(journaled);
+        JournalDataManager journal = new JournalDataManager(dir.resolve("journal.log"));
+        journal.append(JournalEntry.addBooking(journaled));
+        journal.close();
+        store(live, expected);
+    }
+
+    @AfterEach
+    public void deleteData() throws Exception {
+        for (Path directory : new Path[] { dir, expected }) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+	@Test
+    public void testTextToBinaryToTextKeepsEveryRecord() throws Exception {
+        DataFormatConverter.convert(dir, "binary");
+
+        assertEquals(0, Files.size(dir.resolve("journal.log")));
+        FlightBookingSystem binary = new FlightBookingSystem();
+        new BinaryFlightDataManager(dir.resolve("flights.bin").toString()).loadData(binary);
+        new BinaryCustomerDataManager(dir.resolve("customers.bin").toString()).loadData(binary);
+        new BinaryBookingDataManager(dir.resolve("bookings.bin").toString()).loadData(binary);
+        assertEquals(2, binary.getBookings().size());
+        assertEquals(FlightClass.FIRST_CLASS, binary.findBooking(500).getFlightClass());
+
+        for (String file : TEXT_FILES) {
+            Files.delete(dir.resolve(file));
+        }
+        DataFormatConverter.convert(dir, "text");
+
+        for (String file : TEXT_FILES) {
+            assertArrayEquals(Files.readAllBytes(expected.resolve(file)), Files.readAllBytes(dir.resolve(file)), file);
+        }
+    }
+
+    @Test
+    public void testSequencesCoverTheReplayedJournal() throws Exception {
+        DataFormatConverter.convert(dir, "binary");
+
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new IdSequenceDataManager(dir.resolve("sequences.txt").toString()).loadData(fbs);
+        assertTrue(fbs.getIdSequences().get(EntitySet.BOOKINGS).getLast() >= 500);
+        assertTrue(fbs.getNewBookingId() > 500);
+    }
+
+    private static void store(FlightBookingSystem fbs, Path target) throws Exception {
+        new FlightDataManager(target.resolve("flights.txt").toString()).storeData(fbs);
+        new CustomerDataManager(target.resolve("customers.txt").toString()).storeData(fbs);
+        new BookingDataManager(target.resolve("bookings.txt").toString()).storeData(fbs);
+    }
+}
@@ -0,0 +1,71 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+class DirtyTrackingTest {
+
+	@Test
+    public void testBookingOnlyDirtiesTheBookings() throws Exception {
+        FlightBookingSystem fbs = storedSystem();
+
+        fbs.addBooking(new Booking(1, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.now(), false,
+                FlightClass.ECONOMY_CLASS));
+
+        assertTrue(fbs.hasUnstoredChanges(EntitySet.BOOKINGS));
+        assertFalse(fbs.hasUnstoredChanges(EntitySet.FLIGHTS));
+        assertFalse(fbs.hasUnstoredChanges(EntitySet.CUSTOMERS));
+    }
+
+    @Test
+    public void testAddingACustomerLeavesFlightsAndBookingsClean() throws Exception {
+        FlightBookingSystem fbs = storedSystem();
+
+        fbs.addCustomer(new Customer(fbs.getNewCustomerId(), "Customer 2", "984000002", "customer2@gmail.com", false));
+
+        assertTrue(fbs.hasUnstoredChanges(EntitySet.CUSTOMERS));
+        assertFalse(fbs.hasUnstoredChanges(EntitySet.FLIGHTS));
+        assertFalse(fbs.hasUnstoredChanges(EntitySet.BOOKINGS));
+    }
+
+    @Test
+    public void testChangesAfterTheStoredVersionStayUnstored() throws Exception {
+        FlightBookingSystem fbs = storedSystem();
+        Booking booking = new Booking(1, fbs.getCustomerByID(1), fbs.getFlightByID(1), LocalDate.now(), false,
+                FlightClass.ECONOMY_CLASS);
+        fbs.addBooking(booking);
+        long stored = fbs.getVersion(EntitySet.BOOKINGS);
+
+        // the booking is canceled while the bookings file is being written
+        fbs.cancelBooking(booking, 0);
+        fbs.markStored(EntitySet.BOOKINGS, stored);
+        assertTrue(fbs.hasUnstoredChanges(EntitySet.BOOKINGS));
+
+        // an older store finishing late does not hide the newer one
+        fbs.markStored(EntitySet.BOOKINGS, fbs.getVersion(EntitySet.BOOKINGS));
+        fbs.markStored(EntitySet.BOOKINGS, stored);
+        assertFalse(fbs.hasUnstoredChanges(EntitySet.BOOKINGS));
+    }
+
+    // a system as it is right after loading or storing, with nothing left to write
+    private static FlightBookingSystem storedSystem() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        fbs.addCustomer(new Customer(1, "Customer 1", "984000001", "customer1@gmail.com", false));
+        for (EntitySet set : EntitySet.values()) {
+            fbs.markStored(set, fbs.getVersion(set));
+            assertFalse(fbs.hasUnstoredChanges(set));
+        }
+        return fbs;
+    }
+}
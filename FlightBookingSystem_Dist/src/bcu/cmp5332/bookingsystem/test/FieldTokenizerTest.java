@@ -0,0 +1,61 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FieldTokenizer;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+
+class FieldTokenizerTest {
+
+	@Test
+    public void testParsesTypedFields() {
+        FieldTokenizer fields = new FieldTokenizer().reset("12::KPL1234::2024-06-23::BUSINESS_CLASS::TRUE::15000.5");
+
+        assertEquals(6, fields.countFields());
+        assertEquals(12, fields.nextInt());
+        assertEquals("KPL1234", fields.nextString());
+        assertEquals(LocalDate.of(2024, 6, 23), fields.nextDate());
+        assertEquals(FlightClass.BUSINESS_CLASS, fields.nextEnum(FlightClass.values()));
+        assertTrue(fields.nextBoolean());
+        assertEquals(15000.5, fields.nextDouble());
+        assertFalse(fields.hasNext());
+    }
+
+    @Test
+    public void testTrailingSeparator() {
+        FieldTokenizer fields = new FieldTokenizer().reset("1::Solomon::false::");
+
+        assertEquals(1, fields.nextInt());
+        assertEquals("Solomon", fields.nextString());
+        assertFalse(fields.nextBoolean());
+        assertFalse(fields.hasNext());
+    }
+
+    @Test
+    public void testReadsRecordsFromReader() throws IOException {
+        FieldTokenizer fields = new FieldTokenizer(new StringReader("1::a\r\n\n2::b\n3::c"));
+
+        assertTrue(fields.nextRecord());
+        assertEquals(1, fields.nextInt());
+        assertEquals("a", fields.nextString());
+        assertTrue(fields.nextRecord());
+        assertEquals(2, fields.nextInt());
+        assertTrue(fields.nextRecord());
+        assertEquals(3, fields.nextInt());
+        assertEquals("c", fields.nextString());
+        assertFalse(fields.nextRecord());
+    }
+
+    @Test
+    public void testRejectsInvalidNumbers() {
+        assertThrows(NumberFormatException.class, () -> new FieldTokenizer().reset("12a").nextInt());
+        assertThrows(NumberFormatException.class, () -> new FieldTokenizer().reset("99999999999").nextInt());
+        assertThrows(IllegalArgumentException.class, () -> new FieldTokenizer().reset("COACH").nextEnum(FlightClass.values()));
+    }
+}
@@ -0,0 +1,167 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class FlightSearchTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(30);
+
+	@Test
+    public void testNumberAndDateMustBeUnique() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight flight = new Flight(1, "KPL1", "KTM", "PEK", DAY, 10, false, 1000);
+        fbs.addFlight(flight);
+        fbs.addFlight(new Flight(2, "KPL1", "KTM", "PEK", DAY.plusDays(1), 10, false, 1000));
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> fbs.addFlight(new Flight(3, "KPL1", "KTM", "PEK", DAY, 10, false, 1000)));
+        assertSame(flight, fbs.getFlightByNumberAndDate("KPL1", DAY));
+        assertNull(fbs.getFlightByNumberAndDate("KPL1", DAY.plusDays(2)));
+        assertNull(fbs.getFlightByNumberAndDate("KPL2", DAY));
+    }
+
+    @Test
+    public void testDeletedAndMovedFlightsFreeTheirDate() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight deleted = new Flight(1, "KPL1", "KTM", "PEK", DAY, 10, false, 1000);
+        Flight moved = new Flight(2, "KPL2", "KTM", "PEK", DAY, 10, false, 1000);
+        fbs.addFlight(deleted);
+        fbs.addFlight(moved);
+
+        fbs.deleteFlight(deleted);
+        assertNull(fbs.getFlightByNumberAndDate("KPL1", DAY));
+        Flight replacement = new Flight(3, "KPL1", "KTM", "PEK", DAY, 10, false, 1000);
+        fbs.addFlight(replacement);
+        assertSame(replacement, fbs.getFlightByNumberAndDate("KPL1", DAY));
+
+        fbs.changeDepartureDate(moved, DAY.plusDays(1));
+        assertNull(fbs.getFlightByNumberAndDate("KPL2", DAY));
+        assertSame(moved, fbs.getFlightByNumberAndDate("KPL2", DAY.plusDays(1)));
+        Flight other = new Flight(4, "KPL2", "KTM", "PEK", DAY, 10, false, 1000);
+        fbs.addFlight(other);
+        assertThrows(FlightBookingSystemException.class, () -> fbs.changeDepartureDate(other, DAY.plusDays(1)));
+        assertSame(other, fbs.getFlightByNumberAndDate("KPL2", DAY));
+    }
+
+    @Test
+    public void testLoadedDeletedFlightDoesNotClaimItsDate() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "KTM", "PEK", DAY, 10, true, 1000));
+        fbs.addFlight(new Flight(2, "KPL1", "KTM", "PEK", DAY, 10, false, 1000));
+
+        assertEquals(2, fbs.getFlightByNumberAndDate("KPL1", DAY).getId());
+    }
+
+    @Test
+    public void testRouteSearchIsBoundedAndOrdered() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        // added out of date order, with flights on the reverse route and from another origin
+        fbs.addFlight(new Flight(1, "KPL1", "KTM", "PEK", DAY.plusDays(2), 10, false, 1000));
+        fbs.addFlight(new Flight(2, "KPL2", "KTM", "PEK", DAY, 10, false, 1000));
+        fbs.addFlight(new Flight(3, "KPL3", "KTM", "PEK", DAY.plusDays(4), 10, false, 1000));
+        fbs.addFlight(new Flight(4, "KPL4", "PEK", "KTM", DAY.plusDays(1), 10, false, 1000));
+        fbs.addFlight(new Flight(5, "KPL5", "DEL", "PEK", DAY.plusDays(1), 10, false, 1000));
+        fbs.addFlight(new Flight(6, "KPL6", "KTM", "PEK", DAY.plusDays(2), 10, false, 1000));
+
+        assertEquals(ids(2, 1, 6, 3), ids(fbs.searchFlights("KTM", "PEK", null, null)));
+        // both bounds are inclusive
+        assertEquals(ids(2, 1, 6), ids(fbs.searchFlights("KTM", "PEK", DAY, DAY.plusDays(2))));
+        assertEquals(ids(1, 6, 3), ids(fbs.searchFlights("KTM", "PEK", DAY.plusDays(1), null)));
+        assertEquals(ids(2), ids(fbs.searchFlights("KTM", "PEK", null, DAY.plusDays(1))));
+        assertEquals(ids(), ids(fbs.searchFlights("KTM", "PEK", DAY.plusDays(5), null)));
+        assertEquals(ids(4), ids(fbs.searchFlights(" pek", "ktm ", null, null)));
+        assertEquals(ids(), ids(fbs.searchFlights("KTM", "DEL", null, null)));
+    }
+
+    @Test
+    public void testRouteSearchFollowsDeletesAndMoves() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight deleted = new Flight(1, "KPL1", "KTM", "PEK", DAY, 10, false, 1000);
+        Flight moved = new Flight(2, "KPL2", "KTM", "PEK", DAY.plusDays(1), 10, false, 1000);
+        fbs.addFlight(deleted);
+        fbs.addFlight(moved);
+        fbs.addFlight(new Flight(3, "KPL3", "KTM", "PEK", DAY.plusDays(2), 10, false, 1000));
+
+        fbs.deleteFlight(deleted);
+        fbs.changeDepartureDate(moved, DAY.plusDays(3));
+
+        assertEquals(ids(3, 2), ids(fbs.searchFlights("KTM", "PEK", null, null)));
+        assertEquals(ids(), ids(fbs.searchFlights("KTM", "PEK", DAY, DAY.plusDays(1))));
+        assertThrows(UnsupportedOperationException.class,
+                () -> fbs.searchFlights("KTM", "PEK", null, null).clear());
+    }
+
+    @Test
+    public void testDepartureSearchBounds() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        LocalDate today = LocalDate.now();
+        fbs.addFlight(new Flight(1, "KPL1", "KTM", "PEK", today.plusDays(2), 10, false, 1000));
+        fbs.addFlight(new Flight(2, "KPL2", "DEL", "PEK", today, 10, false, 1000));
+        fbs.addFlight(new Flight(3, "KPL3", "KTM", "DEL", today.minusDays(1), 10, false, 1000));
+        fbs.addFlight(new Flight(4, "KPL4", "PEK", "KTM", today.plusDays(1), 10, false, 1000));
+        fbs.addFlight(new Flight(5, "KPL5", "PEK", "KTM", today.plusDays(3), 10, true, 1000));
+
+        assertEquals(ids(3, 2, 4, 1), ids(fbs.getFlightsDepartingBetween(null, null)));
+        assertEquals(ids(2, 4, 1), ids(fbs.getFlightsDepartingBetween(today, today.plusDays(2))));
+        assertEquals(ids(3, 2), ids(fbs.getFlightsDepartingBetween(null, today)));
+        assertEquals(ids(1), ids(fbs.getFlightsDepartingBetween(today.plusDays(2), null)));
+        assertEquals(ids(), ids(fbs.getFlightsDepartingBetween(today.plusDays(2), today)));
+        // flights departing today have already left
+        assertEquals(ids(4, 1), ids(fbs.getUpcomingFlights()));
+    }
+
+    @Test
+    public void testDepartureStreamSurvivesScheduleChanges() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 5; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "KTM", "PEK", DAY.plusDays(id), 10, false, 1000));
+        }
+        Stream<Flight> departures = fbs.getFlightsDepartingBetween(DAY, DAY.plusDays(30));
+        fbs.deleteFlight(fbs.getFlightByID(1));
+
+        // the schedule changes while the stream is being read
+        List<Flight> read = departures.peek(flight -> {
+            try {
+                int id = flight.getId() + 10;
+                fbs.addFlight(new Flight(id, "KPL" + id, "KTM", "PEK", DAY.plusDays(id), 10, false, 1000));
+            } catch (FlightBookingSystemException ex) {
+                fail(ex);
+            }
+        }).collect(Collectors.toList());
+
+        assertEquals(ids(1, 2, 3, 4, 5), ids(read));
+        assertEquals(9, fbs.getFlightsDepartingBetween(DAY, DAY.plusDays(30)).count());
+    }
+
+    private static List<Integer> ids(Stream<Flight> flights) {
+        return ids(flights.collect(Collectors.toList()));
+    }
+
+    private static List<Integer> ids(List<Flight> flights) {
+        List<Integer> ids = new ArrayList<>();
+        for (Flight flight : flights) {
+            ids.add(flight.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(int... values) {
+        List<Integer> ids = new ArrayList<>();
+        for (int value : values) {
+            ids.add(value);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,88 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.model.IdBlockAllocator;
+import bcu.cmp5332.bookingsystem.model.IdSequence;
+
+class IdBlockAllocatorTest {
+
+    private static final int BLOCK = 64;
+
+	@Test
+    public void testThreadsShareBlocks() throws Exception {
+        IdSequence sequence = new IdSequence();
+        AtomicInteger reserved = new AtomicInteger();
+        IdBlockAllocator allocator = new IdBlockAllocator(sequence, BLOCK, reserved::incrementAndGet);
+
+        int ids = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ids; i++) {
+                futures.add(executor.submit(allocator::next));
+            }
+            BitSet seen = new BitSet();
+            for (Future<Integer> future : futures) {
+                int id = future.get();
+                assertFalse(seen.get(id), "ID " + id + " handed out twice");
+                seen.set(id);
+            }
+            assertEquals(ids, seen.cardinality());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals((ids + BLOCK - 1) / BLOCK, reserved.get());
+        assertEquals(reserved.get() * BLOCK, sequence.getLast());
+    }
+
+    @Test
+    public void testFreshThreadsContinueTheBlock() throws Exception {
+        IdSequence sequence = new IdSequence();
+        AtomicInteger reserved = new AtomicInteger();
+        IdBlockAllocator allocator = new IdBlockAllocator(sequence, BLOCK, reserved::incrementAndGet);
+
+        // a new thread for each ID, as a thread per request would use
+        for (int expected = 1; expected <= BLOCK + 1; expected++) {
+            AtomicInteger id = new AtomicInteger();
+            Thread thread = new Thread(() -> {
+                try {
+                    id.set(allocator.next());
+                } catch (Exception ex) {
+                    id.set(-1);
+                }
+            });
+            thread.start();
+            thread.join();
+            assertEquals(expected, id.get());
+        }
+        assertEquals(2, reserved.get());
+    }
+
+    @Test
+    public void testFailedReserveIsRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        IdBlockAllocator allocator = new IdBlockAllocator(new IdSequence(), count -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IOException("counter file locked");
+            }
+            return 100;
+        }, BLOCK, () -> { });
+
+        assertThrows(IOException.class, allocator::next);
+        assertEquals(100, allocator.next());
+        assertEquals(101, allocator.next());
+    }
+}
@@ -0,0 +1,97 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.IdSequenceDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+
+class IdSequenceTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void createDirectory() throws Exception {
+        dir = Files.createTempDirectory("sequences");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws Exception {
+        for (String file : new String[] { "sequences.txt", "flights.txt", "customers.txt" }) {
+            Files.deleteIfExists(dir.resolve(file));
+        }
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testIdsOfDeletedEntitiesAreNotReusedAfterALoad() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight flight = new Flight(fbs.getNewFlightId(), "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10,
+                false, 1000);
+        fbs.addFlight(flight);
+        Customer customer = new Customer(fbs.getNewCustomerId(), "Customer 1", "984000001", "customer1@gmail.com", false);
+        fbs.addCustomer(customer);
+        fbs.getNewCustomerId();
+        // the snapshot files hold active entities only, so the highest IDs are gone from them
+        fbs.deleteFlight(flight);
+        fbs.deleteCustomer(customer);
+        assertTrue(fbs.hasUnstoredChanges(EntitySet.ID_SEQUENCES));
+        store(fbs);
+
+        FlightBookingSystem loaded = load();
+        assertTrue(loaded.getFlights().isEmpty());
+        assertEquals(2, loaded.getNewFlightId());
+        assertEquals(3, loaded.getNewCustomerId());
+    }
+
+    @Test
+    public void testLoadedEntitiesAdvanceAnOlderSequence() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        store(fbs);
+        // entities added after the sequences were stored, as a journal replay would add them
+        fbs.addFlight(new Flight(40, "KPL40", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        fbs.addCustomer(new Customer(9, "Customer 9", "984000009", "customer9@gmail.com", false));
+        new FlightDataManager(dir.resolve("flights.txt").toString()).storeData(fbs);
+        new CustomerDataManager(dir.resolve("customers.txt").toString()).storeData(fbs);
+
+        FlightBookingSystem loaded = load();
+        assertEquals(41, loaded.getNewFlightId());
+        assertEquals(10, loaded.getNewCustomerId());
+    }
+
+    @Test
+    public void testCorruptSequencesFailToLoad() throws Exception {
+        Files.write(dir.resolve("sequences.txt"), "FLIGHTS::many::\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new IdSequenceDataManager(dir.resolve("sequences.txt").toString()).loadData(new FlightBookingSystem()));
+    }
+
+    private void store(FlightBookingSystem fbs) throws Exception {
+        new IdSequenceDataManager(dir.resolve("sequences.txt").toString()).storeData(fbs);
+    }
+
+    private FlightBookingSystem load() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        if (Files.exists(dir.resolve("flights.txt"))) {
+            new FlightDataManager(dir.resolve("flights.txt").toString()).loadData(fbs);
+            new CustomerDataManager(dir.resolve("customers.txt").toString()).loadData(fbs);
+        }
+        new IdSequenceDataManager(dir.resolve("sequences.txt").toString()).loadData(fbs);
+        return fbs;
+    }
+}
@@ -0,0 +1,123 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.JournalDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class JournalReplayTest {
+
+    private static final LocalDate BOOKED = LocalDate.now();
+
+    private Path dir;
+    private JournalDataManager journal;
+    private Booking first;
+    private Booking second;
+
+    @BeforeEach
+    public void writeJournal() throws Exception {
+        dir = Files.createTempDirectory("journal");
+        journal = new JournalDataManager(dir.resolve("journal.log"));
+
+        // book, cancel, then book the same customer on the same flight again and change the class
+        FlightBookingSystem live = system();
+        List<JournalEntry> entries = new ArrayList<>();
+        first = new Booking(live.getCustomerByID(1), live.getFlightByID(1), BOOKED, false, FlightClass.ECONOMY_CLASS);
+        live.addBooking(first);
+        entries.add(JournalEntry.addBooking(first));
+        live.cancelBooking(first, 25.0);
+        entries.add(JournalEntry.cancelBooking(first));
+        second = new Booking(live.getCustomerByID(1), live.getFlightByID(1), BOOKED, false, FlightClass.ECONOMY_CLASS);
+        live.addBooking(second);
+        entries.add(JournalEntry.addBooking(second));
+        live.updateBooking(second, BOOKED.plusDays(1), FlightClass.FIRST_CLASS);
+        entries.add(JournalEntry.updateBooking(second));
+        journal.append(entries);
+    }
+
+    @AfterEach
+    public void deleteJournal() throws Exception {
+        journal.close();
+        Files.deleteIfExists(dir.resolve("journal.log"));
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testReplaysCancelAndRebookOntoAnEmptySnapshot() throws Exception {
+        FlightBookingSystem fbs = system();
+        journal.loadData(fbs);
+
+        assertReplayed(fbs);
+        assertEquals(25.0, fbs.findBooking(first.getBookingId()).getCancellationFee());
+    }
+
+    @Test
+    public void testSkipsRecordsTheSnapshotAlreadyHolds() throws Exception {
+        // the snapshot was taken after the last record, but the journal was not truncated
+        FlightBookingSystem fbs = system();
+        fbs.addBooking(new Booking(first.getBookingId(), fbs.getCustomerByID(1), fbs.getFlightByID(1),
+                BOOKED, true, FlightClass.ECONOMY_CLASS));
+        fbs.addBooking(new Booking(second.getBookingId(), fbs.getCustomerByID(1), fbs.getFlightByID(1),
+                BOOKED.plusDays(1), false, FlightClass.FIRST_CLASS));
+        journal.loadData(fbs);
+
+        assertReplayed(fbs);
+    }
+
+    @Test
+    public void testReplaysOntoASnapshotHoldingOnlyTheRebooking() throws Exception {
+        FlightBookingSystem fbs = system();
+        fbs.addBooking(new Booking(second.getBookingId(), fbs.getCustomerByID(1), fbs.getFlightByID(1),
+                BOOKED, false, FlightClass.ECONOMY_CLASS));
+        journal.loadData(fbs);
+
+        // the replayed cancellation applies to the first booking, not to the live rebooking
+        assertReplayed(fbs);
+    }
+
+    @Test
+    public void testReplayingTwiceChangesNothing() throws Exception {
+        FlightBookingSystem fbs = system();
+        journal.loadData(fbs);
+        journal.loadData(fbs);
+
+        assertReplayed(fbs);
+    }
+
+    private void assertReplayed(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        Flight flight = fbs.getFlightByID(1);
+        assertTrue(fbs.findBooking(first.getBookingId()).isDeleted());
+        Booking rebooked = fbs.getActiveBooking(1, 1);
+        assertNotNull(rebooked);
+        assertEquals(second.getBookingId(), rebooked.getBookingId());
+        assertEquals(FlightClass.FIRST_CLASS, rebooked.getFlightClass());
+        assertEquals(BOOKED.plusDays(1), rebooked.getBookingDate());
+        assertEquals(1, fbs.getBookings().size());
+        assertEquals(1, flight.getBookedSeats());
+        assertEquals(1, flight.getSeats().getReserved(FlightClass.FIRST_CLASS));
+        assertEquals(1, flight.getPassengers().size());
+    }
+
+    private static FlightBookingSystem system() throws FlightBookingSystemException {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        fbs.addCustomer(new Customer(1, "Customer 1", "984000001", "customer1@gmail.com", false));
+        return fbs;
+    }
+}
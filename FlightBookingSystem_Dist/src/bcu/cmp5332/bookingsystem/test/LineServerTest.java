@@ -0,0 +1,123 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.server.LineServer;
+
+class LineServerTest {
+
+    private FlightBookingSystem fbs;
+    private LineServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        // nothing is written to the data files
+        FlightBookingSystemData.setDeferred(true);
+        fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 3; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+        server = new LineServer(fbs, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(1);
+        FlightBookingSystemData.setDeferred(false);
+    }
+
+	@Test
+    public void testLinesSentBeforeShutdownAreAnswered() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            // the last line has no line break
+            socket.getOutputStream().write(("addbooking 1 1\r\naddbooking 2 1\n\naddbooking 3 2")
+                    .getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+
+            String answers = readToEnd(socket);
+            // the greeting, two answers, the empty line and the last answer
+            assertEquals(5, count(answers, "> "));
+            assertEquals(3, count(answers, " added."));
+        }
+        assertEquals(3, fbs.getBookings().size());
+        assertEquals(2, fbs.getFlightByID(1).getBookedSeats());
+    }
+
+    @Test
+    public void testErrorsAreAnsweredInOrder() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write(("showflight 9\nnosuchcommand\naddbooking 1 3\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+
+            String answers = readToEnd(socket);
+            assertEquals(4, count(answers, "> "));
+            assertTrue(answers.indexOf("no active flight") < answers.indexOf(" added."));
+        }
+        assertEquals(1, fbs.getFlightByID(3).getBookedSeats());
+    }
+
+    @Test
+    public void testExitClosesAfterEarlierAnswers() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write(("addbooking 1 1\nexit\naddbooking 2 1\n").getBytes(StandardCharsets.UTF_8));
+
+            // the connection is closed without the client shutting down its side
+            String answers = readToEnd(socket);
+            assertEquals(1, count(answers, " added."));
+        }
+        assertEquals(1, fbs.getBookings().size());
+    }
+
+    @Test
+    public void testStopClosesConnections() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write("addbooking 1 1\n".getBytes(StandardCharsets.UTF_8));
+            server.stop(1);
+
+            // the connection ends, with a reset if the server closed it with input unread
+            try {
+                readToEnd(socket);
+            } catch (SocketException ex) {
+                assertTrue(ex.getMessage().contains("reset"));
+            }
+        }
+    }
+
+    // reads until the server closes the connection
+    private static String readToEnd(Socket socket) throws Exception {
+        socket.setSoTimeout(10000);
+        ByteArrayOutputStream answers = new ByteArrayOutputStream();
+        InputStream in = socket.getInputStream();
+        byte[] buffer = new byte[1024];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            answers.write(buffer, 0, read);
+        }
+        return new String(answers.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int at = text.indexOf(part); at >= 0; at = text.indexOf(part, at + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,137 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BinaryBookingDataManager;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.DataManager;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class MappedReadTest {
+
+    private static final LocalDate BOOKED = LocalDate.parse("2024-06-20");
+
+    private Path dir;
+
+    @BeforeEach
+    public void createDirectory() throws Exception {
+        dir = Files.createTempDirectory("mapped");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws Exception {
+        Files.deleteIfExists(dir.resolve("bookings.txt"));
+        Files.deleteIfExists(dir.resolve("bookings.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testMappedReadMatchesStreamReadWithCrlf() throws Exception {
+        // a file edited on Windows, without a checksum trailer and without a booking ID on one record
+        String bookings = "1::1::2024-06-20::ECONOMY_CLASS::false::7::\r\n"
+                + "2::2::2024-06-21::FIRST_CLASS::false::8::\r\n"
+                + "3::1::2024-06-22::BUSINESS_CLASS::false::\r\n";
+        Path file = dir.resolve("bookings.txt");
+        Files.write(file, bookings.getBytes(StandardCharsets.UTF_8));
+
+        List<String> streamed = load(new BookingDataManager(file.toString()));
+        List<String> mapped = load(mapped(() -> new BookingDataManager(file.toString())));
+
+        assertEquals(3, streamed.size());
+        assertEquals("7 1 1 2024-06-20 ECONOMY_CLASS", streamed.get(0));
+        assertEquals("8 2 2 2024-06-21 FIRST_CLASS", streamed.get(1));
+        assertEquals(streamed, mapped);
+    }
+
+    @Test
+    public void testMappedReadMatchesStreamReadOfAStoredFile() throws Exception {
+        Path file = dir.resolve("bookings.txt");
+        new BookingDataManager(file.toString()).storeData(system());
+
+        List<String> streamed = load(new BookingDataManager(file.toString()));
+        assertEquals(expected(), streamed);
+        assertEquals(streamed, load(mapped(() -> new BookingDataManager(file.toString()))));
+    }
+
+    @Test
+    public void testBinaryRoundTripThroughBothReadPaths() throws Exception {
+        Path file = dir.resolve("bookings.bin");
+        new BinaryBookingDataManager(file.toString()).storeData(system());
+
+        assertEquals(expected(), load(new BinaryBookingDataManager(file.toString())));
+        assertEquals(expected(), load(mapped(() -> new BinaryBookingDataManager(file.toString()))));
+    }
+
+    private static List<String> load(DataManager bookings) throws Exception {
+        FlightBookingSystem fbs = customersAndFlights();
+        bookings.loadData(fbs);
+        List<String> loaded = new ArrayList<>();
+        for (Booking booking : fbs.getBookings()) {
+            loaded.add(booking.getBookingId() + " " + booking.getCustomer().getId() + " " + booking.getFlight().getId()
+                    + " " + booking.getBookingDate() + " " + booking.getFlightClass());
+        }
+        return loaded;
+    }
+
+    private static List<String> expected() {
+        List<String> expected = new ArrayList<>();
+        expected.add("7 1 1 2024-06-20 ECONOMY_CLASS");
+        expected.add("8 2 2 2024-06-21 FIRST_CLASS");
+        expected.add("9 3 1 2024-06-22 BUSINESS_CLASS");
+        return expected;
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = customersAndFlights();
+        fbs.addBooking(new Booking(7, fbs.getCustomerByID(1), fbs.getFlightByID(1), BOOKED, false, FlightClass.ECONOMY_CLASS));
+        fbs.addBooking(new Booking(8, fbs.getCustomerByID(2), fbs.getFlightByID(2), BOOKED.plusDays(1), false,
+                FlightClass.FIRST_CLASS));
+        fbs.addBooking(new Booking(9, fbs.getCustomerByID(3), fbs.getFlightByID(1), BOOKED.plusDays(2), false,
+                FlightClass.BUSINESS_CLASS));
+        return fbs;
+    }
+
+    private static FlightBookingSystem customersAndFlights() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 2; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+        }
+        for (int id = 1; id <= 3; id++) {
+            fbs.addCustomer(new Customer(id, "Customer " + id, "98400000" + id, "customer" + id + "@gmail.com", false));
+        }
+        return fbs;
+    }
+
+    // the read path is chosen when a manager is constructed
+    private static <T> T mapped(ManagerFactory<T> factory) throws Exception {
+        String previous = System.setProperty(BookingDataManager.READ_PROPERTY, BookingDataManager.MAPPED_READ);
+        try {
+            return factory.create();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(BookingDataManager.READ_PROPERTY);
+            } else {
+                System.setProperty(BookingDataManager.READ_PROPERTY, previous);
+            }
+        }
+    }
+
+    private interface ManagerFactory<T> {
+        T create() throws Exception;
+    }
+}
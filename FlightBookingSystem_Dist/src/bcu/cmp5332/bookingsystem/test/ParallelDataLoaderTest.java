@@ -0,0 +1,101 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.ParallelDataLoader;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class ParallelDataLoaderTest {
+
+    private static final String[] FILES = { "flights.txt", "customers.txt", "bookings.txt" };
+
+    private Path dir;
+
+    @BeforeEach
+    public void writeData() throws Exception {
+        dir = Files.createTempDirectory("data");
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 40; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(id), 500, false, 100 + id));
+        }
+        for (int id = 1; id <= 300; id++) {
+            fbs.addCustomer(new Customer(id, "Customer " + id, "9840" + id, "customer" + id + "@gmail.com", false));
+        }
+        // enough bookings for the parallel loader to parse them in several chunks
+        FlightClass[] classes = FlightClass.values();
+        for (int customer = 1; customer <= 300; customer++) {
+            for (int flight = 1; flight <= 40; flight++) {
+                fbs.addBooking(new Booking(fbs.getCustomerByID(customer), fbs.getFlightByID(flight),
+                        LocalDate.now(), false, classes[(customer + flight) % classes.length]));
+            }
+        }
+        store(fbs, dir.resolve("stored"));
+    }
+
+    @AfterEach
+    public void deleteData() throws Exception {
+        for (String set : new String[] { "stored", "sequential", "parallel" }) {
+            for (String file : FILES) {
+                Files.deleteIfExists(dir.resolve(set).resolve(file));
+            }
+            Files.deleteIfExists(dir.resolve(set));
+        }
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testParallelLoadEqualsSequentialLoad() throws Exception {
+        Path stored = dir.resolve("stored");
+        FlightBookingSystem sequential = new FlightBookingSystem();
+        new FlightDataManager(stored.resolve("flights.txt").toString()).loadData(sequential);
+        new CustomerDataManager(stored.resolve("customers.txt").toString()).loadData(sequential);
+        new BookingDataManager(stored.resolve("bookings.txt").toString()).loadData(sequential);
+
+        FlightBookingSystem parallel = new FlightBookingSystem();
+        new ParallelDataLoader(new FlightDataManager(stored.resolve("flights.txt").toString()),
+                new CustomerDataManager(stored.resolve("customers.txt").toString()),
+                new BookingDataManager(stored.resolve("bookings.txt").toString())).load(parallel);
+
+        assertEquals(12000, parallel.getBookings().size());
+        assertEquals(sequential.getFlights().size(), parallel.getFlights().size());
+        assertEquals(sequential.getCustomers().size(), parallel.getCustomers().size());
+        for (Flight flight : sequential.getFlights()) {
+            Flight other = parallel.getFlightByID(flight.getId());
+            assertEquals(flight.getBookedSeats(), other.getBookedSeats());
+            for (FlightClass flightClass : FlightClass.values()) {
+                assertEquals(flight.getSeats().getReserved(flightClass), other.getSeats().getReserved(flightClass));
+            }
+        }
+
+        store(sequential, dir.resolve("sequential"));
+        store(parallel, dir.resolve("parallel"));
+        for (String file : FILES) {
+            assertArrayEquals(Files.readAllBytes(dir.resolve("stored").resolve(file)),
+                    Files.readAllBytes(dir.resolve("sequential").resolve(file)), file);
+            assertArrayEquals(Files.readAllBytes(dir.resolve("sequential").resolve(file)),
+                    Files.readAllBytes(dir.resolve("parallel").resolve(file)), file);
+        }
+    }
+
+    private static void store(FlightBookingSystem fbs, Path target) throws Exception {
+        Files.createDirectories(target);
+        new FlightDataManager(target.resolve("flights.txt").toString()).storeData(fbs);
+        new CustomerDataManager(target.resolve("customers.txt").toString()).storeData(fbs);
+        new BookingDataManager(target.resolve("bookings.txt").toString()).storeData(fbs);
+    }
+}
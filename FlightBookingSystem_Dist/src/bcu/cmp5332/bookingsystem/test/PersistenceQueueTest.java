@@ -0,0 +1,104 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.JournalDataManager;
+import bcu.cmp5332.bookingsystem.data.JournalEntry;
+import bcu.cmp5332.bookingsystem.data.PersistenceQueue;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+
+class PersistenceQueueTest {
+
+    private static final int THREADS = 8;
+    private static final int COMMITS_PER_THREAD = 50;
+
+    private Path dir;
+    private JournalDataManager journal;
+
+    @BeforeEach
+    public void createJournal() throws Exception {
+        dir = Files.createTempDirectory("queue");
+        journal = new JournalDataManager(dir.resolve("journal.log"));
+    }
+
+    @AfterEach
+    public void deleteJournal() throws Exception {
+        journal.close();
+        Files.deleteIfExists(dir.resolve("journal.log"));
+        Files.deleteIfExists(dir);
+    }
+
+	@Test
+    public void testGroupCommitResolvesEveryFuture() throws Exception {
+        PersistenceQueue queue = new PersistenceQueue(journal, 2);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t * COMMITS_PER_THREAD;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < first + COMMITS_PER_THREAD; i++) {
+                    CompletableFuture<Void> done = queue.submit(JournalEntry.addBooking(booking(i + 1)));
+                    synchronized (futures) {
+                        futures.add(done);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (CompletableFuture<Void> done : futures) {
+            done.get(10, TimeUnit.SECONDS);
+        }
+        int commits = THREADS * COMMITS_PER_THREAD;
+        assertEquals(commits, futures.size());
+        assertEquals(commits, queue.getCommitCount());
+        assertTrue(queue.getFlushCount() >= 1 && queue.getFlushCount() <= commits);
+        List<String> records = Files.readAllLines(dir.resolve("journal.log"), StandardCharsets.UTF_8);
+        assertEquals(commits, records.size());
+    }
+
+    @Test
+    public void testFailedFlushFailsEveryFutureOfTheGroup() throws Exception {
+        // the journal cannot be created inside a missing directory
+        JournalDataManager missing = new JournalDataManager(dir.resolve("missing").resolve("journal.log"));
+        PersistenceQueue queue = new PersistenceQueue(missing, 0);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            futures.add(queue.submit(JournalEntry.addBooking(booking(i))));
+        }
+
+        for (CompletableFuture<Void> done : futures) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> done.get(10, TimeUnit.SECONDS));
+            assertNotNull(ex.getCause());
+        }
+        assertEquals(0, queue.getCommitCount());
+    }
+
+    private static Booking booking(int id) {
+        Customer customer = new Customer(id, "Customer " + id, "984000000", "customer@gmail.com", false);
+        Flight flight = new Flight(1, "KPL1", "Nepal", "China", LocalDate.now().plusDays(30), 1000, false, 1000);
+        return new Booking(id, customer, flight, LocalDate.now(), false, FlightClass.ECONOMY_CLASS);
+    }
+}
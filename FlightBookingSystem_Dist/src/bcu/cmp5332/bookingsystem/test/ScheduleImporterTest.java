@@ -0,0 +1,106 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.data.FlightBookingSystemData;
+import bcu.cmp5332.bookingsystem.data.ScheduleImporter;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+class ScheduleImporterTest {
+
+	@Test
+    public void testImportsValidRowsAndReportsTheRest() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "KPL1", "KTM", "PEK", LocalDate.parse("2031-01-01"), 100, false, 1000));
+        String csv = "flight_number,origin,destination,departure_date,capacity,price\n"
+                + "KPL1,KTM,PEK,2031-01-02,100,1000\n"
+                + "KPL1,KTM,PEK,2031-01-01,100,1000\n"
+                + "KPL2,KTM,DEL,2031-01-01,50,99.5\n"
+                + "\n"
+                + "KPL3,KTM,DEL,2031-02-30,50,99.5\n"
+                + "KPL4,KTM,KTM,2031-01-01,50,99.5\n"
+                + "KPL5,KTM,DEL,2031-01-01,0,99.5\n"
+                + "KPL6,KTM,DEL,2031-01-01,50\n"
+                + "KPL7,KTM,DEL,2031-01-01,50,-1\n"
+                + "KPL2,KTM,DEL,2031-01-01,50,99.5\n"
+                + "KPL8,KTM,DEL,2031-01-01,50,99.5\n";
+        StringWriter rejects = new StringWriter();
+
+        ScheduleImporter importer = new ScheduleImporter(fbs, 2);
+        boolean wasDeferred = FlightBookingSystemData.isDeferred();
+        FlightBookingSystemData.setDeferred(true);
+        try {
+            assertEquals(3, importer.importSchedule(new BufferedReader(new StringReader(csv)), rejects));
+        } finally {
+            FlightBookingSystemData.setDeferred(wasDeferred);
+        }
+
+        assertEquals(3, importer.getImported());
+        assertEquals(7, importer.getRejected());
+        assertEquals(4, fbs.getFlights().size());
+        assertNotNull(fbs.getFlightByNumberAndDate("KPL1", LocalDate.parse("2031-01-02")));
+        assertEquals(99.5, fbs.getFlightByNumberAndDate("KPL2", LocalDate.parse("2031-01-01")).getPrice());
+        assertNotNull(fbs.getFlightByNumberAndDate("KPL8", LocalDate.parse("2031-01-01")));
+        String[] rejected = rejects.toString().split(System.lineSeparator());
+        assertEquals(7, rejected.length);
+        // the duplicate of a flight in the system, and of one imported in an earlier batch
+        assertTrue(rejected[0].startsWith("Line 3: "));
+        assertTrue(rejected[6].startsWith("Line 11: "));
+        assertTrue(rejected[6].endsWith("Row: KPL2,KTM,DEL,2031-01-01,50,99.5"));
+    }
+
+    @Test
+    public void testFlightAddedDuringTheImportIsRejected() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        // the importer reads two chunks per worker ahead, so this line is read once the first chunk is checked
+        int added = 4096 * 2 * Math.max(1, Runtime.getRuntime().availableProcessors()) + 1;
+        BufferedReader csv = new BufferedReader(new StringReader("")) {
+            private int lineNumber;
+
+            @Override
+            public String readLine() throws IOException {
+                lineNumber++;
+                if (lineNumber == added) {
+                    try {
+                        fbs.addFlight(new Flight(1, "KPL1", "KTM", "PEK", LocalDate.parse("2031-01-01"), 100, false, 1000));
+                    } catch (FlightBookingSystemException ex) {
+                        throw new IOException(ex);
+                    }
+                }
+                if (lineNumber == 1) {
+                    return "KPL1,KTM,PEK,2031-01-01,100,1000";
+                }
+                if (lineNumber == 2) {
+                    return "KPL2,KTM,DEL,2031-01-01,50,99.5";
+                }
+                return lineNumber <= added ? "" : null;
+            }
+        };
+        StringWriter rejects = new StringWriter();
+
+        ScheduleImporter importer = new ScheduleImporter(fbs, 10);
+        boolean wasDeferred = FlightBookingSystemData.isDeferred();
+        FlightBookingSystemData.setDeferred(true);
+        try {
+            assertEquals(1, importer.importSchedule(csv, rejects));
+        } finally {
+            FlightBookingSystemData.setDeferred(wasDeferred);
+        }
+
+        assertEquals(1, importer.getRejected());
+        assertTrue(rejects.toString().startsWith("Line 1: A flight with number KPL1"));
+        assertEquals(2, fbs.getFlights().size());
+        assertEquals(1, fbs.getFlightByNumberAndDate("KPL1", LocalDate.parse("2031-01-01")).getId());
+        assertEquals(2, fbs.getFlightByNumberAndDate("KPL2", LocalDate.parse("2031-01-01")).getId());
+    }
+}
@@ -0,0 +1,103 @@
+package bcu.cmp5332.bookingsystem.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bcu.cmp5332.bookingsystem.commands.ListCustomers;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.Flight.FlightClass;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem.EntitySet;
+import bcu.cmp5332.bookingsystem.model.SystemSnapshot;
+
+class SystemSnapshotTest {
+
+	@Test
+    public void testSnapshotKeepsItsVersion() throws Exception {
+        FlightBookingSystem fbs = system();
+        SystemSnapshot before = fbs.snapshot();
+        long bookings = fbs.getVersion(EntitySet.BOOKINGS);
+        assertEquals(bookings, before.getVersion(EntitySet.BOOKINGS));
+
+        fbs.cancelBooking(fbs.getBookings().get(0), 0);
+        fbs.deleteFlight(fbs.getFlightByID(2));
+        fbs.addCustomer(new Customer(4, "Customer 4", "98400004", "customer4@gmail.com", false));
+
+        assertEquals(3, before.getFlights().size());
+        assertEquals(3, before.getCustomers().size());
+        assertEquals(3, before.getBookings().size());
+        assertEquals(bookings, before.getVersion(EntitySet.BOOKINGS));
+        assertTrue(fbs.getVersion(EntitySet.BOOKINGS) > bookings);
+
+        SystemSnapshot after = fbs.snapshot();
+        assertEquals(2, after.getFlights().size());
+        assertEquals(4, after.getCustomers().size());
+        assertEquals(2, after.getBookings().size());
+    }
+
+    @Test
+    public void testSnapshotListsCannotBeChanged() throws Exception {
+        SystemSnapshot snapshot = system().snapshot();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getFlights().clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCustomers().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getBookings().add(null));
+    }
+
+    @Test
+    public void testListCanBeReadWhileItChanges() throws Exception {
+        FlightBookingSystem fbs = system();
+
+        // deleting every customer while the live list is being read neither fails nor skips one
+        List<Integer> read = new ArrayList<>();
+        for (Customer customer : fbs.getCustomers()) {
+            read.add(customer.getId());
+            fbs.deleteCustomer(customer);
+        }
+
+        assertEquals(3, read.size());
+        assertTrue(fbs.getCustomers().isEmpty());
+    }
+
+    @Test
+    public void testListCommandPrintsOneVersion() throws Exception {
+        FlightBookingSystem fbs = system();
+        fbs.deleteCustomer(fbs.getCustomerByID(2));
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true, "UTF-8"));
+        try {
+            new ListCustomers().execute(fbs);
+        } finally {
+            System.setOut(out);
+        }
+
+        String listing = printed.toString("UTF-8");
+        assertTrue(listing.contains("Customer 1"));
+        assertFalse(listing.contains("Customer 2"));
+        assertTrue(listing.contains("Customer 3"));
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= 3; id++) {
+            fbs.addFlight(new Flight(id, "KPL" + id, "Nepal", "China", LocalDate.now().plusDays(30), 10, false, 1000));
+            fbs.addCustomer(new Customer(id, "Customer " + id, "9840000" + id, "customer" + id + "@gmail.com", false));
+        }
+        for (int id = 1; id <= 3; id++) {
+            fbs.addBooking(new Booking(fbs.getCustomerByID(id), fbs.getFlightByID(id), LocalDate.now(), false,
+                    FlightClass.ECONOMY_CLASS));
+        }
+        return fbs;
+    }
+}